@@ -1,14 +1,17 @@
 package com.contoso.roadinfra.alert.config;
 
+import com.contoso.roadinfra.common.concurrent.TaskExecutors;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
 
 /**
  * Configuration for scheduled tasks and async processing.
+ * The scheduler runs on virtual threads when {@code spring.threads.virtual.enabled} is set.
  */
 @Configuration
 @EnableScheduling
@@ -16,12 +19,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 public class SchedulerConfig {
 
     @Bean
-    public TaskScheduler taskScheduler() {
-        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(5);
-        scheduler.setThreadNamePrefix("alert-scheduler-");
-        scheduler.setWaitForTasksToCompleteOnShutdown(true);
-        scheduler.setAwaitTerminationSeconds(30);
-        return scheduler;
+    public TaskScheduler taskScheduler(TaskExecutors taskExecutors) {
+        return taskExecutors.scheduler("alert-scheduler-", 5, Duration.ofSeconds(30));
     }
 }
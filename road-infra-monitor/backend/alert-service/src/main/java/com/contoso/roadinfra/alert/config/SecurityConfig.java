@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.alert.config;
 
+import com.contoso.roadinfra.common.security.CachingJwtDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -56,9 +57,9 @@ public class SecurityConfig {
         // Use raw bytes to match auth-service's HS512 signing
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA512");
-        return NimbusJwtDecoder.withSecretKey(key)
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key)
                 .macAlgorithm(org.springframework.security.oauth2.jose.jws.MacAlgorithm.HS512)
-                .build();
+                .build());
     }
 
     @Bean
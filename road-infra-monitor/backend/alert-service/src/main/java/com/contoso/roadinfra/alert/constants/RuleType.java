@@ -0,0 +1,15 @@
+package com.contoso.roadinfra.alert.constants;
+
+/**
+ * How an alert rule is evaluated.
+ */
+public enum RuleType {
+    /** Single reading compared against the rule's threshold(s) */
+    THRESHOLD,
+
+    /** Least-squares slope of a sensor's readings over the window, in units per minute */
+    RATE_OF_CHANGE,
+
+    /** Two sensor types on the same asset both meeting their conditions within the window */
+    CORRELATION
+}
@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.alert.entity;
 
+import com.contoso.roadinfra.alert.constants.RuleType;
 import com.contoso.roadinfra.common.constants.AlertSeverity;
 import com.contoso.roadinfra.common.constants.AssetType;
 import com.contoso.roadinfra.common.constants.SensorType;
@@ -50,6 +51,12 @@ public class AlertRule {
     @Column(name = "metric_name")
     private String metricName;
 
+    /** Evaluation type; rows created before windowed rules existed are THRESHOLD rules */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type")
+    @Builder.Default
+    private RuleType ruleType = RuleType.THRESHOLD;
+
     /** Operator: GT, LT, GTE, LTE, EQ, NEQ, BETWEEN, OUTSIDE */
     @Column(nullable = false)
     private String operator;
@@ -65,6 +72,23 @@ public class AlertRule {
     /** Unit of measurement */
     private String unit;
 
+    /** Sliding window length for RATE_OF_CHANGE and CORRELATION rules */
+    @Column(name = "window_seconds")
+    private Integer windowSeconds;
+
+    /** Second sensor type of a CORRELATION rule */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "correlated_sensor_type")
+    private SensorType correlatedSensorType;
+
+    /** Operator for the correlated sensor (defaults to the rule operator) */
+    @Column(name = "correlated_operator")
+    private String correlatedOperator;
+
+    /** Threshold for the correlated sensor */
+    @Column(name = "correlated_threshold_value")
+    private Double correlatedThresholdValue;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AlertSeverity severity;
@@ -124,21 +148,40 @@ public class AlertRule {
      * Evaluate if a value triggers this rule.
      */
     public boolean evaluate(Double value) {
-        if (value == null || thresholdValue == null) {
+        return compare(operator, value, thresholdValue, thresholdValueSecondary);
+    }
+
+    /**
+     * Evaluate if a value from the correlated sensor meets its side of a CORRELATION rule.
+     */
+    public boolean evaluateCorrelated(Double value) {
+        return compare(correlatedOperator != null ? correlatedOperator : operator,
+                value, correlatedThresholdValue, null);
+    }
+
+    /**
+     * Whether this rule is evaluated over a sliding window rather than per reading.
+     */
+    public boolean isWindowed() {
+        return ruleType == RuleType.RATE_OF_CHANGE || ruleType == RuleType.CORRELATION;
+    }
+
+    private static boolean compare(String operator, Double value, Double threshold, Double secondary) {
+        if (value == null || threshold == null) {
             return false;
         }
-        
+
         return switch (operator.toUpperCase()) {
-            case "GT" -> value > thresholdValue;
-            case "LT" -> value < thresholdValue;
-            case "GTE" -> value >= thresholdValue;
-            case "LTE" -> value <= thresholdValue;
-            case "EQ" -> Math.abs(value - thresholdValue) < 0.0001;
-            case "NEQ" -> Math.abs(value - thresholdValue) >= 0.0001;
-            case "BETWEEN" -> thresholdValueSecondary != null && 
-                    value >= thresholdValue && value <= thresholdValueSecondary;
-            case "OUTSIDE" -> thresholdValueSecondary != null && 
-                    (value < thresholdValue || value > thresholdValueSecondary);
+            case "GT" -> value > threshold;
+            case "LT" -> value < threshold;
+            case "GTE" -> value >= threshold;
+            case "LTE" -> value <= threshold;
+            case "EQ" -> Math.abs(value - threshold) < 0.0001;
+            case "NEQ" -> Math.abs(value - threshold) >= 0.0001;
+            case "BETWEEN" -> secondary != null &&
+                    value >= threshold && value <= secondary;
+            case "OUTSIDE" -> secondary != null &&
+                    (value < threshold || value > secondary);
             default -> false;
         };
     }
@@ -6,13 +6,15 @@ import com.contoso.roadinfra.alert.entity.Alert;
 import com.contoso.roadinfra.alert.entity.AlertRule;
 import com.contoso.roadinfra.alert.repository.AlertRepository;
 import com.contoso.roadinfra.alert.repository.AlertRuleRepository;
-import com.contoso.roadinfra.alert.service.EscalationService;
 import com.contoso.roadinfra.alert.service.NotificationService;
+import com.contoso.roadinfra.alert.service.RuleAlertService;
 import com.contoso.roadinfra.common.constants.AlertSeverity;
 import com.contoso.roadinfra.common.constants.AssetType;
 import com.contoso.roadinfra.common.constants.SensorType;
 import com.contoso.roadinfra.common.dto.AlertDTO;
 import com.contoso.roadinfra.alert.mapper.AlertMapper;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -24,7 +26,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -39,13 +40,14 @@ public class SensorAlertConsumer {
     private final AlertRuleRepository ruleRepository;
     private final AlertMapper alertMapper;
     private final NotificationService notificationService;
-    private final EscalationService escalationService;
+    private final RuleAlertService ruleAlertService;
     private final SimpMessagingTemplate messagingTemplate;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
 
     @KafkaListener(topics = "sensor-alerts", groupId = "alert-service-group",
             containerFactory = "kafkaListenerContainerFactory")
+    @StageTimed(stage = Stage.CONSUME, operation = "sensor-alert")
     public void consumeSensorAlert(String message) {
         try {
             JsonNode node = objectMapper.readTree(message);
@@ -69,7 +71,7 @@ public class SensorAlertConsumer {
 
             for (AlertRule rule : rules) {
                 if (rule.evaluate(value)) {
-                    processRuleMatch(rule, sensorId, assetId, sensorName, assetName, value);
+                    ruleAlertService.raise(rule, sensorId, assetId, sensorName, assetName, value, null);
                 } else {
                     // Check for auto-resolve
                     checkAutoResolve(rule, sensorId);
@@ -105,62 +107,6 @@ public class SensorAlertConsumer {
         }
     }
 
-    private void processRuleMatch(AlertRule rule, UUID sensorId, UUID assetId, 
-                                   String sensorName, String assetName, Double value) {
-        // Check cooldown
-        LocalDateTime cooldownCutoff = LocalDateTime.now().minusMinutes(rule.getCooldownMinutes());
-        Optional<Alert> recentAlert = alertRepository.findRecentByRuleAndAsset(
-                rule.getId(), assetId, cooldownCutoff);
-
-        if (recentAlert.isPresent()) {
-            log.debug("Skipping alert for rule {} - in cooldown period", rule.getCode());
-            return;
-        }
-
-        // Create new alert
-        Alert alert = Alert.builder()
-                .alertCode(rule.getCode())
-                .ruleId(rule.getId())
-                .title(rule.generateTitle(sensorName, assetName, value))
-                .description(rule.generateDescription(sensorName, assetName, value))
-                .severity(rule.getSeverity())
-                .originalSeverity(rule.getSeverity())
-                .sourceType(SourceType.SENSOR)
-                .category(rule.getCategory())
-                .assetId(assetId)
-                .assetName(assetName)
-                .sensorId(sensorId)
-                .sensorName(sensorName)
-                .triggerValue(value)
-                .thresholdValue(rule.getThresholdValue())
-                .unit(rule.getUnit())
-                .alertStatus(AlertStatus.OPEN)
-                .status("OPEN")
-                .escalationLevel(0)
-                .triggeredAt(LocalDateTime.now())
-                .build();
-
-        Alert saved = alertRepository.save(alert);
-        log.info("Created alert: {} (code: {}, severity: {})", saved.getId(), rule.getCode(), rule.getSeverity());
-
-        // Broadcast via WebSocket
-        AlertDTO dto = alertMapper.toDto(saved);
-        messagingTemplate.convertAndSend("/topic/alerts", dto);
-
-        // Send Kafka event
-        kafkaTemplate.send("alert-events", "alert.created", dto);
-
-        // Send notifications for high-severity alerts
-        if (rule.getSeverity().isHigherThan(AlertSeverity.LOW)) {
-            notificationService.sendNotifications(dto);
-        }
-
-        // Schedule escalation if configured
-        if (rule.getEscalationMinutes() != null) {
-            escalationService.scheduleEscalation(saved.getId(), rule.getEscalationMinutes());
-        }
-    }
-
     private void createHealthAlert(UUID assetId, String assetName, Double healthScore, AlertSeverity severity) {
         Alert alert = Alert.builder()
                 .alertCode("HEALTH_STATUS_CHANGE")
@@ -0,0 +1,87 @@
+package com.contoso.roadinfra.alert.kafka;
+
+import com.contoso.roadinfra.alert.rules.RuleMatch;
+import com.contoso.roadinfra.alert.rules.WindowedReading;
+import com.contoso.roadinfra.alert.rules.WindowedRuleEngine;
+import com.contoso.roadinfra.alert.service.RuleAlertService;
+import com.contoso.roadinfra.common.constants.AssetType;
+import com.contoso.roadinfra.common.constants.SensorType;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds every sensor reading from the telemetry stream into the windowed rule engine.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SensorTelemetryConsumer {
+
+    private final WindowedRuleEngine ruleEngine;
+    private final RuleAlertService ruleAlertService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "sensor-telemetry", groupId = "alert-service-group",
+            containerFactory = "kafkaListenerContainerFactory")
+    @StageTimed(stage = Stage.CONSUME, operation = "sensor-telemetry")
+    public void consumeTelemetry(String message) {
+        try {
+            JsonNode node = objectMapper.readTree(message);
+            JsonNode reading = node.get("reading");
+            if (reading == null || !reading.hasNonNull("value") || !reading.hasNonNull("sensorId")) {
+                return;
+            }
+
+            WindowedReading windowed = new WindowedReading(
+                    UUID.fromString(reading.get("sensorId").asText()),
+                    node.has("sensorCode") ? node.get("sensorCode").asText() : "Unknown Sensor",
+                    parseEnum(SensorType.class, node.get("sensorType")),
+                    node.hasNonNull("assetId") ? UUID.fromString(node.get("assetId").asText()) : null,
+                    parseEnum(AssetType.class, node.get("assetType")),
+                    reading.get("value").asDouble(),
+                    reading.hasNonNull("unit") ? reading.get("unit").asText() : null,
+                    parseTimestamp(reading.get("timestamp")));
+
+            List<RuleMatch> matches = ruleEngine.onReading(windowed);
+            for (RuleMatch match : matches) {
+                ruleAlertService.raise(match.rule(), match.sensorId(), match.assetId(),
+                        match.sensorName(), null, match.value(), match.detail());
+            }
+        } catch (Exception e) {
+            log.error("Error processing sensor telemetry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Readings carry an ISO-8601 timestamp or, with Jackson's default settings,
+     * fractional epoch seconds.
+     */
+    private long parseTimestamp(JsonNode timestamp) {
+        if (timestamp == null || timestamp.isNull()) {
+            return System.currentTimeMillis();
+        }
+        if (timestamp.isNumber()) {
+            return (long) (timestamp.asDouble() * 1000);
+        }
+        return Instant.parse(timestamp.asText()).toEpochMilli();
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, JsonNode node) {
+        if (node == null || node.isNull()) return null;
+        try {
+            return Enum.valueOf(type, node.asText());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
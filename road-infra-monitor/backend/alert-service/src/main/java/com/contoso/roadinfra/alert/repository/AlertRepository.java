@@ -75,6 +75,20 @@ public interface AlertRepository extends JpaRepository<Alert, UUID> {
             @Param("assetId") UUID assetId,
             @Param("since") LocalDateTime since);
 
+    // Find recent alert by sensor and code (for cooldown of rule-less alerts)
+    @Query("""
+        SELECT a FROM Alert a 
+        WHERE a.sensorId = :sensorId 
+        AND a.alertCode = :alertCode
+        AND a.triggeredAt > :since
+        ORDER BY a.triggeredAt DESC
+        LIMIT 1
+        """)
+    Optional<Alert> findRecentBySensorAndCode(
+            @Param("sensorId") UUID sensorId,
+            @Param("alertCode") String alertCode,
+            @Param("since") LocalDateTime since);
+
     // Count active alerts by asset type
     @Query("""
         SELECT COUNT(a) FROM Alert a 
@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.alert.repository;
 
+import com.contoso.roadinfra.alert.constants.RuleType;
 import com.contoso.roadinfra.alert.entity.AlertRule;
 import com.contoso.roadinfra.common.constants.AssetType;
 import com.contoso.roadinfra.common.constants.SensorType;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +36,7 @@ public interface AlertRuleRepository extends JpaRepository<AlertRule, UUID> {
         AND (r.assetType IS NULL OR r.assetType = :assetType)
         AND (r.sensorType IS NULL OR r.sensorType = :sensorType)
         AND (r.metricName IS NULL OR r.metricName = :metricName)
+        AND (r.ruleType IS NULL OR r.ruleType = com.contoso.roadinfra.alert.constants.RuleType.THRESHOLD)
         ORDER BY r.priority ASC
         """)
     List<AlertRule> findMatchingRules(
@@ -41,6 +44,8 @@ public interface AlertRuleRepository extends JpaRepository<AlertRule, UUID> {
             @Param("sensorType") SensorType sensorType,
             @Param("metricName") String metricName);
 
+    List<AlertRule> findByRuleTypeInAndEnabledTrueOrderByPriorityAsc(Collection<RuleType> ruleTypes);
+
     boolean existsByCode(String code);
 
     @Query("SELECT r FROM AlertRule r WHERE r.enabled = true ORDER BY r.priority ASC")
@@ -0,0 +1,72 @@
+package com.contoso.roadinfra.alert.rules;
+
+import java.util.UUID;
+
+/**
+ * Sliding window for one CORRELATION rule on one asset.
+ *
+ * Only the most recent qualifying reading from each side is needed to decide whether
+ * both conditions held within the window, so the state per key is constant.
+ */
+final class CorrelationWindow {
+
+    private final long windowMillis;
+
+    private long primaryMillis = Long.MIN_VALUE;
+    private double primaryValue;
+    private UUID primarySensorId;
+
+    private long correlatedMillis = Long.MIN_VALUE;
+    private double correlatedValue;
+    private UUID correlatedSensorId;
+
+    private long lastSeenMillis;
+
+    CorrelationWindow(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Record a qualifying reading from either side and report whether both sides now
+     * have a qualifying reading within the window of each other. A match consumes both
+     * sides, so the same pair of readings only matches once.
+     *
+     * @return the match, or {@code null}
+     */
+    synchronized Match record(boolean primary, UUID sensorId, double value, long epochMillis) {
+        lastSeenMillis = Math.max(lastSeenMillis, epochMillis);
+        if (primary) {
+            if (epochMillis >= primaryMillis) {
+                primaryMillis = epochMillis;
+                primaryValue = value;
+                primarySensorId = sensorId;
+            }
+        } else if (epochMillis >= correlatedMillis) {
+            correlatedMillis = epochMillis;
+            correlatedValue = value;
+            correlatedSensorId = sensorId;
+        }
+
+        if (primaryMillis == Long.MIN_VALUE || correlatedMillis == Long.MIN_VALUE
+                || Math.abs(primaryMillis - correlatedMillis) > windowMillis) {
+            return null;
+        }
+        Match match = new Match(primarySensorId, primaryValue, correlatedSensorId, correlatedValue,
+                Math.abs(primaryMillis - correlatedMillis));
+        primaryMillis = Long.MIN_VALUE;
+        correlatedMillis = Long.MIN_VALUE;
+        return match;
+    }
+
+    synchronized long lastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    long windowMillis() {
+        return windowMillis;
+    }
+
+    record Match(UUID primarySensorId, double primaryValue,
+                 UUID correlatedSensorId, double correlatedValue, long gapMillis) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.contoso.roadinfra.alert.rules;
+
+/**
+ * Bounded sliding window of one sensor's readings that maintains the least-squares
+ * slope incrementally.
+ *
+ * Samples live in a ring buffer alongside running sums of t, v, t*t and t*v, so adding
+ * a reading and evicting expired ones costs O(1) per sample. Times are held in seconds
+ * relative to a base that is moved forward (recomputing the sums) once it falls far
+ * behind, which keeps the sums small and bounds floating-point drift.
+ */
+final class RateOfChangeWindow {
+
+    private static final long REBASE_AFTER_MILLIS = 3_600_000L;
+    private static final int MIN_SAMPLES = 3;
+
+    private final long windowMillis;
+    private final long rebaseAfterMillis;
+    private final long[] times;
+    private final double[] values;
+    private int head;
+    private int size;
+
+    private long baseMillis;
+    private double sumT;
+    private double sumV;
+    private double sumTT;
+    private double sumTV;
+    private long lastSeenMillis;
+
+    RateOfChangeWindow(long windowMillis, int capacity) {
+        this.windowMillis = windowMillis;
+        this.rebaseAfterMillis = Math.max(REBASE_AFTER_MILLIS, 2 * windowMillis);
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Add a reading and return the slope over the window in units per minute, or
+     * {@link Double#NaN} while the window does not yet hold enough history.
+     * Readings older than the newest one already held are ignored.
+     */
+    synchronized double add(long epochMillis, double value) {
+        if (size > 0 && epochMillis < newestMillis()) {
+            return Double.NaN;
+        }
+        lastSeenMillis = epochMillis;
+
+        evictBefore(epochMillis - windowMillis);
+        if (size == times.length) {
+            evictOldest();
+        }
+
+        if (size == 0) {
+            resetSums(epochMillis);
+        } else if (epochMillis - baseMillis > rebaseAfterMillis) {
+            rebase(oldestMillis());
+        }
+
+        int tail = (head + size) % times.length;
+        times[tail] = epochMillis;
+        values[tail] = value;
+        size++;
+        double t = (epochMillis - baseMillis) / 1000.0;
+        sumT += t;
+        sumV += value;
+        sumTT += t * t;
+        sumTV += t * value;
+
+        // Only report once the samples cover at least half of the window
+        if (size < MIN_SAMPLES || newestMillis() - oldestMillis() < windowMillis / 2) {
+            return Double.NaN;
+        }
+        double denominator = size * sumTT - sumT * sumT;
+        if (denominator <= 0) {
+            return Double.NaN;
+        }
+        double slopePerSecond = (size * sumTV - sumT * sumV) / denominator;
+        return slopePerSecond * 60.0;
+    }
+
+    synchronized long lastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    long windowMillis() {
+        return windowMillis;
+    }
+
+    private void evictBefore(long cutoffMillis) {
+        while (size > 0 && times[head] < cutoffMillis) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        double t = (times[head] - baseMillis) / 1000.0;
+        double v = values[head];
+        sumT -= t;
+        sumV -= v;
+        sumTT -= t * t;
+        sumTV -= t * v;
+        head = (head + 1) % times.length;
+        size--;
+    }
+
+    private void resetSums(long newBaseMillis) {
+        baseMillis = newBaseMillis;
+        sumT = 0;
+        sumV = 0;
+        sumTT = 0;
+        sumTV = 0;
+    }
+
+    private void rebase(long newBaseMillis) {
+        resetSums(newBaseMillis);
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % times.length;
+            double t = (times[index] - baseMillis) / 1000.0;
+            sumT += t;
+            sumV += values[index];
+            sumTT += t * t;
+            sumTV += t * values[index];
+        }
+    }
+
+    private long oldestMillis() {
+        return times[head];
+    }
+
+    private long newestMillis() {
+        return times[(head + size - 1) % times.length];
+    }
+}
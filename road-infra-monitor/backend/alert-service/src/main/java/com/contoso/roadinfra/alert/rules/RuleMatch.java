@@ -0,0 +1,20 @@
+package com.contoso.roadinfra.alert.rules;
+
+import com.contoso.roadinfra.alert.entity.AlertRule;
+
+import java.util.UUID;
+
+/**
+ * A windowed rule whose condition has been met.
+ *
+ * @param value  the value compared against the rule threshold (slope per minute for
+ *               RATE_OF_CHANGE, the primary sensor's reading for CORRELATION)
+ * @param detail human-readable description of what was observed
+ */
+public record RuleMatch(AlertRule rule,
+                        UUID sensorId,
+                        String sensorName,
+                        UUID assetId,
+                        double value,
+                        String detail) {
+}
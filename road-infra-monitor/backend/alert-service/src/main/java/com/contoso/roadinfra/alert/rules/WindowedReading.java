@@ -0,0 +1,19 @@
+package com.contoso.roadinfra.alert.rules;
+
+import com.contoso.roadinfra.common.constants.AssetType;
+import com.contoso.roadinfra.common.constants.SensorType;
+
+import java.util.UUID;
+
+/**
+ * A single sensor reading as seen by the windowed rule engine.
+ */
+public record WindowedReading(UUID sensorId,
+                              String sensorName,
+                              SensorType sensorType,
+                              UUID assetId,
+                              AssetType assetType,
+                              double value,
+                              String unit,
+                              long epochMillis) {
+}
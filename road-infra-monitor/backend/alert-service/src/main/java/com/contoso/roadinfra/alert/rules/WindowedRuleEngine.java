@@ -0,0 +1,219 @@
+package com.contoso.roadinfra.alert.rules;
+
+import com.contoso.roadinfra.alert.constants.RuleType;
+import com.contoso.roadinfra.alert.entity.AlertRule;
+import com.contoso.roadinfra.alert.repository.AlertRuleRepository;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates RATE_OF_CHANGE and CORRELATION rules incrementally, one reading at a time.
+ *
+ * Each (rule, sensor) or (rule, asset) pair gets a bounded in-memory sliding window, so
+ * a reading is evaluated without going back to stored history. Rule definitions come
+ * from {@code alert_rules} and are reloaded periodically; windows that stop receiving
+ * readings are evicted. Window state is per instance, so all readings of an asset must
+ * reach the same instance: the sensor service keys the telemetry topic by asset, and
+ * a partition is consumed by one instance at a time.
+ *
+ * Windows run on the readings' own timestamps, and so does idle eviction: a window is
+ * idle once the newest reading the engine has seen is two window lengths past the
+ * window's last reading. Delayed or replayed telemetry is therefore not evicted while
+ * it is being processed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WindowedRuleEngine {
+
+    private static final long DEFAULT_WINDOW_SECONDS = 300;
+
+    private final AlertRuleRepository ruleRepository;
+
+    private final Map<WindowKey, RateOfChangeWindow> rateWindows = new ConcurrentHashMap<>();
+    private final Map<WindowKey, CorrelationWindow> correlationWindows = new ConcurrentHashMap<>();
+    private final AtomicLong latestEventMillis = new AtomicLong(Long.MIN_VALUE);
+    private volatile List<AlertRule> rules = List.of();
+    private volatile boolean capacityWarned;
+
+    @Value("${alert.windowed-rules.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${alert.windowed-rules.max-samples-per-window:600}")
+    private int maxSamplesPerWindow;
+
+    /**
+     * Reload windowed rule definitions (every minute by default). Windows belonging to
+     * rules that were removed, disabled or resized are dropped.
+     */
+    @Scheduled(fixedDelayString = "${alert.windowed-rules.refresh-interval-ms:60000}")
+    public void refreshRules() {
+        List<AlertRule> loaded = ruleRepository.findByRuleTypeInAndEnabledTrueOrderByPriorityAsc(
+                EnumSet.of(RuleType.RATE_OF_CHANGE, RuleType.CORRELATION));
+
+        Map<UUID, Long> windowByRule = new HashMap<>();
+        for (AlertRule rule : loaded) {
+            windowByRule.put(rule.getId(), windowMillis(rule));
+        }
+        rateWindows.entrySet().removeIf(e ->
+                !Long.valueOf(e.getValue().windowMillis()).equals(windowByRule.get(e.getKey().ruleId())));
+        correlationWindows.entrySet().removeIf(e ->
+                !Long.valueOf(e.getValue().windowMillis()).equals(windowByRule.get(e.getKey().ruleId())));
+
+        if (loaded.size() != rules.size()) {
+            log.info("Loaded {} windowed alert rules", loaded.size());
+        }
+        rules = List.copyOf(loaded);
+    }
+
+    /**
+     * Fold a reading into every applicable window.
+     *
+     * @return the rules whose conditions are now met
+     */
+    @StageTimed(stage = Stage.ALERT, operation = "windowed-rules")
+    public List<RuleMatch> onReading(WindowedReading reading) {
+        List<AlertRule> current = rules;
+        if (current.isEmpty()) {
+            return List.of();
+        }
+        latestEventMillis.accumulateAndGet(reading.epochMillis(), Math::max);
+
+        List<RuleMatch> matches = new ArrayList<>(0);
+        for (AlertRule rule : current) {
+            if (!appliesTo(rule, reading)) {
+                continue;
+            }
+            RuleMatch match = rule.getRuleType() == RuleType.RATE_OF_CHANGE
+                    ? evaluateRateOfChange(rule, reading)
+                    : evaluateCorrelation(rule, reading);
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Drop windows whose last reading is more than two window lengths older than the
+     * newest reading seen (every minute).
+     */
+    @Scheduled(fixedDelayString = "${alert.windowed-rules.eviction-interval-ms:60000}")
+    public void evictIdleWindows() {
+        long now = latestEventMillis.get();
+        if (now == Long.MIN_VALUE) {
+            return;
+        }
+        int before = rateWindows.size() + correlationWindows.size();
+        rateWindows.values().removeIf(w -> now - w.lastSeenMillis() > 2 * w.windowMillis());
+        correlationWindows.values().removeIf(w -> now - w.lastSeenMillis() > 2 * w.windowMillis());
+        int evicted = before - rateWindows.size() - correlationWindows.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rule windows", evicted);
+        }
+        capacityWarned = false;
+    }
+
+    private RuleMatch evaluateRateOfChange(AlertRule rule, WindowedReading reading) {
+        if (rule.getSensorType() != null && rule.getSensorType() != reading.sensorType()) {
+            return null;
+        }
+        RateOfChangeWindow window = windowFor(rateWindows, new WindowKey(rule.getId(), reading.sensorId()),
+                () -> new RateOfChangeWindow(windowMillis(rule), maxSamplesPerWindow));
+        if (window == null) {
+            return null;
+        }
+
+        double perMinute = window.add(reading.epochMillis(), reading.value());
+        if (Double.isNaN(perMinute) || !rule.evaluate(perMinute)) {
+            return null;
+        }
+        String unit = reading.unit() != null ? reading.unit() : "";
+        String detail = String.format("%s changing at %.3f %s/min over the last %d s (rule %s: %s %.3f %s/min)",
+                reading.sensorName(), perMinute, unit, windowMillis(rule) / 1000,
+                rule.getCode(), rule.getOperator(), rule.getThresholdValue(), unit);
+        return new RuleMatch(rule, reading.sensorId(), reading.sensorName(), reading.assetId(), perMinute, detail);
+    }
+
+    private RuleMatch evaluateCorrelation(AlertRule rule, WindowedReading reading) {
+        if (reading.assetId() == null || rule.getSensorType() == null || rule.getCorrelatedSensorType() == null) {
+            return null;
+        }
+        boolean primary = reading.sensorType() == rule.getSensorType() && rule.evaluate(reading.value());
+        boolean correlated = reading.sensorType() == rule.getCorrelatedSensorType()
+                && rule.evaluateCorrelated(reading.value());
+        if (!primary && !correlated) {
+            return null;
+        }
+
+        CorrelationWindow window = windowFor(correlationWindows, new WindowKey(rule.getId(), reading.assetId()),
+                () -> new CorrelationWindow(windowMillis(rule)));
+        if (window == null) {
+            return null;
+        }
+
+        CorrelationWindow.Match match = null;
+        if (primary) {
+            match = window.record(true, reading.sensorId(), reading.value(), reading.epochMillis());
+        }
+        if (correlated && match == null) {
+            match = window.record(false, reading.sensorId(), reading.value(), reading.epochMillis());
+        }
+        if (match == null) {
+            return null;
+        }
+
+        String detail = String.format("%s %.2f and %s %.2f on the same asset within %.1f s (rule %s, window %d s)",
+                rule.getSensorType(), match.primaryValue(), rule.getCorrelatedSensorType(), match.correlatedValue(),
+                match.gapMillis() / 1000.0, rule.getCode(), windowMillis(rule) / 1000);
+        return new RuleMatch(rule, match.primarySensorId(), reading.sensorName(), reading.assetId(),
+                match.primaryValue(), detail);
+    }
+
+    private <W> W windowFor(Map<WindowKey, W> windows, WindowKey key, Supplier<W> factory) {
+        W window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (rateWindows.size() + correlationWindows.size() >= maxKeys) {
+            if (!capacityWarned) {
+                capacityWarned = true;
+                log.warn("Windowed rule engine holds {} windows, its configured maximum; new keys are ignored",
+                        maxKeys);
+            }
+            return null;
+        }
+        return windows.computeIfAbsent(key, k -> factory.get());
+    }
+
+    private static boolean appliesTo(AlertRule rule, WindowedReading reading) {
+        return (rule.getAssetType() == null || rule.getAssetType() == reading.assetType())
+                && (rule.getMetricName() == null || "value".equals(rule.getMetricName()));
+    }
+
+    private static long windowMillis(AlertRule rule) {
+        long seconds = rule.getWindowSeconds() != null && rule.getWindowSeconds() > 0
+                ? rule.getWindowSeconds()
+                : DEFAULT_WINDOW_SECONDS;
+        return Duration.ofSeconds(seconds).toMillis();
+    }
+
+    private record WindowKey(UUID ruleId, UUID subjectId) {
+    }
+}
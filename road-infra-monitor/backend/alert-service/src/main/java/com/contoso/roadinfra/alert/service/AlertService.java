@@ -1,5 +1,7 @@
 package com.contoso.roadinfra.alert.service;
 
+import com.contoso.roadinfra.alert.constants.AlertStatus;
+import com.contoso.roadinfra.alert.constants.SourceType;
 import com.contoso.roadinfra.alert.entity.Alert;
 import com.contoso.roadinfra.alert.mapper.AlertMapper;
 import com.contoso.roadinfra.alert.repository.AlertRepository;
@@ -8,6 +10,7 @@ import com.contoso.roadinfra.common.dto.AlertDTO;
 import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +36,11 @@ public class AlertService {
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final NotificationService notificationService;
 
+    static final String STATISTICAL_ANOMALY_CODE = "STATISTICAL_ANOMALY";
+
+    @Value("${alert.statistical-anomaly.cooldown-minutes:30}")
+    private long anomalyCooldownMinutes;
+
     @Transactional(readOnly = true)
     public AlertDTO getAlertById(UUID id) {
         Alert alert = alertRepository.findById(id)
@@ -69,12 +78,14 @@ public class AlertService {
         alert.setResolved(false);
         alert.setTriggeredAt(LocalDateTime.now());
 
-        Alert saved = alertRepository.save(alert);
+        return publishCreated(alertRepository.save(alert));
+    }
 
+    private AlertDTO publishCreated(Alert saved) {
         AlertDTO savedDto = alertMapper.toDto(saved);
         kafkaTemplate.send("alert-events", "alert.created", savedDto);
 
-        if (dto.getSeverity().isHigherThan(AlertSeverity.LOW)) {
+        if (saved.getSeverity().isHigherThan(AlertSeverity.LOW)) {
             notificationService.sendNotifications(savedDto);
         }
 
@@ -120,18 +131,60 @@ public class AlertService {
         return alertMapper.toDto(saved);
     }
 
+    /**
+     * Raise an alert for a reading the sensor service's streaming detector found
+     * anomalous, at most one per sensor per {@code alert.statistical-anomaly.cooldown-minutes}.
+     * A reading flagged by more than one detector is raised as HIGH, otherwise MEDIUM.
+     */
     @KafkaListener(topics = "sensor-anomalies", groupId = "alert-service-group")
     public void handleSensorAnomaly(Map<String, Object> anomaly) {
         log.info("Received sensor anomaly: {}", anomaly);
 
-        AlertDTO alert = AlertDTO.builder()
-                .title("Sensor anomaly detected")
-                .description("Anomalous reading detected from sensor")
-                .severity(AlertSeverity.HIGH)
+        UUID sensorId = uuid(anomaly.get("sensorId"));
+        if (sensorId == null) {
+            log.warn("Ignoring sensor anomaly without sensor id");
+            return;
+        }
+        LocalDateTime cooldownCutoff = LocalDateTime.now().minusMinutes(anomalyCooldownMinutes);
+        if (alertRepository.findRecentBySensorAndCode(sensorId, STATISTICAL_ANOMALY_CODE, cooldownCutoff).isPresent()) {
+            log.debug("Skipping anomaly alert for sensor {} - in cooldown period", sensorId);
+            return;
+        }
+
+        String sensorName = anomaly.get("sensorCode") != null ? anomaly.get("sensorCode").toString() : sensorId.toString();
+        List<String> signals = new ArrayList<>();
+        if (anomaly.get("signals") instanceof List<?> names) {
+            names.forEach(name -> signals.add(String.valueOf(name)));
+        }
+        Double value = number(anomaly.get("value"));
+        Double expected = number(anomaly.get("expectedValue"));
+        Double stdDeviation = number(anomaly.get("stdDeviation"));
+        Object unit = anomaly.get("unit");
+        AlertSeverity severity = signals.size() > 1 ? AlertSeverity.HIGH : AlertSeverity.MEDIUM;
+
+        Alert alert = Alert.builder()
+                .alertCode(STATISTICAL_ANOMALY_CODE)
+                .title("Anomalous reading from sensor " + sensorName)
+                .description(String.format("Sensor %s reported %.2f%s, expected %.2f ± %.2f (%s)",
+                        sensorName, orNaN(value), unit != null ? " " + unit : "", orNaN(expected),
+                        orNaN(stdDeviation), String.join(", ", signals)))
+                .severity(severity)
+                .originalSeverity(severity)
+                .sourceType(SourceType.SENSOR)
                 .category("ANOMALY")
+                .assetId(uuid(anomaly.get("assetId")))
+                .sensorId(sensorId)
+                .sensorName(sensorName)
+                .triggerValue(value)
+                .unit(unit != null ? unit.toString() : null)
+                .tags(signals)
+                .alertStatus(AlertStatus.OPEN)
+                .status("OPEN")
+                .escalationLevel(0)
+                .triggeredAt(LocalDateTime.now())
                 .build();
 
-        createAlert(alert);
+        publishCreated(alertRepository.save(alert));
     }
 
     @KafkaListener(topics = "health-status-changes", groupId = "alert-service-group")
@@ -140,6 +193,22 @@ public class AlertService {
         // Create alert based on health status degradation
     }
 
+    private static UUID uuid(Object value) {
+        try {
+            return value != null ? UUID.fromString(value.toString()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : null;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
     @Transactional(readOnly = true)
     public Map<String, Long> getAlertStatistics() {
         return Map.of(
@@ -1,6 +1,8 @@
 package com.contoso.roadinfra.alert.service;
 
 import com.contoso.roadinfra.common.dto.AlertDTO;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Service;
 public class NotificationService {
 
     @Async
+    @StageTimed(stage = Stage.NOTIFY, operation = "alert")
     public void sendNotifications(AlertDTO alert) {
         log.info("Sending notifications for alert: {}", alert.getTitle());
 
@@ -48,6 +51,7 @@ public class NotificationService {
      * Send escalation notification.
      */
     @Async
+    @StageTimed(stage = Stage.NOTIFY, operation = "escalation")
     public void sendEscalationNotification(AlertDTO alert, int escalationLevel) {
         log.info("Sending escalation notification for alert {} (level {})", alert.getId(), escalationLevel);
         
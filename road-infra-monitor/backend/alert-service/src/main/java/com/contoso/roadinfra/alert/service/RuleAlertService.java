@@ -0,0 +1,103 @@
+package com.contoso.roadinfra.alert.service;
+
+import com.contoso.roadinfra.alert.constants.AlertStatus;
+import com.contoso.roadinfra.alert.constants.SourceType;
+import com.contoso.roadinfra.alert.entity.Alert;
+import com.contoso.roadinfra.alert.entity.AlertRule;
+import com.contoso.roadinfra.alert.mapper.AlertMapper;
+import com.contoso.roadinfra.alert.repository.AlertRepository;
+import com.contoso.roadinfra.common.constants.AlertSeverity;
+import com.contoso.roadinfra.common.dto.AlertDTO;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Raises alerts for rules that have matched, honouring each rule's cooldown.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RuleAlertService {
+
+    private final AlertRepository alertRepository;
+    private final AlertMapper alertMapper;
+    private final NotificationService notificationService;
+    private final EscalationService escalationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * Create an alert for a rule match unless the rule is still cooling down for the asset.
+     *
+     * @param detail description used when the rule has no description template; may be null
+     */
+    @StageTimed(stage = Stage.ALERT, operation = "raise")
+    public void raise(AlertRule rule, UUID sensorId, UUID assetId,
+                      String sensorName, String assetName, Double value, String detail) {
+        // Check cooldown
+        LocalDateTime cooldownCutoff = LocalDateTime.now().minusMinutes(rule.getCooldownMinutes());
+        Optional<Alert> recentAlert = alertRepository.findRecentByRuleAndAsset(
+                rule.getId(), assetId, cooldownCutoff);
+
+        if (recentAlert.isPresent()) {
+            log.debug("Skipping alert for rule {} - in cooldown period", rule.getCode());
+            return;
+        }
+
+        String description = rule.getDescriptionTemplate() == null && detail != null
+                ? detail
+                : rule.generateDescription(sensorName, assetName, value);
+
+        // Create new alert
+        Alert alert = Alert.builder()
+                .alertCode(rule.getCode())
+                .ruleId(rule.getId())
+                .title(rule.generateTitle(sensorName, assetName, value))
+                .description(description)
+                .severity(rule.getSeverity())
+                .originalSeverity(rule.getSeverity())
+                .sourceType(SourceType.SENSOR)
+                .category(rule.getCategory())
+                .assetId(assetId)
+                .assetName(assetName)
+                .sensorId(sensorId)
+                .sensorName(sensorName)
+                .triggerValue(value)
+                .thresholdValue(rule.getThresholdValue())
+                .unit(rule.getUnit())
+                .alertStatus(AlertStatus.OPEN)
+                .status("OPEN")
+                .escalationLevel(0)
+                .triggeredAt(LocalDateTime.now())
+                .build();
+
+        Alert saved = alertRepository.save(alert);
+        log.info("Created alert: {} (code: {}, severity: {})", saved.getId(), rule.getCode(), rule.getSeverity());
+
+        // Broadcast via WebSocket
+        AlertDTO dto = alertMapper.toDto(saved);
+        messagingTemplate.convertAndSend("/topic/alerts", dto);
+
+        // Send Kafka event
+        kafkaTemplate.send("alert-events", "alert.created", dto);
+
+        // Send notifications for high-severity alerts
+        if (rule.getSeverity().isHigherThan(AlertSeverity.LOW)) {
+            notificationService.sendNotifications(dto);
+        }
+
+        // Schedule escalation if configured
+        if (rule.getEscalationMinutes() != null) {
+            escalationService.scheduleEscalation(saved.getId(), rule.getEscalationMinutes());
+        }
+    }
+}
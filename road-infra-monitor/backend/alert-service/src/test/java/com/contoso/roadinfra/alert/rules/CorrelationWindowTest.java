@@ -0,0 +1,65 @@
+package com.contoso.roadinfra.alert.rules;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationWindowTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final UUID strainSensor = UUID.randomUUID();
+    private final UUID accelerometer = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should match both sides within the window, in either order")
+    void shouldMatchWithinWindow() {
+        CorrelationWindow window = new CorrelationWindow(WINDOW_MILLIS);
+
+        assertThat(window.record(false, accelerometer, 7.5, T0)).isNull();
+        CorrelationWindow.Match match = window.record(true, strainSensor, 420.0, T0 + 20_000);
+
+        assertThat(match).isNotNull();
+        assertThat(match.primarySensorId()).isEqualTo(strainSensor);
+        assertThat(match.primaryValue()).isEqualTo(420.0);
+        assertThat(match.correlatedSensorId()).isEqualTo(accelerometer);
+        assertThat(match.correlatedValue()).isEqualTo(7.5);
+        assertThat(match.gapMillis()).isEqualTo(20_000);
+    }
+
+    @Test
+    @DisplayName("Should not match sides further apart than the window")
+    void shouldNotMatchOutsideWindow() {
+        CorrelationWindow window = new CorrelationWindow(WINDOW_MILLIS);
+
+        window.record(true, strainSensor, 420.0, T0);
+
+        assertThat(window.record(false, accelerometer, 7.5, T0 + WINDOW_MILLIS + 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should consume a matched pair so it only matches once")
+    void shouldConsumeMatch() {
+        CorrelationWindow window = new CorrelationWindow(WINDOW_MILLIS);
+        window.record(true, strainSensor, 420.0, T0);
+        assertThat(window.record(false, accelerometer, 7.5, T0 + 1_000)).isNotNull();
+
+        assertThat(window.record(false, accelerometer, 8.0, T0 + 2_000)).isNull();
+        assertThat(window.record(true, strainSensor, 430.0, T0 + 3_000)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the newest reading of a side when readings arrive late")
+    void shouldKeepNewestReading() {
+        CorrelationWindow window = new CorrelationWindow(WINDOW_MILLIS);
+        window.record(true, strainSensor, 430.0, T0 + 120_000);
+        window.record(true, strainSensor, 420.0, T0);
+
+        assertThat(window.record(false, accelerometer, 7.5, T0 + 10_000)).isNull();
+        assertThat(window.lastSeenMillis()).isEqualTo(T0 + 120_000);
+    }
+}
@@ -0,0 +1,78 @@
+package com.contoso.roadinfra.alert.rules;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RateOfChangeWindowTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Should report nothing until the samples span half the window")
+    void shouldWaitForHistory() {
+        RateOfChangeWindow window = new RateOfChangeWindow(WINDOW_MILLIS, 100);
+
+        assertThat(window.add(T0, 1.0)).isNaN();
+        assertThat(window.add(T0 + 10_000, 2.0)).isNaN();
+        assertThat(window.add(T0 + 20_000, 3.0)).isNaN();
+        assertThat(window.add(T0 + 30_000, 4.0)).isCloseTo(6.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should compute the least-squares slope per minute")
+    void shouldComputeSlope() {
+        RateOfChangeWindow window = new RateOfChangeWindow(WINDOW_MILLIS, 100);
+        double slope = Double.NaN;
+        for (int second = 0; second <= 60; second += 5) {
+            // 0.5 units per second with alternating noise that cancels out
+            slope = window.add(T0 + second * 1000L, 0.5 * second + (second % 10 == 0 ? 0.2 : -0.2));
+        }
+
+        assertThat(slope).isCloseTo(30.0, within(0.5));
+    }
+
+    @Test
+    @DisplayName("Should forget readings that fall out of the window")
+    void shouldSlideWindow() {
+        RateOfChangeWindow window = new RateOfChangeWindow(WINDOW_MILLIS, 100);
+        for (int second = 0; second <= 60; second += 5) {
+            window.add(T0 + second * 1000L, second);
+        }
+        double slope = Double.NaN;
+        // Flat from here on; after a full window the rising part is gone
+        for (int second = 65; second <= 130; second += 5) {
+            slope = window.add(T0 + second * 1000L, 60.0);
+        }
+
+        assertThat(slope).isCloseTo(0.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should ignore readings older than the newest one held")
+    void shouldIgnoreOutOfOrderReadings() {
+        RateOfChangeWindow window = new RateOfChangeWindow(WINDOW_MILLIS, 100);
+        window.add(T0, 0);
+        window.add(T0 + 30_000, 30);
+
+        assertThat(window.add(T0 + 10_000, 1_000)).isNaN();
+        assertThat(window.lastSeenMillis()).isEqualTo(T0 + 30_000);
+        assertThat(window.add(T0 + 40_000, 40)).isCloseTo(60.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should keep the slope exact across rebasing and capacity eviction")
+    void shouldStayAccurateOverLongRuns() {
+        RateOfChangeWindow window = new RateOfChangeWindow(WINDOW_MILLIS, 8);
+        double slope = Double.NaN;
+        // Three hours at one reading per 10 s: forces rebases and a full ring buffer
+        for (long second = 0; second <= 3 * 3600; second += 10) {
+            slope = window.add(T0 + second * 1000, 1_000 + 0.1 * second);
+        }
+
+        assertThat(slope).isCloseTo(6.0, within(1e-6));
+    }
+}
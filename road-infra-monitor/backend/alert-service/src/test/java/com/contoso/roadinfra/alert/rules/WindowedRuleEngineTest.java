@@ -0,0 +1,131 @@
+package com.contoso.roadinfra.alert.rules;
+
+import com.contoso.roadinfra.alert.constants.RuleType;
+import com.contoso.roadinfra.alert.entity.AlertRule;
+import com.contoso.roadinfra.alert.repository.AlertRuleRepository;
+import com.contoso.roadinfra.common.constants.AssetType;
+import com.contoso.roadinfra.common.constants.SensorType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WindowedRuleEngineTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final AlertRuleRepository ruleRepository = mock(AlertRuleRepository.class);
+    private final UUID assetId = UUID.randomUUID();
+    private final UUID strainSensor = UUID.randomUUID();
+    private final UUID accelerometer = UUID.randomUUID();
+
+    private WindowedRuleEngine engine;
+    private AlertRule correlation;
+    private AlertRule rateOfChange;
+
+    @BeforeEach
+    void setUp() {
+        correlation = AlertRule.builder()
+                .id(UUID.randomUUID())
+                .code("STRAIN_WITH_ACCELERATION")
+                .ruleType(RuleType.CORRELATION)
+                .sensorType(SensorType.STRAIN_GAUGE)
+                .operator("GT")
+                .thresholdValue(400.0)
+                .correlatedSensorType(SensorType.ACCELEROMETER)
+                .correlatedOperator("GT")
+                .correlatedThresholdValue(5.0)
+                .windowSeconds(60)
+                .build();
+        rateOfChange = AlertRule.builder()
+                .id(UUID.randomUUID())
+                .code("STRAIN_RISING")
+                .ruleType(RuleType.RATE_OF_CHANGE)
+                .sensorType(SensorType.STRAIN_GAUGE)
+                .operator("GT")
+                .thresholdValue(50.0)
+                .windowSeconds(60)
+                .build();
+        when(ruleRepository.findByRuleTypeInAndEnabledTrueOrderByPriorityAsc(any()))
+                .thenReturn(List.of(correlation, rateOfChange));
+
+        engine = new WindowedRuleEngine(ruleRepository);
+        ReflectionTestUtils.setField(engine, "maxKeys", 1_000L);
+        ReflectionTestUtils.setField(engine, "maxSamplesPerWindow", 600);
+        engine.refreshRules();
+    }
+
+    @Test
+    @DisplayName("Should correlate readings from different sensors of the same asset")
+    void shouldCorrelateAcrossSensorsOfAsset() {
+        assertThat(engine.onReading(strain(450.0, T0))).isEmpty();
+
+        List<RuleMatch> matches = engine.onReading(acceleration(6.0, T0 + 30_000));
+
+        assertThat(matches).singleElement().satisfies(match -> {
+            assertThat(match.rule()).isSameAs(correlation);
+            assertThat(match.sensorId()).isEqualTo(strainSensor);
+            assertThat(match.assetId()).isEqualTo(assetId);
+            assertThat(match.value()).isEqualTo(450.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Should raise a rate-of-change match for a fast-rising sensor")
+    void shouldMatchRateOfChange() {
+        List<RuleMatch> matches = List.of();
+        for (int second = 0; second <= 60; second += 10) {
+            // 2 units per second, 120 per minute
+            matches = engine.onReading(strain(100.0 + 2 * second, T0 + second * 1000L));
+        }
+
+        assertThat(matches).singleElement().satisfies(match -> {
+            assertThat(match.rule()).isSameAs(rateOfChange);
+            assertThat(match.value()).isCloseTo(120.0, within(1e-6));
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep windows of replayed telemetry, however old its timestamps")
+    void shouldEvictByEventTime() {
+        long replayed = T0 - 30L * 24 * 3600 * 1000;
+        engine.onReading(strain(450.0, replayed));
+
+        engine.evictIdleWindows();
+
+        assertThat(engine.onReading(acceleration(6.0, replayed + 30_000))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should evict windows idle for two window lengths of event time")
+    void shouldEvictIdleWindows() {
+        engine.onReading(strain(450.0, T0));
+        UUID otherAsset = UUID.randomUUID();
+        engine.onReading(new WindowedReading(UUID.randomUUID(), "S-2", SensorType.ACCELEROMETER, otherAsset,
+                AssetType.BRIDGE, 1.0, "mm/s", T0 + 121_000));
+
+        engine.evictIdleWindows();
+
+        // The strain reading's window is gone, so no correlation within the window is found
+        assertThat(engine.onReading(acceleration(6.0, T0 + 121_500))).isEmpty();
+    }
+
+    private WindowedReading strain(double value, long epochMillis) {
+        return new WindowedReading(strainSensor, "SG-1", SensorType.STRAIN_GAUGE, assetId, AssetType.BRIDGE,
+                value, "µε", epochMillis);
+    }
+
+    private WindowedReading acceleration(double value, long epochMillis) {
+        return new WindowedReading(accelerometer, "AC-1", SensorType.ACCELEROMETER, assetId, AssetType.BRIDGE,
+                value, "mm/s", epochMillis);
+    }
+}
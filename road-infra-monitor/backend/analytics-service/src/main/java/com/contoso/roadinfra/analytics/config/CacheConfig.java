@@ -1,16 +1,21 @@
 package com.contoso.roadinfra.analytics.config;
 
+import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
+import com.contoso.roadinfra.common.cache.TwoLevelCacheManager;
+import com.contoso.roadinfra.common.dto.KpiDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
@@ -18,18 +23,32 @@ import java.util.Map;
 public class CacheConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                             @Value("${spring.application.name}") String applicationName,
+                                             @Value("${cache.local.ttl:60s}") Duration localTtl,
+                                             @Value("${cache.local.maximum-size:10000}") long localMaximumSize) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
-        cacheConfigs.put("kpis", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigs)
+        return TwoLevelCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig, localTtl, localMaximumSize)
+                .withCache("kpis", defaultConfig.entryTtl(Duration.ofMinutes(5)))
+                // L1 hits copy these instead of deserializing them
+                .localCopier(KpiDTO.class, kpi -> kpi.toBuilder()
+                        .historicalData(copy(kpi.getHistoricalData()))
+                        .breakdown(copy(kpi.getBreakdown()))
+                        .metadata(copy(kpi.getMetadata()))
+                        .build())
+                .localCopier(KpiSnapshot.class, snapshot -> snapshot.toBuilder().build())
+                .invalidationChannel("cache-invalidation:" + applicationName)
+                .meterRegistry(meterRegistry.getIfAvailable())
                 .build();
     }
+
+    private static <K, V> Map<K, V> copy(Map<K, V> map) {
+        return map == null ? null : new LinkedHashMap<>(map);
+    }
 }
@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.analytics.config;
 
+import com.contoso.roadinfra.common.security.CachingJwtDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,9 +56,9 @@ public class SecurityConfig {
         // Use raw bytes to match API gateway's key derivation
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA384");
-        return NimbusJwtDecoder.withSecretKey(key)
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key)
                 .macAlgorithm(org.springframework.security.oauth2.jose.jws.MacAlgorithm.HS384)
-                .build();
+                .build());
     }
 
     @Bean
@@ -1,6 +1,7 @@
 package com.contoso.roadinfra.analytics.controller;
 
 import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
+import com.contoso.roadinfra.analytics.export.ExportFormat;
 import com.contoso.roadinfra.analytics.service.AnalyticsService;
 import com.contoso.roadinfra.analytics.service.KpiCalculationService;
 import com.contoso.roadinfra.analytics.service.ReportExportService;
@@ -19,7 +20,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -159,64 +162,75 @@ public class AnalyticsController {
 
     // ================= Export Endpoints =================
 
-    @GetMapping("/export/csv")
-    @Operation(summary = "Export KPIs to CSV")
+    @GetMapping({"/export", "/export/csv"})
+    @Operation(summary = "Export latest KPIs as CSV, NDJSON or Arrow")
     @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
-    public ResponseEntity<byte[]> exportKpisCsv(
+    public ResponseEntity<StreamingResponseBody> exportKpis(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
-            @RequestParam(required = false) String category) {
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
         
         LocalDate fromDate = from != null ? from : LocalDate.now().minusMonths(1);
         LocalDate toDate = to != null ? to : LocalDate.now();
+        ExportFormat exportFormat = ExportFormat.fromString(format);
         
-        byte[] csvData = reportExportService.exportKpisCsv(fromDate, toDate, category);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "kpi-report.csv");
+        StreamingResponseBody body = reportExportService.exportKpis(fromDate, toDate, category, exportFormat, gzip);
         
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvData);
+                .headers(exportHeaders("kpi-report", exportFormat, gzip))
+                .body(body);
     }
 
-    @GetMapping("/export/history/{metricName}/csv")
-    @Operation(summary = "Export KPI history to CSV")
+    @GetMapping({"/export/history/{metricName}", "/export/history/{metricName}/csv"})
+    @Operation(summary = "Export KPI history as CSV, NDJSON or Arrow")
     @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
-    public ResponseEntity<byte[]> exportKpiHistoryCsv(
+    public ResponseEntity<StreamingResponseBody> exportKpiHistory(
             @PathVariable String metricName,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
-        
-        byte[] csvData = reportExportService.exportKpiHistoryCsv(metricName, from, to);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", metricName + "-history.csv");
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        StreamingResponseBody body = reportExportService.exportKpiHistory(metricName, from, to, exportFormat, gzip);
         
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvData);
+                .headers(exportHeaders(metricName + "-history", exportFormat, gzip))
+                .body(body);
     }
 
     @GetMapping("/export/html")
     @Operation(summary = "Export report as HTML")
     @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
-    public ResponseEntity<String> exportHtmlReport(
+    public ResponseEntity<StreamingResponseBody> exportHtmlReport(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         
         LocalDate fromDate = from != null ? from : LocalDate.now().minusMonths(1);
         LocalDate toDate = to != null ? to : LocalDate.now();
         
-        String html = reportExportService.generateHtmlReport(fromDate, toDate);
+        StreamingResponseBody html = reportExportService.generateHtmlReport(fromDate, toDate);
         
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_HTML);
+        headers.setContentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8));
         
         return ResponseEntity.ok()
                 .headers(headers)
                 .body(html);
     }
+
+    private static HttpHeaders exportHeaders(String baseName, ExportFormat format, boolean gzip) {
+        HttpHeaders headers = new HttpHeaders();
+        String fileName = baseName + "." + format.getExtension();
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            fileName += ".gz";
+        } else {
+            headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+        }
+        headers.setContentDispositionFormData("attachment", fileName);
+        return headers;
+    }
 }
@@ -0,0 +1,133 @@
+package com.contoso.roadinfra.analytics.controller;
+
+import com.contoso.roadinfra.analytics.export.ExportJob;
+import com.contoso.roadinfra.analytics.export.ExportJobDTO;
+import com.contoso.roadinfra.analytics.export.ExportJobRequest;
+import com.contoso.roadinfra.analytics.export.ExportJobStatus;
+import com.contoso.roadinfra.analytics.service.ExportJobService;
+import com.contoso.roadinfra.common.dto.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background export jobs for reports too large to render within a request.
+ *
+ * Submit a job, poll it until it is COMPLETED, then download the file. Downloads honour
+ * HTTP Range requests, so an interrupted transfer can be resumed. Users see only the
+ * jobs they submitted; admins see all of them.
+ */
+@RestController
+@RequestMapping("/api/v1/analytics/export-jobs")
+@RequiredArgsConstructor
+@Tag(name = "Export Jobs", description = "Asynchronous report exports")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    @Operation(summary = "Submit an export job; identical pending requests share one job")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> submit(@Valid @RequestBody ExportJobRequest request,
+                                                            Authentication authentication) {
+        ExportJob job = exportJobService.submit(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, statusUrl(job))
+                .body(ApiResponse.success(toDto(job), "Export job accepted"));
+    }
+
+    @GetMapping
+    @Operation(summary = "List export jobs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
+    public ResponseEntity<ApiResponse<List<ExportJobDTO>>> list(Authentication authentication) {
+        List<ExportJobDTO> jobs = exportJobService.getJobs(authentication.getName(), isAdmin(authentication)).stream()
+                .sorted(Comparator.comparing(ExportJob::getCreatedAt).reversed())
+                .map(this::toDto)
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(jobs));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get export job status and progress")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> get(@PathVariable UUID id, Authentication authentication) {
+        ExportJob job = exportJobService.getJob(id, authentication.getName(), isAdmin(authentication));
+        return ResponseEntity.ok(ApiResponse.success(toDto(job)));
+    }
+
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Download a completed export (supports Range requests)")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
+    public ResponseEntity<?> download(@PathVariable UUID id, Authentication authentication) {
+        ExportJob job = exportJobService.getJob(id, authentication.getName(), isAdmin(authentication));
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Export job " + id + " is " + job.getStatus()));
+        }
+
+        // Returning a Resource lets Spring MVC answer Range and If-Range requests with
+        // 206 partial content, copying the requested region from disk
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getRequest().contentType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(job.getRequest().fileName(), StandardCharsets.UTF_8)
+                .build());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(job.getId().toString())
+                .lastModified(job.getCompletedAt())
+                .body(new FileSystemResource(job.getFile()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Release an export job; the last user to release it cancels it and deletes its file")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER')")
+    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable UUID id, Authentication authentication) {
+        exportJobService.delete(id, authentication.getName(), isAdmin(authentication));
+        return ResponseEntity.ok(ApiResponse.success(null, "Export job deleted"));
+    }
+
+    private ExportJobDTO toDto(ExportJob job) {
+        return ExportJobDTO.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .request(job.getRequest())
+                .rowsWritten(job.getRowsWritten())
+                .expectedRows(job.getExpectedRows())
+                .progressPercent(job.getProgressPercent())
+                .fileName(job.getRequest().fileName())
+                .fileSize(job.getStatus() == ExportJobStatus.COMPLETED ? job.getFileSize() : null)
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .error(job.getError())
+                .downloadUrl(job.getStatus() == ExportJobStatus.COMPLETED ? statusUrl(job) + "/download" : null)
+                .build();
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private static String statusUrl(ExportJob job) {
+        return "/api/v1/analytics/export-jobs/" + job.getId();
+    }
+}
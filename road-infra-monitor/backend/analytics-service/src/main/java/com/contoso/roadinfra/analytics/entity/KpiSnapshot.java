@@ -21,7 +21,7 @@ import java.util.UUID;
         @UniqueConstraint(name = "uk_snapshot_metric_date", columnNames = {"metric_name", "snapshot_date", "asset_id"})
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class KpiSnapshot {
@@ -0,0 +1,150 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Appends cell values to a reusable {@link StringBuilder} without going through
+ * {@code String.format} or intermediate strings.
+ */
+final class CellFormatter {
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    /** Above this the scaled value no longer fits exactly in a long. */
+    private static final double MAX_FAST_MAGNITUDE = 1e15;
+
+    private CellFormatter() {
+    }
+
+    /**
+     * Append {@code value} with exactly {@code decimals} fraction digits, producing the
+     * same text as {@code String.format("%.<decimals>f", value)}.
+     */
+    static void appendFixed(StringBuilder out, double value, int decimals) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append(value);
+            return;
+        }
+        long factor = POWERS_OF_TEN[decimals];
+        double scaledValue = Math.abs(value) * factor;
+        long scaled = (long) scaledValue;
+        double remainder = scaledValue - scaled;
+        if (scaledValue >= MAX_FAST_MAGNITUDE || Math.abs(remainder - 0.5) <= 8 * Math.ulp(scaledValue)) {
+            // Too large for a long, or too close to a rounding tie to decide in binary:
+            // round the shortest decimal representation, as String.format does
+            if (Double.doubleToRawLongBits(value) < 0) {
+                out.append('-');
+            }
+            out.append(BigDecimal.valueOf(Math.abs(value)).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+
+        if (remainder > 0.5) {
+            scaled++;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+        }
+        out.append(scaled / factor);
+        if (decimals > 0) {
+            out.append('.');
+            long fraction = scaled % factor;
+            for (long p = factor / 10; p > 1 && fraction < p; p /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+    }
+
+    /**
+     * Append an ISO-8601 date (yyyy-MM-dd).
+     */
+    static void appendDate(StringBuilder out, LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            out.append(date);
+            return;
+        }
+        appendPadded(out, year, 4);
+        out.append('-');
+        appendPadded(out, date.getMonthValue(), 2);
+        out.append('-');
+        appendPadded(out, date.getDayOfMonth(), 2);
+    }
+
+    /**
+     * Append a CSV field, quoting it only when it contains a delimiter, quote or line break.
+     */
+    static void appendCsv(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    /**
+     * Append a quoted JSON string.
+     */
+    static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00");
+                        out.append(Character.forDigit(c >> 4, 16));
+                        out.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Append a string with the characters HTML treats specially escaped.
+     */
+    static void appendHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static void appendPadded(StringBuilder out, int value, int width) {
+        for (long p = POWERS_OF_TEN[width - 1]; p > 1 && value < p; p /= 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+}
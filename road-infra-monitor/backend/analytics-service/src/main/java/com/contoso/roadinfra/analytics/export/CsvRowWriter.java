@@ -0,0 +1,47 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with a header row of display names. Decimals are written with two
+ * fraction digits, as the reports have always shown them; missing values are empty.
+ */
+class CsvRowWriter<T> extends TextRowWriter<T> {
+
+    private static final int DECIMALS = 2;
+
+    CsvRowWriter(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+        super(columns, out);
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                header.append(',');
+            }
+            CellFormatter.appendCsv(header, columns.get(i).header());
+        }
+        writeLine(header);
+    }
+
+    @Override
+    protected void appendRow(StringBuilder line, T row) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            ExportColumn<T> column = columns.get(i);
+            Object value = column.value(row);
+            if (value == null) {
+                continue;
+            }
+            switch (column.type()) {
+                case STRING -> CellFormatter.appendCsv(line, (String) value);
+                case DECIMAL -> CellFormatter.appendFixed(line, (Double) value, DECIMALS);
+                case DATE -> CellFormatter.appendDate(line, (LocalDate) value);
+                case BOOLEAN -> line.append((boolean) (Boolean) value);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * One column of an export: a stable key (NDJSON field / Arrow field name), a
+ * human-readable CSV header, a type and an accessor.
+ */
+public final class ExportColumn<T> {
+
+    public enum Type {
+        STRING,
+        DECIMAL,
+        DATE,
+        BOOLEAN
+    }
+
+    private final String key;
+    private final String header;
+    private final Type type;
+    private final Function<T, ?> accessor;
+
+    private ExportColumn(String key, String header, Type type, Function<T, ?> accessor) {
+        this.key = key;
+        this.header = header;
+        this.type = type;
+        this.accessor = accessor;
+    }
+
+    public static <T> ExportColumn<T> string(String key, String header, Function<T, String> accessor) {
+        return new ExportColumn<>(key, header, Type.STRING, accessor);
+    }
+
+    public static <T> ExportColumn<T> decimal(String key, String header, Function<T, Double> accessor) {
+        return new ExportColumn<>(key, header, Type.DECIMAL, accessor);
+    }
+
+    public static <T> ExportColumn<T> date(String key, String header, Function<T, LocalDate> accessor) {
+        return new ExportColumn<>(key, header, Type.DATE, accessor);
+    }
+
+    public static <T> ExportColumn<T> bool(String key, String header, Function<T, Boolean> accessor) {
+        return new ExportColumn<>(key, header, Type.BOOLEAN, accessor);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String header() {
+        return header;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * The cell value for {@code row}: a String, Double, LocalDate or Boolean matching
+     * {@link #type()}, or null.
+     */
+    public Object value(T row) {
+        return accessor.apply(row);
+    }
+}
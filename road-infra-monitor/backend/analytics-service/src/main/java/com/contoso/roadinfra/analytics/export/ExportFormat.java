@@ -0,0 +1,60 @@
+package com.contoso.roadinfra.analytics.export;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Supported export formats.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv") {
+        @Override
+        <T> RowWriter<T> open(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+            return new CsvRowWriter<>(columns, out);
+        }
+    },
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        <T> RowWriter<T> open(List<ExportColumn<T>> columns, OutputStream out) {
+            return new NdjsonRowWriter<>(columns, out);
+        }
+    },
+    ARROW("application/vnd.apache.arrow.stream", "arrows") {
+        @Override
+        <T> RowWriter<T> open(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+            return new ArrowRowWriter<>(columns, out);
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract <T> RowWriter<T> open(List<ExportColumn<T>> columns, OutputStream out) throws IOException;
+
+    @JsonCreator
+    public static ExportFormat fromString(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,209 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one background export. Fields are written by the worker rendering the
+ * report and read by pollers, so all mutable state is volatile or atomic.
+ *
+ * Users submitting an identical request share the job; each holds a reference to it
+ * and the job is only visible to, and cancelled by, the users holding one.
+ */
+public class ExportJob implements ExportProgress {
+
+    private final UUID id;
+    private final ExportJobRequest request;
+    private final String requestedBy;
+    private final Path file;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final Set<String> owners = new HashSet<>();
+
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private volatile Long expectedRows;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile long fileSize;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public ExportJob(UUID id, ExportJobRequest request, String requestedBy, Path file) {
+        this.id = id;
+        this.request = request;
+        this.requestedBy = requestedBy;
+        this.file = file;
+        this.owners.add(requestedBy);
+    }
+
+    @Override
+    public void expectRows(long rows) {
+        expectedRows = rows;
+    }
+
+    @Override
+    public void rowWritten() {
+        if (status == ExportJobStatus.CANCELLED || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Export job " + id + " was cancelled");
+        }
+        rowsWritten.incrementAndGet();
+    }
+
+    /**
+     * @return false if the job was cancelled before it started
+     */
+    public synchronized boolean markRunning() {
+        if (status != ExportJobStatus.QUEUED) {
+            return false;
+        }
+        status = ExportJobStatus.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    public synchronized void markCompleted(long size) {
+        if (status == ExportJobStatus.RUNNING) {
+            fileSize = size;
+            completedAt = Instant.now();
+            status = ExportJobStatus.COMPLETED;
+        }
+    }
+
+    public synchronized void markFailed(String message) {
+        if (!status.isTerminal()) {
+            error = message;
+            completedAt = Instant.now();
+            status = ExportJobStatus.FAILED;
+        }
+    }
+
+    /**
+     * @return true if the job was still queued or running
+     */
+    public synchronized boolean cancel() {
+        if (status.isTerminal()) {
+            return false;
+        }
+        status = ExportJobStatus.CANCELLED;
+        completedAt = Instant.now();
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    /**
+     * Whether an identical request may be served by this job instead of a new one: a
+     * job still in progress can always be shared, a completed one only if its report
+     * covers days that were already over when it started, so the data cannot have
+     * changed since.
+     */
+    public boolean isReusable() {
+        return switch (status) {
+            case QUEUED, RUNNING -> true;
+            case COMPLETED -> request.type() == ExportReportType.KPI_HISTORY
+                    && request.to().isBefore(LocalDate.ofInstant(startedAt, ZoneId.systemDefault()));
+            case FAILED, CANCELLED -> false;
+        };
+    }
+
+    /**
+     * Give {@code user} a reference to this job.
+     *
+     * @return false if the last reference was already released and the job is being discarded
+     */
+    public synchronized boolean attach(String user) {
+        if (owners.isEmpty()) {
+            return false;
+        }
+        owners.add(user);
+        return true;
+    }
+
+    /**
+     * Drop {@code user}'s reference to this job.
+     *
+     * @return true if that was the last reference
+     */
+    public synchronized boolean release(String user) {
+        return owners.remove(user) && owners.isEmpty();
+    }
+
+    public synchronized boolean isOwnedBy(String user) {
+        return owners.contains(user);
+    }
+
+    /**
+     * Percentage complete, or null while the total is unknown.
+     */
+    public Double getProgressPercent() {
+        if (status == ExportJobStatus.COMPLETED) {
+            return 100.0;
+        }
+        Long expected = expectedRows;
+        if (expected == null) {
+            return null;
+        }
+        return expected == 0 ? 0.0 : Math.min(99.9, 100.0 * rowsWritten.get() / expected);
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ExportJobRequest getRequest() {
+        return request;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public Long getExpectedRows() {
+        return expectedRows;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,35 @@
+package com.contoso.roadinfra.analytics.export;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Status of a background export as returned to clients.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportJobDTO {
+
+    private UUID id;
+    private ExportJobStatus status;
+    private ExportJobRequest request;
+    private long rowsWritten;
+    private Long expectedRows;
+    private Double progressPercent;
+    private String fileName;
+    private Long fileSize;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private String error;
+    private String downloadUrl;
+}
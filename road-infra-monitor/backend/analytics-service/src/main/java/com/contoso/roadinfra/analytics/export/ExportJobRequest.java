@@ -0,0 +1,66 @@
+package com.contoso.roadinfra.analytics.export;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Parameters of a background export. Two requests that are equal after
+ * {@link #normalized()} produce the same file and share one job.
+ */
+public record ExportJobRequest(@NotNull ExportReportType type,
+                               String metricName,
+                               String category,
+                               LocalDate from,
+                               LocalDate to,
+                               ExportFormat format,
+                               boolean gzip) {
+
+    /**
+     * Apply defaults and drop parameters the report type ignores, validating the rest.
+     *
+     * @throws IllegalArgumentException if required parameters are missing or invalid
+     */
+    public ExportJobRequest normalized() {
+        LocalDate toDate = to != null ? to : LocalDate.now();
+        LocalDate fromDate = from != null ? from : toDate.minusMonths(1);
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        return switch (type) {
+            // Latest values only: the date range does not change the report
+            case KPIS -> new ExportJobRequest(type, null,
+                    category != null && !category.isBlank() ? category : null,
+                    null, null, format != null ? format : ExportFormat.CSV, gzip);
+            case KPI_HISTORY -> {
+                if (metricName == null || metricName.isBlank()) {
+                    throw new IllegalArgumentException("metricName is required for KPI_HISTORY exports");
+                }
+                yield new ExportJobRequest(type, metricName, null, fromDate, toDate,
+                        format != null ? format : ExportFormat.CSV, gzip);
+            }
+            case HTML -> new ExportJobRequest(type, null, null, fromDate, toDate, null, false);
+        };
+    }
+
+    /**
+     * File name offered to the client for the finished export.
+     */
+    public String fileName() {
+        String baseName = switch (type) {
+            case KPIS -> "kpi-report";
+            case KPI_HISTORY -> metricName + "-history-" + from + "-to-" + to;
+            case HTML -> "kpi-report-" + from + "-to-" + to;
+        };
+        String extension = type == ExportReportType.HTML ? "html" : format.getExtension();
+        return baseName + "." + extension + (gzip ? ".gz" : "");
+    }
+
+    public String contentType() {
+        if (gzip) {
+            return "application/gzip";
+        }
+        return type == ExportReportType.HTML ? "text/html;charset=UTF-8" : format.getContentType();
+    }
+}
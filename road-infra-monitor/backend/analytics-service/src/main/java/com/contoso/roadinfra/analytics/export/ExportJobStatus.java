@@ -0,0 +1,16 @@
+package com.contoso.roadinfra.analytics.export;
+
+/**
+ * Lifecycle of a background export job.
+ */
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,21 @@
+package com.contoso.roadinfra.analytics.export;
+
+/**
+ * Receives progress from a running export.
+ */
+public interface ExportProgress {
+
+    ExportProgress NONE = () -> {
+    };
+
+    /**
+     * Called once before the first row when the number of rows is known up front.
+     */
+    default void expectRows(long rows) {
+    }
+
+    /**
+     * Called after each row is written. Implementations may throw to abort the export.
+     */
+    void rowWritten();
+}
@@ -0,0 +1,15 @@
+package com.contoso.roadinfra.analytics.export;
+
+/**
+ * Reports that can be rendered by a background export job.
+ */
+public enum ExportReportType {
+    /** Latest value of every KPI, optionally for one category */
+    KPIS,
+
+    /** History of one KPI over a date range */
+    KPI_HISTORY,
+
+    /** HTML KPI report */
+    HTML
+}
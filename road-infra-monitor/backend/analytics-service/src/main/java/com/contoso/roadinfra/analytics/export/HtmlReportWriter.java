@@ -0,0 +1,136 @@
+package com.contoso.roadinfra.analytics.export;
+
+import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the KPI report as HTML (can be converted to PDF), one table row at a time.
+ */
+public class HtmlReportWriter {
+
+    private static final String STYLE = """
+            body { font-family: Arial, sans-serif; margin: 40px; }
+            h1 { color: #333; }
+            table { border-collapse: collapse; width: 100%; margin-top: 20px; }
+            th, td { border: 1px solid #ddd; padding: 12px; text-align: left; }
+            th { background-color: #4472C4; color: white; }
+            tr:nth-child(even) { background-color: #f2f2f2; }
+            .on-target { color: green; }
+            .off-target { color: red; }
+            .trend-up { color: green; }
+            .trend-down { color: red; }
+            .summary-box { background: #f8f9fa; padding: 20px; margin: 20px 0; border-radius: 8px; }
+            """;
+
+    private final Writer writer;
+    private final StringBuilder buffer = new StringBuilder(512);
+
+    public HtmlReportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void write(LocalDate from, LocalDate to, Map<String, Object> summary,
+                      List<KpiSnapshot> snapshots) throws IOException {
+        buffer.append("<!DOCTYPE html>\n<html><head>\n")
+                .append("<title>KPI Report - Road Infrastructure Monitoring</title>\n")
+                .append("<style>\n").append(STYLE).append("</style>\n")
+                .append("</head><body>\n");
+
+        // Header
+        buffer.append("<h1>Road Infrastructure Monitoring - KPI Report</h1>\n<p>Report generated: ");
+        CellFormatter.appendDate(buffer, LocalDate.now());
+        buffer.append("</p>\n<p>Period: ");
+        CellFormatter.appendDate(buffer, from);
+        buffer.append(" to ");
+        CellFormatter.appendDate(buffer, to);
+        buffer.append("</p>\n");
+
+        // Summary
+        buffer.append("<div class='summary-box'>\n<h2>Summary</h2>\n")
+                .append("<p><strong>Total KPIs:</strong> ").append(summary.get("totalKpis")).append("</p>\n")
+                .append("<p><strong>On Target:</strong> ").append(summary.get("onTargetCount")).append(" (");
+        CellFormatter.appendFixed(buffer, ((Number) summary.get("onTargetPercentage")).doubleValue(), 1);
+        buffer.append("%)</p>\n")
+                .append("<p><strong>Improving:</strong> ").append(summary.get("improvingCount")).append("</p>\n")
+                .append("<p><strong>Declining:</strong> ").append(summary.get("decliningCount")).append("</p>\n")
+                .append("</div>\n");
+
+        // KPI Table
+        buffer.append("<h2>KPI Details</h2>\n<table>\n")
+                .append("<tr><th>Metric</th><th>Category</th><th>Value</th><th>Target</th>")
+                .append("<th>Change</th><th>Trend</th><th>Status</th></tr>\n");
+        flush();
+
+        for (KpiSnapshot kpi : snapshots) {
+            appendRow(kpi);
+            flush();
+        }
+
+        buffer.append("</table>\n</body></html>");
+        flush();
+        writer.flush();
+    }
+
+    private void appendRow(KpiSnapshot kpi) {
+        buffer.append("<tr>\n<td>");
+        appendText(kpi.getDisplayName());
+        buffer.append("</td>\n<td>");
+        appendText(kpi.getCategory());
+        buffer.append("</td>\n<td>");
+        appendQuantity(kpi.getValue(), kpi.getUnit());
+        buffer.append("</td>\n<td>");
+        appendQuantity(kpi.getTargetValue(), kpi.getUnit());
+        buffer.append("</td>\n");
+
+        Double change = kpi.getPercentageChange();
+        String changeClass = change != null && change > 0 ? "trend-up" : (change != null && change < 0 ? "trend-down" : "");
+        buffer.append("<td class='").append(changeClass).append("'>");
+        if (change != null) {
+            if (change >= 0) {
+                buffer.append('+');
+            }
+            CellFormatter.appendFixed(buffer, change, 2);
+            buffer.append('%');
+        } else {
+            buffer.append("N/A");
+        }
+        buffer.append("</td>\n<td>");
+        if (kpi.getTrend() != null) {
+            buffer.append(kpi.getTrend().getSymbol()).append(' ').append(kpi.getTrend().getDisplayName());
+        }
+        buffer.append("</td>\n");
+
+        boolean onTarget = Boolean.TRUE.equals(kpi.getOnTarget());
+        buffer.append("<td class='").append(onTarget ? "on-target" : "off-target").append("'>")
+                .append(onTarget ? "✓ On Target" : "✗ Off Target")
+                .append("</td>\n</tr>\n");
+    }
+
+    private void appendQuantity(Double value, String unit) {
+        if (value != null) {
+            CellFormatter.appendFixed(buffer, value, 2);
+        } else {
+            buffer.append("null");
+        }
+        buffer.append(' ');
+        appendText(unit);
+    }
+
+    private void appendText(String value) {
+        CellFormatter.appendHtml(buffer, String.valueOf(value));
+    }
+
+    private void flush() throws IOException {
+        writer.append(buffer);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Newline-delimited JSON, one object per row keyed by column key. Decimals keep full
+ * precision; missing and non-finite values are written as {@code null}.
+ */
+class NdjsonRowWriter<T> extends TextRowWriter<T> {
+
+    NdjsonRowWriter(List<ExportColumn<T>> columns, OutputStream out) {
+        super(columns, out);
+    }
+
+    @Override
+    protected void appendRow(StringBuilder line, T row) {
+        line.append('{');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            ExportColumn<T> column = columns.get(i);
+            CellFormatter.appendJsonString(line, column.key());
+            line.append(':');
+            Object value = column.value(row);
+            if (value == null) {
+                line.append("null");
+                continue;
+            }
+            switch (column.type()) {
+                case STRING -> CellFormatter.appendJsonString(line, (String) value);
+                case DECIMAL -> {
+                    double number = (Double) value;
+                    if (Double.isFinite(number)) {
+                        line.append(number);
+                    } else {
+                        line.append("null");
+                    }
+                }
+                case DATE -> {
+                    line.append('"');
+                    CellFormatter.appendDate(line, (LocalDate) value);
+                    line.append('"');
+                }
+                case BOOLEAN -> line.append((boolean) (Boolean) value);
+            }
+        }
+        line.append('}');
+    }
+}
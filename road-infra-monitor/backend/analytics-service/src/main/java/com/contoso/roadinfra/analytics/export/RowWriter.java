@@ -0,0 +1,23 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.io.IOException;
+
+/**
+ * Writes rows of one export format to an output stream as they arrive.
+ *
+ * Callers must {@link #close()} the writer whether or not the export completed;
+ * closing releases the writer's buffers but never closes the underlying stream.
+ */
+public interface RowWriter<T> extends AutoCloseable {
+
+    void write(T row) throws IOException;
+
+    /**
+     * Flush any buffered rows and write the format's trailer. Does not close the stream.
+     */
+    void finish() throws IOException;
+
+    @Override
+    default void close() {
+    }
+}
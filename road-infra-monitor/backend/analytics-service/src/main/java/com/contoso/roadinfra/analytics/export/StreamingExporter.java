@@ -0,0 +1,59 @@
+package com.contoso.roadinfra.analytics.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a stream of rows straight to an output stream in the requested format,
+ * optionally gzip-compressed. Rows are consumed one at a time, so an export of any
+ * size needs only the writer's buffer in memory.
+ */
+@Component
+@Slf4j
+public class StreamingExporter {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @return the number of rows written
+     */
+    public <T> long export(Stream<T> rows, List<ExportColumn<T>> columns, ExportFormat format,
+                           boolean gzip, OutputStream out) throws IOException {
+        return export(rows, columns, format, gzip, out, ExportProgress.NONE);
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    public <T> long export(Stream<T> rows, List<ExportColumn<T>> columns, ExportFormat format,
+                           boolean gzip, OutputStream out, ExportProgress progress) throws IOException {
+        OutputStream target = StreamUtils.nonClosing(out);
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(target, GZIP_BUFFER_SIZE) : null;
+
+        long count = 0;
+        try (RowWriter<T> writer = format.open(columns, compressed != null ? compressed : target)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+                progress.rowWritten();
+            }
+            writer.finish();
+        }
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+
+        log.debug("Exported {} rows as {}{}", count, format, gzip ? " (gzip)" : "");
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package com.contoso.roadinfra.analytics.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Base for line-oriented text formats. Each row is assembled in a reused
+ * {@link StringBuilder} and copied into a buffered UTF-8 writer, so rows cost no
+ * per-cell strings beyond those the entity already holds.
+ */
+abstract class TextRowWriter<T> implements RowWriter<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final List<ExportColumn<T>> columns;
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    TextRowWriter(List<ExportColumn<T>> columns, OutputStream out) {
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public final void write(T row) throws IOException {
+        line.setLength(0);
+        appendRow(line, row);
+        line.append('\n');
+        emit();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    protected abstract void appendRow(StringBuilder line, T row);
+
+    /**
+     * Write a line that is not a data row, e.g. a header.
+     */
+    protected final void writeLine(CharSequence text) throws IOException {
+        line.setLength(0);
+        line.append(text).append('\n');
+        emit();
+    }
+
+    private void emit() throws IOException {
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+}
@@ -2,15 +2,20 @@ package com.contoso.roadinfra.analytics.repository;
 
 import com.contoso.roadinfra.analytics.constants.Trend;
 import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for KpiSnapshot entities.
@@ -23,6 +28,19 @@ public interface KpiSnapshotRepository extends JpaRepository<KpiSnapshot, UUID>
      */
     Optional<KpiSnapshot> findByMetricNameAndSnapshotDate(String metricName, LocalDate snapshotDate);
 
+    /**
+     * Find corridor-wide snapshots for any of the given metrics on any of the given dates,
+     * so prior values for a whole KPI run come back in one query.
+     */
+    @Query("""
+        SELECT k FROM KpiSnapshot k
+        WHERE k.metricName IN :metricNames
+        AND k.snapshotDate IN :dates
+        AND k.assetId IS NULL
+        """)
+    List<KpiSnapshot> findCorridorSnapshots(@Param("metricNames") Collection<String> metricNames,
+                                            @Param("dates") Collection<LocalDate> dates);
+
     /**
      * Find latest snapshot for a metric.
      */
@@ -35,6 +53,26 @@ public interface KpiSnapshotRepository extends JpaRepository<KpiSnapshot, UUID>
     List<KpiSnapshot> findByMetricNameAndSnapshotDateBetween(
             String metricName, LocalDate from, LocalDate to);
 
+    /**
+     * Stream history for a metric within a date range, ordered by date. Rows are read
+     * through a server-side cursor, so the stream must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT k FROM KpiSnapshot k
+        WHERE k.metricName = :metricName
+        AND k.snapshotDate BETWEEN :from AND :to
+        ORDER BY k.snapshotDate
+        """)
+    Stream<KpiSnapshot> streamHistory(@Param("metricName") String metricName,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    /**
+     * Count history for a metric within a date range.
+     */
+    long countByMetricNameAndSnapshotDateBetween(String metricName, LocalDate from, LocalDate to);
+
     /**
      * Find history for a metric, ordered by date.
      */
@@ -52,6 +90,21 @@ public interface KpiSnapshotRepository extends JpaRepository<KpiSnapshot, UUID>
         """)
     List<KpiSnapshot> findLatestForAllMetrics();
 
+    /**
+     * Stream the latest snapshot for each metric, optionally limited to one category.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT k FROM KpiSnapshot k
+        WHERE (:category IS NULL OR k.category = :category)
+        AND k.snapshotDate = (
+            SELECT MAX(k2.snapshotDate) FROM KpiSnapshot k2 WHERE k2.metricName = k.metricName
+        )
+        ORDER BY k.category, k.metricName
+        """)
+    Stream<KpiSnapshot> streamLatest(@Param("category") String category);
+
     /**
      * Find latest snapshots by category.
      */
@@ -0,0 +1,236 @@
+package com.contoso.roadinfra.analytics.service;
+
+import com.contoso.roadinfra.analytics.export.ExportJob;
+import com.contoso.roadinfra.analytics.export.ExportJobRequest;
+import com.contoso.roadinfra.analytics.export.ExportJobStatus;
+import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
+import com.contoso.roadinfra.common.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders large reports in the background.
+ *
+ * Jobs run on a bounded worker pool and write to a file in a local spool directory,
+ * first as {@code <id>.part} and then renamed to {@code <id>} once complete, so a
+ * download never sees a partial file. A request identical to a queued or running job,
+ * or to a retained one whose data cannot have changed, is attached to that job instead
+ * of rendering the report again; each user sees only the jobs they hold a reference
+ * to, and a shared job is cancelled once the last reference is released. Jobs and
+ * their files are discarded after the retention period; job state is in memory, so
+ * an instance restart clears the spool.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final ReportExportService reportExportService;
+    private final Path spoolDirectory;
+    private final Duration retention;
+    private final ThreadPoolExecutor workers;
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<ExportJobRequest, ExportJob> jobsByRequest = new ConcurrentHashMap<>();
+
+    public ExportJobService(ReportExportService reportExportService,
+                            @Value("${analytics.export-jobs.spool-path:./data/export-spool}") String spoolPath,
+                            @Value("${analytics.export-jobs.worker-threads:2}") int workerThreads,
+                            @Value("${analytics.export-jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${analytics.export-jobs.retention-minutes:60}") long retentionMinutes)
+            throws IOException {
+        this.reportExportService = reportExportService;
+        this.spoolDirectory = Paths.get(spoolPath).toAbsolutePath();
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        Files.createDirectories(spoolDirectory);
+        clearSpool();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queue an export, or give {@code requestedBy} a reference to the existing job for an
+     * identical request.
+     *
+     * @throws ServiceUnavailableException if the job queue is full
+     */
+    public ExportJob submit(ExportJobRequest request, String requestedBy) {
+        ExportJobRequest normalized = request.normalized();
+        return jobsByRequest.compute(normalized, (key, existing) -> {
+            if (existing != null && existing.isReusable() && existing.attach(requestedBy)) {
+                log.debug("Export request from {} attached to existing job {}", requestedBy, existing.getId());
+                return existing;
+            }
+            return start(key, requestedBy);
+        });
+    }
+
+    /**
+     * @param admin whether {@code user} may see every job
+     * @throws ResourceNotFoundException if the job does not exist or {@code user} holds no reference to it
+     */
+    public ExportJob getJob(UUID id, String user, boolean admin) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !(admin || job.isOwnedBy(user))) {
+            throw new ResourceNotFoundException("Export job", id);
+        }
+        return job;
+    }
+
+    /**
+     * @param admin whether {@code user} may see every job
+     */
+    public List<ExportJob> getJobs(String user, boolean admin) {
+        return jobs.values().stream()
+                .filter(job -> admin || job.isOwnedBy(user))
+                .toList();
+    }
+
+    /**
+     * Release {@code user}'s reference to a job. The job is cancelled if it is still
+     * running and discarded with its file once no reference remains, or at once when
+     * an admin deletes a job they hold no reference to.
+     */
+    public void delete(UUID id, String user, boolean admin) {
+        ExportJob job = getJob(id, user, admin);
+        boolean lastReference = job.isOwnedBy(user) ? job.release(user) : admin;
+        if (!lastReference) {
+            log.debug("{} released export job {}, still referenced by other users", user, id);
+            return;
+        }
+        if (job.cancel()) {
+            log.info("Cancelled export job {}", id);
+        }
+        discard(job);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.export-jobs.cleanup-interval-ms:300000}")
+    public void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        int evicted = 0;
+        for (ExportJob job : jobs.values()) {
+            Instant completedAt = job.getCompletedAt();
+            if (job.getStatus().isTerminal() && completedAt != null && completedAt.isBefore(cutoff)) {
+                discard(job);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} expired export jobs", evicted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private ExportJob start(ExportJobRequest request, String requestedBy) {
+        UUID id = UUID.randomUUID();
+        ExportJob job = new ExportJob(id, request, requestedBy, spoolDirectory.resolve(id.toString()));
+        jobs.put(id, job);
+        try {
+            job.setFuture(workers.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new ServiceUnavailableException("analytics-service",
+                    "export queue is full, retry later");
+        }
+        log.info("Queued export job {} for {}: {}", id, requestedBy, request);
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+        Path partFile = job.getFile().resolveSibling(job.getFile().getFileName() + PART_SUFFIX);
+        long started = System.nanoTime();
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                render(job, out);
+            }
+            Files.move(partFile, job.getFile(), StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(Files.size(job.getFile()));
+            log.info("Export job {} completed: {} rows, {} bytes in {} ms", job.getId(), job.getRowsWritten(),
+                    job.getFileSize(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (CancellationException e) {
+            log.info("Export job {} stopped after cancellation", job.getId());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.getId(), e);
+            job.markFailed(e.getMessage());
+        } finally {
+            deleteQuietly(partFile);
+            if (job.getStatus() != ExportJobStatus.COMPLETED) {
+                deleteQuietly(job.getFile());
+            }
+        }
+    }
+
+    private void render(ExportJob job, OutputStream out) throws IOException {
+        ExportJobRequest request = job.getRequest();
+        switch (request.type()) {
+            case KPIS -> reportExportService.writeKpis(request.from(), request.to(), request.category(),
+                    request.format(), request.gzip(), out, job);
+            case KPI_HISTORY -> reportExportService.writeKpiHistory(request.metricName(), request.from(),
+                    request.to(), request.format(), request.gzip(), out, job);
+            case HTML -> reportExportService.generateHtmlReport(request.from(), request.to()).writeTo(out);
+        }
+    }
+
+    private void discard(ExportJob job) {
+        jobs.remove(job.getId());
+        jobsByRequest.remove(job.getRequest(), job);
+        deleteQuietly(job.getFile());
+    }
+
+    private void clearSpool() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read export spool " + spoolDirectory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -7,17 +7,23 @@ import com.contoso.roadinfra.analytics.client.SensorServiceClient;
 import com.contoso.roadinfra.analytics.constants.Trend;
 import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
 import com.contoso.roadinfra.analytics.repository.KpiSnapshotRepository;
-import com.contoso.roadinfra.common.dto.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for calculating and tracking KPIs.
@@ -33,6 +39,7 @@ public class KpiCalculationService {
     private final AssetServiceClient assetServiceClient;
     private final MonitoringServiceClient monitoringServiceClient;
     private final AlertServiceClient alertServiceClient;
+    private final KpiSnapshotWriter snapshotWriter;
 
     // KPI Constants
     public static final String KPI_SENSOR_UPTIME = "sensor_uptime";
@@ -50,336 +57,271 @@ public class KpiCalculationService {
 
     /**
      * Calculate all KPIs - scheduled daily at 1 AM.
+     *
+     * KPIs run concurrently on virtual threads; a KPI only waits for the KPIs it
+     * depends on. Upstream service calls are shared across the run, and the snapshots
+     * are written in one batch once every calculation has finished. No transaction is
+     * held open while the upstream calls are in flight.
      */
     @Scheduled(cron = "0 0 1 * * *")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void calculateDailyKpis() {
         log.info("Starting daily KPI calculation");
+        long started = System.nanoTime();
         LocalDate today = LocalDate.now();
 
-        try {
-            // Sensor-related KPIs
-            calculateSensorUptime(today);
-            calculateMTBF(today);
-            calculateSensorCoverage(today);
-            calculateDataQuality(today);
-
-            // Health-related KPIs
-            calculateCorridorHealthIndex(today);
-            
-            // Alert-related KPIs
-            calculateAlertResponseTime(today);
-            calculateCriticalAlertsRate(today);
-            
-            // Asset-related KPIs
-            calculateAssetUtilization(today);
-            
-            // Project KPIs (simulated)
-            calculateConstructionProgress(today);
-            calculateSchedulePerformanceIndex(today);
-            
-            // Quality KPIs
-            calculatePredictiveAccuracy(today);
-            calculateMaintenanceEfficiency(today);
-
-            log.info("Daily KPI calculation completed");
+        try (ExecutorService executor = new DelegatingSecurityContextExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kpi-", 0).factory()))) {
+            KpiRunContext context = new KpiRunContext(today, executor, sensorServiceClient,
+                    assetServiceClient, monitoringServiceClient, alertServiceClient);
+
+            List<KpiDefinition> definitions = kpiDefinitions();
+            Map<KpiDefinition, Double> values = calculateAll(definitions, context, executor);
+
+            snapshotWriter.saveAll(today, values);
+            log.info("Daily KPI calculation completed: {} of {} KPIs in {} ms", values.size(), definitions.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
         } catch (Exception e) {
             log.error("Error during daily KPI calculation: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * Calculate sensor uptime percentage.
+     * Run each definition once the KPIs it depends on have finished, and return the
+     * values that were calculated, in definition order. A KPI whose calculation fails
+     * is left out; its dependents still run and fall back to their defaults.
+     *
+     * @throws IllegalStateException if a definition depends on a KPI not listed before it
      */
-    private void calculateSensorUptime(LocalDate date) {
-        try {
-            ApiResponse<Map<String, Long>> response = sensorServiceClient.getSensorStatusCounts();
-            Map<String, Long> counts = response.getData();
-            
-            long active = counts.getOrDefault("ACTIVE", 0L);
-            long total = counts.values().stream().mapToLong(Long::longValue).sum();
-            
-            double uptime = total > 0 ? (double) active / total * 100.0 : 0.0;
-            
-            saveSnapshot(KPI_SENSOR_UPTIME, "Sensor Uptime", "Operations", 
-                    date, uptime, 98.0, "%");
-            
-            log.debug("Sensor uptime calculated: {}%", uptime);
-        } catch (Exception e) {
-            log.error("Error calculating sensor uptime: {}", e.getMessage());
+    Map<KpiDefinition, Double> calculateAll(List<KpiDefinition> definitions, KpiRunContext context,
+                                            Executor executor) {
+        Map<KpiDefinition, CompletableFuture<Double>> results = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Double>> byMetric = new HashMap<>();
+        for (KpiDefinition definition : definitions) {
+            CompletableFuture<?>[] dependencies = definition.dependsOn().stream()
+                    .map(metricName -> {
+                        CompletableFuture<Double> dependency = byMetric.get(metricName);
+                        if (dependency == null) {
+                            throw new IllegalStateException("KPI " + definition.metricName()
+                                    + " depends on " + metricName + ", which is not defined before it");
+                        }
+                        return dependency;
+                    })
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<Double> result = CompletableFuture.allOf(dependencies)
+                    .handle((ignored, failure) -> null)
+                    .thenApplyAsync(ignored -> calculate(definition, context), executor);
+            results.put(definition, result);
+            byMetric.put(definition.metricName(), result);
         }
+
+        Map<KpiDefinition, Double> values = new LinkedHashMap<>();
+        results.forEach((definition, result) -> {
+            Double value = result.join();
+            if (value != null) {
+                values.put(definition, value);
+            }
+        });
+        return values;
     }
 
     /**
-     * Calculate Mean Time Between Failures (hours).
+     * KPIs calculated by the daily run. A KPI must be listed after the KPIs it depends on.
      */
-    private void calculateMTBF(LocalDate date) {
+    private List<KpiDefinition> kpiDefinitions() {
+        return List.of(
+                // Sensor-related KPIs
+                KpiDefinition.of(KPI_SENSOR_UPTIME, "Sensor Uptime", "Operations", 98.0, "%",
+                        this::calculateSensorUptime),
+                KpiDefinition.of(KPI_MTBF, "Mean Time Between Failures", "Reliability", 500.0, "hours",
+                        this::calculateMTBF),
+                KpiDefinition.of(KPI_SENSOR_COVERAGE, "Sensor Coverage", "Infrastructure", 95.0, "%",
+                        this::calculateSensorCoverage),
+                KpiDefinition.of(KPI_DATA_QUALITY, "Data Quality Score", "Quality", 95.0, "%",
+                        this::calculateDataQuality).dependsOn(KPI_SENSOR_UPTIME),
+
+                // Health-related KPIs
+                KpiDefinition.of(KPI_HEALTH_INDEX, "Corridor Health Index", "Health", 80.0, "score",
+                        this::calculateCorridorHealthIndex),
+
+                // Alert-related KPIs
+                KpiDefinition.of(KPI_ALERT_RESPONSE_TIME, "Alert Response Time", "Operations", 30.0, "minutes",
+                        this::calculateAlertResponseTime),
+                // For critical alerts, lower is better. Target: less than 5%
+                KpiDefinition.of(KPI_CRITICAL_ALERTS, "Critical Alerts Rate", "Alerts", 5.0, "%",
+                        this::calculateCriticalAlertsRate),
+
+                // Asset-related KPIs
+                KpiDefinition.of(KPI_ASSET_UTILIZATION, "Asset Utilization", "Assets", 90.0, "%",
+                        this::calculateAssetUtilization),
+
+                // Project KPIs (simulated)
+                KpiDefinition.of(KPI_CONSTRUCTION_PROGRESS, "Construction Progress", "Project", 100.0, "%",
+                        this::calculateConstructionProgress),
+                KpiDefinition.of(KPI_SPI, "Schedule Performance Index", "Project", 1.0, "ratio",
+                        this::calculateSchedulePerformanceIndex),
+
+                // Quality KPIs
+                KpiDefinition.of(KPI_PREDICTIVE_ACCURACY, "Predictive Model Accuracy", "Quality", 90.0, "%",
+                        this::calculatePredictiveAccuracy),
+                KpiDefinition.of(KPI_MAINTENANCE_EFFICIENCY, "Maintenance Efficiency", "Maintenance", 85.0, "%",
+                        this::calculateMaintenanceEfficiency)
+        );
+    }
+
+    private Double calculate(KpiDefinition definition, KpiRunContext context) {
         try {
-            ApiResponse<Map<String, Object>> response = sensorServiceClient.getSensorStatistics();
-            Map<String, Object> stats = response.getData();
-            
-            // MTBF calculation based on sensor statistics
-            // Simulated: total operational hours / number of failures
-            double mtbf = stats.containsKey("mtbf") 
-                    ? ((Number) stats.get("mtbf")).doubleValue() 
-                    : 720.0; // Default 30 days
-            
-            saveSnapshot(KPI_MTBF, "Mean Time Between Failures", "Reliability", 
-                    date, mtbf, 500.0, "hours");
-            
-            log.debug("MTBF calculated: {} hours", mtbf);
+            Double value = definition.calculator().apply(context);
+            if (value != null) {
+                context.putValue(definition.metricName(), value);
+            }
+            log.debug("{} calculated: {} {}", definition.displayName(), value, definition.unit());
+            return value;
         } catch (Exception e) {
-            log.error("Error calculating MTBF: {}", e.getMessage());
+            log.error("Error calculating {}: {}", definition.metricName(), e.getMessage());
+            return null;
         }
     }
 
+    /**
+     * Calculate sensor uptime percentage.
+     */
+    private Double calculateSensorUptime(KpiRunContext context) {
+        Map<String, Long> counts = context.sensorStatusCounts();
+
+        long active = counts.getOrDefault("ACTIVE", 0L);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        return total > 0 ? (double) active / total * 100.0 : 0.0;
+    }
+
+    /**
+     * Calculate Mean Time Between Failures (hours).
+     */
+    private Double calculateMTBF(KpiRunContext context) {
+        Map<String, Object> stats = context.sensorStatistics();
+
+        // MTBF calculation based on sensor statistics
+        // Simulated: total operational hours / number of failures
+        return stats.containsKey("mtbf")
+                ? ((Number) stats.get("mtbf")).doubleValue()
+                : 720.0; // Default 30 days
+    }
+
     /**
      * Calculate sensor coverage percentage.
      */
-    private void calculateSensorCoverage(LocalDate date) {
-        try {
-            ApiResponse<Map<String, Object>> assetStats = assetServiceClient.getAssetStatistics();
-            ApiResponse<Map<String, Object>> sensorStats = sensorServiceClient.getSensorStatistics();
-            
-            int totalAssets = assetStats.getData().containsKey("totalAssets")
-                    ? ((Number) assetStats.getData().get("totalAssets")).intValue() : 0;
-            int totalSensors = sensorStats.getData().containsKey("totalSensors")
-                    ? ((Number) sensorStats.getData().get("totalSensors")).intValue() : 0;
-            
-            // Assuming minimum 5 sensors per asset for full coverage
-            double coverage = totalAssets > 0 
-                    ? Math.min(100.0, (double) totalSensors / (totalAssets * 5) * 100.0) 
-                    : 0.0;
-            
-            saveSnapshot(KPI_SENSOR_COVERAGE, "Sensor Coverage", "Infrastructure", 
-                    date, coverage, 95.0, "%");
-            
-            log.debug("Sensor coverage calculated: {}%", coverage);
-        } catch (Exception e) {
-            log.error("Error calculating sensor coverage: {}", e.getMessage());
-        }
+    private Double calculateSensorCoverage(KpiRunContext context) {
+        Map<String, Object> assetStats = context.assetStatistics();
+        Map<String, Object> sensorStats = context.sensorStatistics();
+
+        int totalAssets = assetStats.containsKey("totalAssets")
+                ? ((Number) assetStats.get("totalAssets")).intValue() : 0;
+        int totalSensors = sensorStats.containsKey("totalSensors")
+                ? ((Number) sensorStats.get("totalSensors")).intValue() : 0;
+
+        // Assuming minimum 5 sensors per asset for full coverage
+        return totalAssets > 0
+                ? Math.min(100.0, (double) totalSensors / (totalAssets * 5) * 100.0)
+                : 0.0;
     }
 
     /**
      * Calculate data quality score.
      */
-    private void calculateDataQuality(LocalDate date) {
-        try {
-            // Data quality is based on:
-            // - Sensor uptime (40%)
-            // - Data completeness (30%)
-            // - Reading accuracy (30%)
-            
-            Optional<KpiSnapshot> uptimeSnapshot = snapshotRepository
-                    .findByMetricNameAndSnapshotDate(KPI_SENSOR_UPTIME, date);
-            
-            double uptimeScore = uptimeSnapshot.map(KpiSnapshot::getValue).orElse(90.0);
-            double completenessScore = 95.0; // Simulated
-            double accuracyScore = 98.0; // Simulated
-            
-            double dataQuality = (uptimeScore * 0.4) + (completenessScore * 0.3) + (accuracyScore * 0.3);
-            
-            saveSnapshot(KPI_DATA_QUALITY, "Data Quality Score", "Quality", 
-                    date, dataQuality, 95.0, "%");
-            
-            log.debug("Data quality calculated: {}", dataQuality);
-        } catch (Exception e) {
-            log.error("Error calculating data quality: {}", e.getMessage());
-        }
+    private Double calculateDataQuality(KpiRunContext context) {
+        // Data quality is based on:
+        // - Sensor uptime (40%)
+        // - Data completeness (30%)
+        // - Reading accuracy (30%)
+        double uptimeScore = context.value(KPI_SENSOR_UPTIME).orElse(90.0);
+        double completenessScore = 95.0; // Simulated
+        double accuracyScore = 98.0; // Simulated
+
+        return (uptimeScore * 0.4) + (completenessScore * 0.3) + (accuracyScore * 0.3);
     }
 
     /**
      * Calculate corridor health index.
      */
-    private void calculateCorridorHealthIndex(LocalDate date) {
-        try {
-            ApiResponse<Map<String, Object>> response = monitoringServiceClient.getCorridorSummary();
-            Map<String, Object> summary = response.getData();
-            
-            double avgScore = summary.containsKey("averageHealthScore")
-                    ? ((Number) summary.get("averageHealthScore")).doubleValue()
-                    : 0.0;
-            
-            saveSnapshot(KPI_HEALTH_INDEX, "Corridor Health Index", "Health", 
-                    date, avgScore, 80.0, "score");
-            
-            log.debug("Corridor health index calculated: {}", avgScore);
-        } catch (Exception e) {
-            log.error("Error calculating corridor health index: {}", e.getMessage());
-        }
+    private Double calculateCorridorHealthIndex(KpiRunContext context) {
+        Map<String, Object> summary = context.corridorSummary();
+
+        return summary.containsKey("averageHealthScore")
+                ? ((Number) summary.get("averageHealthScore")).doubleValue()
+                : 0.0;
     }
 
     /**
      * Calculate average alert response time (minutes).
      */
-    private void calculateAlertResponseTime(LocalDate date) {
-        try {
-            // This would typically query alert history to calculate average response time
-            // Simulated for now
-            double avgResponseTime = 15.0 + (Math.random() * 10); // 15-25 minutes
-            
-            saveSnapshot(KPI_ALERT_RESPONSE_TIME, "Alert Response Time", "Operations", 
-                    date, avgResponseTime, 30.0, "minutes");
-            
-            log.debug("Alert response time calculated: {} minutes", avgResponseTime);
-        } catch (Exception e) {
-            log.error("Error calculating alert response time: {}", e.getMessage());
-        }
+    private Double calculateAlertResponseTime(KpiRunContext context) {
+        // This would typically query alert history to calculate average response time
+        // Simulated for now
+        return 15.0 + (Math.random() * 10); // 15-25 minutes
     }
 
     /**
      * Calculate critical alerts rate.
      */
-    private void calculateCriticalAlertsRate(LocalDate date) {
-        try {
-            ApiResponse<Map<String, Long>> response = alertServiceClient.getAlertStatistics();
-            Map<String, Long> stats = response.getData();
-            
-            long critical = stats.getOrDefault("critical", 0L);
-            long total = stats.values().stream().mapToLong(Long::longValue).sum();
-            
-            double rate = total > 0 ? (double) critical / total * 100.0 : 0.0;
-            
-            // For critical alerts, lower is better, so we track inverse for target evaluation
-            saveSnapshot(KPI_CRITICAL_ALERTS, "Critical Alerts Rate", "Alerts", 
-                    date, rate, 5.0, "%"); // Target: less than 5%
-            
-            log.debug("Critical alerts rate calculated: {}%", rate);
-        } catch (Exception e) {
-            log.error("Error calculating critical alerts rate: {}", e.getMessage());
-        }
+    private Double calculateCriticalAlertsRate(KpiRunContext context) {
+        Map<String, Long> stats = context.alertStatistics();
+
+        long critical = stats.getOrDefault("critical", 0L);
+        long total = stats.values().stream().mapToLong(Long::longValue).sum();
+
+        return total > 0 ? (double) critical / total * 100.0 : 0.0;
     }
 
     /**
      * Calculate asset utilization.
      */
-    private void calculateAssetUtilization(LocalDate date) {
-        try {
-            ApiResponse<Map<String, Long>> response = assetServiceClient.getAssetCountByStatus();
-            Map<String, Long> counts = response.getData();
-            
-            long operational = counts.getOrDefault("OPERATIONAL", 0L);
-            long total = counts.values().stream().mapToLong(Long::longValue).sum();
-            
-            double utilization = total > 0 ? (double) operational / total * 100.0 : 0.0;
-            
-            saveSnapshot(KPI_ASSET_UTILIZATION, "Asset Utilization", "Assets", 
-                    date, utilization, 90.0, "%");
-            
-            log.debug("Asset utilization calculated: {}%", utilization);
-        } catch (Exception e) {
-            log.error("Error calculating asset utilization: {}", e.getMessage());
-        }
+    private Double calculateAssetUtilization(KpiRunContext context) {
+        Map<String, Long> counts = context.assetCountByStatus();
+
+        long operational = counts.getOrDefault("OPERATIONAL", 0L);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        return total > 0 ? (double) operational / total * 100.0 : 0.0;
     }
 
     /**
      * Calculate construction progress (simulated).
      */
-    private void calculateConstructionProgress(LocalDate date) {
-        try {
-            // Simulated construction progress - would come from project management system
-            // Increments by 0.1-0.3% daily
-            Optional<KpiSnapshot> previous = snapshotRepository
-                    .findLatestByMetricName(KPI_CONSTRUCTION_PROGRESS);
-            
-            double previousProgress = previous.map(KpiSnapshot::getValue).orElse(45.0);
-            double dailyProgress = 0.1 + (Math.random() * 0.2);
-            double currentProgress = Math.min(100.0, previousProgress + dailyProgress);
-            
-            saveSnapshot(KPI_CONSTRUCTION_PROGRESS, "Construction Progress", "Project", 
-                    date, currentProgress, 100.0, "%");
-            
-            log.debug("Construction progress calculated: {}%", currentProgress);
-        } catch (Exception e) {
-            log.error("Error calculating construction progress: {}", e.getMessage());
-        }
+    private Double calculateConstructionProgress(KpiRunContext context) {
+        // Simulated construction progress - would come from project management system
+        // Increments by 0.1-0.3% daily
+        Optional<KpiSnapshot> previous = snapshotRepository
+                .findLatestByMetricName(KPI_CONSTRUCTION_PROGRESS);
+
+        double previousProgress = previous.map(KpiSnapshot::getValue).orElse(45.0);
+        double dailyProgress = 0.1 + (Math.random() * 0.2);
+        return Math.min(100.0, previousProgress + dailyProgress);
     }
 
     /**
      * Calculate Schedule Performance Index.
      */
-    private void calculateSchedulePerformanceIndex(LocalDate date) {
-        try {
-            // SPI = Earned Value / Planned Value
-            // Simulated: a healthy project has SPI close to 1.0
-            double spi = 0.95 + (Math.random() * 0.1); // 0.95 - 1.05
-            
-            saveSnapshot(KPI_SPI, "Schedule Performance Index", "Project", 
-                    date, spi, 1.0, "ratio");
-            
-            log.debug("SPI calculated: {}", spi);
-        } catch (Exception e) {
-            log.error("Error calculating SPI: {}", e.getMessage());
-        }
+    private Double calculateSchedulePerformanceIndex(KpiRunContext context) {
+        // SPI = Earned Value / Planned Value
+        // Simulated: a healthy project has SPI close to 1.0
+        return 0.95 + (Math.random() * 0.1); // 0.95 - 1.05
     }
 
     /**
      * Calculate predictive accuracy (simulated).
      */
-    private void calculatePredictiveAccuracy(LocalDate date) {
-        try {
-            // Accuracy of health predictions vs actual outcomes
-            double accuracy = 85.0 + (Math.random() * 10); // 85-95%
-            
-            saveSnapshot(KPI_PREDICTIVE_ACCURACY, "Predictive Model Accuracy", "Quality", 
-                    date, accuracy, 90.0, "%");
-            
-            log.debug("Predictive accuracy calculated: {}%", accuracy);
-        } catch (Exception e) {
-            log.error("Error calculating predictive accuracy: {}", e.getMessage());
-        }
+    private Double calculatePredictiveAccuracy(KpiRunContext context) {
+        // Accuracy of health predictions vs actual outcomes
+        return 85.0 + (Math.random() * 10); // 85-95%
     }
 
     /**
      * Calculate maintenance efficiency (simulated).
      */
-    private void calculateMaintenanceEfficiency(LocalDate date) {
-        try {
-            // Efficiency = (Planned maintenance time / Actual maintenance time) * 100
-            double efficiency = 80.0 + (Math.random() * 15); // 80-95%
-            
-            saveSnapshot(KPI_MAINTENANCE_EFFICIENCY, "Maintenance Efficiency", "Maintenance", 
-                    date, efficiency, 85.0, "%");
-            
-            log.debug("Maintenance efficiency calculated: {}%", efficiency);
-        } catch (Exception e) {
-            log.error("Error calculating maintenance efficiency: {}", e.getMessage());
-        }
-    }
-
-    /**
-     * Save KPI snapshot with trend calculation.
-     */
-    private void saveSnapshot(String metricName, String displayName, String category,
-                               LocalDate date, Double value, Double target, String unit) {
-        // Get previous day's value
-        Optional<KpiSnapshot> previous = snapshotRepository
-                .findByMetricNameAndSnapshotDate(metricName, date.minusDays(1));
-        
-        // Get week ago value
-        Optional<KpiSnapshot> weekAgo = snapshotRepository
-                .findByMetricNameAndSnapshotDate(metricName, date.minusWeeks(1));
-        
-        // Get month ago value
-        Optional<KpiSnapshot> monthAgo = snapshotRepository
-                .findByMetricNameAndSnapshotDate(metricName, date.minusMonths(1));
-
-        KpiSnapshot snapshot = KpiSnapshot.builder()
-                .metricName(metricName)
-                .displayName(displayName)
-                .category(category)
-                .snapshotDate(date)
-                .value(value)
-                .previousValue(previous.map(KpiSnapshot::getValue).orElse(null))
-                .weekAgoValue(weekAgo.map(KpiSnapshot::getValue).orElse(null))
-                .monthAgoValue(monthAgo.map(KpiSnapshot::getValue).orElse(null))
-                .targetValue(target)
-                .unit(unit)
-                .build();
-
-        snapshot.calculateTrend();
-        snapshot.evaluateTarget();
-
-        snapshotRepository.save(snapshot);
+    private Double calculateMaintenanceEfficiency(KpiRunContext context) {
+        // Efficiency = (Planned maintenance time / Actual maintenance time) * 100
+        return 80.0 + (Math.random() * 15); // 80-95%
     }
 
     // ================= Query Methods =================
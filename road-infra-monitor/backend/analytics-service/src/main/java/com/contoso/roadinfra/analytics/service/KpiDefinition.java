@@ -0,0 +1,28 @@
+package com.contoso.roadinfra.analytics.service;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A KPI calculated by the daily run.
+ *
+ * @param dependsOn  metric names that must be calculated first in the same run
+ * @param calculator produces the KPI value; returning null skips the snapshot
+ */
+record KpiDefinition(String metricName,
+                     String displayName,
+                     String category,
+                     Double target,
+                     String unit,
+                     Set<String> dependsOn,
+                     Function<KpiRunContext, Double> calculator) {
+
+    static KpiDefinition of(String metricName, String displayName, String category, Double target, String unit,
+                            Function<KpiRunContext, Double> calculator) {
+        return new KpiDefinition(metricName, displayName, category, target, unit, Set.of(), calculator);
+    }
+
+    KpiDefinition dependsOn(String... metricNames) {
+        return new KpiDefinition(metricName, displayName, category, target, unit, Set.of(metricNames), calculator);
+    }
+}
@@ -0,0 +1,92 @@
+package com.contoso.roadinfra.analytics.service;
+
+import com.contoso.roadinfra.analytics.client.AlertServiceClient;
+import com.contoso.roadinfra.analytics.client.AssetServiceClient;
+import com.contoso.roadinfra.analytics.client.MonitoringServiceClient;
+import com.contoso.roadinfra.analytics.client.SensorServiceClient;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * State shared by the KPI calculations of a single run.
+ *
+ * Each upstream call is made at most once per run: the first calculation that needs a
+ * source starts the call on the run's executor and every other calculation waits on
+ * the same future. Calculated KPI values are published here for dependent KPIs.
+ */
+class KpiRunContext {
+
+    private final LocalDate date;
+    private final Executor executor;
+    private final SensorServiceClient sensorServiceClient;
+    private final AssetServiceClient assetServiceClient;
+    private final MonitoringServiceClient monitoringServiceClient;
+    private final AlertServiceClient alertServiceClient;
+
+    private final Map<String, CompletableFuture<?>> sources = new ConcurrentHashMap<>();
+    private final Map<String, Double> values = new ConcurrentHashMap<>();
+
+    KpiRunContext(LocalDate date, Executor executor,
+                  SensorServiceClient sensorServiceClient,
+                  AssetServiceClient assetServiceClient,
+                  MonitoringServiceClient monitoringServiceClient,
+                  AlertServiceClient alertServiceClient) {
+        this.date = date;
+        this.executor = executor;
+        this.sensorServiceClient = sensorServiceClient;
+        this.assetServiceClient = assetServiceClient;
+        this.monitoringServiceClient = monitoringServiceClient;
+        this.alertServiceClient = alertServiceClient;
+    }
+
+    LocalDate date() {
+        return date;
+    }
+
+    Map<String, Long> sensorStatusCounts() {
+        return fetch("sensorStatusCounts", () -> sensorServiceClient.getSensorStatusCounts().getData());
+    }
+
+    Map<String, Object> sensorStatistics() {
+        return fetch("sensorStatistics", () -> sensorServiceClient.getSensorStatistics().getData());
+    }
+
+    Map<String, Object> assetStatistics() {
+        return fetch("assetStatistics", () -> assetServiceClient.getAssetStatistics().getData());
+    }
+
+    Map<String, Long> assetCountByStatus() {
+        return fetch("assetCountByStatus", () -> assetServiceClient.getAssetCountByStatus().getData());
+    }
+
+    Map<String, Object> corridorSummary() {
+        return fetch("corridorSummary", () -> monitoringServiceClient.getCorridorSummary().getData());
+    }
+
+    Map<String, Long> alertStatistics() {
+        return fetch("alertStatistics", () -> alertServiceClient.getAlertStatistics().getData());
+    }
+
+    /**
+     * Value calculated earlier in this run for a KPI this one depends on.
+     */
+    Optional<Double> value(String metricName) {
+        return Optional.ofNullable(values.get(metricName));
+    }
+
+    void putValue(String metricName, Double value) {
+        values.put(metricName, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T fetch(String key, Supplier<T> call) {
+        return ((CompletableFuture<T>) sources.computeIfAbsent(key,
+                k -> CompletableFuture.supplyAsync(call, executor))).join();
+    }
+}
@@ -0,0 +1,84 @@
+package com.contoso.roadinfra.analytics.service;
+
+import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
+import com.contoso.roadinfra.analytics.repository.KpiSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the snapshots of a KPI run in one transaction.
+ *
+ * Prior values (previous day, week ago, month ago) for every metric are resolved with a
+ * single query, and the snapshots are written with one batched {@code saveAll}. Re-running
+ * a day updates that day's snapshots instead of inserting duplicates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KpiSnapshotWriter {
+
+    private final KpiSnapshotRepository snapshotRepository;
+
+    @Transactional
+    @CacheEvict(value = "currentKpis", allEntries = true)
+    public List<KpiSnapshot> saveAll(LocalDate date, Map<KpiDefinition, Double> values) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate previousDay = date.minusDays(1);
+        LocalDate weekAgo = date.minusWeeks(1);
+        LocalDate monthAgo = date.minusMonths(1);
+
+        Set<String> metricNames = values.keySet().stream()
+                .map(KpiDefinition::metricName)
+                .collect(Collectors.toSet());
+        Map<SnapshotKey, KpiSnapshot> existing = new HashMap<>();
+        for (KpiSnapshot snapshot : snapshotRepository.findCorridorSnapshots(
+                metricNames, Set.of(date, previousDay, weekAgo, monthAgo))) {
+            existing.put(new SnapshotKey(snapshot.getMetricName(), snapshot.getSnapshotDate()), snapshot);
+        }
+
+        List<KpiSnapshot> snapshots = new ArrayList<>(values.size());
+        values.forEach((definition, value) -> {
+            String metricName = definition.metricName();
+            KpiSnapshot snapshot = existing.getOrDefault(new SnapshotKey(metricName, date), new KpiSnapshot());
+            snapshot.setMetricName(metricName);
+            snapshot.setDisplayName(definition.displayName());
+            snapshot.setCategory(definition.category());
+            snapshot.setSnapshotDate(date);
+            snapshot.setValue(value);
+            snapshot.setPreviousValue(valueOf(existing, metricName, previousDay));
+            snapshot.setWeekAgoValue(valueOf(existing, metricName, weekAgo));
+            snapshot.setMonthAgoValue(valueOf(existing, metricName, monthAgo));
+            snapshot.setTargetValue(definition.target());
+            snapshot.setUnit(definition.unit());
+            snapshot.calculateTrend();
+            snapshot.evaluateTarget();
+            snapshots.add(snapshot);
+        });
+
+        List<KpiSnapshot> saved = snapshotRepository.saveAll(snapshots);
+        log.debug("Saved {} KPI snapshots for {}", saved.size(), date);
+        return saved;
+    }
+
+    private static Double valueOf(Map<SnapshotKey, KpiSnapshot> snapshots, String metricName, LocalDate date) {
+        KpiSnapshot snapshot = snapshots.get(new SnapshotKey(metricName, date));
+        return snapshot != null ? snapshot.getValue() : null;
+    }
+
+    private record SnapshotKey(String metricName, LocalDate date) {
+    }
+}
@@ -2,190 +2,147 @@ package com.contoso.roadinfra.analytics.service;
 
 import com.contoso.roadinfra.analytics.constants.Trend;
 import com.contoso.roadinfra.analytics.entity.KpiSnapshot;
+import com.contoso.roadinfra.analytics.export.ExportColumn;
+import com.contoso.roadinfra.analytics.export.ExportFormat;
+import com.contoso.roadinfra.analytics.export.ExportProgress;
+import com.contoso.roadinfra.analytics.export.HtmlReportWriter;
+import com.contoso.roadinfra.analytics.export.StreamingExporter;
 import com.contoso.roadinfra.analytics.repository.KpiSnapshotRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service for exporting reports in various formats.
+ *
+ * Rows are read from a database cursor in a read-only transaction and written to the
+ * output as they arrive, so neither the result set nor the encoded file is ever held
+ * in memory. The {@code export*} methods wrap this as a {@link StreamingResponseBody};
+ * the {@code write*} methods are used by background export jobs.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ReportExportService {
 
+    private static final List<ExportColumn<KpiSnapshot>> LATEST_COLUMNS = List.of(
+            ExportColumn.string("metricName", "Metric Name", KpiSnapshot::getMetricName),
+            ExportColumn.string("displayName", "Display Name", KpiSnapshot::getDisplayName),
+            ExportColumn.string("category", "Category", KpiSnapshot::getCategory),
+            ExportColumn.date("date", "Date", KpiSnapshot::getSnapshotDate),
+            ExportColumn.decimal("value", "Value", KpiSnapshot::getValue),
+            ExportColumn.decimal("previousValue", "Previous Value", KpiSnapshot::getPreviousValue),
+            ExportColumn.decimal("target", "Target", KpiSnapshot::getTargetValue),
+            ExportColumn.string("unit", "Unit", KpiSnapshot::getUnit),
+            ExportColumn.decimal("percentageChange", "Change %", KpiSnapshot::getPercentageChange),
+            ExportColumn.string("trend", "Trend", ReportExportService::trendName),
+            ExportColumn.bool("onTarget", "On Target", KpiSnapshot::getOnTarget));
+
+    private static final List<ExportColumn<KpiSnapshot>> HISTORY_COLUMNS = List.of(
+            ExportColumn.date("date", "Date", KpiSnapshot::getSnapshotDate),
+            ExportColumn.decimal("value", "Value", KpiSnapshot::getValue),
+            ExportColumn.decimal("previousValue", "Previous Value", KpiSnapshot::getPreviousValue),
+            ExportColumn.decimal("weekAgoValue", "Week Ago", KpiSnapshot::getWeekAgoValue),
+            ExportColumn.decimal("monthAgoValue", "Month Ago", KpiSnapshot::getMonthAgoValue),
+            ExportColumn.decimal("target", "Target", KpiSnapshot::getTargetValue),
+            ExportColumn.decimal("percentageChange", "Change %", KpiSnapshot::getPercentageChange),
+            ExportColumn.string("trend", "Trend", ReportExportService::trendName),
+            ExportColumn.bool("onTarget", "On Target", KpiSnapshot::getOnTarget));
+
     private final KpiSnapshotRepository snapshotRepository;
     private final KpiCalculationService kpiCalculationService;
-
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private final StreamingExporter exporter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportExportService(KpiSnapshotRepository snapshotRepository,
+                               KpiCalculationService kpiCalculationService,
+                               StreamingExporter exporter,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.kpiCalculationService = kpiCalculationService;
+        this.exporter = exporter;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     /**
-     * Export KPI data to CSV format.
+     * Export the latest value of every KPI, optionally limited to one category.
      */
-    public byte[] exportKpisCsv(LocalDate from, LocalDate to, String category) {
-        log.info("Exporting KPIs to CSV: from={}, to={}, category={}", from, to, category);
-
-        List<KpiSnapshot> snapshots;
-        if (category != null && !category.isEmpty()) {
-            snapshots = snapshotRepository.findLatestByCategory(category);
-        } else {
-            snapshots = snapshotRepository.findLatestForAllMetrics();
-        }
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(outputStream);
-
-        // CSV Header
-        writer.println("Metric Name,Display Name,Category,Date,Value,Previous Value," +
-                "Target,Unit,Change %,Trend,On Target");
-
-        // Data rows
-        for (KpiSnapshot snapshot : snapshots) {
-            writer.printf("%s,%s,%s,%s,%.2f,%s,%.2f,%s,%s,%s,%s%n",
-                    escapeCSV(snapshot.getMetricName()),
-                    escapeCSV(snapshot.getDisplayName()),
-                    escapeCSV(snapshot.getCategory()),
-                    snapshot.getSnapshotDate().format(DATE_FORMAT),
-                    snapshot.getValue(),
-                    snapshot.getPreviousValue() != null ? String.format("%.2f", snapshot.getPreviousValue()) : "",
-                    snapshot.getTargetValue(),
-                    escapeCSV(snapshot.getUnit()),
-                    snapshot.getPercentageChange() != null ? String.format("%.2f", snapshot.getPercentageChange()) : "",
-                    snapshot.getTrend() != null ? snapshot.getTrend().getDisplayName() : "",
-                    snapshot.getOnTarget() != null ? snapshot.getOnTarget() : ""
-            );
-        }
-
-        writer.flush();
-        return outputStream.toByteArray();
+    public StreamingResponseBody exportKpis(LocalDate from, LocalDate to, String category,
+                                            ExportFormat format, boolean gzip) {
+        return out -> writeKpis(from, to, category, format, gzip, out, ExportProgress.NONE);
     }
 
     /**
-     * Export KPI history to CSV.
+     * Write the latest-KPIs export to {@code out}, reporting each row to {@code progress}.
      */
-    public byte[] exportKpiHistoryCsv(String metricName, LocalDate from, LocalDate to) {
-        log.info("Exporting KPI history to CSV: metric={}, from={}, to={}", metricName, from, to);
-
-        List<KpiSnapshot> history = snapshotRepository.findByMetricNameAndSnapshotDateBetween(
-                metricName, from, to);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(outputStream);
+    public void writeKpis(LocalDate from, LocalDate to, String category, ExportFormat format, boolean gzip,
+                          OutputStream out, ExportProgress progress) {
+        log.info("Exporting KPIs as {}: from={}, to={}, category={}", format, from, to, category);
+        String categoryFilter = category != null && !category.isEmpty() ? category : null;
+        stream(() -> snapshotRepository.streamLatest(categoryFilter), LATEST_COLUMNS, format, gzip, out, progress);
+    }
 
-        // CSV Header
-        writer.println("Date,Value,Previous Value,Week Ago,Month Ago,Target,Change %,Trend,On Target");
+    /**
+     * Export the history of one KPI over a date range.
+     */
+    public StreamingResponseBody exportKpiHistory(String metricName, LocalDate from, LocalDate to,
+                                                  ExportFormat format, boolean gzip) {
+        return out -> writeKpiHistory(metricName, from, to, format, gzip, out, ExportProgress.NONE);
+    }
 
-        // Data rows
-        for (KpiSnapshot snapshot : history) {
-            writer.printf("%s,%.2f,%s,%s,%s,%.2f,%s,%s,%s%n",
-                    snapshot.getSnapshotDate().format(DATE_FORMAT),
-                    snapshot.getValue(),
-                    snapshot.getPreviousValue() != null ? String.format("%.2f", snapshot.getPreviousValue()) : "",
-                    snapshot.getWeekAgoValue() != null ? String.format("%.2f", snapshot.getWeekAgoValue()) : "",
-                    snapshot.getMonthAgoValue() != null ? String.format("%.2f", snapshot.getMonthAgoValue()) : "",
-                    snapshot.getTargetValue(),
-                    snapshot.getPercentageChange() != null ? String.format("%.2f", snapshot.getPercentageChange()) : "",
-                    snapshot.getTrend() != null ? snapshot.getTrend().getDisplayName() : "",
-                    snapshot.getOnTarget() != null ? snapshot.getOnTarget() : ""
-            );
+    /**
+     * Write a KPI history export to {@code out}, reporting the row count and each row
+     * to {@code progress}.
+     */
+    public void writeKpiHistory(String metricName, LocalDate from, LocalDate to, ExportFormat format,
+                                boolean gzip, OutputStream out, ExportProgress progress) {
+        log.info("Exporting KPI history as {}: metric={}, from={}, to={}", format, metricName, from, to);
+        if (progress != ExportProgress.NONE) {
+            progress.expectRows(snapshotRepository.countByMetricNameAndSnapshotDateBetween(metricName, from, to));
         }
-
-        writer.flush();
-        return outputStream.toByteArray();
+        stream(() -> snapshotRepository.streamHistory(metricName, from, to), HISTORY_COLUMNS, format, gzip, out, progress);
     }
 
     /**
      * Generate HTML report (can be converted to PDF).
      */
-    public String generateHtmlReport(LocalDate from, LocalDate to) {
+    public StreamingResponseBody generateHtmlReport(LocalDate from, LocalDate to) {
         log.info("Generating HTML report: from={}, to={}", from, to);
 
-        List<KpiSnapshot> snapshots = snapshotRepository.findLatestForAllMetrics();
-        var summary = kpiCalculationService.getDashboardSummary();
-
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html><head>\n");
-        html.append("<title>KPI Report - Road Infrastructure Monitoring</title>\n");
-        html.append("<style>\n");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; }\n");
-        html.append("h1 { color: #333; }\n");
-        html.append("table { border-collapse: collapse; width: 100%; margin-top: 20px; }\n");
-        html.append("th, td { border: 1px solid #ddd; padding: 12px; text-align: left; }\n");
-        html.append("th { background-color: #4472C4; color: white; }\n");
-        html.append("tr:nth-child(even) { background-color: #f2f2f2; }\n");
-        html.append(".on-target { color: green; }\n");
-        html.append(".off-target { color: red; }\n");
-        html.append(".trend-up { color: green; }\n");
-        html.append(".trend-down { color: red; }\n");
-        html.append(".summary-box { background: #f8f9fa; padding: 20px; margin: 20px 0; border-radius: 8px; }\n");
-        html.append("</style>\n");
-        html.append("</head><body>\n");
-
-        // Header
-        html.append("<h1>Road Infrastructure Monitoring - KPI Report</h1>\n");
-        html.append("<p>Report generated: ").append(LocalDate.now().format(DATE_FORMAT)).append("</p>\n");
-        html.append("<p>Period: ").append(from.format(DATE_FORMAT)).append(" to ").append(to.format(DATE_FORMAT)).append("</p>\n");
-
-        // Summary
-        html.append("<div class='summary-box'>\n");
-        html.append("<h2>Summary</h2>\n");
-        html.append("<p><strong>Total KPIs:</strong> ").append(summary.get("totalKpis")).append("</p>\n");
-        html.append("<p><strong>On Target:</strong> ").append(summary.get("onTargetCount"))
-                .append(" (").append(String.format("%.1f", summary.get("onTargetPercentage"))).append("%)</p>\n");
-        html.append("<p><strong>Improving:</strong> ").append(summary.get("improvingCount")).append("</p>\n");
-        html.append("<p><strong>Declining:</strong> ").append(summary.get("decliningCount")).append("</p>\n");
-        html.append("</div>\n");
-
-        // KPI Table
-        html.append("<h2>KPI Details</h2>\n");
-        html.append("<table>\n");
-        html.append("<tr><th>Metric</th><th>Category</th><th>Value</th><th>Target</th><th>Change</th><th>Trend</th><th>Status</th></tr>\n");
-
-        for (KpiSnapshot kpi : snapshots) {
-            html.append("<tr>\n");
-            html.append("<td>").append(kpi.getDisplayName()).append("</td>\n");
-            html.append("<td>").append(kpi.getCategory()).append("</td>\n");
-            html.append("<td>").append(String.format("%.2f %s", kpi.getValue(), kpi.getUnit())).append("</td>\n");
-            html.append("<td>").append(String.format("%.2f %s", kpi.getTargetValue(), kpi.getUnit())).append("</td>\n");
-            
-            String changeClass = kpi.getPercentageChange() != null && kpi.getPercentageChange() > 0 
-                    ? "trend-up" : (kpi.getPercentageChange() != null && kpi.getPercentageChange() < 0 ? "trend-down" : "");
-            html.append("<td class='").append(changeClass).append("'>")
-                    .append(kpi.getPercentageChange() != null ? String.format("%+.2f%%", kpi.getPercentageChange()) : "N/A")
-                    .append("</td>\n");
-            
-            html.append("<td>").append(kpi.getTrend() != null ? kpi.getTrend().getSymbol() + " " + kpi.getTrend().getDisplayName() : "").append("</td>\n");
-            
-            String statusClass = Boolean.TRUE.equals(kpi.getOnTarget()) ? "on-target" : "off-target";
-            html.append("<td class='").append(statusClass).append("'>")
-                    .append(Boolean.TRUE.equals(kpi.getOnTarget()) ? "✓ On Target" : "✗ Off Target")
-                    .append("</td>\n");
-            
-            html.append("</tr>\n");
-        }
-
-        html.append("</table>\n");
-        html.append("</body></html>");
+        List<KpiSnapshot> snapshots = kpiCalculationService.getCurrentKpis();
+        Map<String, Object> summary = kpiCalculationService.getDashboardSummary();
+        return out -> new HtmlReportWriter(out).write(from, to, summary, snapshots);
+    }
 
-        return html.toString();
+    private <T> void stream(Supplier<Stream<T>> query, List<ExportColumn<T>> columns, ExportFormat format,
+                            boolean gzip, OutputStream out, ExportProgress progress) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Detach each row once written so the persistence context stays empty
+            try (Stream<T> rows = query.get().peek(entityManager::detach)) {
+                exporter.export(rows, columns, format, gzip, out, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
-    /**
-     * Escape CSV special characters.
-     */
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+    private static String trendName(KpiSnapshot snapshot) {
+        Trend trend = snapshot.getTrend();
+        return trend != null ? trend.getDisplayName() : null;
     }
 }
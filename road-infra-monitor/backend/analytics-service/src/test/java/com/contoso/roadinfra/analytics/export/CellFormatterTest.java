@@ -0,0 +1,98 @@
+package com.contoso.roadinfra.analytics.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CellFormatterTest {
+
+    private static final double[] EDGE_CASES = {
+            0.0, -0.0, 1.0, -1.0, 0.5, 1.5, 2.5, -2.5, 0.125, -0.125, 0.375, 2.675, -2.675, 1.005, 1.015,
+            1.025, 1.045, 0.045, 0.0049999, 0.005, 0.0051, 9.995, 99.995, -99.995, 0.1 + 0.2, 1e-10,
+            -1e-10, Double.MIN_VALUE, -Double.MIN_VALUE, 123456.789, 4_503_599_627_370_495.5, 1e15,
+            999_999_999_999.995, 1e15 + 0.3, 1e16, 1.2345678901234567e17, 1e20, -1e20, 1e300,
+            Double.MAX_VALUE, -Double.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    @ParameterizedTest(name = "{0} decimals")
+    @ValueSource(ints = {0, 1, 2, 3, 6})
+    @DisplayName("Should match String.format on edge cases")
+    void shouldMatchStringFormatOnEdgeCases(int decimals) {
+        for (double value : EDGE_CASES) {
+            assertParity(value, decimals);
+        }
+    }
+
+    @ParameterizedTest(name = "{0} decimals")
+    @ValueSource(ints = {0, 1, 2, 4})
+    @DisplayName("Should match String.format on values just around rounding ties")
+    void shouldMatchStringFormatAroundTies(int decimals) {
+        double step = Math.pow(10, -decimals);
+        for (int i = -2_000; i <= 2_000; i++) {
+            double tie = (i + 0.5) * step;
+            assertParity(tie, decimals);
+            assertParity(Math.nextUp(tie), decimals);
+            assertParity(Math.nextDown(tie), decimals);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match String.format on random values of every magnitude")
+    void shouldMatchStringFormatOnRandomValues() {
+        SplittableRandom random = new SplittableRandom(31);
+        for (int i = 0; i < 200_000; i++) {
+            double magnitude = Math.pow(10, random.nextInt(-6, 19));
+            double value = (random.nextDouble() - 0.5) * 2 * magnitude;
+            assertParity(value, random.nextInt(0, 7));
+        }
+    }
+
+    @Test
+    @DisplayName("Should append dates as ISO-8601, falling back for years outside 0-9999")
+    void shouldAppendDates() {
+        assertThat(format(out -> CellFormatter.appendDate(out, LocalDate.of(2025, 3, 7)))).isEqualTo("2025-03-07");
+        assertThat(format(out -> CellFormatter.appendDate(out, LocalDate.of(12, 11, 30)))).isEqualTo("0012-11-30");
+        LocalDate farFuture = LocalDate.of(12_345, 1, 1);
+        assertThat(format(out -> CellFormatter.appendDate(out, farFuture))).isEqualTo(farFuture.toString());
+    }
+
+    @Test
+    @DisplayName("Should quote CSV fields only when needed")
+    void shouldQuoteCsvFields() {
+        assertThat(format(out -> CellFormatter.appendCsv(out, "plain"))).isEqualTo("plain");
+        assertThat(format(out -> CellFormatter.appendCsv(out, "a,b"))).isEqualTo("\"a,b\"");
+        assertThat(format(out -> CellFormatter.appendCsv(out, "say \"hi\""))).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(format(out -> CellFormatter.appendCsv(out, "two\nlines"))).isEqualTo("\"two\nlines\"");
+    }
+
+    @Test
+    @DisplayName("Should escape JSON strings and HTML text")
+    void shouldEscapeJsonAndHtml() {
+        assertThat(format(out -> CellFormatter.appendJsonString(out, "a\"b\\c\n\t\u0001")))
+                .isEqualTo("\"a\\\"b\\\\c\\n\\t\\u0001\"");
+        assertThat(format(out -> CellFormatter.appendHtml(out, "<a href='x'>&\"</a>")))
+                .isEqualTo("&lt;a href=&#39;x&#39;&gt;&amp;&quot;&lt;/a&gt;");
+    }
+
+    private static void assertParity(double value, int decimals) {
+        StringBuilder out = new StringBuilder();
+        CellFormatter.appendFixed(out, value, decimals);
+        assertThat(out.toString())
+                .as("%s with %d decimals", value, decimals)
+                .isEqualTo(String.format(Locale.ROOT, "%." + decimals + "f", value));
+    }
+
+    private static String format(java.util.function.Consumer<StringBuilder> appender) {
+        StringBuilder out = new StringBuilder();
+        appender.accept(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,165 @@
+package com.contoso.roadinfra.analytics.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingExporterTest {
+
+    record Row(String name, Double score, LocalDate day, Boolean active) {
+    }
+
+    private static final List<ExportColumn<Row>> COLUMNS = List.of(
+            ExportColumn.string("name", "Asset Name", Row::name),
+            ExportColumn.decimal("score", "Health Score", Row::score),
+            ExportColumn.date("day", "Date", Row::day),
+            ExportColumn.bool("active", "Active", Row::active));
+
+    private static final List<Row> ROWS = List.of(
+            new Row("Bridge A", 87.456, LocalDate.of(2025, 1, 31), true),
+            new Row("Tunnel \"B\", north", -0.005, LocalDate.of(2025, 2, 1), false),
+            new Row(null, null, null, null),
+            new Row("Ramp\nC", Double.NaN, LocalDate.of(2025, 2, 2), true));
+
+    private final StreamingExporter exporter = new StreamingExporter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write CSV with a header, quoted fields and empty cells for nulls")
+    void shouldWriteCsv() throws IOException {
+        String csv = exportAsString(ExportFormat.CSV, false);
+
+        assertThat(csv).isEqualTo("""
+                Asset Name,Health Score,Date,Active
+                Bridge A,87.46,2025-01-31,true
+                "Tunnel ""B"", north",-0.01,2025-02-01,false
+                ,,,
+                "Ramp
+                C",NaN,2025-02-02,true
+                """);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line with nulls for missing and non-finite values")
+    void shouldWriteNdjson() throws IOException {
+        String[] lines = exportAsString(ExportFormat.NDJSON, false).split("\n");
+
+        assertThat(lines).hasSize(ROWS.size());
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("name").asText()).isEqualTo("Bridge A");
+        assertThat(first.get("score").asDouble()).isEqualTo(87.456);
+        assertThat(first.get("day").asText()).isEqualTo("2025-01-31");
+        assertThat(first.get("active").asBoolean()).isTrue();
+        assertThat(objectMapper.readTree(lines[1]).get("name").asText()).isEqualTo("Tunnel \"B\", north");
+        JsonNode empty = objectMapper.readTree(lines[2]);
+        assertThat(empty.get("name").isNull()).isTrue();
+        assertThat(empty.get("score").isNull()).isTrue();
+        assertThat(empty.get("day").isNull()).isTrue();
+        assertThat(empty.get("active").isNull()).isTrue();
+        JsonNode last = objectMapper.readTree(lines[3]);
+        assertThat(last.get("name").asText()).isEqualTo("Ramp\nC");
+        assertThat(last.get("score").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should write an Arrow stream that reads back with the same values across batches")
+    void shouldWriteArrowAcrossBatches() throws IOException {
+        int rowCount = ArrowRowWriter.BATCH_SIZE + 10;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(IntStream.range(0, rowCount).mapToObj(StreamingExporterTest::numbered),
+                COLUMNS, ExportFormat.ARROW, false, out);
+
+        List<Row> read = new ArrayList<>();
+        int batches = 0;
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema().getFields()).extracting(f -> f.getName())
+                    .containsExactly("name", "score", "day", "active");
+            while (reader.loadNextBatch()) {
+                batches++;
+                VarCharVector names = (VarCharVector) root.getVector("name");
+                Float8Vector scores = (Float8Vector) root.getVector("score");
+                DateDayVector days = (DateDayVector) root.getVector("day");
+                BitVector active = (BitVector) root.getVector("active");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    read.add(new Row(
+                            names.isNull(i) ? null : new String(names.get(i), StandardCharsets.UTF_8),
+                            scores.isNull(i) ? null : scores.get(i),
+                            days.isNull(i) ? null : LocalDate.ofEpochDay(days.get(i)),
+                            active.isNull(i) ? null : active.get(i) == 1));
+                }
+            }
+        }
+
+        assertThat(written).isEqualTo(rowCount);
+        assertThat(batches).isEqualTo(2);
+        assertThat(read).hasSize(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            assertThat(read.get(i)).isEqualTo(numbered(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should gzip the output, count rows and report progress")
+    void shouldGzipAndReportProgress() throws IOException {
+        AtomicLong progressed = new AtomicLong();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exporter.export(ROWS.stream(), COLUMNS, ExportFormat.CSV, true, out,
+                progressed::incrementAndGet);
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(written).isEqualTo(ROWS.size());
+        assertThat(progressed).hasValue(ROWS.size());
+        assertThat(csv).isEqualTo(exportAsString(ExportFormat.CSV, false));
+    }
+
+    @Test
+    @DisplayName("Should write only the header for an empty export")
+    void shouldWriteHeaderForEmptyExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exporter.export(Stream.<Row>empty(), COLUMNS, ExportFormat.CSV, false, out);
+
+        assertThat(written).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("Asset Name,Health Score,Date,Active\n");
+    }
+
+    private String exportAsString(ExportFormat format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(ROWS.stream(), COLUMNS, format, gzip, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Row numbered(int i) {
+        return i % 7 == 0
+                ? new Row(null, null, null, null)
+                : new Row("asset-" + i, i / 4.0, LocalDate.of(2024, 1, 1).plusDays(i % 365), i % 2 == 0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.contoso.roadinfra.analytics.service;
+
+import com.contoso.roadinfra.analytics.export.ExportFormat;
+import com.contoso.roadinfra.analytics.export.ExportJob;
+import com.contoso.roadinfra.analytics.export.ExportJobRequest;
+import com.contoso.roadinfra.analytics.export.ExportJobStatus;
+import com.contoso.roadinfra.analytics.export.ExportReportType;
+import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ExportJobServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @TempDir
+    Path spool;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ReportExportService reportExportService;
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportExportService = mock(ReportExportService.class);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<OutputStream>getArgument(5).write("kpis".getBytes());
+            return null;
+        }).when(reportExportService).writeKpis(any(), any(), any(), any(), any(Boolean.class), any(), any());
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<OutputStream>getArgument(5).write("history".getBytes());
+            return null;
+        }).when(reportExportService).writeKpiHistory(any(), any(), any(), any(), any(Boolean.class), any(), any());
+        service = new ExportJobService(reportExportService, spool.toString(), 2, 10, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should show a job only to the users holding it and to admins")
+    void shouldRestrictJobsToOwners() {
+        ExportJob job = service.submit(kpis(null), "alice");
+
+        assertThat(service.getJob(job.getId(), "alice", false)).isSameAs(job);
+        assertThat(service.getJob(job.getId(), "root", true)).isSameAs(job);
+        assertThatThrownBy(() -> service.getJob(job.getId(), "bob", false))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(service.getJobs("alice", false)).containsExactly(job);
+        assertThat(service.getJobs("bob", false)).isEmpty();
+        assertThat(service.getJobs("root", true)).containsExactly(job);
+        assertThatThrownBy(() -> service.delete(job.getId(), "bob", false))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(job.getStatus().isTerminal()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should share a job between users and cancel it only when the last one releases it")
+    void shouldCancelSharedJobOnLastRelease() {
+        ExportJob job = service.submit(kpis(null), "alice");
+        assertThat(service.submit(kpis(null), "bob")).isSameAs(job);
+
+        service.delete(job.getId(), "alice", false);
+
+        assertThat(job.getStatus().isTerminal()).isFalse();
+        assertThat(service.getJobs("alice", false)).isEmpty();
+        assertThat(service.getJob(job.getId(), "bob", false)).isSameAs(job);
+
+        service.delete(job.getId(), "bob", false);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJobStatus.CANCELLED);
+        assertThat(service.getJobs("root", true)).isEmpty();
+        assertThat(service.submit(kpis(null), "alice")).isNotSameAs(job);
+    }
+
+    @Test
+    @DisplayName("Should let an admin cancel a job they hold no reference to")
+    void shouldLetAdminCancelAnyJob() {
+        ExportJob job = service.submit(kpis(null), "alice");
+
+        service.delete(job.getId(), "root", true);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJobStatus.CANCELLED);
+        assertThat(service.getJobs("alice", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should share KPI exports whatever the requested date range")
+    void shouldIgnoreDateRangeForKpis() {
+        ExportJob job = service.submit(new ExportJobRequest(ExportReportType.KPIS, null, null,
+                TODAY.minusDays(3), TODAY, ExportFormat.CSV, false), "alice");
+
+        ExportJob other = service.submit(new ExportJobRequest(ExportReportType.KPIS, null, " ",
+                TODAY.minusYears(1), TODAY.minusDays(1), null, false), "bob");
+
+        assertThat(other).isSameAs(job);
+        assertThat(job.getRequest().from()).isNull();
+        assertThat(job.getRequest().fileName()).isEqualTo("kpi-report.csv");
+    }
+
+    @Test
+    @DisplayName("Should render latest-value KPIs again once the previous export has completed")
+    void shouldNotReuseCompletedKpis() throws Exception {
+        ExportJob job = service.submit(kpis(null), "alice");
+        release.countDown();
+        awaitStatus(job, ExportJobStatus.COMPLETED);
+        assertThat(Files.readString(job.getFile())).isEqualTo("kpis");
+
+        ExportJob next = service.submit(kpis(null), "alice");
+
+        assertThat(next).isNotSameAs(job);
+    }
+
+    @Test
+    @DisplayName("Should reuse a completed history export only for days that were already over")
+    void shouldReuseCompletedHistoryForClosedRanges() throws Exception {
+        ExportJob closed = service.submit(history(TODAY.minusDays(1)), "alice");
+        ExportJob open = service.submit(history(TODAY), "alice");
+        release.countDown();
+        awaitStatus(closed, ExportJobStatus.COMPLETED);
+        awaitStatus(open, ExportJobStatus.COMPLETED);
+
+        assertThat(service.submit(history(TODAY.minusDays(1)), "bob")).isSameAs(closed);
+        assertThat(service.submit(history(TODAY), "bob")).isNotSameAs(open);
+        assertThat(service.getJob(closed.getId(), "bob", false)).isSameAs(closed);
+    }
+
+    private static ExportJobRequest kpis(String category) {
+        return new ExportJobRequest(ExportReportType.KPIS, null, category, null, null, ExportFormat.CSV, false);
+    }
+
+    private static ExportJobRequest history(LocalDate to) {
+        return new ExportJobRequest(ExportReportType.KPI_HISTORY, "availability", null,
+                to.minusDays(7), to, ExportFormat.CSV, false);
+    }
+
+    private static void awaitStatus(ExportJob job, ExportJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getStatus()).isEqualTo(status);
+    }
+}
@@ -0,0 +1,162 @@
+package com.contoso.roadinfra.analytics.service;
+
+import com.contoso.roadinfra.analytics.client.AlertServiceClient;
+import com.contoso.roadinfra.analytics.client.AssetServiceClient;
+import com.contoso.roadinfra.analytics.client.MonitoringServiceClient;
+import com.contoso.roadinfra.analytics.client.SensorServiceClient;
+import com.contoso.roadinfra.analytics.repository.KpiSnapshotRepository;
+import com.contoso.roadinfra.common.dto.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KpiCalculationServiceTest {
+
+    private SensorServiceClient sensorServiceClient;
+    private AssetServiceClient assetServiceClient;
+    private MonitoringServiceClient monitoringServiceClient;
+    private AlertServiceClient alertServiceClient;
+    private KpiSnapshotWriter snapshotWriter;
+    private KpiCalculationService service;
+
+    @BeforeEach
+    void setUp() {
+        sensorServiceClient = mock(SensorServiceClient.class);
+        assetServiceClient = mock(AssetServiceClient.class);
+        monitoringServiceClient = mock(MonitoringServiceClient.class);
+        alertServiceClient = mock(AlertServiceClient.class);
+        snapshotWriter = mock(KpiSnapshotWriter.class);
+        service = new KpiCalculationService(mock(KpiSnapshotRepository.class), sensorServiceClient,
+                assetServiceClient, monitoringServiceClient, alertServiceClient, snapshotWriter);
+
+        when(sensorServiceClient.getSensorStatistics())
+                .thenReturn(ApiResponse.success(Map.of("totalSensors", 40, "mtbf", 600)));
+        when(assetServiceClient.getAssetStatistics()).thenReturn(ApiResponse.success(Map.of("totalAssets", 10)));
+        when(monitoringServiceClient.getCorridorSummary())
+                .thenReturn(ApiResponse.success(Map.of("averageHealthScore", 82.5)));
+        when(alertServiceClient.getAlertStatistics())
+                .thenReturn(ApiResponse.success(Map.of("critical", 1L, "warning", 19L)));
+    }
+
+    @Test
+    @DisplayName("Should save every calculated KPI and leave out the one that failed")
+    @SuppressWarnings("unchecked")
+    void shouldSaveOnlyCalculatedKpis() {
+        // Slow enough that data quality would finish first if it did not wait for uptime
+        when(sensorServiceClient.getSensorStatusCounts()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return ApiResponse.success(Map.of("ACTIVE", 8L, "OFFLINE", 2L));
+        });
+        when(assetServiceClient.getAssetCountByStatus()).thenThrow(new IllegalStateException("asset-service down"));
+
+        service.calculateDailyKpis();
+
+        ArgumentCaptor<Map<KpiDefinition, Double>> values = ArgumentCaptor.forClass(Map.class);
+        verify(snapshotWriter).saveAll(eq(LocalDate.now()), values.capture());
+        Map<String, Double> byMetric = values.getValue().entrySet().stream()
+                .collect(Collectors.toMap(e -> e.getKey().metricName(), Map.Entry::getValue));
+        assertThat(byMetric).hasSize(11)
+                .doesNotContainKey(KpiCalculationService.KPI_ASSET_UTILIZATION)
+                .doesNotContainValue(null);
+        assertThat(byMetric.get(KpiCalculationService.KPI_SENSOR_UPTIME)).isEqualTo(80.0);
+        // 80 * 0.4 + 95 * 0.3 + 98 * 0.3; the 90 default would give 93.9
+        assertThat(byMetric.get(KpiCalculationService.KPI_DATA_QUALITY)).isCloseTo(89.9, within(1e-9));
+        assertThat(byMetric.get(KpiCalculationService.KPI_SENSOR_COVERAGE)).isEqualTo(80.0);
+        assertThat(byMetric.get(KpiCalculationService.KPI_CRITICAL_ALERTS)).isEqualTo(5.0);
+        // Sensor statistics feed two KPIs but are fetched once per run
+        verify(sensorServiceClient, times(1)).getSensorStatistics();
+    }
+
+    @Test
+    @DisplayName("Should start a KPI only after the KPIs it depends on have finished")
+    void shouldRunDependentsAfterDependencies() {
+        List<String> finished = new CopyOnWriteArrayList<>();
+        List<KpiDefinition> definitions = List.of(
+                definition("slow", context -> {
+                    sleep(150);
+                    finished.add("slow");
+                    return 1.0;
+                }),
+                definition("independent", context -> {
+                    finished.add("independent");
+                    return 2.0;
+                }),
+                definition("dependent", context -> {
+                    finished.add("dependent");
+                    return context.value("slow").orElseThrow() + 1;
+                }).dependsOn("slow"));
+
+        Map<KpiDefinition, Double> values = calculateAll(definitions);
+
+        assertThat(finished).containsExactly("independent", "slow", "dependent");
+        assertThat(values.keySet()).containsExactlyElementsOf(definitions);
+        assertThat(values.values()).containsExactly(1.0, 2.0, 2.0);
+    }
+
+    @Test
+    @DisplayName("Should still run dependents of a KPI that failed")
+    void shouldRunDependentsOfFailedKpi() {
+        List<KpiDefinition> definitions = List.of(
+                definition("failing", context -> {
+                    throw new IllegalStateException("upstream down");
+                }),
+                definition("nothing", context -> null),
+                definition("dependent", context -> context.value("failing").orElse(-1.0)).dependsOn("failing"));
+
+        Map<KpiDefinition, Double> values = calculateAll(definitions);
+
+        assertThat(values).containsOnlyKeys(definitions.get(2));
+        assertThat(values.get(definitions.get(2))).isEqualTo(-1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject a KPI whose dependency is not defined before it")
+    void shouldRejectMissingDependency() {
+        List<KpiDefinition> definitions = List.of(
+                definition("dependent", context -> 1.0).dependsOn("later"),
+                definition("later", context -> 2.0));
+
+        assertThatThrownBy(() -> calculateAll(definitions))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("KPI dependent depends on later, which is not defined before it");
+    }
+
+    private Map<KpiDefinition, Double> calculateAll(List<KpiDefinition> definitions) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            KpiRunContext context = new KpiRunContext(LocalDate.now(), executor, sensorServiceClient,
+                    assetServiceClient, monitoringServiceClient, alertServiceClient);
+            return service.calculateAll(definitions, context, executor);
+        }
+    }
+
+    private static KpiDefinition definition(String metricName, Function<KpiRunContext, Double> calculator) {
+        return KpiDefinition.of(metricName, metricName, "Test", 1.0, "unit", calculator);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.gateway.config;
 
+import com.contoso.roadinfra.gateway.resilience.BudgetedRetry;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -9,12 +10,15 @@ import org.springframework.context.annotation.Configuration;
  * Gateway configuration with route definitions and circuit breakers.
  * Routes defined here supplement those in application.yml with additional
  * filters like circuit breakers and retry logic.
+ *
+ * Retries go through {@link BudgetedRetry}: idempotent requests only, on connection
+ * failures and timeouts, and capped at a share of each route's traffic.
  */
 @Configuration
 public class GatewayConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, BudgetedRetry retry) {
         return builder.routes()
                 // Auth Service - no circuit breaker/retry for auth to avoid token issues
                 .route("auth-service-custom", r -> r
@@ -25,54 +29,54 @@ public class GatewayConfig {
                                         .setFallbackUri("forward:/fallback/auth")))
                         .uri("lb://AUTH-SERVICE"))
 
-                // Sensor Service with circuit breaker and retry
+                // Sensor Service with circuit breaker and budgeted retry
                 .route("sensor-service-custom", r -> r
                         .path("/api/v1/sensors/**")
                         .filters(f -> f
                                 .circuitBreaker(c -> c
                                         .setName("sensorServiceCircuitBreaker")
                                         .setFallbackUri("forward:/fallback/sensors"))
-                                .retry(retryConfig -> retryConfig.setRetries(3)))
+                                .filter(retry.forRoute("sensor-service-custom")))
                         .uri("lb://SENSOR-SERVICE"))
 
-                // Asset Service with circuit breaker and retry
+                // Asset Service with circuit breaker and budgeted retry
                 .route("asset-service-custom", r -> r
                         .path("/api/v1/assets/**")
                         .filters(f -> f
                                 .circuitBreaker(c -> c
                                         .setName("assetServiceCircuitBreaker")
                                         .setFallbackUri("forward:/fallback/assets"))
-                                .retry(retryConfig -> retryConfig.setRetries(3)))
+                                .filter(retry.forRoute("asset-service-custom")))
                         .uri("lb://ASSET-SERVICE"))
 
-                // Monitoring Service with circuit breaker and retry
+                // Monitoring Service with circuit breaker and budgeted retry
                 .route("monitoring-service-custom", r -> r
-                        .path("/api/v1/monitoring/**", "/api/v1/health-status/**")
+                        .path("/api/v1/monitoring/**", "/api/v1/health/**", "/api/v1/health-status/**")
                         .filters(f -> f
                                 .circuitBreaker(c -> c
                                         .setName("monitoringServiceCircuitBreaker")
                                         .setFallbackUri("forward:/fallback/monitoring"))
-                                .retry(retryConfig -> retryConfig.setRetries(3)))
+                                .filter(retry.forRoute("monitoring-service-custom")))
                         .uri("lb://MONITORING-SERVICE"))
 
-                // Alert Service with circuit breaker and retry
+                // Alert Service with circuit breaker and budgeted retry
                 .route("alert-service-custom", r -> r
                         .path("/api/v1/alerts/**")
                         .filters(f -> f
                                 .circuitBreaker(c -> c
                                         .setName("alertServiceCircuitBreaker")
                                         .setFallbackUri("forward:/fallback/alerts"))
-                                .retry(retryConfig -> retryConfig.setRetries(3)))
+                                .filter(retry.forRoute("alert-service-custom")))
                         .uri("lb://ALERT-SERVICE"))
 
-                // Analytics Service with circuit breaker and retry
+                // Analytics Service with circuit breaker and budgeted retry
                 .route("analytics-service-custom", r -> r
                         .path("/api/v1/analytics/**", "/api/v1/kpis/**")
                         .filters(f -> f
                                 .circuitBreaker(c -> c
                                         .setName("analyticsServiceCircuitBreaker")
                                         .setFallbackUri("forward:/fallback/analytics"))
-                                .retry(retryConfig -> retryConfig.setRetries(3)))
+                                .filter(retry.forRoute("analytics-service-custom")))
                         .uri("lb://ANALYTICS-SERVICE"))
 
                 .build();
@@ -2,6 +2,7 @@ package com.contoso.roadinfra.gateway.filter;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
@@ -13,16 +14,17 @@ import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Global JWT validation filter for API Gateway.
@@ -32,11 +34,11 @@ import java.util.List;
 @Slf4j
 public class JwtValidationGatewayFilter implements GlobalFilter, Ordered {
 
-    private final SecretKey secretKey;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // Built once: the parser is immutable and thread-safe
+    private final JwtParser jwtParser;
     
-    // Paths that don't require authentication
-    private static final List<String> PUBLIC_PATHS = Arrays.asList(
+    // Paths that don't require authentication, compiled once
+    private static final List<PathPattern> PUBLIC_PATHS = Stream.of(
             "/api/v1/auth/login",
             "/api/v1/auth/refresh",
             "/actuator/**",
@@ -44,10 +46,12 @@ public class JwtValidationGatewayFilter implements GlobalFilter, Ordered {
             "/swagger-ui/**",
             "/swagger-ui.html",
             "/fallback/**"
-    );
+    ).map(PathPatternParser.defaultInstance::parse).toList();
 
     public JwtValidationGatewayFilter(@Value("${jwt.secret}") String jwtSecret) {
-        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .build();
     }
 
     @Override
@@ -55,7 +59,7 @@ public class JwtValidationGatewayFilter implements GlobalFilter, Ordered {
         String path = exchange.getRequest().getPath().toString();
         
         // Skip authentication for public paths
-        if (isPublicPath(path)) {
+        if (isPublicPath(exchange.getRequest().getPath().pathWithinApplication())) {
             return chain.filter(exchange);
         }
 
@@ -108,14 +112,17 @@ public class JwtValidationGatewayFilter implements GlobalFilter, Ordered {
         }
     }
 
-    private boolean isPublicPath(String path) {
-        return PUBLIC_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    private static boolean isPublicPath(PathContainer path) {
+        for (PathPattern pattern : PUBLIC_PATHS) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private Claims validateToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -1,29 +1,30 @@
 package com.contoso.roadinfra.gateway.filter;
 
+import com.contoso.roadinfra.gateway.ratelimit.TokenBucketRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.util.Map;
 
 /**
  * Role-based rate limiting filter using Redis.
- * Rate limits requests based on user role.
+ * Rate limits requests based on user role, with a token bucket per user that refills
+ * at the role's per-minute limit (see {@link TokenBucketRateLimiter}).
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final TokenBucketRateLimiter rateLimiter;
 
     // Rate limits per minute by role
     private static final Map<String, Integer> ROLE_RATE_LIMITS = Map.of(
@@ -34,8 +35,6 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
     );
 
     private static final int DEFAULT_RATE_LIMIT = 60;
-    private static final Duration RATE_LIMIT_WINDOW = Duration.ofMinutes(1);
-    private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -49,28 +48,21 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
         }
 
         int rateLimit = getRateLimitForRole(role);
-        String rateLimitKey = RATE_LIMIT_KEY_PREFIX + userId;
 
-        return checkRateLimit(rateLimitKey, rateLimit)
-                .flatMap(allowed -> {
-                    if (!allowed) {
+        return rateLimiter.acquire(userId, rateLimit)
+                .flatMap(decision -> {
+                    HttpHeaders headers = exchange.getResponse().getHeaders();
+                    headers.add("X-RateLimit-Limit", String.valueOf(decision.limit()));
+                    if (!decision.allowed()) {
                         log.warn("Rate limit exceeded for user: {} (role: {}, limit: {})", 
                                 userId, role, rateLimit);
                         exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-                        exchange.getResponse().getHeaders().add("X-RateLimit-Limit", String.valueOf(rateLimit));
-                        exchange.getResponse().getHeaders().add("Retry-After", "60");
+                        headers.add("Retry-After", String.valueOf(decision.retryAfterSeconds()));
                         return exchange.getResponse().setComplete();
                     }
 
-                    // Add rate limit headers
-                    return getCurrentCount(rateLimitKey)
-                            .doOnNext(count -> {
-                                exchange.getResponse().getHeaders().add("X-RateLimit-Limit", 
-                                        String.valueOf(rateLimit));
-                                exchange.getResponse().getHeaders().add("X-RateLimit-Remaining", 
-                                        String.valueOf(Math.max(0, rateLimit - count.intValue())));
-                            })
-                            .then(chain.filter(exchange));
+                    headers.add("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+                    return chain.filter(exchange);
                 });
     }
 
@@ -81,29 +73,6 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
         return ROLE_RATE_LIMITS.getOrDefault(role, DEFAULT_RATE_LIMIT);
     }
 
-    private Mono<Boolean> checkRateLimit(String key, int limit) {
-        return redisTemplate.opsForValue().increment(key)
-                .flatMap(count -> {
-                    if (count == 1L) {
-                        // First request, set expiry
-                        return redisTemplate.expire(key, RATE_LIMIT_WINDOW)
-                                .thenReturn(true);
-                    }
-                    return Mono.just(count <= limit);
-                })
-                .onErrorResume(e -> {
-                    log.error("Redis error during rate limiting, allowing request: {}", e.getMessage());
-                    return Mono.just(true); // Fail open
-                });
-    }
-
-    private Mono<Long> getCurrentCount(String key) {
-        return redisTemplate.opsForValue().get(key)
-                .map(Long::parseLong)
-                .defaultIfEmpty(0L)
-                .onErrorReturn(0L);
-    }
-
     @Override
     public int getOrder() {
         // Run after JWT validation
@@ -0,0 +1,284 @@
+package com.contoso.roadinfra.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces identical in-flight GET requests for hot dashboard endpoints into one
+ * upstream call.
+ *
+ * Requests are identical when path, query, role and Accept header match. The first one
+ * goes upstream and its response is buffered and replayed to every request that arrived
+ * while it was in flight, so upstream load is bounded by the number of distinct keys
+ * rather than the number of dashboards. A route may also keep successful responses for
+ * a micro-TTL of 100-1000 ms ({@code gateway.coalescing.route-ttl.<route-id>}).
+ *
+ * Only the configured paths ({@code gateway.coalescing.paths}) are coalesced, since
+ * responses are shared between users with the same role. If the shared call fails, each
+ * waiting request is sent upstream on its own.
+ */
+@Component
+public class RequestCoalescingGatewayFilter implements GlobalFilter, Ordered {
+
+    private static final Duration MIN_TTL = Duration.ofMillis(100);
+    private static final Duration MAX_TTL = Duration.ofSeconds(1);
+    private static final List<String> DEFAULT_PATHS = List.of(
+            "/api/v1/health/corridor-summary",
+            "/api/v1/analytics/dashboard/summary",
+            "/api/v1/alerts/statistics");
+
+    private final List<PathPattern> paths;
+    private final Map<String, Long> routeTtlNanos = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter cached;
+
+    public RequestCoalescingGatewayFilter(MeterRegistry meterRegistry, Environment environment) {
+        // Bound rather than injected with @Value, which cannot read a YAML list
+        Binder binder = Binder.get(environment);
+        this.paths = binder.bind("gateway.coalescing.paths", Bindable.listOf(String.class))
+                .orElse(DEFAULT_PATHS)
+                .stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        Map<String, Duration> ttls = binder
+                .bind("gateway.coalescing.route-ttl", Bindable.mapOf(String.class, Duration.class))
+                .orElse(Map.of());
+        ttls.forEach((routeId, ttl) -> {
+            if (!ttl.isZero() && (ttl.compareTo(MIN_TTL) < 0 || ttl.compareTo(MAX_TTL) > 0)) {
+                throw new IllegalStateException("gateway.coalescing.route-ttl." + routeId
+                        + " must be 0 or between " + MIN_TTL.toMillis() + " and " + MAX_TTL.toMillis() + " ms");
+            }
+            routeTtlNanos.put(routeId, ttl.toNanos());
+        });
+        this.leaders = counter(meterRegistry, "upstream");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.cached = counter(meterRegistry, "cached");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod()) || !isCoalesced(request)) {
+            return chain.filter(exchange);
+        }
+
+        Key key = new Key(request.getPath().value(), request.getURI().getRawQuery(),
+                request.getHeaders().getFirst("X-User-Role"), request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        long now = System.nanoTime();
+        Entry[] created = new Entry[1];
+        Entry entry = entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            created[0] = new Entry();
+            return created[0];
+        });
+
+        if (entry != created[0]) {
+            (entry.isCompleted() ? cached : coalesced).increment();
+            return entry.response()
+                    .flatMap(response -> write(exchange, response))
+                    .onErrorResume(e -> chain.filter(exchange));
+        }
+
+        leaders.increment();
+        return lead(exchange, chain, key, entry);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, Key key, Entry entry) {
+        CapturingResponse response = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(ignored -> {
+                    SharedResponse shared = response.toSharedResponse(exchange);
+                    long ttlNanos = ttlNanos(exchange);
+                    if (ttlNanos > 0 && shared.status().is2xxSuccessful()) {
+                        entry.completed(shared, System.nanoTime() + ttlNanos);
+                    } else {
+                        entries.remove(key, entry);
+                        entry.completed(shared, System.nanoTime());
+                    }
+                })
+                .doOnError(e -> {
+                    entries.remove(key, entry);
+                    entry.failed(e);
+                })
+                .doOnCancel(() -> {
+                    entries.remove(key, entry);
+                    entry.failed(new CancellationException("Coalesced request cancelled"));
+                });
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        HttpHeaders headers = response.getHeaders();
+        shared.headers().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    private boolean isCoalesced(ServerHttpRequest request) {
+        for (PathPattern path : paths) {
+            if (path.matches(request.getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long ttlNanos(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? routeTtlNanos.getOrDefault(route.getId(), 0L) : 0L;
+    }
+
+    /**
+     * Drop micro-cached responses that expired without being requested again.
+     */
+    @Scheduled(fixedDelayString = "${gateway.coalescing.eviction-interval-ms:10000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isCompleted() && entry.isExpired(now));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.coalescing.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // After rate limiting, so every client still counts against its own limit, and
+        // before the concurrency limiter, so waiting requests do not take route capacity
+        return -85;
+    }
+
+    private record Key(String path, String query, String role, String accept) {
+    }
+
+    /**
+     * A response captured for replay: status, the headers received from upstream, body.
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private static final class Entry {
+
+        private final Sinks.One<SharedResponse> sink = Sinks.one();
+        private volatile long expiresAt = Long.MAX_VALUE;
+        private volatile boolean completed;
+
+        Mono<SharedResponse> response() {
+            return sink.asMono();
+        }
+
+        void completed(SharedResponse response, long expiresAt) {
+            this.expiresAt = expiresAt;
+            this.completed = true;
+            sink.tryEmitValue(response);
+        }
+
+        void failed(Throwable e) {
+            expiresAt = 0;
+            sink.tryEmitError(e);
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Buffers the body written by the leader so it can be replayed to the waiters.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private static final Set<String> EXCLUDED_HEADERS =
+                Set.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+
+        private volatile byte[] body = new byte[0];
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> content) {
+            return DataBufferUtils.join(content)
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        body = bytes;
+                        return super.writeWith(Mono.fromSupplier(() -> bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> content) {
+            return writeWith(Flux.from(content).flatMapSequential(part -> part));
+        }
+
+        SharedResponse toSharedResponse(ServerWebExchange exchange) {
+            // Only the headers received from upstream; gateway filters set their own per request
+            Set<String> upstreamHeaders = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES);
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                boolean fromUpstream = upstreamHeaders != null
+                        ? upstreamHeaders.contains(name)
+                        : HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name);
+                if (fromUpstream && EXCLUDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatusCode.valueOf(200);
+            return new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.contoso.roadinfra.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * A user's local share of their Redis token bucket: tokens leased in a batch and spent
+ * without further Redis calls until they run out or the lease expires.
+ *
+ * Also remembers the bucket's remaining tokens as of the last lease, for the rate-limit
+ * headers, and a denial period after Redis reports the bucket empty, so a client that is
+ * over its limit is rejected locally. All state is guarded by the bucket's monitor; the
+ * critical sections are a few field updates.
+ */
+final class LeasedBucket {
+
+    private int tokens;
+    private long leaseExpiresAt;
+    private long sharedRemaining;
+    private boolean denied;
+    private long deniedUntil;
+    private Mono<Void> pendingLease;
+    private volatile long lastUsed = System.nanoTime();
+
+    /**
+     * Take a leased token.
+     *
+     * @return {@code TRUE} if a token was taken, {@code FALSE} if the bucket is in a denial
+     *         period, {@code null} if a new lease is needed
+     */
+    synchronized Boolean tryTake(long now) {
+        lastUsed = now;
+        // nanoTime may be negative, so there is no deniedUntil that means "never"
+        if (denied && now - deniedUntil < 0) {
+            return Boolean.FALSE;
+        }
+        if (tokens > 0 && now - leaseExpiresAt < 0) {
+            tokens--;
+            return Boolean.TRUE;
+        }
+        tokens = 0;
+        return null;
+    }
+
+    /**
+     * Join the lease in flight, or start one with {@code lease}, so concurrent requests
+     * that find the bucket empty share one Redis call.
+     */
+    synchronized Mono<Void> lease(Supplier<Mono<Void>> lease) {
+        if (pendingLease == null) {
+            pendingLease = lease.get()
+                    .doFinally(signal -> leaseFinished())
+                    .cache();
+        }
+        return pendingLease;
+    }
+
+    synchronized void leased(int granted, long sharedRemaining, long now, long leaseTtlNanos, long retryAfterNanos) {
+        this.tokens = granted;
+        this.leaseExpiresAt = now + leaseTtlNanos;
+        this.sharedRemaining = sharedRemaining;
+        this.denied = granted == 0;
+        if (denied) {
+            deniedUntil = now + retryAfterNanos;
+        }
+    }
+
+    /**
+     * Tokens left to the user across all replicas, as far as this replica knows.
+     */
+    synchronized long remaining() {
+        return tokens + sharedRemaining;
+    }
+
+    synchronized long retryAfterNanos(long now) {
+        return denied ? Math.max(0, deniedUntil - now) : 0;
+    }
+
+    boolean idleSince(long threshold) {
+        return lastUsed - threshold < 0;
+    }
+
+    private synchronized void leaseFinished() {
+        pendingLease = null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.roadinfra.gateway.ratelimit;
+
+/**
+ * Outcome of a rate-limit check, with the values for the rate-limit response headers.
+ *
+ * @param remaining         tokens left to the user, estimated from this replica's state
+ * @param retryAfterSeconds seconds until a request may succeed again, 0 when allowed
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, long retryAfterSeconds) {
+}
@@ -0,0 +1,135 @@
+package com.contoso.roadinfra.gateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token bucket shared by all gateway replicas through Redis.
+ *
+ * The bucket itself lives in Redis and refills continuously at the user's per-minute
+ * limit, with a burst of one minute's worth. Each replica leases tokens from it in
+ * batches through one atomic Lua script and spends them locally, so most requests make
+ * no Redis call. Leases are small (at most 5% of the limit) and expire quickly, which
+ * bounds how far a replica can run ahead of the others; every token admitted was taken
+ * from the shared bucket, so replicas together never exceed the limit.
+ *
+ * If Redis is unavailable the limiter fails open, one lease at a time, like the
+ * previous counter-based filter did.
+ */
+@Component
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    private static final String KEY_PREFIX = "rate_limit:bucket:";
+    private static final double WINDOW_SECONDS = 60.0;
+    private static final int MAX_LEASE_FRACTION = 20;
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisScript<List<Long>> leaseScript;
+    private final int maxLeaseSize;
+    private final long leaseTtlNanos;
+    private final long idleEvictionNanos;
+    private final Map<String, LeasedBucket> buckets = new ConcurrentHashMap<>();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TokenBucketRateLimiter(ReactiveRedisTemplate<String, String> redisTemplate,
+                                  @Value("${gateway.rate-limit.lease-size:20}") int maxLeaseSize,
+                                  @Value("${gateway.rate-limit.lease-ttl:2s}") Duration leaseTtl,
+                                  @Value("${gateway.rate-limit.idle-eviction:5m}") Duration idleEviction) {
+        this.redisTemplate = redisTemplate;
+        this.leaseScript = (RedisScript) RedisScript.of(new ClassPathResource("scripts/rate_limit_lease.lua"), List.class);
+        this.maxLeaseSize = maxLeaseSize;
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.idleEvictionNanos = idleEviction.toNanos();
+    }
+
+    /**
+     * Take one token for {@code userId}, whose limit is {@code limitPerMinute}.
+     */
+    public Mono<RateLimitDecision> acquire(String userId, int limitPerMinute) {
+        return acquire(userId, limitPerMinute, true);
+    }
+
+    private Mono<RateLimitDecision> acquire(String userId, int limit, boolean mayRetry) {
+        LeasedBucket bucket = buckets.computeIfAbsent(userId, id -> new LeasedBucket());
+        Boolean taken = bucket.tryTake(System.nanoTime());
+        if (taken != null) {
+            return Mono.just(decision(bucket, limit, taken));
+        }
+        return bucket.lease(() -> lease(userId, bucket, limit))
+                .then(Mono.defer(() -> {
+                    Boolean afterLease = bucket.tryTake(System.nanoTime());
+                    if (afterLease != null) {
+                        return Mono.just(decision(bucket, limit, afterLease));
+                    }
+                    // Concurrent requests spent the whole lease; lease once more before giving up
+                    return mayRetry
+                            ? acquire(userId, limit, false)
+                            : Mono.just(new RateLimitDecision(false, limit, 0, 1));
+                }));
+    }
+
+    private Mono<Void> lease(String userId, LeasedBucket bucket, int limit) {
+        double ratePerSecond = limit / WINDOW_SECONDS;
+        int requested = leaseSize(limit);
+        List<String> args = List.of(String.valueOf(limit), String.valueOf(ratePerSecond), String.valueOf(requested));
+        return redisTemplate.execute(leaseScript, List.of(KEY_PREFIX + userId), args)
+                .reduce(new ArrayList<Long>(), (results, result) -> {
+                    results.addAll(result);
+                    return results;
+                })
+                .doOnNext(results -> bucket.leased(results.get(0).intValue(), results.get(1), System.nanoTime(),
+                        leaseTtlNanos, (long) Math.ceil(TimeUnit.SECONDS.toNanos(1) / ratePerSecond)))
+                .onErrorResume(e -> {
+                    log.error("Redis error during rate limiting, allowing request: {}", e.getMessage());
+                    bucket.leased(requested, 0, System.nanoTime(), leaseTtlNanos, 0);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Lease size for a limit: large enough to keep most requests local, small enough that
+     * tokens stranded on one replica are a small share of the limit.
+     */
+    int leaseSize(int limit) {
+        return Math.max(1, Math.min(maxLeaseSize, limit / MAX_LEASE_FRACTION));
+    }
+
+    private RateLimitDecision decision(LeasedBucket bucket, int limit, boolean allowed) {
+        if (allowed) {
+            return new RateLimitDecision(true, limit, bucket.remaining(), 0);
+        }
+        long retryAfterNanos = bucket.retryAfterNanos(System.nanoTime());
+        long retryAfterSeconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return new RateLimitDecision(false, limit, 0, retryAfterSeconds);
+    }
+
+    /**
+     * Drop the local state of users who have not made a request for a while. Their
+     * unused leased tokens are forfeited, as they would be when the lease expires.
+     */
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - idleEvictionNanos;
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.idleSince(threshold));
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate-limit buckets", evicted);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load per route once the route's adaptive concurrency limit is reached.
+ *
+ * Each route gets a {@link RouteConcurrencyLimiter} whose limit follows the route's
+ * latency, so a slowing service receives fewer concurrent requests instead of a growing
+ * queue. Requests beyond a priority's share of the limit get 503 with Retry-After, low
+ * priority first (see {@link RequestPriority}). Low-priority exports count towards the
+ * limit while in flight, but their durations are not latency samples. The limit,
+ * in-flight count and shed requests of each route are published as metrics.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyGatewayFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Map<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilter(MeterRegistry meterRegistry,
+                                            @Value("${gateway.concurrency.initial-limit:50}") int initialLimit,
+                                            @Value("${gateway.concurrency.min-limit:10}") int minLimit,
+                                            @Value("${gateway.concurrency.max-limit:1000}") int maxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        RequestPriority priority = RequestPriority.of(request.getMethod(), request.getPath().pathWithinApplication());
+        RouteLimiter routeLimiter = limiters.computeIfAbsent(route.getId(), this::newRouteLimiter);
+        RouteConcurrencyLimiter limiter = routeLimiter.limiter();
+
+        if (!limiter.tryAcquire(priority)) {
+            routeLimiter.shed().get(priority).increment();
+            log.warn("Shedding {} {} on route {} (priority: {}, limit: {})",
+                    request.getMethod(), request.getPath(), route.getId(), priority, limiter.getLimit());
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().add("Retry-After", "1");
+            return exchange.getResponse().setComplete();
+        }
+
+        long started = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release(System.nanoTime() - started, outcome(signal, exchange, priority)));
+    }
+
+    static RouteConcurrencyLimiter.Outcome outcome(SignalType signal, ServerWebExchange exchange,
+                                                   RequestPriority priority) {
+        if (signal == SignalType.CANCEL) {
+            return RouteConcurrencyLimiter.Outcome.IGNORED;
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return RouteConcurrencyLimiter.Outcome.DROPPED;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504)) {
+            return RouteConcurrencyLimiter.Outcome.DROPPED;
+        }
+        if (priority == RequestPriority.LOW) {
+            // Exports stream for as long as the file takes to build, which says nothing
+            // about the route's latency and would drag its limit down
+            return RouteConcurrencyLimiter.Outcome.IGNORED;
+        }
+        return RouteConcurrencyLimiter.Outcome.SUCCESS;
+    }
+
+    private RouteLimiter newRouteLimiter(String routeId) {
+        RouteConcurrencyLimiter limiter = new RouteConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder("gateway.concurrency.limit", limiter, RouteConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, RouteConcurrencyLimiter::getInflight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shed.put(priority, Counter.builder("gateway.concurrency.shed")
+                    .tag("route", routeId)
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+        return new RouteLimiter(limiter, shed);
+    }
+
+    @Override
+    public int getOrder() {
+        // Run after rate limiting, so requests over a user's limit do not take capacity
+        return -80;
+    }
+
+    private record RouteLimiter(RouteConcurrencyLimiter limiter, Map<RequestPriority, Counter> shed) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Route filters that retry failed requests within a {@link RetryBudget}.
+ *
+ * Only safe methods (GET, HEAD and OPTIONS) are retried, and only when the route could
+ * not be reached or timed out before a response was sent. A PUT or DELETE that timed out
+ * may still have been applied, and its body cannot be replayed, so it is never retried. Error responses are passed through: a route
+ * answering 5xx is usually overloaded, and retrying would multiply its load. Once the
+ * budget is spent, failures are returned without retrying until traffic refills it.
+ */
+@Component
+@Slf4j
+public class BudgetedRetry {
+
+    private static final Set<HttpMethod> RETRYABLE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final Duration firstBackoff;
+    private final double budgetRatio;
+    private final double minRetriesPerSecond;
+
+    public BudgetedRetry(MeterRegistry meterRegistry,
+                         @Value("${gateway.retry.max-retries:2}") int maxRetries,
+                         @Value("${gateway.retry.first-backoff:50ms}") Duration firstBackoff,
+                         @Value("${gateway.retry.budget-ratio:0.1}") double budgetRatio,
+                         @Value("${gateway.retry.min-retries-per-second:5}") double minRetriesPerSecond) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.firstBackoff = firstBackoff;
+        this.budgetRatio = budgetRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    /**
+     * A retry filter with its own budget, for one route.
+     */
+    public GatewayFilter forRoute(String routeId) {
+        RetryBudget budget = new RetryBudget(budgetRatio, minRetriesPerSecond);
+        Gauge.builder("gateway.retry.budget", budget, RetryBudget::getBalance)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Counter retried = Counter.builder("gateway.retry.attempts")
+                .tag("route", routeId).tag("result", "retried")
+                .register(meterRegistry);
+        Counter budgetExhausted = Counter.builder("gateway.retry.attempts")
+                .tag("route", routeId).tag("result", "budget_exhausted")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            if (!RETRYABLE_METHODS.contains(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            budget.onRequest();
+
+            Retry retry = Retry.from(signals -> signals.concatMap(signal -> {
+                Throwable failure = signal.failure();
+                if (signal.totalRetries() >= maxRetries || !isRetryable(failure)
+                        || exchange.getResponse().isCommitted()) {
+                    return Mono.error(failure);
+                }
+                if (!budget.tryRetry()) {
+                    budgetExhausted.increment();
+                    log.debug("Retry budget of route {} exhausted, not retrying: {}", routeId, failure.getMessage());
+                    return Mono.error(failure);
+                }
+                retried.increment();
+                ServerWebExchangeUtils.reset(exchange);
+                return Mono.delay(firstBackoff.multipliedBy(1L << signal.totalRetries()));
+            }));
+            return Mono.defer(() -> chain.filter(exchange)).retryWhen(retry);
+        };
+    }
+
+    private static boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+/**
+ * Concurrency limit that adapts to a route's latency, after the gradient algorithm of
+ * Netflix's concurrency-limits.
+ *
+ * A long-term average latency is compared with each sample: while samples stay near the
+ * average the limit grows by about its square root, and as they rise above it the limit
+ * shrinks in proportion (by at most half per sample). Requests that fail with a server
+ * error or time out cut the limit multiplicatively, as in AIMD. Changes are smoothed, and
+ * the limit does not grow while less than half of it is in use.
+ */
+final class GradientConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double estimatedLimit;
+    private double longRtt;
+    private volatile int limit;
+
+    GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Record a completed request.
+     *
+     * @param inflight requests in flight when it completed, including itself
+     */
+    synchronized void onSample(long rttNanos, int inflight) {
+        double shortRtt = Math.max(1, rttNanos);
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_WINDOW;
+
+        // After a sustained drop in latency, let the long-term average catch up quickly
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // An underused limit says nothing about what the route can take
+        if (inflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        update(estimatedLimit * gradient + queueSize);
+    }
+
+    synchronized void onDropped() {
+        update(estimatedLimit * BACKOFF_RATIO);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
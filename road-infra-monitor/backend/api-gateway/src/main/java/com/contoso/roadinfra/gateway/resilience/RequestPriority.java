@@ -0,0 +1,74 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * Priority of a request when a route is at its concurrency limit.
+ *
+ * Each priority may fill only a share of the route's limit, so as a route saturates
+ * low-priority requests are shed first and the remaining capacity is kept for the
+ * requests that matter most: sensor reading ingest and alert acknowledgement.
+ */
+public enum RequestPriority {
+
+    /** Sensor reading ingest and alert acknowledgement. */
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    /** Analytics exports, which are large and can be retried later. */
+    LOW(0.5);
+
+    private static final List<Rule> CRITICAL_RULES = List.of(
+            new Rule(HttpMethod.POST, "/api/v1/sensors/{id}/readings"),
+            new Rule(HttpMethod.POST, "/api/v1/sensors/readings/batch"),
+            new Rule(HttpMethod.PATCH, "/api/v1/sensors/alerts/{id}/acknowledge"),
+            new Rule(HttpMethod.POST, "/api/v1/alerts/{id}/acknowledge")
+    );
+
+    private static final List<Rule> LOW_RULES = List.of(
+            new Rule(null, "/api/v1/analytics/export/**"),
+            new Rule(null, "/api/v1/analytics/export-jobs/**")
+    );
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    /**
+     * Requests of this priority admitted while fewer than this many are in flight.
+     */
+    int admissionLimit(int limit) {
+        return Math.max(1, (int) (limit * share));
+    }
+
+    public static RequestPriority of(HttpMethod method, PathContainer path) {
+        for (Rule rule : CRITICAL_RULES) {
+            if (rule.matches(method, path)) {
+                return CRITICAL;
+            }
+        }
+        for (Rule rule : LOW_RULES) {
+            if (rule.matches(method, path)) {
+                return LOW;
+            }
+        }
+        return NORMAL;
+    }
+
+    private record Rule(HttpMethod method, PathPattern pattern) {
+
+        Rule(HttpMethod method, String pattern) {
+            this(method, PathPatternParser.defaultInstance.parse(pattern));
+        }
+
+        boolean matches(HttpMethod requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Caps retries at a share of a route's traffic.
+ *
+ * Every request deposits {@code ratio} of a retry and every retry withdraws a whole one,
+ * so sustained retries stay at {@code ratio} of requests. A small allowance accrues over
+ * time as well, so low-traffic routes can still retry. The balance is capped at ten
+ * seconds' worth of that allowance, which limits retry bursts after a quiet period.
+ */
+final class RetryBudget {
+
+    // Ten deposits of 0.1 sum to just under 1, which must still pay for a retry
+    private static final double ROUNDING_TOLERANCE = 1e-9;
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    private final LongSupplier nanoTime;
+    private double balance;
+    private long lastAccrual;
+
+    RetryBudget(double ratio, double minRetriesPerSecond) {
+        this(ratio, minRetriesPerSecond, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, double minRetriesPerSecond, LongSupplier nanoTime) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = Math.max(1, minRetriesPerSecond * 10);
+        this.balance = maxBalance;
+        this.nanoTime = nanoTime;
+        this.lastAccrual = nanoTime.getAsLong();
+    }
+
+    synchronized void onRequest() {
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    synchronized boolean tryRetry() {
+        long now = nanoTime.getAsLong();
+        balance = Math.min(maxBalance, balance + (now - lastAccrual) / 1e9 * minRetriesPerSecond);
+        lastAccrual = now;
+        if (balance < 1 - ROUNDING_TOLERANCE) {
+            return false;
+        }
+        balance = Math.max(0, balance - 1);
+        return true;
+    }
+
+    synchronized double getBalance() {
+        return balance;
+    }
+}
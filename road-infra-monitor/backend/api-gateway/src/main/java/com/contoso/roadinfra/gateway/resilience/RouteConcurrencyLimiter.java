@@ -0,0 +1,60 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight request limit of one route, adapted from the route's observed latency.
+ */
+final class RouteConcurrencyLimiter {
+
+    enum Outcome {
+        /** Completed with a response from the route; its latency is a sample. */
+        SUCCESS,
+        /** Failed with a server error or timed out; the route is overloaded. */
+        DROPPED,
+        /** Cancelled by the client; says nothing about the route. */
+        IGNORED
+    }
+
+    private final GradientConcurrencyLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    RouteConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Admit a request if fewer than its priority's share of the limit are in flight.
+     * Every admitted request must be {@linkplain #release released}.
+     */
+    boolean tryAcquire(RequestPriority priority) {
+        int admissionLimit = priority.admissionLimit(limit.getLimit());
+        while (true) {
+            int current = inflight.get();
+            if (current >= admissionLimit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long rttNanos, Outcome outcome) {
+        int current = inflight.getAndDecrement();
+        switch (outcome) {
+            case SUCCESS -> limit.onSample(rttNanos, current);
+            case DROPPED -> limit.onDropped();
+            case IGNORED -> {
+            }
+        }
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,34 @@
+-- Lease up to ARGV[3] tokens from a shared token bucket in one atomic step.
+--
+-- KEYS[1]  bucket hash: tokens (float) and ts (last refill, epoch millis)
+-- ARGV[1]  capacity (burst size)
+-- ARGV[2]  refill rate in tokens per second
+-- ARGV[3]  tokens requested
+--
+-- Returns {granted, remaining}; remaining is rounded down.
+
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+-- Server time keeps replicas with skewed clocks consistent
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+-- A bucket untouched for a full refill period is full again and need not be kept
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000) + 1000)
+
+return {granted, math.floor(tokens)}
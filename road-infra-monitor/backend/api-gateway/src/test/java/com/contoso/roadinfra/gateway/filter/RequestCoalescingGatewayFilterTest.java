@@ -0,0 +1,201 @@
+package com.contoso.roadinfra.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingGatewayFilterTest {
+
+    private static final String SUMMARY = "/api/v1/analytics/dashboard/summary";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should bind the coalesced paths from a YAML list")
+    void shouldBindPathList() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.coalescing.paths[0]", "/api/v1/reports/**")
+                .withProperty("gateway.coalescing.paths[1]", "/api/v1/alerts/statistics");
+        RequestCoalescingGatewayFilter filter = new RequestCoalescingGatewayFilter(meterRegistry, environment);
+
+        assertThat(sharedCalls(filter, "/api/v1/reports/daily")).isEqualTo(1);
+        assertThat(sharedCalls(filter, "/api/v1/alerts/statistics")).isEqualTo(1);
+        assertThat(sharedCalls(filter, SUMMARY)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should bind the coalesced paths from a comma-separated value")
+    void shouldBindCommaSeparatedPaths() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.coalescing.paths", "/api/v1/reports/**, /api/v1/alerts/statistics");
+        RequestCoalescingGatewayFilter filter = new RequestCoalescingGatewayFilter(meterRegistry, environment);
+
+        assertThat(sharedCalls(filter, "/api/v1/reports/daily")).isEqualTo(1);
+        assertThat(sharedCalls(filter, "/api/v1/alerts/statistics")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should coalesce the default dashboard paths when none are configured")
+    void shouldUseDefaultPaths() {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment());
+
+        assertThat(sharedCalls(filter, SUMMARY)).isEqualTo(1);
+        assertThat(sharedCalls(filter, "/api/v1/health/corridor-summary")).isEqualTo(1);
+        assertThat(sharedCalls(filter, "/api/v1/sensors")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should replay the leader's status, headers and body to requests that arrive while it is in flight")
+    void shouldShareResponse() {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment());
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(SUMMARY));
+        MockServerWebExchange waiter = exchange(MockServerHttpRequest.get(SUMMARY));
+
+        Mono.when(filter.filter(leader, upstream("summary")), filter.filter(waiter, upstream("other"))).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        for (MockServerWebExchange exchange : new MockServerWebExchange[]{leader, waiter}) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("summary");
+        }
+        assertThat(meterRegistry.get("gateway.coalescing.requests").tag("result", "coalesced").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep requests apart that differ in query, role or Accept header")
+    void shouldKeyByQueryRoleAndAccept() {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment());
+
+        Mono.when(
+                filter.filter(exchange(MockServerHttpRequest.get(SUMMARY + "?days=7")), upstream("a")),
+                filter.filter(exchange(MockServerHttpRequest.get(SUMMARY + "?days=30")), upstream("b")),
+                filter.filter(exchange(MockServerHttpRequest.get(SUMMARY).header("X-User-Role", "ADMIN")), upstream("c")),
+                filter.filter(exchange(MockServerHttpRequest.get(SUMMARY).header("X-User-Role", "VIEWER")), upstream("d")),
+                filter.filter(exchange(MockServerHttpRequest.get(SUMMARY).accept(MediaType.TEXT_HTML)), upstream("e")),
+                filter.filter(exchange(MockServerHttpRequest.get(SUMMARY).accept(MediaType.APPLICATION_JSON)), upstream("f"))
+        ).block();
+
+        assertThat(upstreamCalls).hasValue(6);
+    }
+
+    @Test
+    @DisplayName("Should not coalesce other methods")
+    void shouldOnlyCoalesceGets() {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment());
+
+        Mono.when(
+                filter.filter(exchange(MockServerHttpRequest.post(SUMMARY)), upstream("a")),
+                filter.filter(exchange(MockServerHttpRequest.post(SUMMARY)), upstream("b"))
+        ).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should send each waiting request upstream on its own when the shared call fails")
+    void shouldFallBackWhenLeaderFails() {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment());
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(SUMMARY));
+        MockServerWebExchange waiter = exchange(MockServerHttpRequest.get(SUMMARY));
+        GatewayFilterChain failing = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.error(new IOException("connection reset"));
+        };
+
+        Mono<Void> led = filter.filter(leader, failing).onErrorResume(e -> Mono.empty());
+        Mono.when(led, filter.filter(waiter, upstream("retried"))).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(waiter.getResponse().getBodyAsString().block()).isEqualTo("retried");
+    }
+
+    @Test
+    @DisplayName("Should replay a successful response for the route's micro-TTL only")
+    void shouldCacheForRouteTtl() throws InterruptedException {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment()
+                .withProperty("gateway.coalescing.route-ttl.analytics", "100ms"));
+
+        filter.filter(routed(SUMMARY), upstream("first")).block();
+        MockServerWebExchange cached = routed(SUMMARY);
+        filter.filter(cached, upstream("second")).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(cached.getResponse().getBodyAsString().block()).isEqualTo("first");
+
+        Thread.sleep(150);
+        MockServerWebExchange expired = routed(SUMMARY);
+        filter.filter(expired, upstream("third")).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(expired.getResponse().getBodyAsString().block()).isEqualTo("third");
+    }
+
+    @Test
+    @DisplayName("Should not keep responses of routes without a micro-TTL")
+    void shouldNotCacheWithoutTtl() {
+        RequestCoalescingGatewayFilter filter = filter(new MockEnvironment());
+
+        filter.filter(routed(SUMMARY), upstream("first")).block();
+        filter.filter(routed(SUMMARY), upstream("second")).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private RequestCoalescingGatewayFilter filter(MockEnvironment environment) {
+        return new RequestCoalescingGatewayFilter(meterRegistry, environment);
+    }
+
+    /**
+     * Upstream calls made by two identical requests in flight together.
+     */
+    private int sharedCalls(RequestCoalescingGatewayFilter filter, String path) {
+        int before = upstreamCalls.get();
+        Mono.when(
+                filter.filter(exchange(MockServerHttpRequest.get(path)), upstream("a")),
+                filter.filter(exchange(MockServerHttpRequest.get(path)), upstream("b"))
+        ).block();
+        return upstreamCalls.get() - before;
+    }
+
+    private GatewayFilterChain upstream(String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().set(HttpHeaders.CACHE_CONTROL, "no-store");
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.fromSupplier(() ->
+                    exchange.getResponse().bufferFactory().wrap(bytes)));
+        };
+    }
+
+    private static MockServerWebExchange routed(String path) {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(path));
+        Route route = Route.async().id("analytics").uri("http://localhost").predicate(e -> true).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
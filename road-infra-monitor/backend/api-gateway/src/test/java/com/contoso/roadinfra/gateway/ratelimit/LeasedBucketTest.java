@@ -0,0 +1,105 @@
+package com.contoso.roadinfra.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedBucketTest {
+
+    private static final long TTL = 2_000_000_000L;
+    private static final long RETRY_AFTER = 500_000_000L;
+
+    private final LeasedBucket bucket = new LeasedBucket();
+
+    @Test
+    @DisplayName("Should need a lease before the first token")
+    void shouldNeedLeaseWhenEmpty() {
+        assertThat(bucket.tryTake(0)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should spend leased tokens locally and then ask for another lease")
+    void shouldSpendLeasedTokens() {
+        bucket.leased(3, 40, 0, TTL, RETRY_AFTER);
+
+        assertThat(bucket.remaining()).isEqualTo(43);
+        assertThat(bucket.tryTake(1)).isTrue();
+        assertThat(bucket.tryTake(2)).isTrue();
+        assertThat(bucket.tryTake(3)).isTrue();
+        assertThat(bucket.remaining()).isEqualTo(40);
+        assertThat(bucket.tryTake(4)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should forfeit leased tokens once the lease expires")
+    void shouldExpireLease() {
+        bucket.leased(5, 0, 0, TTL, RETRY_AFTER);
+
+        assertThat(bucket.tryTake(TTL - 1)).isTrue();
+        assertThat(bucket.tryTake(TTL)).isNull();
+        assertThat(bucket.remaining()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should deny locally until the retry-after period of an empty lease has passed")
+    void shouldDenyAfterEmptyLease() {
+        bucket.leased(0, 0, 0, TTL, RETRY_AFTER);
+
+        assertThat(bucket.tryTake(1)).isFalse();
+        assertThat(bucket.retryAfterNanos(100)).isEqualTo(RETRY_AFTER - 100);
+        assertThat(bucket.tryTake(RETRY_AFTER - 1)).isFalse();
+        assertThat(bucket.tryTake(RETRY_AFTER)).isNull();
+        assertThat(bucket.retryAfterNanos(RETRY_AFTER)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should handle nanoTime values that wrap around")
+    void shouldHandleWrappingClock() {
+        long start = Long.MAX_VALUE - 10;
+        bucket.leased(1, 0, start, TTL, RETRY_AFTER);
+
+        assertThat(bucket.tryTake(start + 20)).isTrue();
+        assertThat(bucket.tryTake(start + TTL)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should share one lease between concurrent requests and start a new one after it finishes")
+    void shouldShareLeaseInFlight() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.Empty<Void> redis = Sinks.empty();
+
+        Mono<Void> first = bucket.lease(() -> {
+            calls.incrementAndGet();
+            return redis.asMono();
+        });
+        Mono<Void> second = bucket.lease(() -> {
+            calls.incrementAndGet();
+            return Mono.empty();
+        });
+        first.subscribe();
+        redis.tryEmitEmpty();
+        second.block();
+        bucket.lease(() -> {
+            calls.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should count as idle only when unused since the threshold")
+    void shouldTrackIdleness() {
+        long now = System.nanoTime();
+        bucket.tryTake(now);
+
+        assertThat(bucket.idleSince(now)).isFalse();
+        assertThat(bucket.idleSince(now + 1)).isTrue();
+    }
+}
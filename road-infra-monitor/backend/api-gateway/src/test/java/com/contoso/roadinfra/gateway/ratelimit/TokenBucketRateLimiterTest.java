@@ -0,0 +1,132 @@
+package com.contoso.roadinfra.gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenBucketRateLimiterTest {
+
+    private static final String USER = "user-1";
+
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveRedisTemplate.class);
+        limiter = new TokenBucketRateLimiter(redisTemplate, 20, Duration.ofSeconds(2), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should lease at most 5% of the limit, within the configured lease size")
+    void shouldSizeLeases() {
+        assertThat(limiter.leaseSize(10)).isEqualTo(1);
+        assertThat(limiter.leaseSize(100)).isEqualTo(5);
+        assertThat(limiter.leaseSize(1_000)).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should lease a batch from Redis and admit the rest of the batch locally")
+    void shouldSpendLeaseLocally() {
+        scriptReturns(List.of(5L, 95L));
+
+        RateLimitDecision first = limiter.acquire(USER, 100).block();
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.acquire(USER, 100).block().allowed()).isTrue();
+        }
+
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.remaining()).isEqualTo(99);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("rate_limit:bucket:" + USER)),
+                eq(List.of("100", String.valueOf(100 / 60.0), "5")));
+    }
+
+    @Test
+    @DisplayName("Should lease again once the batch is spent")
+    void shouldLeaseAgainWhenSpent() {
+        scriptReturns(List.of(1L, 10L));
+
+        limiter.acquire(USER, 20).block();
+        limiter.acquire(USER, 20).block();
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should deny locally while the shared bucket is empty and lease again once it refills")
+    void shouldDenyUntilRefilled() throws InterruptedException {
+        // 600 a minute refills a token every 100ms
+        scriptReturns(List.of(0L, 0L), List.of(20L, 100L));
+
+        RateLimitDecision denied = limiter.acquire(USER, 600).block();
+        RateLimitDecision deniedLocally = limiter.acquire(USER, 600).block();
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), anyList());
+
+        Thread.sleep(150);
+        RateLimitDecision refilled = limiter.acquire(USER, 600).block();
+
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.retryAfterSeconds()).isEqualTo(1);
+        assertThat(deniedLocally.allowed()).isFalse();
+        assertThat(refilled.allowed()).isTrue();
+        assertThat(refilled.remaining()).isEqualTo(119);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should fail open one lease at a time when Redis errors")
+    @SuppressWarnings("unchecked")
+    void shouldFailOpenOnRedisError() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire(USER, 100).block().allowed()).isTrue();
+        }
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), anyList());
+
+        assertThat(limiter.acquire(USER, 100).block().allowed()).isTrue();
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep the buckets of different users apart")
+    void shouldIsolateUsers() {
+        scriptReturns(List.of(0L, 0L), List.of(5L, 95L));
+
+        RateLimitDecision denied = limiter.acquire(USER, 100).block();
+        RateLimitDecision other = limiter.acquire("user-2", 100).block();
+
+        assertThat(denied.allowed()).isFalse();
+        assertThat(other.allowed()).isTrue();
+    }
+
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void scriptReturns(List<Long>... results) {
+        Flux[] fluxes = new Flux[results.length];
+        for (int i = 0; i < results.length; i++) {
+            fluxes[i] = Flux.just(results[i]);
+        }
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(fluxes[0], Arrays.copyOfRange(fluxes, 1, fluxes.length));
+    }
+}
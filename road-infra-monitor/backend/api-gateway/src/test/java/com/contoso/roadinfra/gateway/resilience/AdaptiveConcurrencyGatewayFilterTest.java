@@ -0,0 +1,50 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import static com.contoso.roadinfra.gateway.resilience.RouteConcurrencyLimiter.Outcome.DROPPED;
+import static com.contoso.roadinfra.gateway.resilience.RouteConcurrencyLimiter.Outcome.IGNORED;
+import static com.contoso.roadinfra.gateway.resilience.RouteConcurrencyLimiter.Outcome.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyGatewayFilterTest {
+
+    @Test
+    @DisplayName("Should sample the latency of completed requests")
+    void shouldSampleCompletedRequests() {
+        assertThat(outcome(SignalType.ON_COMPLETE, HttpStatus.OK, RequestPriority.NORMAL)).isEqualTo(SUCCESS);
+        assertThat(outcome(SignalType.ON_COMPLETE, HttpStatus.NOT_FOUND, RequestPriority.CRITICAL)).isEqualTo(SUCCESS);
+        assertThat(outcome(SignalType.ON_COMPLETE, HttpStatus.INTERNAL_SERVER_ERROR, RequestPriority.NORMAL))
+                .isEqualTo(SUCCESS);
+    }
+
+    @Test
+    @DisplayName("Should count gateway errors and timeouts as drops")
+    void shouldDropOnOverload() {
+        assertThat(outcome(SignalType.ON_ERROR, null, RequestPriority.NORMAL)).isEqualTo(DROPPED);
+        assertThat(outcome(SignalType.ON_COMPLETE, HttpStatus.SERVICE_UNAVAILABLE, RequestPriority.NORMAL))
+                .isEqualTo(DROPPED);
+        assertThat(outcome(SignalType.ON_COMPLETE, HttpStatus.GATEWAY_TIMEOUT, RequestPriority.LOW)).isEqualTo(DROPPED);
+    }
+
+    @Test
+    @DisplayName("Should not sample cancelled requests or streamed exports")
+    void shouldIgnoreCancelledAndLowPriority() {
+        assertThat(outcome(SignalType.CANCEL, HttpStatus.OK, RequestPriority.NORMAL)).isEqualTo(IGNORED);
+        assertThat(outcome(SignalType.ON_COMPLETE, HttpStatus.OK, RequestPriority.LOW)).isEqualTo(IGNORED);
+    }
+
+    private static RouteConcurrencyLimiter.Outcome outcome(SignalType signal, HttpStatus status,
+                                                           RequestPriority priority) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/analytics"));
+        if (status != null) {
+            exchange.getResponse().setStatusCode(status);
+        }
+        return AdaptiveConcurrencyGatewayFilter.outcome(signal, exchange, priority);
+    }
+}
@@ -0,0 +1,109 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BudgetedRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should retry safe methods that could not reach the route, with backoff")
+    void shouldRetrySafeMethods() {
+        GatewayFilter filter = retry(5).forRoute("sensors");
+
+        for (HttpMethod method : new HttpMethod[]{HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS}) {
+            AtomicInteger attempts = new AtomicInteger();
+            assertThatThrownBy(() -> run(filter, method, attempts, new ConnectException("refused")))
+                    .hasRootCauseInstanceOf(ConnectException.class);
+            assertThat(attempts).as(method.name()).hasValue(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not retry methods that may have changed state")
+    void shouldNotRetryUnsafeMethods() {
+        GatewayFilter filter = retry(5).forRoute("sensors");
+
+        for (HttpMethod method : new HttpMethod[]{HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE}) {
+            AtomicInteger attempts = new AtomicInteger();
+            assertThatThrownBy(() -> run(filter, method, attempts, new TimeoutException("slow")));
+            assertThat(attempts).as(method.name()).hasValue(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not retry failures other than I/O errors and timeouts")
+    void shouldNotRetryOtherFailures() {
+        GatewayFilter filter = retry(5).forRoute("sensors");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> run(filter, HttpMethod.GET, attempts, new IllegalStateException("bug")));
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the route's budget is spent")
+    void shouldStopWhenBudgetExhausted() {
+        // No allowance over time: the budget is the one initial retry
+        GatewayFilter filter = retry(0).forRoute("sensors");
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+
+        assertThatThrownBy(() -> run(filter, HttpMethod.GET, first, new IOException("reset")));
+        assertThatThrownBy(() -> run(filter, HttpMethod.GET, second, new IOException("reset")));
+
+        assertThat(first).hasValue(2);
+        assertThat(second).hasValue(1);
+        assertThat(meterRegistry.get("gateway.retry.attempts").tag("result", "retried").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.retry.attempts").tag("result", "budget_exhausted").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should pass a successful response through without retrying")
+    void shouldPassThroughSuccess() {
+        GatewayFilter filter = retry(5).forRoute("sensors");
+        AtomicInteger attempts = new AtomicInteger();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/sensors"));
+
+        filter.filter(exchange, chain(attempts, null)).block();
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    private BudgetedRetry retry(double minRetriesPerSecond) {
+        return new BudgetedRetry(meterRegistry, 2, Duration.ofMillis(1), 0.0, minRetriesPerSecond);
+    }
+
+    private static void run(GatewayFilter filter, HttpMethod method, AtomicInteger attempts, Throwable failure) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(method, "/api/v1/sensors"));
+        filter.filter(exchange, chain(attempts, failure)).block();
+    }
+
+    private static GatewayFilterChain chain(AtomicInteger attempts, Throwable failure) {
+        return exchange -> {
+            attempts.incrementAndGet();
+            return failure != null ? Mono.error(failure) : Mono.empty();
+        };
+    }
+}
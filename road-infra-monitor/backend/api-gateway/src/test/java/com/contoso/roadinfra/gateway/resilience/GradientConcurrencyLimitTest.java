@@ -0,0 +1,83 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    @DisplayName("Should grow towards the maximum while latency stays steady and the limit is in use")
+    void shouldGrowAtSteadyLatency() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 10, 200);
+
+        int previous = limit.getLimit();
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(RTT, limit.getLimit());
+            assertThat(limit.getLimit()).isGreaterThanOrEqualTo(previous);
+            previous = limit.getLimit();
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should not grow while less than half of the limit is in use")
+    void shouldNotGrowWhenUnderused() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 10, 200);
+
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(RTT, 24);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should shrink when latency rises well above its long-term average")
+    void shouldShrinkWhenLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 10, 200);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, limit.getLimit());
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(RTT * 10, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should tolerate latency up to half again its average without shrinking")
+    void shouldTolerateModerateLatency() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 10, 200);
+        limit.onSample(RTT, 100);
+        int before = limit.getLimit();
+
+        limit.onSample(RTT * 3 / 2, limit.getLimit());
+
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should back off on drops without going below the minimum")
+    void shouldBackOffOnDrops() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 10, 200);
+
+        limit.onDropped();
+        assertThat(limit.getLimit()).isEqualTo(98);
+
+        for (int i = 0; i < 1_000; i++) {
+            limit.onDropped();
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,82 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RetryBudgetTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    @DisplayName("Should start full at ten seconds of the minimum allowance")
+    void shouldStartFull() {
+        RetryBudget budget = new RetryBudget(0.1, 2, nanos::get);
+
+        assertThat(budget.getBalance()).isEqualTo(20);
+        int retries = 0;
+        while (budget.tryRetry()) {
+            retries++;
+        }
+        assertThat(retries).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should earn a retry for every 1/ratio requests")
+    void shouldEarnRetriesFromRequests() {
+        RetryBudget budget = drained(new RetryBudget(0.25, 0, nanos::get));
+
+        for (int i = 0; i < 3; i++) {
+            budget.onRequest();
+        }
+        assertThat(budget.tryRetry()).isFalse();
+
+        budget.onRequest();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep sustained retries at the ratio of requests")
+    void shouldBoundRetriesByRatio() {
+        RetryBudget budget = drained(new RetryBudget(0.1, 0, nanos::get));
+
+        int retries = 0;
+        for (int i = 0; i < 10_000; i++) {
+            budget.onRequest();
+            // Every request fails and asks for a retry
+            if (budget.tryRetry()) {
+                retries++;
+            }
+        }
+
+        assertThat(retries).isBetween(990, 1_000);
+    }
+
+    @Test
+    @DisplayName("Should accrue the minimum allowance over time, capped at ten seconds' worth")
+    void shouldAccrueOverTime() {
+        RetryBudget budget = drained(new RetryBudget(0.1, 5, nanos::get));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(budget.tryRetry()).isFalse();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(budget.tryRetry()).isTrue();
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        budget.tryRetry();
+        assertThat(budget.getBalance()).isCloseTo(49, within(1e-9));
+    }
+
+    private RetryBudget drained(RetryBudget budget) {
+        while (budget.tryRetry()) {
+            // Spend the initial balance
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,57 @@
+package com.contoso.roadinfra.gateway.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Should shed low priority first and keep the rest of the limit for critical requests")
+    void shouldAdmitByPriority() {
+        RouteConcurrencyLimiter limiter = new RouteConcurrencyLimiter(10, 10, 100);
+
+        assertThat(admit(limiter, RequestPriority.LOW)).isEqualTo(5);
+        assertThat(admit(limiter, RequestPriority.NORMAL)).isEqualTo(3);
+        assertThat(admit(limiter, RequestPriority.CRITICAL)).isEqualTo(2);
+        assertThat(limiter.getInflight()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should free a slot on release whatever the outcome")
+    void shouldReleaseSlots() {
+        RouteConcurrencyLimiter limiter = new RouteConcurrencyLimiter(10, 10, 100);
+        admit(limiter, RequestPriority.CRITICAL);
+
+        limiter.release(1_000_000, RouteConcurrencyLimiter.Outcome.SUCCESS);
+        limiter.release(1_000_000, RouteConcurrencyLimiter.Outcome.DROPPED);
+        limiter.release(1_000_000, RouteConcurrencyLimiter.Outcome.IGNORED);
+
+        assertThat(limiter.getInflight()).isEqualTo(7);
+        assertThat(limiter.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not sample the latency of ignored requests")
+    void shouldIgnoreIgnoredOutcomes() {
+        RouteConcurrencyLimiter limiter = new RouteConcurrencyLimiter(20, 10, 100);
+        for (int i = 0; i < 100; i++) {
+            admit(limiter, RequestPriority.CRITICAL);
+            for (int j = 0; j < 20; j++) {
+                // Minutes-long exports
+                limiter.release(60_000_000_000L, RouteConcurrencyLimiter.Outcome.IGNORED);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    private static int admit(RouteConcurrencyLimiter limiter, RequestPriority priority) {
+        int admitted = 0;
+        while (limiter.tryAcquire(priority)) {
+            admitted++;
+        }
+        return admitted;
+    }
+}
@@ -0,0 +1,125 @@
+package com.contoso.roadinfra.asset.client;
+
+import com.contoso.roadinfra.common.dto.ApiResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-instance cache of sensor counts by asset, filled in batches from sensor-service.
+ *
+ * Counts missing from the cache are fetched with one bulk call per
+ * {@value #MAX_BATCH_SIZE} assets. The total over all assets is fetched with a single
+ * call of its own and cached alongside, rather than summed from every asset's count.
+ * Entries are evicted when sensor events report a change (see
+ * {@code SensorChangeListener}), and the TTL bounds the staleness of any event that is
+ * missed. Counts are not cached while sensor-service is unavailable, so the zeros
+ * returned then are replaced as soon as it is back.
+ */
+@Component
+@Slf4j
+public class SensorCountCache {
+
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final String TOTAL = "total";
+
+    private final SensorServiceClient sensorServiceClient;
+    private final Cache<UUID, Integer> counts;
+    private final Cache<String, Integer> totals;
+
+    public SensorCountCache(SensorServiceClient sensorServiceClient,
+                            @Value("${asset.sensor-counts.ttl:5m}") Duration ttl,
+                            @Value("${asset.sensor-counts.maximum-size:100000}") long maximumSize) {
+        this.sensorServiceClient = sensorServiceClient;
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Sensor count of each given asset, zero when unknown.
+     */
+    public Map<UUID, Integer> getCounts(Collection<UUID> assetIds) {
+        Map<UUID, Integer> result = new HashMap<>(counts.getAllPresent(assetIds));
+        List<UUID> missing = new ArrayList<>();
+        for (UUID assetId : new LinkedHashSet<>(assetIds)) {
+            if (!result.containsKey(assetId)) {
+                missing.add(assetId);
+            }
+        }
+        for (int i = 0; i < missing.size(); i += MAX_BATCH_SIZE) {
+            fetch(missing.subList(i, Math.min(i + MAX_BATCH_SIZE, missing.size())), result);
+        }
+        return result;
+    }
+
+    public int getCount(UUID assetId) {
+        return getCounts(List.of(assetId)).get(assetId);
+    }
+
+    /**
+     * Number of sensors attached to any asset, zero when unknown.
+     */
+    public int getTotal() {
+        Integer cached = totals.getIfPresent(TOTAL);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            ApiResponse<Long> response = sensorServiceClient.getAssignedSensorCount();
+            if (response != null && response.getData() != null && !"FALLBACK".equals(response.getStatus())) {
+                int total = response.getData().intValue();
+                totals.put(TOTAL, total);
+                return total;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to get the assigned sensor count: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    public void evict(UUID assetId) {
+        counts.invalidate(assetId);
+        totals.invalidateAll();
+    }
+
+    public void evictAll() {
+        counts.invalidateAll();
+        totals.invalidateAll();
+    }
+
+    private void fetch(List<UUID> assetIds, Map<UUID, Integer> result) {
+        try {
+            ApiResponse<Map<UUID, Long>> response = sensorServiceClient.getSensorCountsByAssetIds(assetIds);
+            if (response != null && response.getData() != null && !"FALLBACK".equals(response.getStatus())) {
+                Map<UUID, Long> fetched = response.getData();
+                for (UUID assetId : assetIds) {
+                    int count = fetched.getOrDefault(assetId, 0L).intValue();
+                    counts.put(assetId, count);
+                    result.put(assetId, count);
+                }
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to get sensor counts for {} assets: {}", assetIds.size(), e.getMessage());
+        }
+        for (UUID assetId : assetIds) {
+            result.put(assetId, 0);
+        }
+    }
+}
@@ -5,9 +5,13 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -25,11 +29,18 @@ public interface SensorServiceClient {
     ApiResponse<List<SensorInfo>> getSensorsByAssetId(@PathVariable("assetId") UUID assetId);
 
     /**
-     * Get sensor count for an asset.
+     * Get sensor counts for up to 1000 assets in one call.
      */
-    @GetMapping("/api/v1/sensors/asset/{assetId}/count")
-    @CircuitBreaker(name = "sensorService", fallbackMethod = "getSensorCountFallback")
-    ApiResponse<Long> getSensorCountByAssetId(@PathVariable("assetId") UUID assetId);
+    @PostMapping("/api/v1/sensors/counts-by-asset")
+    @CircuitBreaker(name = "sensorService", fallbackMethod = "getSensorCountsFallback")
+    ApiResponse<Map<UUID, Long>> getSensorCountsByAssetIds(@RequestBody Collection<UUID> assetIds);
+
+    /**
+     * Count the sensors attached to any asset.
+     */
+    @GetMapping("/api/v1/sensors/stats/assigned-count")
+    @CircuitBreaker(name = "sensorService", fallbackMethod = "getAssignedSensorCountFallback")
+    ApiResponse<Long> getAssignedSensorCount();
 
     /**
      * Simplified sensor info returned from sensor-service.
@@ -52,7 +63,15 @@ public interface SensorServiceClient {
                 .build();
     }
 
-    default ApiResponse<Long> getSensorCountFallback(UUID assetId, Exception e) {
+    default ApiResponse<Map<UUID, Long>> getSensorCountsFallback(Collection<UUID> assetIds, Exception e) {
+        return ApiResponse.<Map<UUID, Long>>builder()
+                .status("FALLBACK")
+                .message("Sensor service unavailable")
+                .data(Collections.emptyMap())
+                .build();
+    }
+
+    default ApiResponse<Long> getAssignedSensorCountFallback(Exception e) {
         return ApiResponse.<Long>builder()
                 .status("FALLBACK")
                 .message("Sensor service unavailable")
@@ -4,8 +4,10 @@ import com.contoso.roadinfra.common.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -26,8 +28,18 @@ public class SensorServiceClientFallback implements SensorServiceClient {
     }
 
     @Override
-    public ApiResponse<Long> getSensorCountByAssetId(UUID assetId) {
-        log.warn("Fallback triggered: Unable to retrieve sensor count for asset {}", assetId);
+    public ApiResponse<Map<UUID, Long>> getSensorCountsByAssetIds(Collection<UUID> assetIds) {
+        log.warn("Fallback triggered: Unable to retrieve sensor counts for {} assets", assetIds.size());
+        return ApiResponse.<Map<UUID, Long>>builder()
+                .status("FALLBACK")
+                .message("Sensor service is currently unavailable. Please try again later.")
+                .data(Collections.emptyMap())
+                .build();
+    }
+
+    @Override
+    public ApiResponse<Long> getAssignedSensorCount() {
+        log.warn("Fallback triggered: Unable to retrieve the assigned sensor count");
         return ApiResponse.<Long>builder()
                 .status("FALLBACK")
                 .message("Sensor service is currently unavailable. Please try again later.")
@@ -1,30 +1,42 @@
 package com.contoso.roadinfra.asset.config;
 
+import com.contoso.roadinfra.asset.dto.AssetResponse;
+import com.contoso.roadinfra.asset.dto.CorridorSummaryResponse;
+import com.contoso.roadinfra.common.cache.TwoLevelCacheManager;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
- * Redis cache configuration for asset-service.
+ * Cache configuration for asset-service: Caffeine near cache in front of Redis.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                             @Value("${spring.application.name}") String applicationName,
+                                             @Value("${cache.local.ttl:5m}") Duration localTtl,
+                                             @Value("${cache.local.maximum-size:10000}") long localMaximumSize) {
         // Configure ObjectMapper with Java 8 date/time support
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -38,32 +50,41 @@ public class CacheConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper)));
 
-        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-
-        // Assets cache - longer TTL since assets don't change frequently
-        cacheConfigurations.put("assets", defaultConfig.entryTtl(Duration.ofHours(1)));
-
-        // Asset by code cache
-        cacheConfigurations.put("assetsByCode", defaultConfig.entryTtl(Duration.ofHours(1)));
-
-        // Children cache
-        cacheConfigurations.put("assetChildren", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-
-        // Corridor summary - shorter TTL as it aggregates changing data
-        cacheConfigurations.put("corridorSummary", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-
-        // GeoJSON cache
-        cacheConfigurations.put("geoJson", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-
-        // Inspections cache
-        cacheConfigurations.put("inspections", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-
-        // Milestones cache
-        cacheConfigurations.put("milestones", defaultConfig.entryTtl(Duration.ofMinutes(15)));
+        return TwoLevelCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig, localTtl, localMaximumSize)
+                // Assets cache - longer TTL since assets don't change frequently
+                .withCache("assets", defaultConfig.entryTtl(Duration.ofHours(1)))
+                // Asset by code cache
+                .withCache("assetsByCode", defaultConfig.entryTtl(Duration.ofHours(1)))
+                // Children cache
+                .withCache("assetChildren", defaultConfig.entryTtl(Duration.ofMinutes(30)))
+                // Corridor summary - shorter TTL as it aggregates changing data
+                .withCache("corridorSummary", defaultConfig.entryTtl(Duration.ofMinutes(5)))
+                // Inspections cache
+                .withCache("inspections", defaultConfig.entryTtl(Duration.ofMinutes(15)))
+                // Milestones cache
+                .withCache("milestones", defaultConfig.entryTtl(Duration.ofMinutes(15)))
+                // L1 hits copy these instead of deserializing them
+                .localCopier(AssetResponse.class, CacheConfig::copy)
+                .localCopier(CorridorSummaryResponse.class, summary -> summary.toBuilder()
+                        .assetCountByType(copy(summary.getAssetCountByType()))
+                        .assetCountByHealthStatus(copy(summary.getAssetCountByHealthStatus()))
+                        .build())
+                .invalidationChannel("cache-invalidation:" + applicationName)
+                .meterRegistry(meterRegistry.getIfAvailable())
+                .build();
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
+    private static AssetResponse copy(AssetResponse asset) {
+        List<AssetResponse> children = asset.getChildren();
+        return asset.toBuilder()
+                .children(children == null ? null : children.stream()
+                        .map(CacheConfig::copy)
+                        .collect(Collectors.toCollection(ArrayList::new)))
                 .build();
     }
+
+    private static <K, V> Map<K, V> copy(Map<K, V> map) {
+        return map == null ? null : new LinkedHashMap<>(map);
+    }
 }
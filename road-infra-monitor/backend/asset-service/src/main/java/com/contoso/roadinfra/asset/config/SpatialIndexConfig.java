@@ -0,0 +1,42 @@
+package com.contoso.roadinfra.asset.config;
+
+import com.contoso.roadinfra.asset.geo.GeoJsonLayerService;
+import com.contoso.roadinfra.common.geo.PostgisSpatialIndex;
+import com.contoso.roadinfra.common.geo.SpatialIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * Spatial index behind the asset bbox, radius and nearest queries.
+ *
+ * By default the R-tree of the in-memory GeoJSON layer is used, which is kept current by
+ * the same change events. Large deployments can set {@code asset.spatial-index.type} to
+ * {@code postgis} to query a GiST index over the coordinate columns instead.
+ */
+@Configuration
+public class SpatialIndexConfig {
+
+    // Points for point assets, lines from start to end for linear ones
+    static final String ASSET_GEOMETRY = "ST_SetSRID(CASE WHEN end_longitude IS NULL OR end_latitude IS NULL"
+            + " THEN ST_MakePoint(start_longitude, start_latitude)"
+            + " ELSE ST_MakeLine(ST_MakePoint(start_longitude, start_latitude),"
+            + " ST_MakePoint(end_longitude, end_latitude)) END, 4326)";
+
+    @Bean
+    @ConditionalOnProperty(name = "asset.spatial-index.type", havingValue = "memory", matchIfMissing = true)
+    public SpatialIndex<UUID> assetSpatialIndex(GeoJsonLayerService geoJsonLayer) {
+        return geoJsonLayer.locations();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "asset.spatial-index.type", havingValue = "postgis")
+    public SpatialIndex<UUID> postgisAssetSpatialIndex(JdbcTemplate jdbcTemplate) {
+        PostgisSpatialIndex index = new PostgisSpatialIndex(jdbcTemplate, "assets", "id", ASSET_GEOMETRY);
+        index.createIndex("idx_assets_geometry");
+        return index;
+    }
+}
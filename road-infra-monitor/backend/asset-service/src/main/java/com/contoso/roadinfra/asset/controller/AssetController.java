@@ -1,8 +1,10 @@
 package com.contoso.roadinfra.asset.controller;
 
 import com.contoso.roadinfra.asset.dto.*;
+import com.contoso.roadinfra.asset.geo.GeoJsonLayerService;
 import com.contoso.roadinfra.asset.service.AssetService;
 import com.contoso.roadinfra.common.dto.ApiResponse;
+import com.contoso.roadinfra.common.geo.GeoBounds;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,12 +13,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,7 +35,11 @@ import java.util.UUID;
 @Tag(name = "Assets", description = "Asset lifecycle management endpoints")
 public class AssetController {
 
+    private static final int MAX_RADIUS_METERS = 50_000;
+    private static final int MAX_NEAREST = 100;
+
     private final AssetService assetService;
+    private final GeoJsonLayerService geoJsonLayer;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
@@ -76,12 +85,89 @@ public class AssetController {
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
+    @GetMapping("/corridor/range")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
+    @Operation(summary = "Get assets in chainage range",
+            description = "Retrieve the assets overlapping a chainage range with their health and sensor counts")
+    public ResponseEntity<ApiResponse<CorridorRangeResponse>> getCorridorRange(
+            @Parameter(description = "Start chainage in meters") @RequestParam double start,
+            @Parameter(description = "End chainage in meters") @RequestParam double end) {
+        if (start > end) {
+            throw new IllegalArgumentException("start must not exceed end");
+        }
+        CorridorRangeResponse range = assetService.getCorridorRange(start, end);
+        return ResponseEntity.ok(ApiResponse.success(range));
+    }
+
+    @GetMapping("/corridor/at")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
+    @Operation(summary = "Get assets at chainage",
+            description = "Retrieve the assets spanning a chainage with their health and sensor counts")
+    public ResponseEntity<ApiResponse<CorridorRangeResponse>> getAssetsAtChainage(
+            @Parameter(description = "Chainage in meters") @RequestParam double chainage) {
+        CorridorRangeResponse range = assetService.getAssetsAtChainage(chainage);
+        return ResponseEntity.ok(ApiResponse.success(range));
+    }
+
+    @GetMapping("/within")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
+    @Operation(summary = "Get assets in bounding box", description = "Retrieve assets whose geometry intersects a bounding box")
+    public ResponseEntity<ApiResponse<List<AssetResponse>>> getAssetsWithin(
+            @Parameter(description = "Bounding box as minLon,minLat,maxLon,maxLat") @RequestParam String bbox) {
+        List<AssetResponse> assets = assetService.getAssetsWithin(GeoBounds.parse(bbox));
+        return ResponseEntity.ok(ApiResponse.success(assets));
+    }
+
+    @GetMapping("/nearby")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
+    @Operation(summary = "Get assets near a point", description = "Retrieve assets within a radius of a point, nearest first")
+    public ResponseEntity<ApiResponse<List<AssetResponse>>> getAssetsNearby(
+            @RequestParam double lon,
+            @RequestParam double lat,
+            @Parameter(description = "Radius in meters") @RequestParam double radius) {
+        if (radius < 0 || radius > MAX_RADIUS_METERS) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + MAX_RADIUS_METERS + " meters");
+        }
+        List<AssetResponse> assets = assetService.getAssetsNearby(lon, lat, radius);
+        return ResponseEntity.ok(ApiResponse.success(assets));
+    }
+
+    @GetMapping("/nearest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
+    @Operation(summary = "Get nearest assets", description = "Retrieve the k assets nearest to a point, nearest first")
+    public ResponseEntity<ApiResponse<List<AssetResponse>>> getNearestAssets(
+            @RequestParam double lon,
+            @RequestParam double lat,
+            @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST);
+        }
+        List<AssetResponse> assets = assetService.getNearestAssets(lon, lat, k);
+        return ResponseEntity.ok(ApiResponse.success(assets));
+    }
+
     @GetMapping("/geojson")
     @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
-    @Operation(summary = "Get GeoJSON features", description = "Retrieve all assets as GeoJSON feature collection")
-    public ResponseEntity<GeoJsonFeatureCollection> getGeoJsonFeatures() {
-        GeoJsonFeatureCollection geoJson = assetService.getGeoJsonFeatures();
-        return ResponseEntity.ok(geoJson);
+    @Operation(summary = "Get GeoJSON features",
+            description = "Retrieve assets as a GeoJSON feature collection, optionally only those intersecting a bounding box")
+    public ResponseEntity<byte[]> getGeoJsonFeatures(
+            @Parameter(description = "Bounding box as minLon,minLat,maxLon,maxLat")
+            @RequestParam(required = false) String bbox,
+            WebRequest webRequest) {
+        GeoJsonLayerService.Selection selection = bbox != null
+                ? geoJsonLayer.within(GeoBounds.parse(bbox))
+                : geoJsonLayer.all();
+        return geoJson(selection, webRequest);
+    }
+
+    @GetMapping("/geojson/tiles/{z}/{x}/{y}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ENGINEER', 'OPERATOR', 'VIEWER')")
+    @Operation(summary = "Get GeoJSON tile",
+            description = "Retrieve the assets intersecting slippy-map tile z/x/y as a GeoJSON feature collection")
+    public ResponseEntity<byte[]> getGeoJsonTile(
+            @PathVariable int z, @PathVariable int x, @PathVariable int y,
+            WebRequest webRequest) {
+        return geoJson(geoJsonLayer.tile(z, x, y), webRequest);
     }
 
     @PostMapping
@@ -145,4 +231,16 @@ public class AssetController {
         Double newPercentage = assetService.recalculateCompletionFromMilestones(id);
         return ResponseEntity.ok(ApiResponse.success(newPercentage, "Completion percentage recalculated"));
     }
+
+    private ResponseEntity<byte[]> geoJson(GeoJsonLayerService.Selection selection, WebRequest webRequest) {
+        // Answer revalidations with 304 before concatenating the features
+        if (webRequest.checkNotModified(selection.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(selection.etag())
+                .body(geoJsonLayer.render(selection));
+    }
 }
@@ -0,0 +1,204 @@
+package com.contoso.roadinfra.asset.corridor;
+
+import com.contoso.roadinfra.asset.entity.Asset;
+import com.contoso.roadinfra.asset.repository.AssetChainage;
+import com.contoso.roadinfra.asset.repository.AssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of asset chainage ranges for corridor range and point queries.
+ *
+ * The interval tree is immutable; assets changed since it was built are held in a small
+ * delta that queries scan alongside it, and the tree is rebuilt once the delta exceeds
+ * the rebuild threshold. Each change publishes a new state, so queries never lock.
+ * Local writes are applied after they commit (see {@code AssetCacheUpdater}), other
+ * instances' writes arrive as asset events, and a periodic reload from the database,
+ * which also builds the index at startup, repairs anything missed. Changes applied while
+ * a reload reads the database may be newer than what it read, so they are replayed over
+ * its snapshot.
+ */
+@Component
+@Slf4j
+public class ChainageIndex {
+
+    private final AssetRepository assetRepository;
+    private final int rebuildThreshold;
+    private final Map<UUID, ChainageRange> entries = new HashMap<>();
+    private volatile State state = new State(IntervalTree.build(Map.of()), Map.of(), Set.of());
+    // Ranges changed while a reload is in progress, null meaning removed; guarded by this
+    private Map<UUID, ChainageRange> changesDuringReload;
+    // A lock rather than synchronized: reload queries the database, which would pin a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public ChainageIndex(AssetRepository assetRepository,
+                         @Value("${asset.chainage-index.rebuild-threshold:256}") int rebuildThreshold) {
+        if (rebuildThreshold < 1) {
+            throw new IllegalArgumentException("Rebuild threshold must be positive");
+        }
+        this.assetRepository = assetRepository;
+        this.rebuildThreshold = rebuildThreshold;
+    }
+
+    /**
+     * IDs of assets whose chainage range overlaps {@code [from, to]}.
+     */
+    public List<UUID> overlapping(double from, double to) {
+        ensureLoaded();
+        State current = state;
+        List<UUID> result = new ArrayList<>();
+        current.tree.overlapping(from, to, id -> {
+            if (!current.stale.contains(id)) {
+                result.add(id);
+            }
+        });
+        current.pending.forEach((id, range) -> {
+            if (range.overlaps(from, to)) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * IDs of assets whose chainage range contains {@code chainage}.
+     */
+    public List<UUID> at(double chainage) {
+        return overlapping(chainage, chainage);
+    }
+
+    public void upsert(Asset asset) {
+        if (asset.getStartChainage() == null || asset.getEndChainage() == null) {
+            remove(asset.getId());
+        } else {
+            put(asset.getId(), ChainageRange.between(asset.getStartChainage(), asset.getEndChainage()));
+        }
+    }
+
+    public synchronized void remove(UUID assetId) {
+        recordChange(assetId, null);
+        if (entries.remove(assetId) == null) {
+            return;
+        }
+        State current = state;
+        Map<UUID, ChainageRange> pending = current.pending;
+        if (pending.containsKey(assetId)) {
+            pending = new HashMap<>(pending);
+            pending.remove(assetId);
+        }
+        publish(current, pending, assetId);
+    }
+
+    /**
+     * Reload every asset's range and rebuild the tree.
+     */
+    @Scheduled(fixedDelayString = "${asset.chainage-index.reload-interval-ms:300000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            synchronized (this) {
+                changesDuringReload = new HashMap<>();
+            }
+            Map<UUID, ChainageRange> ranges;
+            try {
+                ranges = loadRanges();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changesDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                changesDuringReload.forEach((assetId, range) -> {
+                    if (range != null) {
+                        ranges.put(assetId, range);
+                    } else {
+                        ranges.remove(assetId);
+                    }
+                });
+                changesDuringReload = null;
+                entries.clear();
+                entries.putAll(ranges);
+                state = new State(IntervalTree.build(entries), Map.of(), Set.of());
+            }
+            if (!loaded) {
+                log.info("Chainage index loaded with {} assets", ranges.size());
+            }
+            loaded = true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Map<UUID, ChainageRange> loadRanges() {
+        List<AssetChainage> chainages = assetRepository.findAllChainages();
+        Map<UUID, ChainageRange> ranges = new HashMap<>(chainages.size() * 2);
+        for (AssetChainage chainage : chainages) {
+            if (chainage.startChainage() != null && chainage.endChainage() != null) {
+                ranges.put(chainage.id(), ChainageRange.between(chainage.startChainage(), chainage.endChainage()));
+            }
+        }
+        return ranges;
+    }
+
+    private synchronized void put(UUID assetId, ChainageRange range) {
+        recordChange(assetId, range);
+        if (range.equals(entries.put(assetId, range))) {
+            return;
+        }
+        State current = state;
+        Map<UUID, ChainageRange> pending = new HashMap<>(current.pending);
+        pending.put(assetId, range);
+        publish(current, pending, assetId);
+    }
+
+    private void publish(State current, Map<UUID, ChainageRange> pending, UUID changedId) {
+        // Any change supersedes the asset's tree entry, if it has one
+        Set<UUID> stale = current.stale;
+        if (!stale.contains(changedId)) {
+            stale = new HashSet<>(stale);
+            stale.add(changedId);
+        }
+        if (pending.size() + stale.size() > rebuildThreshold) {
+            state = new State(IntervalTree.build(entries), Map.of(), Set.of());
+        } else {
+            state = new State(current.tree, pending, stale);
+        }
+    }
+
+    private void recordChange(UUID assetId, ChainageRange range) {
+        if (changesDuringReload != null) {
+            changesDuringReload.put(assetId, range);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            // Callers that waited for the first load must not each run another
+            if (!loaded) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record State(IntervalTree<UUID> tree, Map<UUID, ChainageRange> pending, Set<UUID> stale) {
+    }
+}
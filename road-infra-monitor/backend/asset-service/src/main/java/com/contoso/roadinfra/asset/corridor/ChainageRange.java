@@ -0,0 +1,24 @@
+package com.contoso.roadinfra.asset.corridor;
+
+/**
+ * A closed chainage interval along the corridor, in meters.
+ */
+public record ChainageRange(double start, double end) {
+
+    public ChainageRange {
+        if (!(start <= end)) {
+            throw new IllegalArgumentException("Chainage range start must not exceed its end");
+        }
+    }
+
+    /**
+     * The range between two chainages given in either order.
+     */
+    public static ChainageRange between(double a, double b) {
+        return new ChainageRange(Math.min(a, b), Math.max(a, b));
+    }
+
+    public boolean overlaps(double from, double to) {
+        return start <= to && from <= end;
+    }
+}
@@ -0,0 +1,155 @@
+package com.contoso.roadinfra.asset.corridor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable centered interval tree over closed intervals.
+ *
+ * Each node holds the intervals containing its center, sorted by start and by end, so a
+ * stabbing query reports them by scanning only as far as they match and then descends
+ * one side: O(log n + k). An overlap query is a stabbing query at its lower bound plus
+ * the intervals starting inside it, which a start-sorted array yields by binary search,
+ * also O(log n + k).
+ */
+final class IntervalTree<K> {
+
+    private final Node root;
+    private final Object[] keysByStart;
+    private final double[] starts;
+
+    private IntervalTree(Node root, Object[] keysByStart, double[] starts) {
+        this.root = root;
+        this.keysByStart = keysByStart;
+        this.starts = starts;
+    }
+
+    static <K> IntervalTree<K> build(Map<K, ChainageRange> ranges) {
+        List<Entry> entries = new ArrayList<>(ranges.size());
+        ranges.forEach((key, range) -> entries.add(new Entry(key, range.start(), range.end())));
+        entries.sort(Comparator.comparingDouble(Entry::start));
+
+        Object[] keysByStart = new Object[entries.size()];
+        double[] starts = new double[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keysByStart[i] = entries.get(i).key();
+            starts[i] = entries.get(i).start();
+        }
+        return new IntervalTree<>(node(entries), keysByStart, starts);
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * Report every interval containing {@code point}.
+     */
+    void stab(double point, Consumer<K> action) {
+        Node node = root;
+        while (node != null) {
+            if (point < node.center) {
+                for (int i = 0; i < node.byStart.length && node.starts[i] <= point; i++) {
+                    action.accept(key(node.byStart[i]));
+                }
+                node = node.left;
+            } else if (point > node.center) {
+                for (int i = 0; i < node.byEnd.length && node.ends[i] >= point; i++) {
+                    action.accept(key(node.byEnd[i]));
+                }
+                node = node.right;
+            } else {
+                for (Object key : node.byStart) {
+                    action.accept(key(key));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Report every interval overlapping {@code [from, to]}.
+     */
+    void overlapping(double from, double to, Consumer<K> action) {
+        // Intervals starting at or before from overlap exactly when they contain it
+        stab(from, action);
+        for (int i = firstStartAfter(from); i < starts.length && starts[i] <= to; i++) {
+            action.accept(key(keysByStart[i]));
+        }
+    }
+
+    private int firstStartAfter(double value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(Object key) {
+        return (K) key;
+    }
+
+    /**
+     * Build a subtree from entries sorted by start. The center is the median endpoint, so
+     * at most half of the entries lie entirely on either side and the depth is O(log n).
+     */
+    private static Node node(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        double[] endpoints = new double[entries.size() * 2];
+        for (int i = 0; i < entries.size(); i++) {
+            endpoints[2 * i] = entries.get(i).start();
+            endpoints[2 * i + 1] = entries.get(i).end();
+        }
+        Arrays.sort(endpoints);
+        double center = endpoints[entries.size()];
+
+        List<Entry> left = new ArrayList<>();
+        List<Entry> right = new ArrayList<>();
+        List<Entry> spanning = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.end() < center) {
+                left.add(entry);
+            } else if (entry.start() > center) {
+                right.add(entry);
+            } else {
+                spanning.add(entry);
+            }
+        }
+
+        Object[] byStart = new Object[spanning.size()];
+        double[] starts = new double[spanning.size()];
+        for (int i = 0; i < spanning.size(); i++) {
+            byStart[i] = spanning.get(i).key();
+            starts[i] = spanning.get(i).start();
+        }
+        spanning.sort(Comparator.comparingDouble(Entry::end).reversed());
+        Object[] byEnd = new Object[spanning.size()];
+        double[] ends = new double[spanning.size()];
+        for (int i = 0; i < spanning.size(); i++) {
+            byEnd[i] = spanning.get(i).key();
+            ends[i] = spanning.get(i).end();
+        }
+        return new Node(center, byStart, starts, byEnd, ends, node(left), node(right));
+    }
+
+    private record Entry(Object key, double start, double end) {
+    }
+
+    private record Node(double center, Object[] byStart, double[] starts, Object[] byEnd, double[] ends,
+                        Node left, Node right) {
+    }
+}
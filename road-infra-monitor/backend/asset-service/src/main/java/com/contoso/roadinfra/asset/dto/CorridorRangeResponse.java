@@ -0,0 +1,37 @@
+package com.contoso.roadinfra.asset.dto;
+
+import com.contoso.roadinfra.common.constants.HealthStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Assets overlapping a stretch of the corridor")
+public class CorridorRangeResponse {
+
+    @Schema(description = "Start of the queried range in meters", example = "12300.0")
+    private Double startChainage;
+
+    @Schema(description = "End of the queried range in meters", example = "14800.0")
+    private Double endChainage;
+
+    @Schema(description = "Number of assets overlapping the range")
+    private Integer totalAssets;
+
+    @Schema(description = "Number of sensors on the overlapping assets")
+    private Integer totalSensors;
+
+    @Schema(description = "Number of overlapping assets by health status")
+    private Map<HealthStatus, Long> assetCountByHealthStatus;
+
+    @Schema(description = "Overlapping assets ordered by start chainage, with health and sensor count")
+    private List<AssetResponse> assets;
+}
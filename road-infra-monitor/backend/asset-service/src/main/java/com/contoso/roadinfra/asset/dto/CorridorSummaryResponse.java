@@ -11,7 +11,7 @@ import lombok.NoArgsConstructor;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Summary of the entire corridor")
@@ -23,9 +23,12 @@ public class CorridorSummaryResponse {
     @Schema(description = "Total number of assets")
     private Integer totalAssets;
 
-    @Schema(description = "Average completion percentage across all assets")
+    @Schema(description = "Average completion percentage across assets that report one")
     private Double averageCompletionPercentage;
 
+    @Schema(description = "Number of assets that report a completion percentage")
+    private Integer assetsWithCompletion;
+
     @Schema(description = "Number of assets by type")
     private Map<AssetType, Long> assetCountByType;
 
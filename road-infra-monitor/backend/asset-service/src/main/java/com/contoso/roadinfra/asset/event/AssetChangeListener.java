@@ -0,0 +1,58 @@
+package com.contoso.roadinfra.asset.event;
+
+import com.contoso.roadinfra.asset.config.KafkaConfig;
+import com.contoso.roadinfra.asset.corridor.ChainageIndex;
+import com.contoso.roadinfra.asset.geo.GeoJsonLayerService;
+import com.contoso.roadinfra.asset.repository.AssetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Applies asset changes made by other instances to this instance's GeoJSON layer and
+ * chainage index.
+ *
+ * Every instance joins its own consumer group so that each receives every event. The
+ * group is named after the instance, so a restart resumes it instead of leaving an
+ * orphaned group behind; a new group starts from the latest offset since both are
+ * loaded from the database. Events are keyed by asset ID; the payload is not needed
+ * because the asset is reloaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssetChangeListener {
+
+    private final AssetRepository assetRepository;
+    private final GeoJsonLayerService geoJsonLayer;
+    private final ChainageIndex chainageIndex;
+
+    @KafkaListener(
+            topics = {KafkaConfig.TOPIC_ASSET_EVENTS, KafkaConfig.TOPIC_ASSET_HEALTH_CHANGES,
+                    KafkaConfig.TOPIC_CONSTRUCTION_PROGRESS},
+            groupId = "asset-service-geojson-${asset.change-events.instance-id}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onAssetChanged(ConsumerRecord<String, String> record) {
+        UUID assetId;
+        try {
+            assetId = UUID.fromString(record.key());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Ignoring {} event without an asset ID key", record.topic());
+            return;
+        }
+        assetRepository.findById(assetId).ifPresentOrElse(asset -> {
+            geoJsonLayer.upsert(asset);
+            chainageIndex.upsert(asset);
+        }, () -> {
+            geoJsonLayer.remove(assetId);
+            chainageIndex.remove(assetId);
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.contoso.roadinfra.asset.event;
+
+import com.contoso.roadinfra.asset.client.SensorCountCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Evicts cached sensor counts when sensor-service reports a sensor change.
+ *
+ * A new sensor only changes its own asset's count. An update may move the sensor to
+ * another asset, and the event does not say which asset it left, so all counts are
+ * dropped; updates are rare enough for that to be cheap. Like the asset listener, every
+ * instance uses its own consumer group, named after the instance, and a new group
+ * starts from the latest offset.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SensorChangeListener {
+
+    static final String TOPIC_SENSOR_EVENTS = "sensor-events";
+
+    private final SensorCountCache sensorCounts;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = TOPIC_SENSOR_EVENTS,
+            groupId = "asset-service-sensor-counts-${asset.change-events.instance-id}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onSensorChanged(ConsumerRecord<String, String> record) {
+        try {
+            JsonNode event = objectMapper.readTree(record.value());
+            String assetId = event.path("sensor").path("assetId").asText(null);
+            if ("SENSOR_CREATED".equals(event.path("eventType").asText()) && assetId != null) {
+                sensorCounts.evict(UUID.fromString(assetId));
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Could not read {} event, dropping all sensor counts: {}", record.topic(), e.getMessage());
+        }
+        sensorCounts.evictAll();
+    }
+}
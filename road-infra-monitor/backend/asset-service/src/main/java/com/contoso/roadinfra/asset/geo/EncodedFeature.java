@@ -0,0 +1,29 @@
+package com.contoso.roadinfra.asset.geo;
+
+import com.contoso.roadinfra.common.geo.GeoBounds;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One asset's GeoJSON feature, serialized once when the asset changes.
+ *
+ * @param json        the UTF-8 encoded feature object
+ * @param bounds      extent of the geometry, or {@code null} for an asset without coordinates
+ * @param updatedAt   {@code updatedAt} of the asset the feature was built from
+ * @param fingerprint hash of the ID and version, combined into layer and tile ETags
+ */
+public record EncodedFeature(UUID id, byte[] json, GeoBounds bounds, Instant updatedAt, long fingerprint) {
+
+    public static long fingerprint(UUID id, Instant updatedAt) {
+        long version = updatedAt != null ? updatedAt.getEpochSecond() * 1_000_000_000L + updatedAt.getNano() : 0;
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits() ^ mix(version)));
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
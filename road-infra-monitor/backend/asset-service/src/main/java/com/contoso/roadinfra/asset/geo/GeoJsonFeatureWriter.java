@@ -0,0 +1,98 @@
+package com.contoso.roadinfra.asset.geo;
+
+import com.contoso.roadinfra.asset.entity.Asset;
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Serializes an asset straight to a GeoJSON feature with a streaming generator.
+ *
+ * Linear assets with an end position become LineStrings and all others Points; an
+ * asset without coordinates gets a {@code null} geometry, which GeoJSON allows.
+ */
+@Component
+public class GeoJsonFeatureWriter {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public EncodedFeature encode(Asset asset) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        GeoBounds bounds;
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("type", "Feature");
+            json.writeStringField("id", asset.getId().toString());
+            json.writeFieldName("geometry");
+            bounds = writeGeometry(json, asset);
+            writeProperties(json, asset);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedFeature(asset.getId(), out.toByteArray(), bounds, asset.getUpdatedAt(),
+                EncodedFeature.fingerprint(asset.getId(), asset.getUpdatedAt()));
+    }
+
+    private static GeoBounds writeGeometry(JsonGenerator json, Asset asset) throws IOException {
+        Double startLon = asset.getStartLongitude();
+        Double startLat = asset.getStartLatitude();
+        if (startLon == null || startLat == null) {
+            json.writeNull();
+            return null;
+        }
+
+        json.writeStartObject();
+        GeoBounds bounds;
+        if (asset.getEndLatitude() != null && asset.getEndLongitude() != null) {
+            json.writeStringField("type", "LineString");
+            json.writeArrayFieldStart("coordinates");
+            writePosition(json, startLon, startLat);
+            writePosition(json, asset.getEndLongitude(), asset.getEndLatitude());
+            json.writeEndArray();
+            bounds = GeoBounds.of(startLon, startLat, asset.getEndLongitude(), asset.getEndLatitude());
+        } else {
+            json.writeStringField("type", "Point");
+            json.writeFieldName("coordinates");
+            writePosition(json, startLon, startLat);
+            bounds = GeoBounds.ofPoint(startLon, startLat);
+        }
+        json.writeEndObject();
+        return bounds;
+    }
+
+    private static void writePosition(JsonGenerator json, double lon, double lat) throws IOException {
+        json.writeStartArray();
+        json.writeNumber(lon);
+        json.writeNumber(lat);
+        json.writeEndArray();
+    }
+
+    private static void writeProperties(JsonGenerator json, Asset asset) throws IOException {
+        json.writeObjectFieldStart("properties");
+        json.writeStringField("id", asset.getId().toString());
+        json.writeStringField("assetCode", asset.getAssetCode());
+        json.writeStringField("name", asset.getName());
+        json.writeStringField("assetType", asset.getAssetType() != null ? asset.getAssetType().getDisplayName() : null);
+        json.writeStringField("status", asset.getStatus() != null ? asset.getStatus().getDisplayName() : null);
+        json.writeStringField("healthStatus",
+                asset.getHealthStatus() != null ? asset.getHealthStatus().getDisplayName() : null);
+        writeNumber(json, "completionPercentage", asset.getCompletionPercentage());
+        writeNumber(json, "startChainage", asset.getStartChainage());
+        writeNumber(json, "endChainage", asset.getEndChainage());
+        json.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator json, String field, Double value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(field, value);
+        } else {
+            json.writeNullField(field);
+        }
+    }
+}
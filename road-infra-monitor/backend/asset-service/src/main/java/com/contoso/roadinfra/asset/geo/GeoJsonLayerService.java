@@ -0,0 +1,248 @@
+package com.contoso.roadinfra.asset.geo;
+
+import com.contoso.roadinfra.asset.entity.Asset;
+import com.contoso.roadinfra.asset.repository.AssetRepository;
+import com.contoso.roadinfra.asset.repository.AssetVersion;
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.contoso.roadinfra.common.geo.RTreeSpatialIndex;
+import com.contoso.roadinfra.common.geo.SpatialIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory GeoJSON layer of all assets, held as one pre-serialized feature per asset.
+ *
+ * Features are re-encoded only when their asset changes: after a local write commits
+ * (see {@code AssetCacheUpdater}), when another instance's change arrives as an asset
+ * event, and by a periodic reconciliation against the assets' {@code updatedAt}, which
+ * also builds the layer at startup and repairs any missed event. Responses are the
+ * stored bytes concatenated in asset ID order, so identical content always produces
+ * identical bytes and the ETag, built from per-feature fingerprints, can be compared
+ * across instances.
+ *
+ * Feature extents are kept in an R-tree, which answers the layer's box and tile queries
+ * and, through {@link #locations()}, the asset service's spatial lookups.
+ */
+@Service
+@Slf4j
+public class GeoJsonLayerService {
+
+    private static final byte[] HEADER = "{\"type\":\"FeatureCollection\",\"features\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FOOTER = "]}".getBytes(StandardCharsets.UTF_8);
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final AssetRepository assetRepository;
+    private final GeoJsonFeatureWriter featureWriter;
+    private final RTreeSpatialIndex<UUID> index;
+    private final SpatialIndex<UUID> locations = new LoadedLocations();
+    private final NavigableMap<UUID, EncodedFeature> features = new ConcurrentSkipListMap<>();
+    // A lock rather than synchronized: reconcile queries the database, which would pin a virtual thread
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public GeoJsonLayerService(AssetRepository assetRepository,
+                               GeoJsonFeatureWriter featureWriter,
+                               @Value("${asset.spatial-index.rebuild-threshold:256}") int rebuildThreshold) {
+        this.assetRepository = assetRepository;
+        this.featureWriter = featureWriter;
+        this.index = new RTreeSpatialIndex<>(rebuildThreshold);
+    }
+
+    /**
+     * A set of features to render and its ETag.
+     */
+    public record Selection(List<EncodedFeature> features, String etag) {
+
+        static Selection of(List<EncodedFeature> features) {
+            long hash = 0;
+            for (EncodedFeature feature : features) {
+                hash += feature.fingerprint();
+            }
+            return new Selection(features, "\"" + Long.toHexString(hash) + "-" + features.size() + "\"");
+        }
+    }
+
+    /**
+     * Every feature of the layer.
+     */
+    public Selection all() {
+        ensureLoaded();
+        return Selection.of(new ArrayList<>(features.values()));
+    }
+
+    /**
+     * Features whose geometry intersects {@code bbox}.
+     */
+    public Selection within(GeoBounds bbox) {
+        ensureLoaded();
+        List<UUID> ids = index.within(bbox);
+        ids.sort(null);
+        List<EncodedFeature> selected = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            EncodedFeature feature = features.get(id);
+            if (feature != null) {
+                selected.add(feature);
+            }
+        }
+        return Selection.of(selected);
+    }
+
+    /**
+     * Features intersecting slippy-map tile {@code z/x/y}. Geometries are not clipped,
+     * so a feature crossing a tile boundary is part of every tile it touches.
+     */
+    public Selection tile(int z, int x, int y) {
+        return within(TileBounds.of(z, x, y));
+    }
+
+    /**
+     * Spatial index over the asset geometries, loaded on first use like the layer.
+     */
+    public SpatialIndex<UUID> locations() {
+        return locations;
+    }
+
+    /**
+     * Concatenate the selected features into a FeatureCollection document.
+     */
+    public byte[] render(Selection selection) {
+        List<EncodedFeature> selected = selection.features();
+        int size = HEADER.length + FOOTER.length + Math.max(0, selected.size() - 1);
+        for (EncodedFeature feature : selected) {
+            size += feature.json().length;
+        }
+
+        byte[] body = new byte[size];
+        System.arraycopy(HEADER, 0, body, 0, HEADER.length);
+        int position = HEADER.length;
+        for (int i = 0; i < selected.size(); i++) {
+            if (i > 0) {
+                body[position++] = ',';
+            }
+            byte[] json = selected.get(i).json();
+            System.arraycopy(json, 0, body, position, json.length);
+            position += json.length;
+        }
+        System.arraycopy(FOOTER, 0, body, position, FOOTER.length);
+        return body;
+    }
+
+    /**
+     * Re-encode an asset, unless the layer already holds a newer version of it.
+     */
+    public void upsert(Asset asset) {
+        EncodedFeature encoded = featureWriter.encode(asset);
+        synchronized (features) {
+            EncodedFeature existing = features.get(encoded.id());
+            if (existing != null && isOlder(encoded.updatedAt(), existing.updatedAt())) {
+                return;
+            }
+            features.put(encoded.id(), encoded);
+            if (encoded.bounds() != null) {
+                index.put(encoded.id(), encoded.bounds());
+            } else {
+                index.remove(encoded.id());
+            }
+        }
+    }
+
+    public void remove(UUID assetId) {
+        synchronized (features) {
+            features.remove(assetId);
+            index.remove(assetId);
+        }
+    }
+
+    /**
+     * Bring the layer in line with the database, re-encoding only assets whose
+     * {@code updatedAt} differs from the stored feature's.
+     */
+    @Scheduled(fixedDelayString = "${asset.geojson.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            Instant started = Instant.now();
+            List<AssetVersion> versions = assetRepository.findAllVersions();
+
+            Set<UUID> current = new HashSet<>(versions.size() * 2);
+            List<UUID> stale = new ArrayList<>();
+            for (AssetVersion version : versions) {
+                current.add(version.id());
+                EncodedFeature feature = features.get(version.id());
+                if (feature == null || !Objects.equals(version.updatedAt(), feature.updatedAt())) {
+                    stale.add(version.id());
+                }
+            }
+
+            for (int i = 0; i < stale.size(); i += LOAD_BATCH_SIZE) {
+                assetRepository.findAllById(stale.subList(i, Math.min(i + LOAD_BATCH_SIZE, stale.size())))
+                        .forEach(this::upsert);
+            }
+
+            int removed = 0;
+            for (EncodedFeature feature : features.values()) {
+                // Keep features written after the version query started
+                if (!current.contains(feature.id()) && isOlder(feature.updatedAt(), started)) {
+                    remove(feature.id());
+                    removed++;
+                }
+            }
+
+            if (!stale.isEmpty() || removed > 0) {
+                log.info("GeoJSON layer reconciled: {} features re-encoded, {} removed, {} total",
+                        stale.size(), removed, features.size());
+            }
+            loaded = true;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+
+    private class LoadedLocations implements SpatialIndex<UUID> {
+
+        @Override
+        public List<UUID> within(GeoBounds bounds) {
+            ensureLoaded();
+            return index.within(bounds);
+        }
+
+        @Override
+        public List<Neighbor<UUID>> withinRadius(double lon, double lat, double radiusMeters) {
+            ensureLoaded();
+            return index.withinRadius(lon, lat, radiusMeters);
+        }
+
+        @Override
+        public List<Neighbor<UUID>> nearest(double lon, double lat, int limit) {
+            ensureLoaded();
+            return index.nearest(lon, lat, limit);
+        }
+    }
+
+    private static boolean isOlder(Instant candidate, Instant reference) {
+        if (candidate == null || reference == null) {
+            return candidate == null && reference != null;
+        }
+        return candidate.isBefore(reference);
+    }
+}
@@ -0,0 +1,38 @@
+package com.contoso.roadinfra.asset.geo;
+
+import com.contoso.roadinfra.common.geo.GeoBounds;
+
+/**
+ * Bounds of slippy-map tiles ({@code z/x/y}, as used by OSM and most web maps).
+ */
+public final class TileBounds {
+
+    public static final int MAX_ZOOM = 24;
+
+    /** Web Mercator's latitude limit; tiles do not extend beyond it. */
+    private static final double MAX_MERCATOR_LAT = 85.0511287798066;
+
+    private TileBounds() {
+    }
+
+    public static GeoBounds of(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("Tile zoom must be between 0 and " + MAX_ZOOM);
+        }
+        int tiles = 1 << z;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " does not exist");
+        }
+        double minLon = x * 360.0 / tiles - 180.0;
+        double maxLon = (x + 1) * 360.0 / tiles - 180.0;
+        // Features above the Mercator limit belong to the edge tiles
+        double maxLat = y == 0 ? 90.0 : latitude(y, tiles);
+        double minLat = y + 1 == tiles ? -90.0 : latitude(y + 1, tiles);
+        return new GeoBounds(minLon, minLat, maxLon, maxLat);
+    }
+
+    private static double latitude(int y, int tiles) {
+        double lat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / tiles))));
+        return Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, lat));
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.roadinfra.asset.repository;
+
+import java.util.UUID;
+
+/**
+ * Identity and chainage range of an asset, used to load the chainage index without
+ * loading the assets themselves.
+ */
+public record AssetChainage(UUID id, Double startChainage, Double endChainage) {
+}
@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +24,18 @@ public interface AssetRepository extends JpaRepository<Asset, UUID> {
 
     boolean existsByAssetCode(String assetCode);
 
+    @Query("SELECT a.assetCode FROM Asset a WHERE a.id = :id")
+    Optional<String> findAssetCodeById(@Param("id") UUID id);
+
+    // Last-modified time of every asset, for patching the cached GeoJSON layer
+    @Query("SELECT new com.contoso.roadinfra.asset.repository.AssetVersion(a.id, a.updatedAt) FROM Asset a")
+    List<AssetVersion> findAllVersions();
+
+    // Chainage range of every asset, for loading the chainage index
+    @Query("SELECT new com.contoso.roadinfra.asset.repository.AssetChainage(a.id, a.startChainage, a.endChainage) " +
+            "FROM Asset a")
+    List<AssetChainage> findAllChainages();
+
     List<Asset> findByAssetType(AssetType assetType);
 
     Page<Asset> findByAssetType(AssetType assetType, Pageable pageable);
@@ -44,6 +57,10 @@ public interface AssetRepository extends JpaRepository<Asset, UUID> {
     // Count children for a parent asset
     long countByParentAssetId(UUID parentAssetId);
 
+    // Count children of several parents at once, for enriching a page of assets
+    @Query("SELECT a.parentAssetId, COUNT(a) FROM Asset a WHERE a.parentAssetId IN :parentIds GROUP BY a.parentAssetId")
+    List<Object[]> countGroupedByParentAssetIdIn(@Param("parentIds") Collection<UUID> parentIds);
+
     // Find assets with overdue inspections
     @Query("SELECT a FROM Asset a WHERE a.nextInspectionDate <= :date")
     List<Asset> findAssetsWithOverdueInspection(@Param("date") LocalDate date);
@@ -56,14 +73,6 @@ public interface AssetRepository extends JpaRepository<Asset, UUID> {
     @Query("SELECT a FROM Asset a WHERE a.startChainage >= :start AND a.endChainage <= :end ORDER BY a.startChainage")
     List<Asset> findByChainageRange(@Param("start") Double start, @Param("end") Double end);
 
-    // Find assets in bounding box
-    @Query("SELECT a FROM Asset a WHERE a.startLatitude BETWEEN :minLat AND :maxLat " +
-            "AND a.startLongitude BETWEEN :minLon AND :maxLon")
-    List<Asset> findInBoundingBox(@Param("minLat") Double minLat,
-                                   @Param("maxLat") Double maxLat,
-                                   @Param("minLon") Double minLon,
-                                   @Param("maxLon") Double maxLon);
-
     // Statistics queries
     @Query("SELECT COUNT(a) FROM Asset a WHERE a.assetType = :type")
     long countByAssetType(@Param("type") AssetType type);
@@ -79,6 +88,10 @@ public interface AssetRepository extends JpaRepository<Asset, UUID> {
     @Query("SELECT AVG(a.completionPercentage) FROM Asset a")
     Double getAverageCompletionPercentage();
 
+    // Assets the average completion is taken over (AVG skips nulls)
+    @Query("SELECT COUNT(a) FROM Asset a WHERE a.completionPercentage IS NOT NULL")
+    long countWithCompletionPercentage();
+
     // Get total corridor length
     @Query("SELECT SUM(a.length) FROM Asset a WHERE a.parentAssetId IS NULL")
     Double getTotalCorridorLength();
@@ -0,0 +1,11 @@
+package com.contoso.roadinfra.asset.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Identity and last-modified time of an asset, used to find which cached GeoJSON
+ * features are out of date without loading the assets themselves.
+ */
+public record AssetVersion(UUID id, Instant updatedAt) {
+}
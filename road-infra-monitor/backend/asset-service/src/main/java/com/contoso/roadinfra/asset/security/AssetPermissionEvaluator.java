@@ -1,8 +1,8 @@
 package com.contoso.roadinfra.asset.security;
 
-import com.contoso.roadinfra.common.constants.Permission;
 import com.contoso.roadinfra.common.constants.Role;
-import com.contoso.roadinfra.common.security.RolePermissionMapping;
+import com.contoso.roadinfra.common.security.AuthenticationPermissions;
+import com.contoso.roadinfra.common.security.PermissionSet;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -16,6 +16,9 @@ import java.util.stream.Collectors;
 /**
  * Custom permission evaluator for asset-service that reads user roles from JWT claims
  * and checks permissions using the RolePermissionMapping.
+ *
+ * The permissions of the user's roles are resolved to a bitmask once per authentication,
+ * so each check is a bitwise AND.
  */
 @Component("permissionEvaluator")
 @Slf4j
@@ -34,53 +37,64 @@ public class AssetPermissionEvaluator {
             return false;
         }
 
-        try {
-            Permission requiredPermission = Permission.valueOf(permission);
-            Set<Role> userRoles = extractRolesFromAuthentication(authentication);
-
-            if (userRoles.isEmpty()) {
-                log.debug("No roles found for user, denying permission: {}", permission);
-                return false;
-            }
-
-            boolean hasPermission = userRoles.stream()
-                    .anyMatch(role -> RolePermissionMapping.hasPermission(role, requiredPermission));
-
-            log.debug("User {} permission check for {}: {} (roles: {})",
-                    getUsernameFromAuthentication(authentication),
-                    permission,
-                    hasPermission,
-                    userRoles);
-
-            return hasPermission;
-        } catch (IllegalArgumentException e) {
+        long bit = PermissionSet.bit(permission);
+        if (bit == 0L) {
             log.error("Invalid permission name: {}", permission);
             return false;
         }
+
+        PermissionSet userPermissions = rolePermissions(authentication);
+        boolean hasPermission = userPermissions.hasAny(bit);
+
+        log.debug("User {} permission check for {}: {} (permissions: {})",
+                getUsernameFromAuthentication(authentication),
+                permission,
+                hasPermission,
+                userPermissions);
+
+        return hasPermission;
     }
 
     /**
      * Check if the user has any of the specified permissions.
      */
     public boolean hasAnyPermission(Authentication authentication, String... permissions) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        long mask = 0L;
         for (String permission : permissions) {
-            if (hasPermission(authentication, permission)) {
-                return true;
+            long bit = PermissionSet.bit(permission);
+            if (bit == 0L) {
+                log.error("Invalid permission name: {}", permission);
             }
+            mask |= bit;
         }
-        return false;
+        return rolePermissions(authentication).hasAny(mask);
     }
 
     /**
      * Check if the user has all of the specified permissions.
      */
     public boolean hasAllPermissions(Authentication authentication, String... permissions) {
+        if (permissions.length == 0) {
+            return true;
+        }
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        long mask = 0L;
         for (String permission : permissions) {
-            if (!hasPermission(authentication, permission)) {
+            long bit = PermissionSet.bit(permission);
+            if (bit == 0L) {
+                log.error("Invalid permission name: {}", permission);
                 return false;
             }
+            mask |= bit;
         }
-        return true;
+        return rolePermissions(authentication).hasAll(mask);
     }
 
     /**
@@ -101,6 +115,13 @@ public class AssetPermissionEvaluator {
         }
     }
 
+    /**
+     * Permissions of the user's roles, computed once per authentication.
+     */
+    private PermissionSet rolePermissions(Authentication authentication) {
+        return AuthenticationPermissions.fromRoles(authentication);
+    }
+
     /**
      * Extract roles from the authentication object.
      * Roles are stored in authorities with prefix "ROLE_".
@@ -0,0 +1,264 @@
+package com.contoso.roadinfra.asset.service;
+
+import com.contoso.roadinfra.asset.corridor.ChainageIndex;
+import com.contoso.roadinfra.asset.dto.CorridorSummaryResponse;
+import com.contoso.roadinfra.asset.entity.Asset;
+import com.contoso.roadinfra.asset.geo.GeoJsonLayerService;
+import com.contoso.roadinfra.asset.repository.AssetRepository;
+import com.contoso.roadinfra.common.constants.AssetType;
+import com.contoso.roadinfra.common.constants.HealthStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the asset caches in step with asset writes without clearing them.
+ *
+ * Once the writing transaction commits, only the entries that can contain the changed
+ * asset are evicted: its own {@code assets} and {@code assetsByCode} entries, and the
+ * entries and {@code assetChildren} list of its old and new parent, whose responses
+ * embed their children. The cached corridor summary is patched with the difference
+ * between the asset before and after the write instead of being recomputed, and the
+ * asset's feature in the in-memory GeoJSON layer and its range in the chainage index
+ * are updated.
+ *
+ * Summary patches are serialised within an instance. A patch racing with one from
+ * another instance can be lost; the summary's short TTL bounds the drift.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssetCacheUpdater {
+
+    static final String ASSETS = "assets";
+    static final String ASSETS_BY_CODE = "assetsByCode";
+    static final String ASSET_CHILDREN = "assetChildren";
+    static final String CORRIDOR_SUMMARY = "corridorSummary";
+
+    private final CacheManager cacheManager;
+    private final AssetRepository assetRepository;
+    private final GeoJsonLayerService geoJsonLayer;
+    private final ChainageIndex chainageIndex;
+    // A lock rather than synchronized: the patch reads and writes the cache over Redis,
+    // which would pin a virtual thread
+    private final ReentrantLock summaryLock = new ReentrantLock();
+
+    /**
+     * Capture the cached state of an asset before it is modified.
+     */
+    public AssetSnapshot snapshot(Asset asset) {
+        return AssetSnapshot.of(asset, LocalDate.now());
+    }
+
+    public void assetCreated(Asset asset) {
+        changed(null, asset);
+    }
+
+    public void assetUpdated(AssetSnapshot before, Asset asset) {
+        changed(before, asset);
+    }
+
+    public void assetDeleted(AssetSnapshot before) {
+        changed(before, null);
+    }
+
+    /**
+     * Drop the corridor summary after a change it cannot be patched for, such as a
+     * milestone becoming or ceasing to be delayed.
+     */
+    public void corridorSummaryChanged() {
+        afterCommit(() -> cache(CORRIDOR_SUMMARY).evict(SimpleKey.EMPTY));
+    }
+
+    private void changed(AssetSnapshot before, Asset asset) {
+        // Resolve parent codes now, while the transaction can still read
+        Map<UUID, String> parents = new HashMap<>();
+        addParent(parents, before != null ? before.parentAssetId() : null);
+        addParent(parents, asset != null ? asset.getParentAssetId() : null);
+
+        afterCommit(() -> {
+            // Taken after the flush, so values set by entity callbacks are included
+            AssetSnapshot after = asset != null ? AssetSnapshot.of(asset, LocalDate.now()) : null;
+            evictEntries(before, after, parents);
+            if (after == null) {
+                geoJsonLayer.remove(before.id());
+                chainageIndex.remove(before.id());
+                // Deleting an asset also deletes its milestones, which the summary counts
+                cache(CORRIDOR_SUMMARY).evict(SimpleKey.EMPTY);
+            } else {
+                geoJsonLayer.upsert(asset);
+                chainageIndex.upsert(asset);
+                patchCorridorSummary(before, after);
+            }
+        });
+    }
+
+    private void addParent(Map<UUID, String> parents, UUID parentId) {
+        if (parentId != null && !parents.containsKey(parentId)) {
+            parents.put(parentId, assetRepository.findAssetCodeById(parentId).orElse(null));
+        }
+    }
+
+    private void evictEntries(AssetSnapshot before, AssetSnapshot after, Map<UUID, String> parents) {
+        Cache assets = cache(ASSETS);
+        Cache assetsByCode = cache(ASSETS_BY_CODE);
+        Cache assetChildren = cache(ASSET_CHILDREN);
+
+        assets.evict(after != null ? after.id() : before.id());
+        if (before != null) {
+            assetsByCode.evict(before.assetCode());
+        }
+        if (after != null && (before == null || !after.assetCode().equals(before.assetCode()))) {
+            assetsByCode.evict(after.assetCode());
+        }
+        if (after == null) {
+            assetChildren.evict(before.id());
+        }
+
+        parents.forEach((parentId, parentCode) -> {
+            assets.evict(parentId);
+            assetChildren.evict(parentId);
+            if (parentCode != null) {
+                assetsByCode.evict(parentCode);
+            }
+        });
+    }
+
+    private void patchCorridorSummary(AssetSnapshot before, AssetSnapshot after) {
+        Cache cache = cache(CORRIDOR_SUMMARY);
+        summaryLock.lock();
+        try {
+            CorridorSummaryResponse summary = cache.get(SimpleKey.EMPTY, CorridorSummaryResponse.class);
+            if (summary == null) {
+                return;
+            }
+            if (summary.getAssetsWithCompletion() == null) {
+                // Cached before the completion count was part of the summary
+                cache.evict(SimpleKey.EMPTY);
+            } else {
+                cache.put(SimpleKey.EMPTY, patch(summary, before, after));
+            }
+        } finally {
+            summaryLock.unlock();
+        }
+    }
+
+    /**
+     * Apply one asset change to a summary. The cached summary is shared, so a patched
+     * copy is returned.
+     */
+    static CorridorSummaryResponse patch(CorridorSummaryResponse summary, AssetSnapshot before,
+                                         AssetSnapshot after) {
+        int totalAssets = summary.getTotalAssets();
+        // The average is over assets with a completion percentage, as SQL AVG skips nulls
+        int withCompletion = summary.getAssetsWithCompletion();
+        double completionSum = summary.getAverageCompletionPercentage() * withCompletion;
+        double totalLength = summary.getTotalLength();
+        int overdueInspections = summary.getOverdueInspections();
+        Map<AssetType, Long> byType = new HashMap<>(summary.getAssetCountByType());
+        Map<HealthStatus, Long> byHealth = new HashMap<>(summary.getAssetCountByHealthStatus());
+
+        if (before != null) {
+            totalAssets--;
+            if (before.completionPercentage() != null) {
+                withCompletion--;
+                completionSum -= before.completionPercentage();
+            }
+            totalLength -= before.corridorLength();
+            overdueInspections -= before.inspectionOverdue() ? 1 : 0;
+            adjust(byType, before.assetType(), -1);
+            adjust(byHealth, before.healthStatus(), -1);
+        }
+        if (after != null) {
+            totalAssets++;
+            if (after.completionPercentage() != null) {
+                withCompletion++;
+                completionSum += after.completionPercentage();
+            }
+            totalLength += after.corridorLength();
+            overdueInspections += after.inspectionOverdue() ? 1 : 0;
+            adjust(byType, after.assetType(), 1);
+            adjust(byHealth, after.healthStatus(), 1);
+        }
+
+        return CorridorSummaryResponse.builder()
+                .totalLength(totalLength)
+                .totalAssets(totalAssets)
+                .averageCompletionPercentage(withCompletion > 0 ? completionSum / withCompletion : 0.0)
+                .assetsWithCompletion(withCompletion)
+                .assetCountByType(byType)
+                .assetCountByHealthStatus(byHealth)
+                .totalSensors(summary.getTotalSensors())
+                .overdueInspections(overdueInspections)
+                .delayedMilestones(summary.getDelayedMilestones())
+                .criticalAssets(byHealth.getOrDefault(HealthStatus.CRITICAL, 0L).intValue())
+                .overallHealth(AssetService.determineOverallHealth(byHealth))
+                .build();
+    }
+
+    private static <K> void adjust(Map<K, Long> counts, K key, long delta) {
+        if (key != null) {
+            // Drop zero counts, matching the GROUP BY queries the summary is built from
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runQuietly(action);
+                }
+            });
+        } else {
+            runQuietly(action);
+        }
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            // The write has committed; stale entries age out with their TTL
+            log.warn("Failed to update asset caches after write: {}", e.getMessage());
+        }
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+
+    /**
+     * The fields of an asset that cached responses and the corridor summary depend on.
+     */
+    public record AssetSnapshot(UUID id, String assetCode, UUID parentAssetId, AssetType assetType,
+                                HealthStatus healthStatus, Double completionPercentage,
+                                double corridorLength, boolean inspectionOverdue) {
+
+        static AssetSnapshot of(Asset asset, LocalDate today) {
+            return new AssetSnapshot(
+                    asset.getId(),
+                    asset.getAssetCode(),
+                    asset.getParentAssetId(),
+                    asset.getAssetType(),
+                    asset.getHealthStatus(),
+                    asset.getCompletionPercentage(),
+                    // Only top-level assets count towards the corridor length
+                    asset.getParentAssetId() == null && asset.getLength() != null ? asset.getLength() : 0.0,
+                    asset.getNextInspectionDate() != null && !asset.getNextInspectionDate().isAfter(today));
+        }
+    }
+}
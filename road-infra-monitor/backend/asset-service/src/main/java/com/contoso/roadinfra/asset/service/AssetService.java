@@ -1,7 +1,9 @@
 package com.contoso.roadinfra.asset.service;
 
-import com.contoso.roadinfra.asset.client.SensorServiceClient;
+import com.contoso.roadinfra.asset.client.SensorCountCache;
 import com.contoso.roadinfra.asset.constants.ConstructionStatus;
+import com.contoso.roadinfra.asset.corridor.ChainageIndex;
+import com.contoso.roadinfra.asset.corridor.ChainageRange;
 import com.contoso.roadinfra.asset.dto.*;
 import com.contoso.roadinfra.asset.entity.Asset;
 import com.contoso.roadinfra.asset.event.AssetEventPublisher;
@@ -10,13 +12,14 @@ import com.contoso.roadinfra.asset.repository.AssetRepository;
 import com.contoso.roadinfra.asset.repository.MilestoneRepository;
 import com.contoso.roadinfra.common.constants.AssetType;
 import com.contoso.roadinfra.common.constants.HealthStatus;
-import com.contoso.roadinfra.common.dto.ApiResponse;
 import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.contoso.roadinfra.common.geo.SpatialIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +30,9 @@ import java.util.stream.Collectors;
 
 /**
  * Service for managing infrastructure assets.
+ *
+ * Writes do not clear the asset caches; {@link AssetCacheUpdater} evicts the entries
+ * of the changed asset and patches the corridor summary once the write commits.
  */
 @Service
 @RequiredArgsConstructor
@@ -38,7 +44,10 @@ public class AssetService {
     private final MilestoneRepository milestoneRepository;
     private final AssetMapper assetMapper;
     private final AssetEventPublisher eventPublisher;
-    private final SensorServiceClient sensorServiceClient;
+    private final SensorCountCache sensorCounts;
+    private final AssetCacheUpdater cacheUpdater;
+    private final SpatialIndex<UUID> assetSpatialIndex;
+    private final ChainageIndex chainageIndex;
 
     /**
      * Get all assets with pagination.
@@ -46,8 +55,8 @@ public class AssetService {
     @Transactional(readOnly = true)
     public Page<AssetResponse> getAllAssets(Pageable pageable) {
         log.debug("Fetching all assets with pagination");
-        return assetRepository.findAll(pageable)
-                .map(this::enrichAssetResponse);
+        Page<Asset> page = assetRepository.findAll(pageable);
+        return new PageImpl<>(enrichAssetResponses(page.getContent()), page.getPageable(), page.getTotalElements());
     }
 
     /**
@@ -77,7 +86,6 @@ public class AssetService {
     /**
      * Create a new asset.
      */
-    @CacheEvict(value = {"assets", "assetsByCode", "corridorSummary", "geoJson"}, allEntries = true)
     public AssetResponse createAsset(AssetCreateRequest request, String username) {
         log.info("Creating new asset: {} by user {}", request.getAssetCode(), username);
 
@@ -99,6 +107,7 @@ public class AssetService {
 
         Asset saved = assetRepository.save(asset);
         log.info("Asset created with ID: {}", saved.getId());
+        cacheUpdater.assetCreated(saved);
 
         // Publish event
         eventPublisher.publishAssetCreated(saved);
@@ -109,17 +118,18 @@ public class AssetService {
     /**
      * Update an existing asset.
      */
-    @CacheEvict(value = {"assets", "assetsByCode", "corridorSummary", "geoJson"}, allEntries = true)
     public AssetResponse updateAsset(UUID id, AssetUpdateRequest request, String username) {
         log.info("Updating asset with id: {} by user {}", id, username);
         Asset asset = assetRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Asset", id));
 
+        AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
         assetMapper.updateEntity(request, asset);
         asset.setUpdatedBy(username);
 
         Asset updated = assetRepository.save(asset);
         log.info("Asset {} updated successfully", id);
+        cacheUpdater.assetUpdated(before, updated);
 
         // Publish event
         eventPublisher.publishAssetUpdated(updated);
@@ -130,7 +140,6 @@ public class AssetService {
     /**
      * Update asset completion percentage.
      */
-    @CacheEvict(value = {"assets", "assetsByCode", "corridorSummary"}, allEntries = true)
     public AssetResponse updateProgress(UUID id, AssetProgressUpdateRequest request, String username) {
         log.info("Updating progress of asset {} to {}% by user {}", id, request.getCompletionPercentage(), username);
         Asset asset = assetRepository.findById(id)
@@ -140,6 +149,7 @@ public class AssetService {
             throw new IllegalStateException("Progress can only be updated for assets with IN_PROGRESS status");
         }
 
+        AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
         Double oldProgress = asset.getCompletionPercentage();
         asset.setCompletionPercentage(request.getCompletionPercentage());
         asset.setUpdatedBy(username);
@@ -153,6 +163,7 @@ public class AssetService {
 
         Asset updated = assetRepository.save(asset);
         log.info("Asset {} progress updated from {}% to {}%", id, oldProgress, request.getCompletionPercentage());
+        cacheUpdater.assetUpdated(before, updated);
 
         // Publish event
         eventPublisher.publishProgressUpdate(updated, oldProgress, updated.getCompletionPercentage(), request.getNotes());
@@ -163,18 +174,19 @@ public class AssetService {
     /**
      * Update asset health status.
      */
-    @CacheEvict(value = {"assets", "assetsByCode", "corridorSummary"}, allEntries = true)
     public AssetResponse updateHealthStatus(UUID id, AssetHealthUpdateRequest request, String username) {
         log.info("Updating health status of asset {} to {} by user {}", id, request.getHealthStatus(), username);
         Asset asset = assetRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Asset", id));
 
+        AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
         HealthStatus oldStatus = asset.getHealthStatus();
         asset.setHealthStatus(request.getHealthStatus());
         asset.setUpdatedBy(username);
 
         Asset updated = assetRepository.save(asset);
         log.info("Asset {} health status changed from {} to {}", id, oldStatus, request.getHealthStatus());
+        cacheUpdater.assetUpdated(before, updated);
 
         // Publish event to Kafka
         eventPublisher.publishHealthStatusChange(updated, oldStatus, request.getReason());
@@ -185,7 +197,6 @@ public class AssetService {
     /**
      * Delete an asset.
      */
-    @CacheEvict(value = {"assets", "assetsByCode", "assetChildren", "corridorSummary", "geoJson"}, allEntries = true)
     public void deleteAsset(UUID id, String username) {
         log.info("Deleting asset with id: {} by user {}", id, username);
         Asset asset = assetRepository.findById(id)
@@ -197,8 +208,10 @@ public class AssetService {
             throw new IllegalStateException("Cannot delete asset with " + childCount + " child assets. Delete children first.");
         }
 
+        AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
         assetRepository.delete(asset);
         log.info("Asset {} deleted by {}", id, username);
+        cacheUpdater.assetDeleted(before);
 
         // Publish event
         eventPublisher.publishAssetDeleted(asset);
@@ -216,10 +229,54 @@ public class AssetService {
             throw new ResourceNotFoundException("Asset", parentId);
         }
 
-        List<Asset> children = assetRepository.findByParentAssetId(parentId);
-        return children.stream()
-                .map(this::enrichAssetResponse)
-                .collect(Collectors.toList());
+        return enrichAssetResponses(assetRepository.findByParentAssetId(parentId));
+    }
+
+    /**
+     * Get assets whose geometry intersects a bounding box.
+     */
+    @Transactional(readOnly = true)
+    public List<AssetResponse> getAssetsWithin(GeoBounds bbox) {
+        log.debug("Fetching assets within {}", bbox);
+        return loadInOrder(assetSpatialIndex.within(bbox));
+    }
+
+    /**
+     * Get assets within a radius of a point, nearest first.
+     */
+    @Transactional(readOnly = true)
+    public List<AssetResponse> getAssetsNearby(double lon, double lat, double radiusMeters) {
+        log.debug("Fetching assets within {} m of {},{}", radiusMeters, lon, lat);
+        return loadInOrder(keys(assetSpatialIndex.withinRadius(lon, lat, radiusMeters)));
+    }
+
+    /**
+     * Get the assets nearest to a point, nearest first.
+     */
+    @Transactional(readOnly = true)
+    public List<AssetResponse> getNearestAssets(double lon, double lat, int limit) {
+        log.debug("Fetching {} assets nearest to {},{}", limit, lon, lat);
+        return loadInOrder(keys(assetSpatialIndex.nearest(lon, lat, limit)));
+    }
+
+    /**
+     * Get the assets whose chainage range overlaps {@code [start, end]}, with their
+     * health and sensor counts.
+     */
+    @Transactional(readOnly = true)
+    public CorridorRangeResponse getCorridorRange(double start, double end) {
+        log.debug("Fetching assets overlapping chainage {}-{}", start, end);
+        return corridorRange(start, end, chainageIndex.overlapping(start, end));
+    }
+
+    /**
+     * Get the assets whose chainage range contains a point, with their health and
+     * sensor counts.
+     */
+    @Transactional(readOnly = true)
+    public CorridorRangeResponse getAssetsAtChainage(double chainage) {
+        log.debug("Fetching assets at chainage {}", chainage);
+        return corridorRange(chainage, chainage, chainageIndex.at(chainage));
     }
 
     /**
@@ -233,6 +290,7 @@ public class AssetService {
         Double totalLength = assetRepository.getTotalCorridorLength();
         long totalAssets = assetRepository.count();
         Double avgCompletion = assetRepository.getAverageCompletionPercentage();
+        long assetsWithCompletion = assetRepository.countWithCompletionPercentage();
 
         // Count by type
         Map<AssetType, Long> byType = assetRepository.countGroupedByType().stream()
@@ -267,6 +325,7 @@ public class AssetService {
                 .totalLength(totalLength != null ? totalLength : 0.0)
                 .totalAssets((int) totalAssets)
                 .averageCompletionPercentage(avgCompletion != null ? avgCompletion : 0.0)
+                .assetsWithCompletion((int) assetsWithCompletion)
                 .assetCountByType(byType)
                 .assetCountByHealthStatus(byHealth)
                 .totalSensors(totalSensors)
@@ -277,29 +336,9 @@ public class AssetService {
                 .build();
     }
 
-    /**
-     * Get GeoJSON feature collection for all assets.
-     */
-    @Cacheable(value = "geoJson")
-    @Transactional(readOnly = true)
-    public GeoJsonFeatureCollection getGeoJsonFeatures() {
-        log.debug("Generating GeoJSON features for all assets");
-
-        List<Asset> assets = assetRepository.findAll();
-        List<GeoJsonFeatureCollection.Feature> features = assets.stream()
-                .map(this::assetToGeoJsonFeature)
-                .collect(Collectors.toList());
-
-        return GeoJsonFeatureCollection.builder()
-                .type("FeatureCollection")
-                .features(features)
-                .build();
-    }
-
     /**
      * Recalculate completion percentage based on milestones.
      */
-    @CacheEvict(value = {"assets", "assetsByCode", "corridorSummary"}, allEntries = true)
     public Double recalculateCompletionFromMilestones(UUID assetId) {
         long total = milestoneRepository.countByAssetId(assetId);
         if (total == 0) {
@@ -312,6 +351,7 @@ public class AssetService {
         Asset asset = assetRepository.findById(assetId)
                 .orElseThrow(() -> new ResourceNotFoundException("Asset", assetId));
 
+        AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
         Double oldPercentage = asset.getCompletionPercentage();
         asset.setCompletionPercentage(percentage);
 
@@ -321,6 +361,7 @@ public class AssetService {
         }
 
         assetRepository.save(asset);
+        cacheUpdater.assetUpdated(before, asset);
 
         if (!Objects.equals(oldPercentage, percentage)) {
             eventPublisher.publishProgressUpdate(asset, oldPercentage, percentage, "Auto-calculated from milestones");
@@ -331,6 +372,73 @@ public class AssetService {
 
     // Helper methods
 
+    private CorridorRangeResponse corridorRange(double start, double end, List<UUID> ids) {
+        // The index can lag a write by an event; keep only assets whose stored range still overlaps
+        List<Asset> overlapping = assetRepository.findAllById(ids).stream()
+                .filter(asset -> asset.getStartChainage() != null && asset.getEndChainage() != null
+                        && ChainageRange.between(asset.getStartChainage(), asset.getEndChainage()).overlaps(start, end))
+                .sorted(Comparator.comparing(Asset::getStartChainage, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Asset::getAssetCode))
+                .collect(Collectors.toList());
+        List<AssetResponse> assets = enrichAssetResponses(overlapping);
+
+        int totalSensors = 0;
+        Map<HealthStatus, Long> byHealth = new EnumMap<>(HealthStatus.class);
+        for (AssetResponse asset : assets) {
+            totalSensors += asset.getSensorCount();
+            if (asset.getHealthStatus() != null) {
+                byHealth.merge(asset.getHealthStatus(), 1L, Long::sum);
+            }
+        }
+
+        return CorridorRangeResponse.builder()
+                .startChainage(start)
+                .endChainage(end)
+                .totalAssets(assets.size())
+                .totalSensors(totalSensors)
+                .assetCountByHealthStatus(byHealth)
+                .assets(assets)
+                .build();
+    }
+
+    private static List<UUID> keys(List<SpatialIndex.Neighbor<UUID>> neighbors) {
+        return neighbors.stream().map(SpatialIndex.Neighbor::key).collect(Collectors.toList());
+    }
+
+    // Load assets in one query and return them in the order of the given IDs
+    private List<AssetResponse> loadInOrder(List<UUID> ids) {
+        Map<UUID, Asset> assets = assetRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Asset::getId, asset -> asset));
+        return enrichAssetResponses(ids.stream()
+                .map(assets::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Enrich a batch of assets with child and sensor counts using one grouped query and
+     * one (usually cached) sensor-service call, rather than one of each per asset.
+     */
+    private List<AssetResponse> enrichAssetResponses(List<Asset> assets) {
+        List<UUID> ids = assets.stream().map(Asset::getId).collect(Collectors.toList());
+        Map<UUID, Long> childCounts = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : assetRepository.countGroupedByParentAssetIdIn(ids)) {
+                childCounts.put((UUID) row[0], (Long) row[1]);
+            }
+        }
+        Map<UUID, Integer> assetSensorCounts = sensorCounts.getCounts(ids);
+
+        List<AssetResponse> responses = new ArrayList<>(assets.size());
+        for (Asset asset : assets) {
+            AssetResponse response = assetMapper.toResponse(asset);
+            response.setChildAssetCount(childCounts.getOrDefault(asset.getId(), 0L).intValue());
+            response.setSensorCount(assetSensorCounts.getOrDefault(asset.getId(), 0));
+            responses.add(response);
+        }
+        return responses;
+    }
+
     private AssetResponse enrichAssetResponse(Asset asset) {
         AssetResponse response = assetMapper.toResponse(asset);
         response.setChildAssetCount((int) assetRepository.countByParentAssetId(asset.getId()));
@@ -346,62 +454,12 @@ public class AssetService {
         response.setChildren(assetMapper.toResponseList(children));
 
         // Get sensor count from sensor-service
-        try {
-            ApiResponse<Long> sensorResponse = sensorServiceClient.getSensorCountByAssetId(asset.getId());
-            if (sensorResponse != null && sensorResponse.getData() != null) {
-                response.setSensorCount(sensorResponse.getData().intValue());
-            } else {
-                response.setSensorCount(0);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to get sensor count for asset {}: {}", asset.getId(), e.getMessage());
-            response.setSensorCount(0);
-        }
+        response.setSensorCount(sensorCounts.getCount(asset.getId()));
 
         return response;
     }
 
-    private GeoJsonFeatureCollection.Feature assetToGeoJsonFeature(Asset asset) {
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("id", asset.getId().toString());
-        properties.put("assetCode", asset.getAssetCode());
-        properties.put("name", asset.getName());
-        properties.put("assetType", asset.getAssetType().getDisplayName());
-        properties.put("status", asset.getStatus().getDisplayName());
-        properties.put("healthStatus", asset.getHealthStatus().getDisplayName());
-        properties.put("completionPercentage", asset.getCompletionPercentage());
-        properties.put("startChainage", asset.getStartChainage());
-        properties.put("endChainage", asset.getEndChainage());
-
-        GeoJsonFeatureCollection.Geometry geometry;
-        if (asset.getEndLatitude() != null && asset.getEndLongitude() != null) {
-            // LineString for linear assets
-            double[][] coordinates = {
-                    {asset.getStartLongitude(), asset.getStartLatitude()},
-                    {asset.getEndLongitude(), asset.getEndLatitude()}
-            };
-            geometry = GeoJsonFeatureCollection.Geometry.builder()
-                    .type("LineString")
-                    .coordinates(coordinates)
-                    .build();
-        } else {
-            // Point for single-location assets
-            double[] coordinates = {asset.getStartLongitude(), asset.getStartLatitude()};
-            geometry = GeoJsonFeatureCollection.Geometry.builder()
-                    .type("Point")
-                    .coordinates(coordinates)
-                    .build();
-        }
-
-        return GeoJsonFeatureCollection.Feature.builder()
-                .type("Feature")
-                .id(asset.getId().toString())
-                .geometry(geometry)
-                .properties(properties)
-                .build();
-    }
-
-    private HealthStatus determineOverallHealth(Map<HealthStatus, Long> healthCounts) {
+    static HealthStatus determineOverallHealth(Map<HealthStatus, Long> healthCounts) {
         if (healthCounts.getOrDefault(HealthStatus.CRITICAL, 0L) > 0) {
             return HealthStatus.CRITICAL;
         }
@@ -418,8 +476,6 @@ public class AssetService {
     }
 
     private int getTotalSensorCount() {
-        // This would ideally be a single call to sensor-service
-        // For now, return 0 and let individual asset views fetch their own counts
-        return 0;
+        return sensorCounts.getTotal();
     }
 }
@@ -36,6 +36,7 @@ public class InspectionService {
     private final AssetRepository assetRepository;
     private final InspectionMapper inspectionMapper;
     private final AssetService assetService;
+    private final AssetCacheUpdater cacheUpdater;
 
     /**
      * Record a new inspection for an asset.
@@ -55,9 +56,11 @@ public class InspectionService {
         AssetInspection saved = inspectionRepository.save(inspection);
 
         // Update asset's last inspection date and next scheduled date
+        AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
         asset.setLastInspectionDate(saved.getInspectionDate());
         asset.setNextInspectionDate(calculateNextInspectionDate(saved.getInspectionDate(), asset));
         assetRepository.save(asset);
+        cacheUpdater.assetUpdated(before, asset);
 
         // If inspection rating is low, update health status
         if (saved.getOverallConditionRating() <= 2) {
@@ -182,8 +185,10 @@ public class InspectionService {
 
             if (asset.getNextInspectionDate() == null ||
                     asset.getNextInspectionDate().isAfter(followUpDate)) {
+                AssetCacheUpdater.AssetSnapshot before = cacheUpdater.snapshot(asset);
                 asset.setNextInspectionDate(followUpDate);
                 assetRepository.save(asset);
+                cacheUpdater.assetUpdated(before, asset);
                 log.info("Scheduled follow-up inspection for asset {} on {}",
                         asset.getAssetCode(), followUpDate);
             }
@@ -36,6 +36,7 @@ public class MilestoneService {
     private final MilestoneMapper milestoneMapper;
     private final AssetEventPublisher eventPublisher;
     private final AssetService assetService;
+    private final AssetCacheUpdater cacheUpdater;
 
     /**
      * Create a new milestone for an asset.
@@ -85,7 +86,7 @@ public class MilestoneService {
     /**
      * Complete a milestone.
      */
-    @CacheEvict(value = {"milestones", "delayedMilestones", "gantt", "assets", "corridorSummary"}, allEntries = true)
+    @CacheEvict(value = {"milestones", "delayedMilestones", "gantt"}, allEntries = true)
     public MilestoneResponse completeMilestone(UUID milestoneId, MilestoneCompleteRequest request, String username) {
         log.info("Completing milestone {} by {}", milestoneId, username);
 
@@ -103,8 +104,9 @@ public class MilestoneService {
         log.info("Milestone {} completed{}", milestoneId, 
                 milestone.isDelayed() ? " (delayed by " + milestone.calculateDelayDays() + " days)" : " on time");
 
-        // Recalculate asset completion percentage
+        // Recalculate asset completion percentage; this refreshes the asset's cache entries
         Double newPercentage = assetService.recalculateCompletionFromMilestones(milestone.getAsset().getId());
+        cacheUpdater.corridorSummaryChanged();
         log.info("Asset {} completion updated to {}%", milestone.getAsset().getId(), newPercentage);
 
         eventPublisher.publishMilestoneCompleted(completed);
@@ -288,7 +290,7 @@ public class MilestoneService {
     /**
      * Delete a milestone.
      */
-    @CacheEvict(value = {"milestones", "delayedMilestones", "gantt", "assets", "corridorSummary"}, allEntries = true)
+    @CacheEvict(value = {"milestones", "delayedMilestones", "gantt"}, allEntries = true)
     public void deleteMilestone(UUID milestoneId, String username) {
         log.info("Deleting milestone {} by {}", milestoneId, username);
 
@@ -298,8 +300,9 @@ public class MilestoneService {
         UUID assetId = milestone.getAsset().getId();
         milestoneRepository.delete(milestone);
 
-        // Recalculate asset completion
+        // Recalculate asset completion; this refreshes the asset's cache entries
         assetService.recalculateCompletionFromMilestones(assetId);
+        cacheUpdater.corridorSummaryChanged();
 
         log.info("Milestone {} deleted", milestoneId);
     }
@@ -0,0 +1,158 @@
+package com.contoso.roadinfra.asset.client;
+
+import com.contoso.roadinfra.common.dto.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorCountCacheTest {
+
+    private final Map<UUID, Long> sensorCounts = new HashMap<>();
+    private SensorServiceClient client;
+    private SensorCountCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        client = mock(SensorServiceClient.class);
+        when(client.getSensorCountsByAssetIds(anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, Long> counts = new HashMap<>();
+            for (UUID assetId : (Collection<UUID>) invocation.getArgument(0)) {
+                counts.put(assetId, sensorCounts.getOrDefault(assetId, 0L));
+            }
+            return ApiResponse.success(counts);
+        });
+        cache = new SensorCountCache(client, Duration.ofMinutes(5), 100_000);
+    }
+
+    @Test
+    @DisplayName("Should fetch missing counts in batches of at most 1000 assets")
+    @SuppressWarnings("unchecked")
+    void shouldFetchInBatches() {
+        List<UUID> assetIds = assets(2500);
+        sensorCounts.put(assetIds.get(0), 3L);
+        sensorCounts.put(assetIds.get(2499), 7L);
+        List<UUID> withDuplicates = new ArrayList<>(assetIds);
+        withDuplicates.addAll(assetIds.subList(0, 10));
+
+        Map<UUID, Integer> counts = cache.getCounts(withDuplicates);
+
+        ArgumentCaptor<Collection<UUID>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(client, times(3)).getSensorCountsByAssetIds(batches.capture());
+        assertThat(batches.getAllValues()).extracting(Collection::size).containsExactly(1000, 1000, 500);
+        assertThat(counts).hasSize(2500);
+        assertThat(counts.get(assetIds.get(0))).isEqualTo(3);
+        assertThat(counts.get(assetIds.get(2499))).isEqualTo(7);
+        assertThat(counts.get(assetIds.get(1))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fetch only the counts not already cached")
+    @SuppressWarnings("unchecked")
+    void shouldFetchOnlyMissingCounts() {
+        List<UUID> assetIds = assets(5);
+        cache.getCounts(assetIds.subList(0, 3));
+
+        cache.getCounts(assetIds);
+        cache.getCounts(assetIds);
+
+        ArgumentCaptor<Collection<UUID>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(client, times(2)).getSensorCountsByAssetIds(batches.capture());
+        assertThat(batches.getAllValues().get(1)).containsExactlyElementsOf(assetIds.subList(3, 5));
+    }
+
+    @Test
+    @DisplayName("Should return zeros without caching them while sensor-service is unavailable")
+    void shouldNotCacheFallbackCounts() {
+        UUID assetId = UUID.randomUUID();
+        sensorCounts.put(assetId, 4L);
+        when(client.getSensorCountsByAssetIds(anyCollection()))
+                .thenReturn(ApiResponse.<Map<UUID, Long>>builder().status("FALLBACK").data(Map.of()).build())
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(ApiResponse.success(Map.of(assetId, 4L)));
+
+        assertThat(cache.getCount(assetId)).isZero();
+        assertThat(cache.getCount(assetId)).isZero();
+        assertThat(cache.getCount(assetId)).isEqualTo(4);
+        assertThat(cache.getCount(assetId)).isEqualTo(4);
+
+        verify(client, times(3)).getSensorCountsByAssetIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should refetch one asset after evict and every asset after evictAll")
+    @SuppressWarnings("unchecked")
+    void shouldRefetchEvictedCounts() {
+        List<UUID> assetIds = assets(3);
+        cache.getCounts(assetIds);
+
+        sensorCounts.put(assetIds.get(1), 2L);
+        cache.evict(assetIds.get(1));
+        Map<UUID, Integer> afterEvict = cache.getCounts(assetIds);
+        cache.evictAll();
+        cache.getCounts(assetIds);
+
+        assertThat(afterEvict.get(assetIds.get(1))).isEqualTo(2);
+        ArgumentCaptor<Collection<UUID>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(client, times(3)).getSensorCountsByAssetIds(batches.capture());
+        assertThat(batches.getAllValues().get(1)).containsExactly(assetIds.get(1));
+        assertThat(batches.getAllValues().get(2)).containsExactlyInAnyOrderElementsOf(assetIds);
+    }
+
+    @Test
+    @DisplayName("Should fetch the total with one call and cache it until a count is evicted")
+    void shouldCacheTotal() {
+        when(client.getAssignedSensorCount())
+                .thenReturn(ApiResponse.success(42L))
+                .thenReturn(ApiResponse.success(43L))
+                .thenReturn(ApiResponse.success(44L));
+
+        assertThat(cache.getTotal()).isEqualTo(42);
+        assertThat(cache.getTotal()).isEqualTo(42);
+        cache.evict(UUID.randomUUID());
+        assertThat(cache.getTotal()).isEqualTo(43);
+        cache.evictAll();
+        assertThat(cache.getTotal()).isEqualTo(44);
+
+        verify(client, times(3)).getAssignedSensorCount();
+        verify(client, never()).getSensorCountsByAssetIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should not cache the total while sensor-service is unavailable")
+    void shouldNotCacheFallbackTotal() {
+        when(client.getAssignedSensorCount())
+                .thenReturn(ApiResponse.<Long>builder().status("FALLBACK").data(0L).build())
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(ApiResponse.success(42L));
+
+        assertThat(cache.getTotal()).isZero();
+        assertThat(cache.getTotal()).isZero();
+        assertThat(cache.getTotal()).isEqualTo(42);
+        assertThat(cache.getTotal()).isEqualTo(42);
+
+        verify(client, times(3)).getAssignedSensorCount();
+    }
+
+    private static List<UUID> assets(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+}
@@ -0,0 +1,160 @@
+package com.contoso.roadinfra.asset.corridor;
+
+import com.contoso.roadinfra.asset.entity.Asset;
+import com.contoso.roadinfra.asset.repository.AssetChainage;
+import com.contoso.roadinfra.asset.repository.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChainageIndexTest {
+
+    private final UUID moved = UUID.randomUUID();
+    private final UUID deleted = UUID.randomUUID();
+    private final UUID created = UUID.randomUUID();
+
+    private AssetRepository assetRepository;
+    private ChainageIndex index;
+
+    @BeforeEach
+    void setUp() {
+        assetRepository = mock(AssetRepository.class);
+        index = new ChainageIndex(assetRepository, 4);
+    }
+
+    @Test
+    @DisplayName("Should keep changes applied while a reload reads the database")
+    void shouldReplayChangesOverReloadSnapshot() {
+        when(assetRepository.findAllChainages()).thenAnswer(invocation -> {
+            // Committed after the snapshot was read, applied before the reload finished
+            index.upsert(asset(moved, 5_000.0, 5_100.0));
+            index.upsert(asset(created, 5_000.0, 5_200.0));
+            index.remove(deleted);
+            return List.of(new AssetChainage(moved, 100.0, 200.0), new AssetChainage(deleted, 100.0, 200.0));
+        });
+
+        index.reload();
+
+        assertThat(index.at(150)).isEmpty();
+        assertThat(index.at(5_050)).containsExactlyInAnyOrder(moved, created);
+    }
+
+    @Test
+    @DisplayName("Should let a later reload replace ranges once the changes are in the database")
+    void shouldNotReplayChangesIntoLaterReloads() {
+        when(assetRepository.findAllChainages())
+                .thenAnswer(invocation -> {
+                    index.upsert(asset(moved, 5_000.0, 5_100.0));
+                    return List.of(new AssetChainage(moved, 100.0, 200.0));
+                })
+                .thenReturn(List.of(new AssetChainage(moved, 100.0, 200.0)));
+
+        index.reload();
+        assertThat(index.at(5_050)).containsExactly(moved);
+
+        index.reload();
+        assertThat(index.at(150)).containsExactly(moved);
+    }
+
+    @Test
+    @DisplayName("Should drop an asset whose range is cleared")
+    void shouldRemoveAssetWithoutRange() {
+        when(assetRepository.findAllChainages()).thenReturn(List.of(new AssetChainage(moved, 100.0, 200.0)));
+        index.reload();
+
+        index.upsert(asset(moved, null, 200.0));
+
+        assertThat(index.overlapping(0, 1_000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan through changes and rebuilds")
+    void shouldMatchLinearScanThroughRebuilds() {
+        SplittableRandom random = new SplittableRandom(9);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        when(assetRepository.findAllChainages()).thenReturn(List.of());
+        index.reload();
+
+        Map<UUID, ChainageRange> expected = new HashMap<>();
+        for (int step = 0; step < 1_000; step++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                double start = random.nextInt(0, 10_000);
+                double end = start + random.nextInt(0, 500);
+                index.upsert(asset(id, end, start));
+                expected.put(id, ChainageRange.between(start, end));
+            }
+
+            double from = random.nextInt(0, 10_000);
+            double to = from + random.nextInt(0, 1_000);
+            assertThat(index.overlapping(from, to)).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(
+                    expected.entrySet().stream()
+                            .filter(entry -> entry.getValue().overlaps(from, to))
+                            .map(Map.Entry::getKey)
+                            .toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should load once for concurrent first queries")
+    void shouldLoadOnceForConcurrentFirstQueries() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(assetRepository.findAllChainages()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new AssetChainage(moved, 100.0, 200.0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UUID>>> queries = new ArrayList<>();
+            queries.add(executor.submit(() -> index.at(150)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                queries.add(executor.submit(() -> index.at(150)));
+            }
+            // Give the other queries time to queue up behind the first load
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<UUID>> query : queries) {
+                assertThat(query.get(5, TimeUnit.SECONDS)).containsExactly(moved);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(assetRepository, times(1)).findAllChainages();
+    }
+
+    private static Asset asset(UUID id, Double startChainage, Double endChainage) {
+        Asset asset = new Asset();
+        asset.setId(id);
+        asset.setStartChainage(startChainage);
+        asset.setEndChainage(endChainage);
+        return asset;
+    }
+}
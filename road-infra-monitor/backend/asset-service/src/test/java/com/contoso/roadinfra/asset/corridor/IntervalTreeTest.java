@@ -0,0 +1,97 @@
+package com.contoso.roadinfra.asset.corridor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    @Test
+    @DisplayName("Should report nothing for an empty tree")
+    void shouldHandleEmptyTree() {
+        IntervalTree<String> tree = IntervalTree.build(Map.of());
+
+        assertThat(overlapping(tree, 0, 1_000)).isEmpty();
+        assertThat(stab(tree, 0)).isEmpty();
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should treat intervals as closed at both ends")
+    void shouldIncludeEndpoints() {
+        IntervalTree<String> tree = IntervalTree.build(Map.of(
+                "bridge", new ChainageRange(100, 200),
+                "culvert", new ChainageRange(200, 200),
+                "tunnel", new ChainageRange(200.5, 400)));
+
+        assertThat(stab(tree, 100)).containsExactly("bridge");
+        assertThat(stab(tree, 200)).containsExactlyInAnyOrder("bridge", "culvert");
+        assertThat(stab(tree, 200.25)).isEmpty();
+        assertThat(overlapping(tree, 200, 200.5)).containsExactlyInAnyOrder("bridge", "culvert", "tunnel");
+        assertThat(overlapping(tree, 400, 500)).containsExactly("tunnel");
+        assertThat(overlapping(tree, 0, 99.9)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report each interval once for a query spanning everything")
+    void shouldReportEachIntervalOnce() {
+        Map<Integer, ChainageRange> ranges = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            ranges.put(i, new ChainageRange(i * 10, i * 10 + 25));
+        }
+        IntervalTree<Integer> tree = IntervalTree.build(ranges);
+
+        assertThat(overlapping(tree, -1_000, 10_000)).hasSize(100).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan for random intervals, including nested and identical ones")
+    void shouldMatchLinearScan() {
+        SplittableRandom random = new SplittableRandom(5);
+        Map<Integer, ChainageRange> ranges = new HashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            double start = random.nextInt(0, 50_000);
+            // Mostly short assets, some corridor-long ones, and repeated ranges
+            double length = switch (i % 10) {
+                case 0 -> random.nextInt(10_000, 50_000);
+                case 1 -> 0;
+                case 2 -> 500;
+                default -> random.nextInt(1, 800);
+            };
+            ranges.put(i, i % 10 == 2 ? new ChainageRange(1_000, 1_500) : new ChainageRange(start, start + length));
+        }
+        IntervalTree<Integer> tree = IntervalTree.build(ranges);
+
+        for (int q = 0; q < 500; q++) {
+            double from = random.nextInt(-100, 51_000);
+            double to = q % 5 == 0 ? from : from + random.nextInt(0, 3_000);
+            List<Integer> expected = ranges.entrySet().stream()
+                    .filter(entry -> entry.getValue().overlaps(from, to))
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            List<Integer> found = overlapping(tree, from, to);
+
+            assertThat(found).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static <K> List<K> overlapping(IntervalTree<K> tree, double from, double to) {
+        List<K> found = new ArrayList<>();
+        tree.overlapping(from, to, found::add);
+        return found;
+    }
+
+    private static <K> List<K> stab(IntervalTree<K> tree, double point) {
+        List<K> found = new ArrayList<>();
+        tree.stab(point, found::add);
+        return found;
+    }
+}
@@ -0,0 +1,205 @@
+package com.contoso.roadinfra.asset.geo;
+
+import com.contoso.roadinfra.asset.entity.Asset;
+import com.contoso.roadinfra.asset.repository.AssetRepository;
+import com.contoso.roadinfra.asset.repository.AssetVersion;
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeoJsonLayerServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<UUID, Asset> database = new TreeMap<>();
+    private AssetRepository assetRepository;
+    private GeoJsonLayerService layer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        assetRepository = mock(AssetRepository.class);
+        when(assetRepository.findAllVersions()).thenAnswer(invocation -> database.values().stream()
+                .map(asset -> new AssetVersion(asset.getId(), asset.getUpdatedAt()))
+                .toList());
+        when(assetRepository.findAllById(anyList())).thenAnswer(invocation -> ((List<UUID>) invocation.getArgument(0))
+                .stream()
+                .map(database::get)
+                .toList());
+        layer = new GeoJsonLayerService(assetRepository, new GeoJsonFeatureWriter(), 4);
+    }
+
+    @Test
+    @DisplayName("Should load the layer on first use and render features in asset ID order")
+    void shouldLoadAndRenderInIdOrder() throws Exception {
+        Asset first = store(asset(10.0, 50.0));
+        Asset second = store(asset(11.0, 51.0));
+        Asset unlocated = store(asset(null, null));
+
+        JsonNode document = objectMapper.readTree(layer.render(layer.all()));
+
+        assertThat(document.get("type").asText()).isEqualTo("FeatureCollection");
+        List<String> ids = new ArrayList<>();
+        document.get("features").forEach(feature -> ids.add(feature.get("id").asText()));
+        assertThat(ids).containsExactlyElementsOf(Stream.of(first, second, unlocated)
+                .map(Asset::getId)
+                .sorted()
+                .map(UUID::toString)
+                .toList());
+        verify(assetRepository, times(1)).findAllVersions();
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag and bytes stable while nothing changes")
+    void shouldKeepEtagStable() {
+        store(asset(10.0, 50.0));
+        store(asset(11.0, 51.0));
+
+        GeoJsonLayerService.Selection before = layer.all();
+        layer.reconcile();
+        GeoJsonLayerService.Selection after = layer.all();
+
+        assertThat(after.etag()).isEqualTo(before.etag());
+        assertThat(layer.render(after)).isEqualTo(layer.render(before));
+        // A second instance with the same assets agrees on the ETag
+        GeoJsonLayerService peer = new GeoJsonLayerService(assetRepository, new GeoJsonFeatureWriter(), 4);
+        assertThat(peer.all().etag()).isEqualTo(before.etag());
+    }
+
+    @Test
+    @DisplayName("Should change the ETag when an asset is upserted with a newer version")
+    void shouldChangeEtagOnUpsert() {
+        Asset asset = store(asset(10.0, 50.0));
+        String before = layer.all().etag();
+
+        asset.setStartLongitude(10.5);
+        asset.setUpdatedAt(T0.plusSeconds(60));
+        layer.upsert(asset);
+
+        assertThat(layer.all().etag()).isNotEqualTo(before);
+        assertThat(new String(layer.render(layer.all()), StandardCharsets.UTF_8)).contains("10.5");
+        assertThat(layer.within(GeoBounds.ofPoint(10.5, 50.0)).features()).hasSize(1);
+        assertThat(layer.within(GeoBounds.ofPoint(10.0, 50.0)).features()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore an upsert older than the feature already held")
+    void shouldIgnoreOlderUpsert() {
+        Asset asset = store(asset(10.0, 50.0));
+        asset.setUpdatedAt(T0.plusSeconds(60));
+        layer.upsert(asset);
+        String before = layer.all().etag();
+
+        Asset stale = asset(20.0, 20.0);
+        stale.setId(asset.getId());
+        layer.upsert(stale);
+
+        assertThat(layer.all().etag()).isEqualTo(before);
+        assertThat(layer.within(GeoBounds.ofPoint(20.0, 20.0)).features()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should change the ETag when an asset is removed")
+    void shouldChangeEtagOnRemove() {
+        Asset kept = store(asset(10.0, 50.0));
+        Asset removed = store(asset(11.0, 51.0));
+        String before = layer.all().etag();
+
+        layer.remove(removed.getId());
+
+        GeoJsonLayerService.Selection after = layer.all();
+        assertThat(after.etag()).isNotEqualTo(before);
+        assertThat(after.features()).extracting(EncodedFeature::id).containsExactly(kept.getId());
+        assertThat(layer.within(GeoBounds.ofPoint(11.0, 51.0)).features()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should select features by box and tile, including lines crossing the box")
+    void shouldSelectByBoxAndTile() {
+        Asset west = store(asset(-10.0, 40.0));
+        Asset east = store(asset(10.0, 40.0));
+        Asset line = asset(-1.0, 40.0);
+        line.setEndLongitude(1.0);
+        line.setEndLatitude(41.0);
+        store(line);
+
+        GeoJsonLayerService.Selection eastTile = layer.tile(1, 1, 0);
+        GeoJsonLayerService.Selection box = layer.within(new GeoBounds(-11.0, 39.0, -9.0, 41.0));
+
+        assertThat(eastTile.features()).extracting(EncodedFeature::id)
+                .containsExactlyInAnyOrder(east.getId(), line.getId());
+        assertThat(box.features()).extracting(EncodedFeature::id).containsExactly(west.getId());
+        assertThat(eastTile.etag()).isNotEqualTo(layer.all().etag()).isNotEqualTo(box.etag());
+        assertThat(layer.tile(1, 0, 1).features()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should render an empty selection as an empty collection")
+    void shouldRenderEmptySelection() {
+        GeoJsonLayerService.Selection empty = layer.within(GeoBounds.ofPoint(0, 0));
+
+        assertThat(new String(layer.render(empty), StandardCharsets.UTF_8))
+                .isEqualTo("{\"type\":\"FeatureCollection\",\"features\":[]}");
+        assertThat(empty.etag()).isEqualTo("\"0-0\"");
+    }
+
+    @Test
+    @DisplayName("Should re-encode only changed assets and drop deleted ones on reconcile")
+    @SuppressWarnings("unchecked")
+    void shouldReconcileChangesOnly() {
+        Asset unchanged = store(asset(10.0, 50.0));
+        Asset changed = store(asset(11.0, 51.0));
+        Asset deleted = store(asset(12.0, 52.0));
+        layer.all();
+
+        changed.setUpdatedAt(T0.plusSeconds(60));
+        database.remove(deleted.getId());
+        Asset created = store(asset(13.0, 53.0));
+        layer.reconcile();
+
+        ArgumentCaptor<List<UUID>> loaded = ArgumentCaptor.forClass(List.class);
+        verify(assetRepository, times(2)).findAllById(loaded.capture());
+        assertThat(loaded.getAllValues().get(1)).containsExactlyInAnyOrder(changed.getId(), created.getId());
+        assertThat(layer.all().features()).extracting(EncodedFeature::id)
+                .containsExactlyInAnyOrder(unchanged.getId(), changed.getId(), created.getId());
+        assertThat(layer.locations().within(GeoBounds.ofPoint(12.0, 52.0))).isEmpty();
+    }
+
+    private Asset store(Asset asset) {
+        database.put(asset.getId(), asset);
+        return asset;
+    }
+
+    private static Asset asset(Double lon, Double lat) {
+        UUID id = UUID.randomUUID();
+        return Asset.builder()
+                .id(id)
+                .assetCode("A-" + id.toString().substring(0, 8))
+                .name("Asset " + id)
+                .startLongitude(lon)
+                .startLatitude(lat)
+                .updatedAt(T0)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.contoso.roadinfra.asset.geo;
+
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TileBoundsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    @DisplayName("Should cover the whole world with the single zoom 0 tile")
+    void shouldCoverWorldAtZoomZero() {
+        assertThat(TileBounds.of(0, 0, 0)).isEqualTo(new GeoBounds(-180, -90, 180, 90));
+    }
+
+    @Test
+    @DisplayName("Should split zoom 1 into quadrants with north at y 0")
+    void shouldSplitZoomOneIntoQuadrants() {
+        assertThat(TileBounds.of(1, 0, 0)).isEqualTo(new GeoBounds(-180, 0, 0, 90));
+        assertThat(TileBounds.of(1, 1, 0)).isEqualTo(new GeoBounds(0, 0, 180, 90));
+        assertThat(TileBounds.of(1, 0, 1)).isEqualTo(new GeoBounds(-180, -90, 0, 0));
+        assertThat(TileBounds.of(1, 1, 1)).isEqualTo(new GeoBounds(0, -90, 180, 0));
+    }
+
+    @Test
+    @DisplayName("Should use Mercator latitudes inside the grid and extend edge tiles to the poles")
+    void shouldUseMercatorLatitudes() {
+        GeoBounds top = TileBounds.of(2, 0, 0);
+        GeoBounds second = TileBounds.of(2, 3, 1);
+        GeoBounds bottom = TileBounds.of(2, 3, 3);
+
+        assertThat(top.maxLat()).isEqualTo(90.0);
+        assertThat(top.minLat()).isCloseTo(66.51326044311186, within(EPSILON));
+        assertThat(second.maxLat()).isCloseTo(66.51326044311186, within(EPSILON));
+        assertThat(second.minLat()).isCloseTo(0.0, within(EPSILON));
+        assertThat(second.minLon()).isEqualTo(90.0);
+        assertThat(second.maxLon()).isEqualTo(180.0);
+        assertThat(bottom.minLat()).isEqualTo(-90.0);
+        assertThat(bottom.maxLat()).isCloseTo(-66.51326044311186, within(EPSILON));
+    }
+
+    @Test
+    @DisplayName("Should reach the antimeridian and the poles at the corners of the deepest zoom")
+    void shouldHandleCornersAtMaxZoom() {
+        int last = (1 << TileBounds.MAX_ZOOM) - 1;
+
+        GeoBounds northWest = TileBounds.of(TileBounds.MAX_ZOOM, 0, 0);
+        GeoBounds southEast = TileBounds.of(TileBounds.MAX_ZOOM, last, last);
+
+        assertThat(northWest.minLon()).isEqualTo(-180.0);
+        assertThat(northWest.maxLat()).isEqualTo(90.0);
+        assertThat(northWest.minLat()).isLessThan(85.0511287798066).isGreaterThan(85.05);
+        assertThat(southEast.maxLon()).isEqualTo(180.0);
+        assertThat(southEast.minLat()).isEqualTo(-90.0);
+    }
+
+    @Test
+    @DisplayName("Should make neighbouring tiles share their edges")
+    void shouldShareEdgesBetweenNeighbours() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 200; i++) {
+            int z = 1 + random.nextInt(18);
+            int tiles = 1 << z;
+            int x = random.nextInt(tiles - 1);
+            int y = random.nextInt(tiles - 1);
+
+            GeoBounds tile = TileBounds.of(z, x, y);
+            assertThat(TileBounds.of(z, x + 1, y).minLon()).isEqualTo(tile.maxLon());
+            assertThat(TileBounds.of(z, x, y + 1).maxLat()).isEqualTo(tile.minLat());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject zoom levels and coordinates outside the grid")
+    void shouldRejectInvalidTiles() {
+        assertThatThrownBy(() -> TileBounds.of(-1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Tile zoom must be between 0 and 24");
+        assertThatThrownBy(() -> TileBounds.of(TileBounds.MAX_ZOOM + 1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TileBounds.of(1, 2, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Tile 1/2/0 does not exist");
+        assertThatThrownBy(() -> TileBounds.of(1, 0, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
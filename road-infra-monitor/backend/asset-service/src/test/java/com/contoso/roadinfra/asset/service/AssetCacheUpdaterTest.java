@@ -0,0 +1,161 @@
+package com.contoso.roadinfra.asset.service;
+
+import com.contoso.roadinfra.asset.dto.CorridorSummaryResponse;
+import com.contoso.roadinfra.asset.service.AssetCacheUpdater.AssetSnapshot;
+import com.contoso.roadinfra.common.constants.AssetType;
+import com.contoso.roadinfra.common.constants.HealthStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AssetCacheUpdaterTest {
+
+    private final List<AssetSnapshot> assets = List.of(
+            snapshot(AssetType.BRIDGE, HealthStatus.HEALTHY, 40.0, 1000.0, false),
+            snapshot(AssetType.BRIDGE, HealthStatus.WARNING, 80.0, 500.0, true),
+            snapshot(AssetType.TUNNEL, HealthStatus.HEALTHY, null, 250.0, false));
+
+    @Test
+    @DisplayName("Should leave a summary unchanged when an asset is updated without changes")
+    void shouldKeepSummaryForNoOpUpdate() {
+        CorridorSummaryResponse summary = summarize(assets);
+
+        CorridorSummaryResponse patched = AssetCacheUpdater.patch(summary, assets.get(0), assets.get(0));
+
+        assertThat(patched).usingRecursiveComparison().isEqualTo(summary);
+    }
+
+    @Test
+    @DisplayName("Should match a recomputed summary after a create")
+    void shouldPatchCreate() {
+        AssetSnapshot created = snapshot(AssetType.TUNNEL, HealthStatus.CRITICAL, 10.0, 300.0, true);
+
+        CorridorSummaryResponse patched = AssetCacheUpdater.patch(summarize(assets), null, created);
+
+        assertMatches(patched, summarize(with(assets, created)));
+        assertThat(patched.getCriticalAssets()).isEqualTo(1);
+        assertThat(patched.getOverallHealth()).isEqualTo(HealthStatus.CRITICAL);
+    }
+
+    @Test
+    @DisplayName("Should average completion only over assets that report one, as AVG does")
+    void shouldIgnoreNullCompletion() {
+        AssetSnapshot created = snapshot(AssetType.TUNNEL, HealthStatus.HEALTHY, null, 0.0, false);
+
+        CorridorSummaryResponse patched = AssetCacheUpdater.patch(summarize(assets), null, created);
+
+        assertThat(patched.getAverageCompletionPercentage()).isCloseTo(60.0, within(1e-9));
+        assertThat(patched.getAssetsWithCompletion()).isEqualTo(2);
+        assertThat(patched.getTotalAssets()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should move completion in and out of the average when it is set or cleared")
+    void shouldPatchCompletionBecomingNull() {
+        AssetSnapshot before = assets.get(2);
+        AssetSnapshot reported = copy(before, 90.0, before.healthStatus());
+        CorridorSummaryResponse summary = summarize(assets);
+
+        CorridorSummaryResponse set = AssetCacheUpdater.patch(summary, before, reported);
+        CorridorSummaryResponse cleared = AssetCacheUpdater.patch(set, reported, before);
+
+        assertMatches(set, summarize(List.of(assets.get(0), assets.get(1), reported)));
+        assertThat(set.getAverageCompletionPercentage()).isCloseTo(70.0, within(1e-9));
+        assertMatches(cleared, summary);
+    }
+
+    @Test
+    @DisplayName("Should drop zero counts and reach an empty summary when every asset is deleted")
+    void shouldPatchDeletes() {
+        CorridorSummaryResponse summary = summarize(assets);
+        for (AssetSnapshot asset : assets) {
+            summary = AssetCacheUpdater.patch(summary, asset, null);
+        }
+
+        assertThat(summary.getTotalAssets()).isZero();
+        assertThat(summary.getAssetsWithCompletion()).isZero();
+        assertThat(summary.getAverageCompletionPercentage()).isZero();
+        assertThat(summary.getTotalLength()).isCloseTo(0.0, within(1e-9));
+        assertThat(summary.getAssetCountByType()).isEmpty();
+        assertThat(summary.getAssetCountByHealthStatus()).isEmpty();
+        assertThat(summary.getOverdueInspections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should move an asset between health statuses and keep the shared summary untouched")
+    void shouldPatchHealthChange() {
+        CorridorSummaryResponse summary = summarize(assets);
+        Map<HealthStatus, Long> original = new HashMap<>(summary.getAssetCountByHealthStatus());
+        AssetSnapshot critical = copy(assets.get(1), assets.get(1).completionPercentage(), HealthStatus.CRITICAL);
+
+        CorridorSummaryResponse patched = AssetCacheUpdater.patch(summary, assets.get(1), critical);
+
+        assertMatches(patched, summarize(List.of(assets.get(0), critical, assets.get(2))));
+        assertThat(patched.getAssetCountByHealthStatus()).doesNotContainKey(HealthStatus.WARNING);
+        assertThat(summary.getAssetCountByHealthStatus()).isEqualTo(original);
+    }
+
+    private static void assertMatches(CorridorSummaryResponse actual, CorridorSummaryResponse expected) {
+        assertThat(actual.getAverageCompletionPercentage())
+                .isCloseTo(expected.getAverageCompletionPercentage(), within(1e-9));
+        assertThat(actual.getTotalLength()).isCloseTo(expected.getTotalLength(), within(1e-9));
+        assertThat(actual).usingRecursiveComparison()
+                .ignoringFields("averageCompletionPercentage", "totalLength")
+                .isEqualTo(expected);
+    }
+
+    /**
+     * The summary AssetService.getCorridorSummary computes for {@code assets}.
+     */
+    private static CorridorSummaryResponse summarize(List<AssetSnapshot> assets) {
+        List<Double> completions = assets.stream()
+                .map(AssetSnapshot::completionPercentage)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<AssetType, Long> byType = new HashMap<>();
+        Map<HealthStatus, Long> byHealth = new HashMap<>();
+        assets.forEach(asset -> {
+            byType.merge(asset.assetType(), 1L, Long::sum);
+            byHealth.merge(asset.healthStatus(), 1L, Long::sum);
+        });
+        return CorridorSummaryResponse.builder()
+                .totalLength(assets.stream().mapToDouble(AssetSnapshot::corridorLength).sum())
+                .totalAssets(assets.size())
+                .averageCompletionPercentage(completions.stream().mapToDouble(Double::doubleValue).average().orElse(0.0))
+                .assetsWithCompletion(completions.size())
+                .assetCountByType(byType)
+                .assetCountByHealthStatus(byHealth)
+                .totalSensors(12)
+                .overdueInspections((int) assets.stream().filter(AssetSnapshot::inspectionOverdue).count())
+                .delayedMilestones(3)
+                .criticalAssets(byHealth.getOrDefault(HealthStatus.CRITICAL, 0L).intValue())
+                .overallHealth(AssetService.determineOverallHealth(byHealth))
+                .build();
+    }
+
+    private static List<AssetSnapshot> with(List<AssetSnapshot> assets, AssetSnapshot added) {
+        List<AssetSnapshot> all = new ArrayList<>(assets);
+        all.add(added);
+        return all;
+    }
+
+    private static AssetSnapshot copy(AssetSnapshot asset, Double completion, HealthStatus health) {
+        return new AssetSnapshot(asset.id(), asset.assetCode(), asset.parentAssetId(), asset.assetType(),
+                health, completion, asset.corridorLength(), asset.inspectionOverdue());
+    }
+
+    private static AssetSnapshot snapshot(AssetType type, HealthStatus health, Double completion,
+                                          double corridorLength, boolean overdue) {
+        UUID id = UUID.randomUUID();
+        return new AssetSnapshot(id, "A-" + id, null, type, health, completion, corridorLength, overdue);
+    }
+}
@@ -3,9 +3,11 @@ package com.contoso.roadinfra.auth;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.contoso.roadinfra.auth", "com.contoso.roadinfra.common"})
 @EnableDiscoveryClient
+@EnableScheduling
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
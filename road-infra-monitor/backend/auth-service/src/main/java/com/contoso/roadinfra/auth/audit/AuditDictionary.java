@@ -0,0 +1,86 @@
+package com.contoso.roadinfra.auth.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The actions and resource types that occur in the audit log, kept in a small table
+ * so that listing them does not scan the log.
+ *
+ * The writer records every batch here; values already known to this instance are
+ * skipped without touching the database, so in steady state recording costs nothing.
+ */
+@Component
+@Slf4j
+public class AuditDictionary {
+
+    static final String ACTION = "ACTION";
+    static final String RESOURCE_TYPE = "RESOURCE_TYPE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<Entry> known = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param schema not used directly; injected so the dictionary table exists first
+     */
+    public AuditDictionary(JdbcTemplate jdbcTemplate, AuditLogSchema schema) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<String> getActions() {
+        return values(ACTION);
+    }
+
+    public List<String> getResourceTypes() {
+        return values(RESOURCE_TYPE);
+    }
+
+    /**
+     * Add the actions and resource types of written events that are not known yet.
+     */
+    void record(List<AuditEvent> events) {
+        List<Entry> added = new ArrayList<>();
+        for (AuditEvent event : events) {
+            addIfUnknown(new Entry(ACTION, event.action()), added);
+            if (event.resourceType() != null) {
+                addIfUnknown(new Entry(RESOURCE_TYPE, event.resourceType()), added);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO " + AuditLogSchema.DICTIONARY_TABLE + " (kind, value) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                    added, added.size(), (ps, entry) -> {
+                        ps.setString(1, entry.kind());
+                        ps.setString(2, entry.value());
+                    });
+        } catch (DataAccessException e) {
+            known.removeAll(added);
+            log.warn("Failed to update audit dictionary: {}", e.getMessage());
+        }
+    }
+
+    private void addIfUnknown(Entry entry, List<Entry> added) {
+        if (known.add(entry)) {
+            added.add(entry);
+        }
+    }
+
+    private List<String> values(String kind) {
+        return jdbcTemplate.queryForList(
+                "SELECT value FROM " + AuditLogSchema.DICTIONARY_TABLE + " WHERE kind = ? ORDER BY value",
+                String.class, kind);
+    }
+
+    private record Entry(String kind, String value) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.contoso.roadinfra.auth.audit;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An audit event as captured on the request thread, before it is written.
+ *
+ * The id and timestamp are assigned when the event happens, so a replayed event keeps
+ * its original time and is inserted at most once.
+ */
+public record AuditEvent(
+        UUID id,
+        UUID userId,
+        String username,
+        String action,
+        String resourceType,
+        String resourceId,
+        String details,
+        String ipAddress,
+        String userAgent,
+        Instant timestamp) {
+
+    /**
+     * Payload published to the audit Kafka topic.
+     */
+    Map<String, Object> toMessage() {
+        Map<String, Object> event = new HashMap<>();
+        event.put("id", id.toString());
+        event.put("userId", userId != null ? userId.toString() : null);
+        event.put("username", username);
+        event.put("action", action);
+        event.put("resourceType", resourceType);
+        event.put("resourceId", resourceId);
+        event.put("ipAddress", ipAddress);
+        event.put("timestamp", timestamp.toString());
+        return event;
+    }
+}
@@ -0,0 +1,53 @@
+package com.contoso.roadinfra.auth.audit;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, lock-free queue between request threads and the audit writer.
+ *
+ * Producers reserve a slot with an atomic increment before enqueueing, so a full queue
+ * rejects the event instead of blocking the request.
+ */
+final class AuditEventQueue {
+
+    private final ConcurrentLinkedQueue<AuditEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    AuditEventQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    boolean offer(AuditEvent event) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        events.offer(event);
+        return true;
+    }
+
+    /**
+     * Move up to {@code max} events into {@code batch}, oldest first.
+     */
+    int drainTo(List<AuditEvent> batch, int max) {
+        int drained = 0;
+        AuditEvent event;
+        while (drained < max && (event = events.poll()) != null) {
+            batch.add(event);
+            drained++;
+        }
+        size.addAndGet(-drained);
+        return drained;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty();
+    }
+}
@@ -0,0 +1,178 @@
+package com.contoso.roadinfra.auth.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps {@code audit_logs} partitioned by month and its search indexes in place.
+ *
+ * Hibernate creates the table as a plain one; on first start it is converted to a
+ * table partitioned by range on {@code timestamp}, with the primary key extended to
+ * {@code (id, timestamp)} as PostgreSQL requires. Partitions are created a few months
+ * ahead and rows outside them land in a default partition. Partitions older than
+ * {@code auth.audit.partitions.retention-months} are dropped whole instead of deleted
+ * row by row; retention is off by default, since dropping audit history has to be a
+ * deliberate choice.
+ *
+ * Each index leads with one filter column and ends with {@code (timestamp, id)}, the
+ * keyset order of audit searches, so a filtered page is a single index range scan.
+ */
+@Component
+@Slf4j
+public class AuditLogSchema {
+
+    static final String TABLE = "audit_logs";
+    static final String DICTIONARY_TABLE = "audit_dictionary";
+
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final List<String> LEGACY_INDEXES = List.of(
+            "idx_audit_user_id", "idx_audit_username", "idx_audit_action",
+            "idx_audit_resource_type", "idx_audit_timestamp");
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_logs (timestamp, id)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_user_time ON audit_logs (user_id, timestamp, id)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_username_time ON audit_logs (username, timestamp, id)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_action_time ON audit_logs (action, timestamp, id)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    /**
+     * @param entityManagerFactory not used directly; injected so that Hibernate has
+     *                             created the table before it is converted
+     */
+    public AuditLogSchema(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          EntityManagerFactory entityManagerFactory,
+                          @Value("${auth.audit.partitions.months-ahead:2}") int monthsAhead,
+                          @Value("${auth.audit.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            String kind = jdbcTemplate.query(
+                    "SELECT relkind FROM pg_class WHERE relname = ? AND relnamespace = current_schema()::regnamespace",
+                    rs -> rs.next() ? rs.getString(1) : null, TABLE);
+            if ("r".equals(kind)) {
+                partitionExistingTable();
+            } else if (kind == null) {
+                log.warn("Table {} does not exist, audit log partitioning skipped", TABLE);
+                return;
+            }
+            INDEXES.forEach(jdbcTemplate::execute);
+            createDictionary();
+        });
+        maintainPartitions();
+    }
+
+    /**
+     * Create the coming months' partitions and drop the expired ones.
+     */
+    @Scheduled(cron = "${auth.audit.partitions.maintenance-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(current.plusMonths(i));
+            } catch (DataAccessException e) {
+                // Typically rows for that month already sit in the default partition
+                log.warn("Failed to create audit partition for {}: {}", current.plusMonths(i), e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            dropPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private void partitionExistingTable() {
+        log.info("Converting {} to a table partitioned by month", TABLE);
+        String legacy = TABLE + "_unpartitioned";
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + legacy);
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT IF EXISTS " + TABLE + "_pkey");
+        for (String index : LEGACY_INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+        }
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_audit_time, idx_audit_user_time, "
+                + "idx_audit_username_time, idx_audit_action_time");
+
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                + " PARTITION BY RANGE (timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, timestamp)");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + "_default PARTITION OF " + TABLE + " DEFAULT");
+
+        OffsetDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + legacy, OffsetDateTime.class);
+        YearMonth month = oldest != null
+                ? YearMonth.from(oldest.withOffsetSameInstant(ZoneOffset.UTC))
+                : YearMonth.now(ZoneOffset.UTC);
+        YearMonth last = YearMonth.now(ZoneOffset.UTC).plusMonths(monthsAhead);
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+
+        int rows = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + legacy);
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+        log.info("Moved {} audit log rows into partitions", rows);
+    }
+
+    /**
+     * Create the dictionary of actions and resource types, seeded from the log once.
+     */
+    private void createDictionary() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DICTIONARY_TABLE + " ("
+                + "kind VARCHAR(20) NOT NULL, value VARCHAR(50) NOT NULL, PRIMARY KEY (kind, value))");
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM " + DICTIONARY_TABLE + ")", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            jdbcTemplate.update("INSERT INTO " + DICTIONARY_TABLE + " (kind, value)"
+                    + " SELECT DISTINCT '" + AuditDictionary.ACTION + "', action FROM " + TABLE
+                    + " UNION SELECT DISTINCT '" + AuditDictionary.RESOURCE_TYPE + "', resource_type FROM " + TABLE
+                    + " WHERE resource_type IS NOT NULL ON CONFLICT DO NOTHING");
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        OffsetDateTime from = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = from.plusMonths(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + month.format(PARTITION_SUFFIX)
+                + " PARTITION OF " + TABLE + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private void dropPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent"
+                        + " WHERE p.relname = ? AND c.relname LIKE ?",
+                String.class, TABLE, PARTITION_PREFIX + "%");
+        for (String partition : partitions) {
+            String suffix = partition.substring(PARTITION_PREFIX.length());
+            if (suffix.length() == 6 && suffix.chars().allMatch(Character::isDigit)
+                    && YearMonth.parse(suffix, PARTITION_SUFFIX).isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired audit partition {}", partition);
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.contoso.roadinfra.auth.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit events to the database and Kafka in batches, off the request threads.
+ *
+ * Events go through a bounded lock-free queue to a single writer thread, which drains
+ * whatever has accumulated (up to {@code auth.audit.batch-size}) and writes it with one
+ * multi-row insert, then hands the batch to the Kafka producer without waiting for
+ * acknowledgements, so batches grow with load instead of the number of round trips.
+ *
+ * With {@code auth.audit.durability=memory} a full queue drops the event and a failed
+ * insert is retried a few times before the batch is dropped, both counted in
+ * {@code audit.events}. With {@code wal} every event is also appended to a local
+ * {@link AuditWriteAheadLog} that is replayed on startup and failed inserts are retried
+ * until they succeed. A full queue makes the caller insert the event itself; the event
+ * is in the write-ahead log first, so if that insert fails it is written on the next
+ * startup rather than retried. Events left in the log that way, or by a failed replay
+ * or shutdown, are counted as {@code retained} rather than {@code failed}.
+ *
+ * A batch the database rejects for its data is split until the offending events are
+ * isolated. Those are quarantined (logged, and kept in the write-ahead log's quarantine
+ * file) so they cannot hold up the events around them.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String COLUMNS = "(id, user_id, username, action, resource_type, resource_id, "
+            + "details, ip_address, user_agent, timestamp)";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MEMORY_MAX_ATTEMPTS = 3;
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditDictionary dictionary;
+    private final String topic;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditEventQueue queue;
+    private final AuditWriteAheadLog writeAheadLog;
+    private final Map<Integer, String> insertStatements = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter retained;
+    private final Counter inline;
+    private final Counter quarantined;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          KafkaTemplate<String, Object> kafkaTemplate,
+                          ObjectMapper objectMapper,
+                          AuditDictionary dictionary,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.audit.topic:audit-events}") String topic,
+                          @Value("${auth.audit.queue-capacity:10000}") int queueCapacity,
+                          @Value("${auth.audit.batch-size:200}") int batchSize,
+                          @Value("${auth.audit.flush-interval-ms:20}") long flushIntervalMs,
+                          @Value("${auth.audit.durability:memory}") String durability,
+                          @Value("${auth.audit.wal.path:./data/audit-wal}") String walPath,
+                          @Value("${auth.audit.wal.segment-size-mb:16}") long walSegmentSizeMb)
+            throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.dictionary = dictionary;
+        this.topic = topic;
+        // PostgreSQL allows at most 32767 bind parameters per statement
+        this.batchSize = Math.min(batchSize, 1000);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.queue = new AuditEventQueue(queueCapacity);
+        this.writeAheadLog = "wal".equalsIgnoreCase(durability)
+                ? new AuditWriteAheadLog(Paths.get(walPath).toAbsolutePath(), walSegmentSizeMb * 1024 * 1024)
+                : null;
+
+        Gauge.builder("audit.queue.depth", queue, AuditEventQueue::size)
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush.latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.flush.batch.size")
+                .register(meterRegistry);
+        this.written = counter(meterRegistry, "written");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.failed = counter(meterRegistry, "failed");
+        this.retained = counter(meterRegistry, "retained");
+        this.inline = counter(meterRegistry, "inline");
+        this.quarantined = counter(meterRegistry, "quarantined");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (writeAheadLog != null) {
+            if (replay(writeAheadLog.recover())) {
+                writeAheadLog.discardRecovered();
+            }
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Queue an event for writing. Never blocks on the database unless the write-ahead
+     * log is enabled and the queue is full.
+     */
+    public void submit(AuditEvent event) {
+        boolean queued;
+        if (writeAheadLog != null) {
+            byte[] line = toLine(event);
+            queued = line != null ? writeAheadLog.append(event.id(), line, () -> queue.offer(event))
+                    : queue.offer(event);
+        } else {
+            queued = queue.offer(event);
+        }
+
+        if (queued) {
+            if (queue.size() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+        } else if (writeAheadLog != null) {
+            inline.increment();
+            byte[] line = toLine(event);
+            if (line != null) {
+                writeAheadLog.append(event.id(), line, () -> true);
+            }
+            flush(List.of(event), false, line != null);
+        } else {
+            dropped.increment();
+            log.warn("Audit queue full, dropped {} event for {}", event.action(), event.username());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            if (writeAheadLog != null) {
+                writeAheadLog.sync();
+            }
+            if (queue.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            flush(batch, true, writeAheadLog != null);
+            batch.clear();
+        }
+        log.info("Audit writer stopped");
+    }
+
+    /**
+     * Insert a batch and publish it, retrying failed inserts with backoff.
+     *
+     * @param retry whether failed inserts may be retried; only the writer thread does
+     * @param logged whether the events are in the write-ahead log, so a failed batch is
+     *        retained there for the next startup rather than dropped
+     * @return whether the batch was written
+     */
+    private boolean flush(List<AuditEvent> batch, boolean retry, boolean logged) {
+        long start = System.nanoTime();
+        int attempts = 0;
+        List<AuditEvent> inserted;
+        while (true) {
+            try {
+                inserted = insertIsolatingRejected(batch);
+                break;
+            } catch (RuntimeException e) {
+                attempts++;
+                if (!running || !retry || (!logged && attempts >= MEMORY_MAX_ATTEMPTS)) {
+                    if (logged) {
+                        retained.increment(batch.size());
+                        log.error("Failed to write {} audit events, left in write-ahead log for the next startup: {}",
+                                batch.size(), e.getMessage());
+                    } else {
+                        failed.increment(batch.size());
+                        log.error("Failed to write {} audit events, dropped: {}", batch.size(), e.getMessage());
+                    }
+                    return false;
+                }
+                log.warn("Failed to write {} audit events (attempt {}), retrying: {}",
+                        batch.size(), attempts, e.getMessage());
+                LockSupport.parkNanos(this, Math.min(MAX_BACKOFF_NANOS, TimeUnit.MILLISECONDS.toNanos(100) << Math.min(attempts, 6)));
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        written.increment(inserted.size());
+        if (writeAheadLog != null) {
+            // Quarantined events included: they are no longer pending
+            writeAheadLog.persisted(batch);
+        }
+        dictionary.record(inserted);
+        publish(inserted);
+        return true;
+    }
+
+    /**
+     * Insert a batch, halving it on data errors until the rejected events are isolated
+     * and quarantined. Other failures are thrown for the caller to retry; halves that
+     * were already inserted are skipped as conflicts then.
+     *
+     * @return the events inserted
+     */
+    private List<AuditEvent> insertIsolatingRejected(List<AuditEvent> batch) {
+        try {
+            insert(batch);
+            return batch;
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                quarantine(batch.get(0), e);
+                return List.of();
+            }
+            int half = batch.size() / 2;
+            List<AuditEvent> inserted = new ArrayList<>(insertIsolatingRejected(batch.subList(0, half)));
+            inserted.addAll(insertIsolatingRejected(batch.subList(half, batch.size())));
+            return inserted;
+        }
+    }
+
+    private void quarantine(AuditEvent event, DataIntegrityViolationException e) {
+        quarantined.increment();
+        byte[] line = toLine(event);
+        if (writeAheadLog != null && line != null) {
+            writeAheadLog.quarantine(line);
+        }
+        log.error("Audit event rejected by the database, quarantined: {} ({})",
+                line != null ? new String(line, StandardCharsets.UTF_8).trim() : event.id(),
+                e.getMostSpecificCause().getMessage());
+    }
+
+    /**
+     * One multi-row insert for the whole batch. Conflicting ids are skipped, so a batch
+     * replayed from the write-ahead log after it was already committed is not duplicated.
+     */
+    private void insert(List<AuditEvent> batch) {
+        String sql = insertStatements.computeIfAbsent(batch.size(), AuditLogWriter::insertStatement);
+        Object[] args = new Object[batch.size() * 10];
+        int i = 0;
+        for (AuditEvent event : batch) {
+            args[i++] = event.id();
+            args[i++] = event.userId();
+            args[i++] = event.username();
+            args[i++] = event.action();
+            args[i++] = event.resourceType();
+            args[i++] = event.resourceId();
+            args[i++] = event.details();
+            args[i++] = event.ipAddress();
+            args[i++] = event.userAgent();
+            args[i++] = OffsetDateTime.ofInstant(event.timestamp(), ZoneOffset.UTC);
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private void publish(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                kafkaTemplate.send(topic, event.username(), event.toMessage());
+            } catch (Exception e) {
+                log.warn("Failed to publish audit event to Kafka: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write the events recovered from the write-ahead log, before the writer starts.
+     *
+     * @return whether all of them were written; if not, the segments are kept for the
+     *         next startup
+     */
+    private boolean replay(List<String> lines) {
+        if (lines.isEmpty()) {
+            return true;
+        }
+        List<AuditEvent> events = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            try {
+                events.add(objectMapper.readValue(line, AuditEvent.class));
+            } catch (JsonProcessingException e) {
+                // A line torn by the crash
+                log.warn("Skipping unreadable audit write-ahead entry: {}", e.getOriginalMessage());
+            }
+        }
+        log.info("Replaying {} audit events from write-ahead log", events.size());
+        for (int from = 0; from < events.size(); from += batchSize) {
+            if (!flush(events.subList(from, Math.min(events.size(), from + batchSize)), false, true)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] toLine(AuditEvent event) {
+        try {
+            return (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize audit event for write-ahead log: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String insertStatement(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO audit_logs ").append(COLUMNS).append(" VALUES ");
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? ROW : ", " + ROW);
+        }
+        return sql.append(" ON CONFLICT (id, timestamp) DO NOTHING").toString();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("audit.events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
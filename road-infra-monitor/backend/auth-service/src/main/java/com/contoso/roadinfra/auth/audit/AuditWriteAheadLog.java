@@ -0,0 +1,290 @@
+package com.contoso.roadinfra.auth.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Local write-ahead file for audit events that are queued but not yet in the database.
+ *
+ * Each event is appended as one line in the order it is queued, and the writer reports
+ * which events it has persisted by id, so the log knows which lines are still pending
+ * even when a batch fails and later ones succeed. Segments are rolled at a size limit
+ * and deleted once all their events are persisted; the active segment is truncated
+ * whenever it is fully persisted. Lines are written to the OS on append and forced to
+ * disk by the writer, so a process crash loses nothing and a power loss at most one
+ * writer cycle. Pending lines are replayed on startup.
+ *
+ * Events the database rejects are moved to a quarantine file beside the segments,
+ * which is kept for inspection and never replayed.
+ */
+@Slf4j
+final class AuditWriteAheadLog implements AutoCloseable {
+
+    private static final String SUFFIX = ".wal";
+    static final String QUARANTINE_FILE = "quarantine.jsonl";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final Deque<Segment> rolled = new ArrayDeque<>();
+    private final Map<UUID, Segment> pending = new HashMap<>();
+    // A lock rather than synchronized: request threads append and write to the file while
+    // holding it, which would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private Segment active;
+    private long nextSequence;
+    private boolean dirty;
+
+    AuditWriteAheadLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Read the events left by a previous run, oldest first, and start a new segment.
+     * The old segments are deleted by {@link #discardRecovered()} once replayed.
+     */
+    List<String> recover() throws IOException {
+        lock.lock();
+        try {
+            List<Path> files = segmentFiles();
+            List<String> lines = new ArrayList<>();
+            for (Path file : files) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            lines.add(line);
+                        }
+                    }
+                }
+            }
+            if (!files.isEmpty()) {
+                String last = files.get(files.size() - 1).getFileName().toString();
+                nextSequence = Long.parseLong(last.substring(0, last.length() - SUFFIX.length())) + 1;
+            }
+            active = open();
+            return lines;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void discardRecovered() throws IOException {
+        lock.lock();
+        try {
+            for (Path file : segmentFiles()) {
+                if (!file.equals(active.file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enqueue an event and, if it was accepted, append its line. Both happen under the
+     * log's lock so the file order matches the queue order.
+     *
+     * @return whether the event was enqueued
+     */
+    boolean append(UUID id, byte[] line, BooleanSupplier enqueue) {
+        lock.lock();
+        try {
+            if (!enqueue.getAsBoolean()) {
+                return false;
+            }
+            try {
+                if (active.bytes >= segmentBytes) {
+                    roll();
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    active.channel.write(buffer);
+                }
+                active.bytes += line.length;
+                dirty = true;
+            } catch (IOException e) {
+                log.error("Failed to append audit event to write-ahead log: {}", e.getMessage());
+            }
+            if (pending.put(id, active) == null) {
+                active.pending++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force appended lines to disk.
+     */
+    void sync() {
+        lock.lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            try {
+                active.channel.force(false);
+                dirty = false;
+            } catch (IOException e) {
+                log.warn("Failed to sync audit write-ahead log: {}", e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark events as persisted. Events this log is not tracking, such as those replayed
+     * from a previous run, are ignored.
+     */
+    void persisted(Collection<AuditEvent> events) {
+        lock.lock();
+        try {
+            for (AuditEvent event : events) {
+                Segment segment = pending.remove(event.id());
+                if (segment != null && --segment.pending == 0 && segment != active) {
+                    rolled.remove(segment);
+                    delete(segment);
+                }
+            }
+            if (active.pending == 0 && active.bytes > 0) {
+                try {
+                    active.channel.truncate(0);
+                    active.bytes = 0;
+                } catch (IOException e) {
+                    log.warn("Failed to truncate audit write-ahead log: {}", e.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Events appended and not yet persisted.
+     */
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keep the line of an event the database rejected, forced to disk.
+     */
+    void quarantine(byte[] line) {
+        lock.lock();
+        try {
+            try (FileChannel channel = FileChannel.open(directory.resolve(QUARANTINE_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                log.error("Failed to quarantine audit event: {}", e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            sync();
+            for (Segment segment : rolled) {
+                closeQuietly(segment);
+            }
+            if (active != null) {
+                closeQuietly(active);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.channel.force(false);
+        if (active.pending > 0) {
+            rolled.addLast(active);
+        } else {
+            delete(active);
+        }
+        active = open();
+    }
+
+    private Segment open() throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", nextSequence++, SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new Segment(file, channel);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static void delete(Segment segment) {
+        closeQuietly(segment);
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            log.warn("Failed to delete audit write-ahead segment {}: {}", segment.file, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.debug("Failed to close audit write-ahead segment {}: {}", segment.file, e.getMessage());
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final FileChannel channel;
+        private long bytes;
+        private int pending;
+
+        Segment(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+}
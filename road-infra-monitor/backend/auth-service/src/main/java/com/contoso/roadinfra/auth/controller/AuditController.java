@@ -1,6 +1,9 @@
 package com.contoso.roadinfra.auth.controller;
 
 import com.contoso.roadinfra.auth.entity.AuditLog;
+import com.contoso.roadinfra.auth.repository.AuditLogCursor;
+import com.contoso.roadinfra.auth.repository.AuditLogQuery;
+import com.contoso.roadinfra.auth.repository.AuditLogSlice;
 import com.contoso.roadinfra.auth.service.AuditService;
 import com.contoso.roadinfra.common.dto.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,8 +14,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,29 +33,46 @@ public class AuditController {
 
     private final AuditService auditService;
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @GetMapping
-    @Operation(summary = "List audit logs with filters (paginated)")
-    public ResponseEntity<ApiResponse<Page<AuditLogDto>>> getAuditLogs(
+    @Operation(summary = "List audit logs with filters, newest first (keyset paginated)")
+    public ResponseEntity<ApiResponse<AuditLogPageDto>> getAuditLogs(
             @RequestParam(required = false) UUID userId,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) String resourceType,
+            @RequestParam(required = false) String resourceId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
-            Pageable pageable) {
-        Page<AuditLog> logs = auditService.findByFilters(userId, username, action, resourceType, startDate, endDate, pageable);
-        Page<AuditLogDto> dtos = logs.map(AuditLogDto::fromEntity);
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        AuditLogQuery query = AuditLogQuery.builder()
+                .userId(userId)
+                .username(username)
+                .action(action)
+                .resourceType(resourceType)
+                .resourceId(resourceId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .after(cursor != null ? AuditLogCursor.decode(cursor) : null)
+                .limit(pageSize(size))
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(AuditLogPageDto.from(auditService.search(query))));
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get audit logs for a specific user")
-    public ResponseEntity<ApiResponse<Page<AuditLogDto>>> getAuditLogsByUser(
+    @Operation(summary = "Get audit logs for a specific user, newest first (keyset paginated)")
+    public ResponseEntity<ApiResponse<AuditLogPageDto>> getAuditLogsByUser(
             @PathVariable UUID userId,
-            Pageable pageable) {
-        Page<AuditLog> logs = auditService.findByUserId(userId, pageable);
-        Page<AuditLogDto> dtos = logs.map(AuditLogDto::fromEntity);
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        AuditLogQuery query = AuditLogQuery.builder()
+                .userId(userId)
+                .after(cursor != null ? AuditLogCursor.decode(cursor) : null)
+                .limit(pageSize(size))
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(AuditLogPageDto.from(auditService.search(query))));
     }
 
     @GetMapping("/actions")
@@ -71,6 +89,30 @@ public class AuditController {
         return ResponseEntity.ok(ApiResponse.success(resourceTypes));
     }
 
+    private static int pageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AuditLogPageDto {
+        private List<AuditLogDto> content;
+        /** Pass as {@code cursor} to get the next page; null on the last page. */
+        private String nextCursor;
+
+        public static AuditLogPageDto from(AuditLogSlice slice) {
+            return AuditLogPageDto.builder()
+                    .content(slice.logs().stream().map(AuditLogDto::fromEntity).toList())
+                    .nextCursor(slice.nextCursor())
+                    .build();
+        }
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -14,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -25,11 +27,11 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "Authenticate user and get JWT tokens",
                description = "Returns access token (15 min) and refresh token (7 days). Account locks after 5 failed attempts.")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletRequest httpRequest) {
-        AuthResponse response = authService.login(request, httpRequest);
-        return ResponseEntity.ok(ApiResponse.success(response, "Login successful"));
+        return authService.login(request, httpRequest)
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success(response, "Login successful")));
     }
 
     @PostMapping("/refresh")
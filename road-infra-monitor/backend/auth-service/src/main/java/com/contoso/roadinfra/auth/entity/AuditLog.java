@@ -12,14 +12,17 @@ import java.util.UUID;
  * 
  * Audit events are also published to Kafka topic 'audit-events' for
  * consumption by other services requiring audit trail information.
+ *
+ * The table is partitioned by month on {@code timestamp} (see
+ * {@link com.contoso.roadinfra.auth.audit.AuditLogSchema}), so its primary key in the
+ * database is {@code (id, timestamp)}.
  */
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_audit_user_id", columnList = "user_id"),
-        @Index(name = "idx_audit_username", columnList = "username"),
-        @Index(name = "idx_audit_action", columnList = "action"),
-        @Index(name = "idx_audit_resource_type", columnList = "resource_type"),
-        @Index(name = "idx_audit_timestamp", columnList = "timestamp")
+        @Index(name = "idx_audit_time", columnList = "timestamp, id"),
+        @Index(name = "idx_audit_user_time", columnList = "user_id, timestamp, id"),
+        @Index(name = "idx_audit_username_time", columnList = "username, timestamp, id"),
+        @Index(name = "idx_audit_action_time", columnList = "action, timestamp, id")
 })
 @Data
 @Builder
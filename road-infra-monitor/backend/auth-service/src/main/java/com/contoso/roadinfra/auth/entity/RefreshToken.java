@@ -9,8 +9,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-        @Index(name = "idx_refresh_token", columnList = "token"),
-        @Index(name = "idx_refresh_user", columnList = "user_id")
+        @Index(name = "idx_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_expires", columnList = "expires_at")
 })
 @Data
 @Builder
@@ -22,9 +24,21 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, unique = true, length = 512)
+    /**
+     * The token as handed to the client. Only set on a newly issued token; the
+     * database keeps just its hash.
+     */
+    @Transient
     private String token;
 
+    /** Hex SHA-256 of the token; made NOT NULL by RefreshTokenSchema. */
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    /** Shared by a login's token and every token rotated from it. */
+    @Column(name = "family_id")
+    private UUID familyId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -39,9 +53,6 @@ public class RefreshToken {
     @Column(name = "revoked_at")
     private LocalDateTime revokedAt;
 
-    @Column(name = "replaced_by", length = 512)
-    private String replacedBy;
-
     @Column(name = "user_agent")
     private String userAgent;
 
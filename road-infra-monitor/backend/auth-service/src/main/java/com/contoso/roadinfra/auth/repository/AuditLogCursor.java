@@ -0,0 +1,39 @@
+package com.contoso.roadinfra.auth.repository;
+
+import com.contoso.roadinfra.auth.entity.AuditLog;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the audit log's {@code (timestamp, id)} order, handed to clients as an
+ * opaque token to fetch the page after it.
+ */
+public record AuditLogCursor(Instant timestamp, UUID id) {
+
+    public static AuditLogCursor of(AuditLog log) {
+        return new AuditLogCursor(log.getTimestamp(), log.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is not a cursor
+     */
+    public static AuditLogCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('/');
+            return new AuditLogCursor(Instant.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid audit log cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timestamp + "/" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
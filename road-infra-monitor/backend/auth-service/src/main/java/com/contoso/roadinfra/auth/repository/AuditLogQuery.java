@@ -0,0 +1,28 @@
+package com.contoso.roadinfra.auth.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filters for an audit log search. Unset filters are left out of the query.
+ */
+@Value
+@Builder
+public class AuditLogQuery {
+
+    UUID userId;
+    String username;
+    String action;
+    String resourceType;
+    String resourceId;
+    Instant startDate;
+    Instant endDate;
+
+    /** Return entries strictly older than this position; null for the first page. */
+    AuditLogCursor after;
+
+    int limit;
+}
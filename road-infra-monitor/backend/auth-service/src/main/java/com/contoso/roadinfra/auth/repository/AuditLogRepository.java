@@ -15,8 +15,6 @@ import java.util.UUID;
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
 
-    Page<AuditLog> findByUserId(UUID userId, Pageable pageable);
-
     Page<AuditLog> findByUsername(String username, Pageable pageable);
 
     Page<AuditLog> findByAction(String action, Pageable pageable);
@@ -31,31 +29,8 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
             @Param("endDate") Instant endDate,
             Pageable pageable);
 
-    @Query("SELECT a FROM AuditLog a WHERE " +
-           "(:userId IS NULL OR a.userId = :userId) AND " +
-           "(:username IS NULL OR a.username = :username) AND " +
-           "(:action IS NULL OR a.action = :action) AND " +
-           "(:resourceType IS NULL OR a.resourceType = :resourceType) AND " +
-           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
-           "(:endDate IS NULL OR a.timestamp <= :endDate) " +
-           "ORDER BY a.timestamp DESC")
-    Page<AuditLog> findByFilters(
-            @Param("userId") UUID userId,
-            @Param("username") String username,
-            @Param("action") String action,
-            @Param("resourceType") String resourceType,
-            @Param("startDate") Instant startDate,
-            @Param("endDate") Instant endDate,
-            Pageable pageable);
-
     List<AuditLog> findTop100ByUserIdOrderByTimestampDesc(UUID userId);
 
-    @Query("SELECT DISTINCT a.action FROM AuditLog a ORDER BY a.action")
-    List<String> findDistinctActions();
-
-    @Query("SELECT DISTINCT a.resourceType FROM AuditLog a WHERE a.resourceType IS NOT NULL ORDER BY a.resourceType")
-    List<String> findDistinctResourceTypes();
-
     @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.action = :action AND a.timestamp >= :since")
     long countByActionSince(@Param("action") String action, @Param("since") Instant since);
 }
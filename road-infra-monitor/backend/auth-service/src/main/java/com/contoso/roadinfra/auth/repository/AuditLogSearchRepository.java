@@ -0,0 +1,96 @@
+package com.contoso.roadinfra.auth.repository;
+
+import com.contoso.roadinfra.auth.entity.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Audit log search with keyset pagination, newest first.
+ *
+ * The SQL is built from the filters actually supplied, so each query has only
+ * sargable predicates and the planner can use the matching {@code (column, timestamp,
+ * id)} index and prune partitions by the time range. Pages continue from a
+ * {@code (timestamp, id)} row comparison instead of an OFFSET, so every page costs the
+ * same however deep it is.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogSearchRepository {
+
+    private static final String SELECT = "SELECT id, user_id, username, action, resource_type, resource_id, "
+            + "details, ip_address, user_agent, timestamp FROM audit_logs";
+
+    private static final RowMapper<AuditLog> ROW_MAPPER = (rs, row) -> AuditLog.builder()
+            .id(rs.getObject("id", UUID.class))
+            .userId(rs.getObject("user_id", UUID.class))
+            .username(rs.getString("username"))
+            .action(rs.getString("action"))
+            .resourceType(rs.getString("resource_type"))
+            .resourceId(rs.getString("resource_id"))
+            .details(rs.getString("details"))
+            .ipAddress(rs.getString("ip_address"))
+            .userAgent(rs.getString("user_agent"))
+            .timestamp(rs.getObject("timestamp", OffsetDateTime.class).toInstant())
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AuditLogSlice search(AuditLogQuery query) {
+        List<String> predicates = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        addEquals(predicates, params, "user_id", query.getUserId());
+        addEquals(predicates, params, "username", query.getUsername());
+        addEquals(predicates, params, "action", query.getAction());
+        addEquals(predicates, params, "resource_type", query.getResourceType());
+        addEquals(predicates, params, "resource_id", query.getResourceId());
+        if (query.getStartDate() != null) {
+            predicates.add("timestamp >= :startDate");
+            params.addValue("startDate", toTimestamp(query.getStartDate()));
+        }
+        if (query.getEndDate() != null) {
+            predicates.add("timestamp <= :endDate");
+            params.addValue("endDate", toTimestamp(query.getEndDate()));
+        }
+        if (query.getAfter() != null) {
+            predicates.add("(timestamp, id) < (:afterTimestamp, :afterId)");
+            params.addValue("afterTimestamp", toTimestamp(query.getAfter().timestamp()));
+            params.addValue("afterId", query.getAfter().id());
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT :limit");
+        // One extra row tells whether there is a next page
+        params.addValue("limit", query.getLimit() + 1);
+
+        List<AuditLog> logs = jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+        if (logs.size() <= query.getLimit()) {
+            return new AuditLogSlice(logs, null);
+        }
+        List<AuditLog> page = logs.subList(0, query.getLimit());
+        return new AuditLogSlice(page, AuditLogCursor.of(page.get(page.size() - 1)).encode());
+    }
+
+    private static void addEquals(List<String> predicates, MapSqlParameterSource params, String column, Object value) {
+        if (value != null) {
+            predicates.add(column + " = :" + column);
+            params.addValue(column, value);
+        }
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
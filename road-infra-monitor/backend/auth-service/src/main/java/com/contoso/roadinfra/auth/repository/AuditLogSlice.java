@@ -0,0 +1,13 @@
+package com.contoso.roadinfra.auth.repository;
+
+import com.contoso.roadinfra.auth.entity.AuditLog;
+
+import java.util.List;
+
+/**
+ * One page of an audit log search.
+ *
+ * @param nextCursor token for the following page, or null if this is the last one
+ */
+public record AuditLogSlice(List<AuditLog> logs, String nextCursor) {
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,15 +16,25 @@ import java.util.UUID;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
 
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
 
     List<RefreshToken> findByUserIdAndRevokedFalse(UUID userId);
 
+    /**
+     * @return 1 if the token was revoked by this call, 0 if it already was
+     */
+    @Transactional
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.user.id = :userId AND rt.revoked = false")
-    void revokeAllByUser(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.id = :id AND rt.revoked = false")
+    int revokeIfActive(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
 
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now OR rt.revoked = true")
-    void deleteExpiredAndRevokedTokens(@Param("now") LocalDateTime now);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.user.id = :userId AND rt.revoked = false")
+    void revokeAllByUser(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -18,6 +19,7 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    @Transactional(readOnly = true)
     Optional<User> findByUsernameAndDeletedFalse(String username);
 
     Optional<User> findByEmailAndDeletedFalse(String email);
@@ -59,6 +61,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.accountLocked = false, u.lockedUntil = null WHERE u.id = :userId")
     void resetFailedAttempts(@Param("userId") UUID userId);
 
+    @Transactional
     @Modifying
     @Query("UPDATE User u SET u.accountLocked = true, u.lockedUntil = :lockedUntil WHERE u.id = :userId")
     void lockAccount(@Param("userId") UUID userId, @Param("lockedUntil") Instant lockedUntil);
@@ -79,6 +82,15 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("UPDATE User u SET u.passwordHash = :passwordHash, u.passwordChangedAt = :changedAt, u.mustChangePassword = false WHERE u.id = :userId")
     void updatePassword(@Param("userId") UUID userId, @Param("passwordHash") String passwordHash, @Param("changedAt") Instant changedAt);
 
+    /**
+     * Replace a password hash with one of the same password at a higher cost, unless the
+     * password was changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :userId AND u.passwordHash = :currentHash")
+    void updatePasswordHash(@Param("userId") UUID userId, @Param("currentHash") String currentHash, @Param("newHash") String newHash);
+
     @Modifying
     @Query("UPDATE User u SET u.mustChangePassword = true WHERE u.id = :userId")
     void forcePasswordReset(@Param("userId") UUID userId);
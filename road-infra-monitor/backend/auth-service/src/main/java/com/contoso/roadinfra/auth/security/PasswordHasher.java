@@ -0,0 +1,78 @@
+package com.contoso.roadinfra.auth.security;
+
+import com.contoso.roadinfra.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on its own bounded pool.
+ *
+ * bcrypt is deliberately slow, so a burst of logins would otherwise occupy every
+ * request thread with hashing. Here at most {@code auth.password.hashing-threads}
+ * hashes run at once and {@code auth.password.hashing-queue-capacity} more may wait;
+ * beyond that a request fails fast with 503 instead of queueing behind the burst.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.password.hashing-threads:0}") int threads,
+                          @Value("${auth.password.hashing-queue-capacity:200}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Whether a stored hash was made with a lower cost than the configured one.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("auth-service", "too many concurrent logins, retry shortly"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
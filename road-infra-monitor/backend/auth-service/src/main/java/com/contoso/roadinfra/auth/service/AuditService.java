@@ -1,45 +1,49 @@
 package com.contoso.roadinfra.auth.service;
 
+import com.contoso.roadinfra.auth.audit.AuditDictionary;
+import com.contoso.roadinfra.auth.audit.AuditEvent;
+import com.contoso.roadinfra.auth.audit.AuditLogWriter;
 import com.contoso.roadinfra.auth.entity.AuditLog;
 import com.contoso.roadinfra.auth.entity.User;
-import com.contoso.roadinfra.auth.repository.AuditLogRepository;
+import com.contoso.roadinfra.auth.repository.AuditLogQuery;
+import com.contoso.roadinfra.auth.repository.AuditLogSearchRepository;
+import com.contoso.roadinfra.auth.repository.AuditLogSlice;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    // Column sizes of audit_logs (see AuditLog); a longer value would fail its whole batch
+    private static final int NAME_LENGTH = 50;
+    private static final int RESOURCE_ID_LENGTH = 100;
+    private static final int IP_ADDRESS_LENGTH = 45;
+    private static final int USER_AGENT_LENGTH = 255;
 
-    private static final String AUDIT_TOPIC = "audit-events";
+    private final AuditLogSearchRepository auditLogSearchRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditDictionary auditDictionary;
+    private final ObjectMapper objectMapper;
 
     /**
      * Log an audit event for the current authenticated user.
      */
-    @Async
     public void logEvent(String action, String resourceType, String resourceId, Map<String, Object> details) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.getPrincipal() instanceof User user) {
@@ -52,157 +56,94 @@ public class AuditService {
     /**
      * Log an audit event for a specific user.
      */
-    @Async
-    public void logEvent(UUID userId, String username, String action, String resourceType, 
+    public void logEvent(UUID userId, String username, String action, String resourceType,
                          String resourceId, Map<String, Object> details) {
-        try {
-            String ipAddress = getClientIpAddress();
-            String userAgent = getUserAgent();
-            String detailsJson = details != null ? objectMapper.writeValueAsString(details) : null;
-
-            AuditLog auditLog = AuditLog.builder()
-                    .userId(userId)
-                    .username(username)
-                    .action(action)
-                    .resourceType(resourceType)
-                    .resourceId(resourceId)
-                    .details(detailsJson)
-                    .ipAddress(ipAddress)
-                    .userAgent(userAgent)
-                    .build();
-
-            // Save to database
-            auditLogRepository.save(auditLog);
-
-            // Publish to Kafka
-            publishToKafka(auditLog);
-
-            log.debug("Audit event logged: {} by {} on {}:{}",
-                    action, username, resourceType, resourceId);
-        } catch (Exception e) {
-            log.error("Failed to log audit event: {}", e.getMessage(), e);
-        }
+        submit(userId, username, action, resourceType, resourceId, details, getClientIpAddress(), getUserAgent());
     }
 
     /**
      * Log authentication event (login/logout/failed login).
      */
     public void logAuthEvent(String username, String action, boolean success, String ipAddress) {
+        logAuthEvent(username, action, success, ipAddress != null ? ipAddress : getClientIpAddress(), getUserAgent());
+    }
+
+    /**
+     * Log authentication event with the client details given, for callers that are not
+     * on the request thread.
+     */
+    public void logAuthEvent(String username, String action, boolean success, String ipAddress, String userAgent) {
         Map<String, Object> details = new HashMap<>();
         details.put("success", success);
         details.put("ipAddress", ipAddress);
         details.put("timestamp", Instant.now().toString());
 
-        try {
-            AuditLog auditLog = AuditLog.builder()
-                    .username(username)
-                    .action(action)
-                    .resourceType(AuditLog.ResourceTypes.USER)
-                    .ipAddress(ipAddress)
-                    .userAgent(getUserAgent())
-                    .details(objectMapper.writeValueAsString(details))
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            publishToKafka(auditLog);
-        } catch (Exception e) {
-            log.error("Failed to log auth event: {}", e.getMessage(), e);
-        }
+        submit(null, username, action, AuditLog.ResourceTypes.USER, null, details, ipAddress, userAgent);
     }
 
     /**
      * Log user management event.
      */
-    public void logUserManagementEvent(String adminUsername, String action, UUID targetUserId, 
+    public void logUserManagementEvent(String adminUsername, String action, UUID targetUserId,
                                        String targetUsername, Map<String, Object> changes) {
         Map<String, Object> details = new HashMap<>();
         details.put("targetUserId", targetUserId != null ? targetUserId.toString() : null);
         details.put("targetUsername", targetUsername);
         details.put("changes", changes);
 
-        logEventSync(null, adminUsername, action, AuditLog.ResourceTypes.USER, 
+        logEvent(null, adminUsername, action, AuditLog.ResourceTypes.USER,
                 targetUserId != null ? targetUserId.toString() : null, details);
     }
 
     /**
-     * Synchronous event logging (for critical operations).
+     * Search audit logs, newest first, one keyset page at a time.
      */
-    public void logEventSync(UUID userId, String username, String action, String resourceType, 
-                             String resourceId, Map<String, Object> details) {
-        try {
-            String ipAddress = getClientIpAddress();
-            String userAgent = getUserAgent();
-            String detailsJson = details != null ? objectMapper.writeValueAsString(details) : null;
-
-            AuditLog auditLog = AuditLog.builder()
-                    .userId(userId)
-                    .username(username)
-                    .action(action)
-                    .resourceType(resourceType)
-                    .resourceId(resourceId)
-                    .details(detailsJson)
-                    .ipAddress(ipAddress)
-                    .userAgent(userAgent)
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            publishToKafka(auditLog);
-        } catch (Exception e) {
-            log.error("Failed to log sync audit event: {}", e.getMessage(), e);
-        }
+    public AuditLogSlice search(AuditLogQuery query) {
+        return auditLogSearchRepository.search(query);
     }
 
     /**
-     * Query audit logs with filters.
+     * Get all distinct actions.
      */
-    @Transactional(readOnly = true)
-    public Page<AuditLog> findByFilters(UUID userId, String username, String action,
-                                         String resourceType, Instant startDate, Instant endDate,
-                                         Pageable pageable) {
-        return auditLogRepository.findByFilters(userId, username, action, resourceType, 
-                startDate, endDate, pageable);
+    public List<String> getDistinctActions() {
+        return auditDictionary.getActions();
     }
 
     /**
-     * Get audit logs for a specific user.
+     * Get all distinct resource types.
      */
-    @Transactional(readOnly = true)
-    public Page<AuditLog> findByUserId(UUID userId, Pageable pageable) {
-        return auditLogRepository.findByUserId(userId, pageable);
+    public List<String> getDistinctResourceTypes() {
+        return auditDictionary.getResourceTypes();
     }
 
     /**
-     * Get all distinct actions.
+     * Build the event on the calling thread, where the request context is still
+     * available, and hand it to the audit writer. Values are cut to their column sizes,
+     * since they can come straight from a request (such as the username of a login).
      */
-    @Transactional(readOnly = true)
-    public java.util.List<String> getDistinctActions() {
-        return auditLogRepository.findDistinctActions();
-    }
+    private void submit(UUID userId, String username, String action, String resourceType,
+                        String resourceId, Map<String, Object> details, String ipAddress, String userAgent) {
+        try {
+            String detailsJson = details != null ? objectMapper.writeValueAsString(details) : null;
+            auditLogWriter.submit(new AuditEvent(UUID.randomUUID(), userId,
+                    truncate(username != null ? username : "unknown", NAME_LENGTH),
+                    truncate(action, NAME_LENGTH),
+                    truncate(resourceType, NAME_LENGTH),
+                    truncate(resourceId, RESOURCE_ID_LENGTH),
+                    detailsJson,
+                    truncate(ipAddress, IP_ADDRESS_LENGTH),
+                    truncate(userAgent, USER_AGENT_LENGTH),
+                    Instant.now()));
 
-    /**
-     * Get all distinct resource types.
-     */
-    @Transactional(readOnly = true)
-    public java.util.List<String> getDistinctResourceTypes() {
-        return auditLogRepository.findDistinctResourceTypes();
+            log.debug("Audit event logged: {} by {} on {}:{}",
+                    action, username, resourceType, resourceId);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to log audit event: {}", e.getMessage(), e);
+        }
     }
 
-    private void publishToKafka(AuditLog auditLog) {
-        try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("id", auditLog.getId() != null ? auditLog.getId().toString() : null);
-            event.put("userId", auditLog.getUserId() != null ? auditLog.getUserId().toString() : null);
-            event.put("username", auditLog.getUsername());
-            event.put("action", auditLog.getAction());
-            event.put("resourceType", auditLog.getResourceType());
-            event.put("resourceId", auditLog.getResourceId());
-            event.put("ipAddress", auditLog.getIpAddress());
-            event.put("timestamp", auditLog.getTimestamp() != null ? auditLog.getTimestamp().toString() : Instant.now().toString());
-
-            kafkaTemplate.send(AUDIT_TOPIC, auditLog.getUsername(), event);
-        } catch (Exception e) {
-            log.warn("Failed to publish audit event to Kafka: {}", e.getMessage());
-        }
+    private static String truncate(String value, int length) {
+        return value != null && value.length() > length ? value.substring(0, length) : value;
     }
 
     private String getClientIpAddress() {
@@ -227,11 +168,7 @@ public class AuditService {
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
             if (attributes != null) {
                 HttpServletRequest request = attributes.getRequest();
-                String userAgent = request.getHeader("User-Agent");
-                if (userAgent != null && userAgent.length() > 255) {
-                    userAgent = userAgent.substring(0, 255);
-                }
-                return userAgent;
+                return request.getHeader("User-Agent");
             }
         } catch (Exception e) {
             log.debug("Could not get user agent: {}", e.getMessage());
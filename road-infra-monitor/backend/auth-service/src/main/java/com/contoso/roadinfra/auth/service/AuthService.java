@@ -4,9 +4,10 @@ import com.contoso.roadinfra.auth.dto.*;
 import com.contoso.roadinfra.auth.entity.AuditLog;
 import com.contoso.roadinfra.auth.entity.RefreshToken;
 import com.contoso.roadinfra.auth.entity.User;
-import com.contoso.roadinfra.auth.repository.RefreshTokenRepository;
 import com.contoso.roadinfra.auth.repository.UserRepository;
 import com.contoso.roadinfra.auth.security.JwtTokenProvider;
+import com.contoso.roadinfra.auth.security.PasswordHasher;
+import com.contoso.roadinfra.auth.token.RefreshTokenStore;
 import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -15,13 +16,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -30,10 +32,12 @@ import java.util.Map;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuditService auditService;
+    private final PasswordHasher passwordHasher;
+    private final LoginActivityRecorder loginActivityRecorder;
 
     @Value("${auth.max-failed-attempts:5}")
     private int maxFailedAttempts;
@@ -44,10 +48,21 @@ public class AuthService {
     /**
      * Authenticate user and return JWT tokens.
      * Account is locked after 5 failed attempts.
+     *
+     * The user is loaded with a single query; the password is then checked on the
+     * hashing pool, which also completes the login, so the request thread is released
+     * while bcrypt runs. Last-login and attempt bookkeeping and the audit entry are
+     * written asynchronously.
+     *
+     * No transaction is held here: the lookup runs in the repository's read-only one,
+     * and the writes after the password check, which may run on this thread if the
+     * check has already finished, commit on their own.
      */
-    public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<AuthResponse> login(LoginRequest request, HttpServletRequest httpRequest) {
         log.info("Login attempt for user: {}", request.getUsername());
         String clientIp = getClientIp(httpRequest);
+        String userAgent = truncate(httpRequest.getHeader("User-Agent"), 255);
 
         User user = userRepository.findByUsernameAndDeletedFalse(request.getUsername())
                 .orElseThrow(() -> {
@@ -70,38 +85,64 @@ public class AuthService {
         }
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            handleFailedLogin(user, clientIp);
-            throw new BadCredentialsException("Invalid username or password");
-        }
+        return passwordHasher.matches(request.getPassword(), user.getPasswordHash())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        handleFailedLogin(user, clientIp, userAgent);
+                        throw new BadCredentialsException("Invalid username or password");
+                    }
+                    return completeLogin(user, request.getPassword(), clientIp, userAgent);
+                });
+    }
 
-        // Reset failed attempts on successful login
-        userRepository.resetFailedAttempts(user.getId());
-        userRepository.updateLastLogin(user.getId(), Instant.now(), clientIp);
+    private AuthResponse completeLogin(User user, String rawPassword, String clientIp, String userAgent) {
+        // Reset failed attempts and record the login
+        Instant now = Instant.now();
+        loginActivityRecorder.recordSuccess(user, now, clientIp);
 
         // Generate tokens
         String accessToken = jwtTokenProvider.generateAccessToken(user);
-        RefreshToken refreshToken = createRefreshToken(user, httpRequest);
+        RefreshToken refreshToken = refreshTokenStore.issue(user, userAgent, clientIp);
 
         // Log successful login
-        auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.LOGIN, true, clientIp);
+        auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.LOGIN, true, clientIp, userAgent);
         log.info("User {} logged in successfully from {}", user.getUsername(), clientIp);
 
-        // Refresh the user to get updated lastLoginAt
-        user = userRepository.findById(user.getId()).orElse(user);
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            rehashPassword(user, rawPassword);
+        }
+
+        user.setLastLoginAt(now);
+        user.setLastLoginIp(clientIp);
+        user.setFailedLoginAttempts(0);
 
         return AuthResponse.of(accessToken, refreshToken.getToken(),
                 jwtTokenProvider.getAccessTokenExpiration() / 1000, user);
     }
 
+    /**
+     * Re-hash a password stored with a lower cost than configured, after the response.
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        passwordHasher.encode(rawPassword)
+                .thenAccept(hash -> userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), hash))
+                .exceptionally(e -> {
+                    log.warn("Failed to upgrade password hash of {}: {}", user.getUsername(), e.getMessage());
+                    return null;
+                });
+    }
+
     /**
      * Refresh access token using refresh token.
+     * The refresh token is rotated; presenting an already rotated token revokes every
+     * token descended from the same login.
      */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
+        RefreshToken refreshToken = refreshTokenStore.find(request.getRefreshToken())
                 .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
 
-        if (!refreshToken.isActive()) {
+        if (refreshToken.isExpired()) {
             throw new BadCredentialsException("Refresh token is expired or revoked");
         }
 
@@ -110,16 +151,13 @@ public class AuthService {
             throw new BadCredentialsException("User account is no longer active");
         }
 
-        // Revoke old token
-        refreshToken.setRevoked(true);
-        refreshToken.setRevokedAt(LocalDateTime.now());
-
-        // Generate new tokens
+        // Revoke old token and issue its successor
+        RefreshToken newRefreshToken = refreshTokenStore.rotate(refreshToken)
+                .orElseThrow(() -> {
+                    auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.TOKEN_REFRESH, false, null);
+                    return new BadCredentialsException("Refresh token is expired or revoked");
+                });
         String newAccessToken = jwtTokenProvider.generateAccessToken(user);
-        RefreshToken newRefreshToken = createRefreshToken(user, null);
-        refreshToken.setReplacedBy(newRefreshToken.getToken());
-
-        refreshTokenRepository.save(refreshToken);
 
         auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.TOKEN_REFRESH, true, null);
         log.debug("Token refreshed for user {}", user.getUsername());
@@ -132,11 +170,9 @@ public class AuthService {
      * Logout user by invalidating refresh token.
      */
     public void logout(String refreshToken, String username) {
-        refreshTokenRepository.findByToken(refreshToken)
+        refreshTokenStore.find(refreshToken)
+                .filter(refreshTokenStore::revoke)
                 .ifPresent(token -> {
-                    token.setRevoked(true);
-                    token.setRevokedAt(LocalDateTime.now());
-                    refreshTokenRepository.save(token);
                     auditService.logAuthEvent(token.getUser().getUsername(), AuditLog.Actions.LOGOUT, true, null);
                     log.info("User {} logged out", token.getUser().getUsername());
                 });
@@ -146,7 +182,7 @@ public class AuthService {
      * Logout user from all devices.
      */
     public void logoutAll(User user) {
-        refreshTokenRepository.revokeAllByUser(user.getId(), LocalDateTime.now());
+        refreshTokenStore.revokeAll(user.getId());
         auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.LOGOUT, true, null);
         log.info("All sessions revoked for user {}", user.getUsername());
     }
@@ -170,7 +206,7 @@ public class AuthService {
         userRepository.updatePassword(user.getId(), newPasswordHash, Instant.now());
 
         // Revoke all refresh tokens to force re-login
-        refreshTokenRepository.revokeAllByUser(user.getId(), LocalDateTime.now());
+        refreshTokenStore.revokeAll(user.getId());
 
         auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.PASSWORD_CHANGE, true, null);
         log.info("Password changed for user {}", user.getUsername());
@@ -199,23 +235,10 @@ public class AuthService {
                 .build();
     }
 
-    private RefreshToken createRefreshToken(User user, HttpServletRequest request) {
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(jwtTokenProvider.generateRefreshToken(user.getId()))
-                .user(user)
-                .expiresAt(LocalDateTime.now().plusSeconds(jwtTokenProvider.getRefreshTokenExpiration() / 1000))
-                .userAgent(request != null ? truncate(request.getHeader("User-Agent"), 255) : null)
-                .ipAddress(request != null ? getClientIp(request) : null)
-                .build();
-
-        return refreshTokenRepository.save(refreshToken);
-    }
+    private void handleFailedLogin(User user, String clientIp, String userAgent) {
+        int newAttempts = loginActivityRecorder.recordFailure(user);
 
-    private void handleFailedLogin(User user, String clientIp) {
-        userRepository.incrementFailedAttempts(user.getId());
-        int newAttempts = user.getFailedLoginAttempts() + 1;
-        
-        auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.LOGIN_FAILED, false, clientIp);
+        auditService.logAuthEvent(user.getUsername(), AuditLog.Actions.LOGIN_FAILED, false, clientIp, userAgent);
 
         if (newAttempts >= maxFailedAttempts) {
             Instant lockUntil = Instant.now().plus(lockDurationMinutes, ChronoUnit.MINUTES);
@@ -0,0 +1,126 @@
+package com.contoso.roadinfra.auth.service;
+
+import com.contoso.roadinfra.auth.entity.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records last-login and failed-attempt bookkeeping off the login path.
+ *
+ * Updates are merged per user in memory and written in one batch every
+ * {@code auth.login-activity.flush-interval-ms}, so a user logging in repeatedly costs
+ * one row update per interval, and a successful login by a user without failed
+ * attempts does not reset anything. Failed attempts count towards the lockout as soon
+ * as they are recorded; only the lock itself is written immediately by the caller.
+ */
+@Component
+@Slf4j
+public class LoginActivityRecorder {
+
+    private static final String UPDATE_SQL = "UPDATE users SET "
+            + "last_login_at = COALESCE(?, last_login_at), "
+            + "last_login_ip = COALESCE(?, last_login_ip), "
+            + "failed_login_attempts = CASE WHEN ? THEN 0 ELSE failed_login_attempts END + ?, "
+            + "account_locked = CASE WHEN ? THEN false ELSE account_locked END, "
+            + "locked_until = CASE WHEN ? THEN NULL ELSE locked_until END "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Activity> pending = new ConcurrentHashMap<>();
+
+    public LoginActivityRecorder(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("auth.login.activity.pending", pending, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void recordSuccess(User user, Instant at, String ipAddress) {
+        boolean reset = user.getFailedLoginAttempts() > 0 || Boolean.TRUE.equals(user.getAccountLocked());
+        pending.merge(user.getId(), new Activity(at, ipAddress, reset, 0), Activity::then);
+    }
+
+    /**
+     * @return the user's consecutive failed attempts, including this one
+     */
+    public int recordFailure(User user) {
+        Activity activity = pending.merge(user.getId(), new Activity(null, null, false, 1), Activity::then);
+        return (activity.reset() ? 0 : user.getFailedLoginAttempts()) + activity.failures();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval-ms:1000}")
+    public void flush() {
+        List<UUID> ids = new ArrayList<>();
+        List<Activity> activities = new ArrayList<>();
+        for (UUID id : pending.keySet()) {
+            Activity activity = pending.remove(id);
+            if (activity != null) {
+                ids.add(id);
+                activities.add(activity);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Activity activity = activities.get(i);
+            rows.add(new Object[]{
+                    activity.lastLoginAt() != null ? OffsetDateTime.ofInstant(activity.lastLoginAt(), ZoneOffset.UTC) : null,
+                    activity.ipAddress(),
+                    activity.reset(),
+                    activity.failures(),
+                    activity.reset(),
+                    activity.reset(),
+                    ids.get(i)});
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        } catch (DataAccessException e) {
+            log.warn("Failed to write login activity of {} users, retrying next cycle: {}", ids.size(), e.getMessage());
+            for (int i = 0; i < ids.size(); i++) {
+                pending.merge(ids.get(i), activities.get(i), (current, failed) -> failed.then(current));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Activity of one user since the last flush.
+     *
+     * @param reset whether failed attempts and any expired lock are cleared before
+     *              {@code failures} is added
+     */
+    private record Activity(Instant lastLoginAt, String ipAddress, boolean reset, int failures) {
+
+        /**
+         * This activity followed by a later one. A successful login clears the failures
+         * recorded before it.
+         */
+        Activity then(Activity later) {
+            if (later.lastLoginAt() != null) {
+                return new Activity(later.lastLoginAt(), later.ipAddress(), reset || later.reset() || failures > 0, 0);
+            }
+            return new Activity(lastLoginAt, ipAddress, reset, failures + later.failures());
+        }
+    }
+}
@@ -3,8 +3,8 @@ package com.contoso.roadinfra.auth.service;
 import com.contoso.roadinfra.auth.dto.*;
 import com.contoso.roadinfra.auth.entity.AuditLog;
 import com.contoso.roadinfra.auth.entity.User;
-import com.contoso.roadinfra.auth.repository.RefreshTokenRepository;
 import com.contoso.roadinfra.auth.repository.UserRepository;
+import com.contoso.roadinfra.auth.token.RefreshTokenStore;
 import com.contoso.roadinfra.common.constants.Role;
 import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +16,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -28,7 +27,7 @@ import java.util.UUID;
 public class UserManagementService {
 
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
 
@@ -155,7 +154,7 @@ public class UserManagementService {
         }
 
         // Revoke all tokens to force re-login with new permissions
-        refreshTokenRepository.revokeAllByUser(userId, LocalDateTime.now());
+        refreshTokenStore.revokeAll(userId);
 
         Map<String, Object> changes = new HashMap<>();
         changes.put("role", Map.of("from", oldRole.name(), "to", request.getRole().name()));
@@ -184,7 +183,7 @@ public class UserManagementService {
 
         if (!enabled) {
             // Revoke all tokens when disabling
-            refreshTokenRepository.revokeAllByUser(userId, LocalDateTime.now());
+            refreshTokenStore.revokeAll(userId);
         }
 
         String action = enabled ? AuditLog.Actions.ENABLE_USER : AuditLog.Actions.DISABLE_USER;
@@ -224,7 +223,7 @@ public class UserManagementService {
         userRepository.forcePasswordReset(userId);
 
         // Revoke all tokens to force re-login
-        refreshTokenRepository.revokeAllByUser(userId, LocalDateTime.now());
+        refreshTokenStore.revokeAll(userId);
 
         auditService.logUserManagementEvent(resetBy, AuditLog.Actions.PASSWORD_RESET, 
                 userId, user.getUsername(), null);
@@ -245,7 +244,7 @@ public class UserManagementService {
         userRepository.softDelete(userId);
 
         // Revoke all tokens
-        refreshTokenRepository.revokeAllByUser(userId, LocalDateTime.now());
+        refreshTokenStore.revokeAll(userId);
 
         auditService.logUserManagementEvent(deletedBy, AuditLog.Actions.DELETE_USER, 
                 userId, user.getUsername(), null);
@@ -0,0 +1,68 @@
+package com.contoso.roadinfra.auth.token;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves {@code refresh_tokens} from plaintext tokens to hashed ones.
+ *
+ * Existing rows get their {@code token_hash} computed in the database, so sessions
+ * survive the upgrade, and become a family of their own. The plaintext {@code token}
+ * and {@code replaced_by} columns and the index on {@code token} are then dropped.
+ */
+@Component
+@Slf4j
+public class RefreshTokenSchema {
+
+    static final String TABLE = "refresh_tokens";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param entityManagerFactory not used directly; injected so that Hibernate has
+     *                             added the new columns before they are filled
+     */
+    public RefreshTokenSchema(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean legacy = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM information_schema.columns"
+                            + " WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'token')",
+                    Boolean.class, TABLE);
+            if (Boolean.TRUE.equals(legacy)) {
+                hashExistingTokens();
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN token_hash SET NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN family_id SET NOT NULL");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_token_hash ON " + TABLE + " (token_hash)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_refresh_family ON " + TABLE + " (family_id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_refresh_expires ON " + TABLE + " (expires_at)");
+        });
+    }
+
+    private void hashExistingTokens() {
+        log.info("Replacing plaintext refresh tokens with their hashes");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD COLUMN IF NOT EXISTS family_id UUID");
+        int rows = jdbcTemplate.update("UPDATE " + TABLE + " SET"
+                + " token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex'),"
+                + " family_id = COALESCE(family_id, id)"
+                + " WHERE token_hash IS NULL");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_refresh_token");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP COLUMN token, DROP COLUMN IF EXISTS replaced_by");
+        log.info("Hashed {} refresh tokens", rows);
+    }
+}
@@ -0,0 +1,151 @@
+package com.contoso.roadinfra.auth.token;
+
+import com.contoso.roadinfra.auth.entity.RefreshToken;
+import com.contoso.roadinfra.auth.entity.User;
+import com.contoso.roadinfra.auth.repository.RefreshTokenRepository;
+import com.contoso.roadinfra.auth.security.JwtTokenProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues, looks up and revokes refresh tokens.
+ *
+ * Tokens are stored as their SHA-256, so a lookup is one probe of a fixed-length
+ * unique index and a leaked table holds no usable tokens. Every token rotated from a
+ * login belongs to the same family; presenting a token that was already rotated
+ * means it was copied, and the whole family is revoked with one statement. Revoking
+ * every session of a user is likewise one statement.
+ *
+ * Expired tokens are deleted in the background in batches of
+ * {@code auth.refresh-tokens.compaction-batch-size}, so compaction never holds long
+ * locks on the table.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String COMPACT_SQL = "DELETE FROM " + RefreshTokenSchema.TABLE + " WHERE id IN ("
+            + "SELECT id FROM " + RefreshTokenSchema.TABLE + " WHERE expires_at < ? LIMIT ?)";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final JdbcTemplate jdbcTemplate;
+    private final int compactionBatchSize;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             JwtTokenProvider jwtTokenProvider,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${auth.refresh-tokens.compaction-batch-size:1000}") int compactionBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.jdbcTemplate = jdbcTemplate;
+        this.compactionBatchSize = compactionBatchSize;
+    }
+
+    /**
+     * Issue a token in a new family, for a login.
+     */
+    public RefreshToken issue(User user, String userAgent, String ipAddress) {
+        return issue(user, UUID.randomUUID(), userAgent, ipAddress);
+    }
+
+    /**
+     * Look up a token with its user.
+     */
+    public Optional<RefreshToken> find(String token) {
+        return refreshTokenRepository.findByTokenHash(hash(token));
+    }
+
+    /**
+     * Revoke a token and issue its successor in the same family. If the token had
+     * already been revoked, including by a concurrent rotation, it is being reused:
+     * the family is revoked and nothing is issued.
+     *
+     * @return the successor, or empty if the token was reused
+     */
+    public Optional<RefreshToken> rotate(RefreshToken current) {
+        if (refreshTokenRepository.revokeIfActive(current.getId(), LocalDateTime.now()) == 0) {
+            int revoked = revokeFamily(current.getFamilyId());
+            log.warn("Reuse of refresh token {} of user {}, revoked {} tokens of its family",
+                    current.getId(), current.getUser().getUsername(), revoked);
+            return Optional.empty();
+        }
+        return Optional.of(issue(current.getUser(), current.getFamilyId(), current.getUserAgent(), current.getIpAddress()));
+    }
+
+    /**
+     * @return whether the token was active
+     */
+    public boolean revoke(RefreshToken token) {
+        return refreshTokenRepository.revokeIfActive(token.getId(), LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * @return the number of tokens revoked
+     */
+    public int revokeFamily(UUID familyId) {
+        return refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+    }
+
+    public void revokeAll(UUID userId) {
+        refreshTokenRepository.revokeAllByUser(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Delete expired tokens, one batch per statement. Revoked tokens are kept until
+     * they expire so that their reuse is still recognised.
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh-tokens.compaction-interval-ms:3600000}",
+            initialDelayString = "${auth.refresh-tokens.compaction-interval-ms:3600000}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(COMPACT_SQL, now, compactionBatchSize);
+                total += deleted;
+            } while (deleted == compactionBatchSize);
+        } catch (DataAccessException e) {
+            log.warn("Refresh token compaction stopped after {} tokens: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Deleted {} expired refresh tokens", total);
+        }
+    }
+
+    private RefreshToken issue(User user, UUID familyId, String userAgent, String ipAddress) {
+        String token = jwtTokenProvider.generateRefreshToken(user.getId());
+        RefreshToken refreshToken = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plusSeconds(jwtTokenProvider.getRefreshTokenExpiration() / 1000))
+                .userAgent(userAgent)
+                .ipAddress(ipAddress)
+                .build());
+        refreshToken.setToken(token);
+        return refreshToken;
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
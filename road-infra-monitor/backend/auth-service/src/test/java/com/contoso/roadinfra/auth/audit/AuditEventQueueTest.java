@@ -0,0 +1,93 @@
+package com.contoso.roadinfra.auth.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditEventQueueTest {
+
+    @Test
+    @DisplayName("Should reject events once full and accept them again after a drain")
+    void shouldBoundCapacity() {
+        AuditEventQueue queue = new AuditEventQueue(3);
+
+        assertThat(queue.offer(event("a"))).isTrue();
+        assertThat(queue.offer(event("b"))).isTrue();
+        assertThat(queue.offer(event("c"))).isTrue();
+        assertThat(queue.offer(event("d"))).isFalse();
+        assertThat(queue.size()).isEqualTo(3);
+
+        queue.drainTo(new ArrayList<>(), 1);
+
+        assertThat(queue.offer(event("e"))).isTrue();
+        assertThat(queue.offer(event("f"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drain oldest first, at most the requested number")
+    void shouldDrainInOrder() {
+        AuditEventQueue queue = new AuditEventQueue(10);
+        for (String name : List.of("a", "b", "c", "d")) {
+            queue.offer(event(name));
+        }
+        List<AuditEvent> batch = new ArrayList<>();
+
+        assertThat(queue.drainTo(batch, 3)).isEqualTo(3);
+        assertThat(batch).extracting(AuditEvent::username).containsExactly("a", "b", "c");
+        assertThat(queue.size()).isEqualTo(1);
+
+        assertThat(queue.drainTo(batch, 3)).isEqualTo(1);
+        assertThat(queue.drainTo(batch, 3)).isZero();
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never hold more than its capacity under concurrent producers")
+    void shouldBoundCapacityUnderContention() throws InterruptedException {
+        AuditEventQueue queue = new AuditEventQueue(1_000);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < 500; i++) {
+                    if (queue.offer(event("user"))) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        List<AuditEvent> batch = new ArrayList<>();
+        assertThat(accepted).hasValue(1_000);
+        assertThat(queue.drainTo(batch, Integer.MAX_VALUE)).isEqualTo(1_000);
+        assertThat(queue.size()).isZero();
+    }
+
+    static AuditEvent event(String username) {
+        return new AuditEvent(UUID.randomUUID(), null, username, "LOGIN", "USER", null, null,
+                "127.0.0.1", "test", Instant.parse("2025-06-01T12:00:00Z"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.contoso.roadinfra.auth.audit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogSchemaTest {
+
+    private static final int MONTHS_AHEAD = 2;
+    private static final int RETENTION_MONTHS = 24;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogSchema schema;
+    private YearMonth current;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        schema = new AuditLogSchema(jdbcTemplate, transactionManager, mock(EntityManagerFactory.class),
+                MONTHS_AHEAD, RETENTION_MONTHS);
+        current = YearMonth.now(ZoneOffset.UTC);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Should convert a plain table into monthly partitions and move its rows")
+    void shouldConvertPlainTable() {
+        givenTableKind("r");
+        YearMonth oldest = current.minusMonths(3);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MIN(timestamp)"), eq(OffsetDateTime.class)))
+                .thenReturn(oldest.atDay(10).atStartOfDay().atOffset(ZoneOffset.ofHours(2)));
+        when(jdbcTemplate.update(startsWith("INSERT INTO audit_logs SELECT"))).thenReturn(42);
+
+        schema.migrate();
+
+        List<String> statements = executed();
+        assertThat(statements).containsSubsequence(
+                "ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned",
+                "ALTER TABLE audit_logs_unpartitioned DROP CONSTRAINT IF EXISTS audit_logs_pkey",
+                "DROP INDEX IF EXISTS idx_audit_timestamp",
+                "CREATE TABLE audit_logs (LIKE audit_logs_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                        + " PARTITION BY RANGE (timestamp)",
+                "ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_pkey PRIMARY KEY (id, timestamp)",
+                "CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT",
+                partition(oldest),
+                partition(current.plusMonths(MONTHS_AHEAD)),
+                "DROP TABLE audit_logs_unpartitioned",
+                "CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_logs (timestamp, id)");
+        // A partition for every month from the oldest row to the months ahead
+        for (YearMonth month = oldest; !month.isAfter(current.plusMonths(MONTHS_AHEAD)); month = month.plusMonths(1)) {
+            assertThat(statements).contains(partition(month));
+        }
+        assertThat(statements).doesNotContain(partition(oldest.minusMonths(1)));
+        // Rows are copied before the old table is dropped
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO audit_logs SELECT * FROM audit_logs_unpartitioned"));
+        order.verify(jdbcTemplate).execute("DROP TABLE audit_logs_unpartitioned");
+    }
+
+    @Test
+    @DisplayName("Should partition from the current month when the plain table is empty")
+    void shouldConvertEmptyTable() {
+        givenTableKind("r");
+
+        schema.migrate();
+
+        List<String> statements = executed();
+        assertThat(statements).contains(partition(current), partition(current.plusMonths(MONTHS_AHEAD)));
+        assertThat(statements).doesNotContain(partition(current.minusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("Should leave an already partitioned table as it is")
+    void shouldNotConvertPartitionedTable() {
+        givenTableKind("p");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT NOT EXISTS"), eq(Boolean.class))).thenReturn(false);
+
+        schema.migrate();
+
+        List<String> statements = executed();
+        assertThat(statements).noneMatch(sql -> sql.startsWith("ALTER TABLE"));
+        assertThat(statements).noneMatch(sql -> sql.startsWith("DROP"));
+        assertThat(statements).contains(
+                "CREATE INDEX IF NOT EXISTS idx_audit_action_time ON audit_logs (action, timestamp, id)",
+                partition(current));
+        // The dictionary is only seeded while it is empty
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO audit_dictionary"));
+    }
+
+    @Test
+    @DisplayName("Should seed the dictionary from the log when it is empty")
+    void shouldSeedEmptyDictionary() {
+        givenTableKind("p");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT NOT EXISTS"), eq(Boolean.class))).thenReturn(true);
+
+        schema.migrate();
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_dictionary (kind, value) SELECT DISTINCT"));
+    }
+
+    @Test
+    @DisplayName("Should skip conversion and indexes when the table does not exist")
+    void shouldSkipMissingTable() {
+        givenTableKind(null);
+
+        schema.migrate();
+
+        List<String> statements = executed();
+        assertThat(statements).noneMatch(sql -> sql.startsWith("ALTER TABLE") || sql.startsWith("CREATE INDEX"));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS audit_dictionary"));
+    }
+
+    @Test
+    @DisplayName("Should drop only partitions older than the retention period")
+    void shouldDropExpiredPartitions() {
+        YearMonth cutoff = current.minusMonths(RETENTION_MONTHS);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_logs"), eq("audit_logs_p%")))
+                .thenReturn(List.of(
+                        "audit_logs_p" + cutoff.minusMonths(1).format(SUFFIX),
+                        "audit_logs_p" + cutoff.format(SUFFIX),
+                        "audit_logs_p" + current.format(SUFFIX),
+                        "audit_logs_pending"));
+
+        schema.maintainPartitions();
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS audit_logs_p" + cutoff.minusMonths(1).format(SUFFIX));
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS audit_logs_p" + cutoff.format(SUFFIX));
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS audit_logs_p" + current.format(SUFFIX));
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS audit_logs_pending");
+    }
+
+    @Test
+    @DisplayName("Should drop no partitions when retention is 0")
+    void shouldKeepPartitionsWithoutRetention() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        AuditLogSchema unlimited = new AuditLogSchema(jdbcTemplate, transactionManager,
+                mock(EntityManagerFactory.class), MONTHS_AHEAD, 0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_logs"), eq("audit_logs_p%")))
+                .thenReturn(List.of("audit_logs_p" + current.minusYears(10).format(SUFFIX)));
+
+        unlimited.maintainPartitions();
+
+        verify(jdbcTemplate).execute(partition(current));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(), any());
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    @DisplayName("Should keep creating partitions after one fails")
+    void shouldContinueAfterFailedPartition() {
+        doThrow(new DataIntegrityViolationException("rows in default partition"))
+                .when(jdbcTemplate).execute(partition(current));
+
+        schema.maintainPartitions();
+
+        verify(jdbcTemplate).execute(partition(current.plusMonths(1)));
+        verify(jdbcTemplate).execute(partition(current.plusMonths(MONTHS_AHEAD)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTableKind(String kind) {
+        when(jdbcTemplate.query(startsWith("SELECT relkind"), any(ResultSetExtractor.class), eq("audit_logs")))
+                .thenReturn(kind);
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(sql.capture());
+        return sql.getAllValues();
+    }
+
+    private static String partition(YearMonth month) {
+        OffsetDateTime from = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        return "CREATE TABLE IF NOT EXISTS audit_logs_p" + month.format(SUFFIX)
+                + " PARTITION OF audit_logs FOR VALUES FROM ('" + from + "') TO ('" + from.plusMonths(1) + "')";
+    }
+}
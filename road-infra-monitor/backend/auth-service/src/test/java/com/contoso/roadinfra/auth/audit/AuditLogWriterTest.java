@@ -0,0 +1,316 @@
+package com.contoso.roadinfra.auth.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static com.contoso.roadinfra.auth.audit.AuditEventQueueTest.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AuditLogWriterTest {
+
+    private static final String TOO_LONG = "x".repeat(51);
+
+    @TempDir
+    Path walDirectory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeAuditTable table = new FakeAuditTable();
+    private final List<AuditLogWriter> writers = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private AuditDictionary dictionary;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        dictionary = mock(AuditDictionary.class);
+        doAnswer(invocation -> table.insert((Object[]) invocation.getRawArguments()[1]))
+                .when(jdbcTemplate).update(anyString(), any(Object[].class));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (AuditLogWriter writer : writers) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write queued events in one batch and publish them")
+    void shouldWriteBatch() throws Exception {
+        AuditLogWriter writer = writer("memory", 100, 10);
+        submitAll(writer, "alice", "bob", "carol");
+
+        writer.start();
+        writer.shutdown();
+
+        assertThat(table.usernames()).containsExactly("alice", "bob", "carol");
+        assertThat(table.statements).isEqualTo(1);
+        verify(kafkaTemplate, times(3)).send(eq("audit-events"), anyString(), any());
+        assertThat(count("written")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should quarantine a row the database rejects and write the rest of its batch")
+    void shouldIsolateRejectedRow() throws Exception {
+        AuditLogWriter writer = writer("memory", 100, 10);
+        submitAll(writer, "alice", "bob", TOO_LONG, "carol", "dave");
+
+        writer.start();
+        writer.shutdown();
+
+        assertThat(table.usernames()).containsExactly("alice", "bob", "carol", "dave");
+        assertThat(count("written")).isEqualTo(4);
+        assertThat(count("quarantined")).isEqualTo(1);
+        assertThat(count("failed")).isZero();
+        verify(kafkaTemplate, never()).send(anyString(), eq(TOO_LONG), any());
+        verify(dictionary).record(anyList());
+    }
+
+    @Test
+    @DisplayName("Should drop a batch in memory mode after a few failed attempts")
+    void shouldDropAfterRetriesInMemoryMode() throws Exception {
+        table.unavailable = true;
+        AuditLogWriter writer = writer("memory", 100, 10);
+        submitAll(writer, "alice", "bob");
+
+        writer.start();
+        awaitCount("failed", 2);
+
+        assertThat(table.attempts).isEqualTo(3);
+        assertThat(table.usernames()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should quarantine a rejected row to a file and leave nothing pending in the write-ahead log")
+    void shouldQuarantineToFileInWalMode() throws Exception {
+        AuditLogWriter writer = writer("wal", 100, 2);
+        writer.start();
+        submitAll(writer, "alice", TOO_LONG);
+        writer.shutdown();
+
+        assertThat(table.usernames()).containsExactly("alice");
+        assertThat(quarantined()).singleElement().satisfies(line -> assertThat(line).contains(TOO_LONG));
+        assertThat(recoverWal()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replay pending events on startup, quarantining rejected ones")
+    void shouldReplayWithRejectedRow() throws Exception {
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(walDirectory, 1024 * 1024);
+        wal.recover();
+        for (String username : List.of("alice", TOO_LONG, "bob")) {
+            AuditEvent event = event(username);
+            wal.append(event.id(), (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8),
+                    () -> true);
+        }
+        wal.close();
+
+        AuditLogWriter writer = writer("wal", 100, 10);
+        writer.start();
+
+        assertThat(table.usernames()).containsExactly("alice", "bob");
+        assertThat(quarantined()).hasSize(1);
+        writer.shutdown();
+        assertThat(recoverWal()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should count events whose replay failed as retained and keep them for the next startup")
+    void shouldRetainFailedReplay() throws Exception {
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(walDirectory, 1024 * 1024);
+        wal.recover();
+        for (String username : List.of("alice", "bob")) {
+            AuditEvent event = event(username);
+            wal.append(event.id(), (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8),
+                    () -> true);
+        }
+        wal.close();
+        table.unavailable = true;
+
+        AuditLogWriter writer = writer("wal", 100, 10);
+        writer.start();
+        writer.shutdown();
+
+        assertThat(count("retained")).isEqualTo(2);
+        assertThat(count("failed")).isZero();
+        assertThat(recoverWal()).extracting(this::username).containsExactly("alice", "bob");
+    }
+
+    @Test
+    @DisplayName("Should keep a batch that failed during shutdown pending, not a later batch that was written")
+    void shouldKeepFailedBatchPending() throws Exception {
+        table.unavailableFor = username -> username.startsWith("failed");
+        // Flushes only when a whole batch is queued
+        AuditLogWriter writer = writer("wal", 100, 2, 60_000);
+        writer.start();
+        Thread.sleep(100);
+        submitAll(writer, "failed-1", "failed-2");
+        awaitAttempts(1);
+        submitAll(writer, "written-1", "written-2");
+
+        writer.shutdown();
+
+        assertThat(table.usernames()).containsExactly("written-1", "written-2");
+        // The segment is kept whole, so written events may be replayed too; they are skipped as conflicts
+        assertThat(recoverWal()).extracting(this::username).contains("failed-1", "failed-2");
+
+        table.unavailableFor = username -> false;
+        AuditLogWriter restarted = writer("wal", 100, 2);
+        restarted.start();
+        assertThat(table.usernames()).containsExactly("written-1", "written-2", "failed-1", "failed-2");
+    }
+
+    @Test
+    @DisplayName("Should keep an event inserted inline in the write-ahead log until it is written")
+    void shouldLogInlineEvents() throws Exception {
+        // Never flushes on its own, so the second event finds the queue full
+        AuditLogWriter writer = writer("wal", 1, 10, 60_000);
+        writer.start();
+        Thread.sleep(100);
+        table.unavailable = true;
+        submitAll(writer, "queued", "inline");
+        assertThat(count("inline")).isEqualTo(1);
+
+        table.unavailable = false;
+        writer.shutdown();
+        assertThat(table.usernames()).containsExactly("queued");
+
+        AuditLogWriter restarted = writer("wal", 100, 10);
+        restarted.start();
+        assertThat(table.usernames()).containsExactly("queued", "inline");
+    }
+
+    private AuditLogWriter writer(String durability, int queueCapacity, int batchSize) throws IOException {
+        return writer(durability, queueCapacity, batchSize, 5);
+    }
+
+    private AuditLogWriter writer(String durability, int queueCapacity, int batchSize, long flushIntervalMs)
+            throws IOException {
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, kafkaTemplate, objectMapper, dictionary,
+                meterRegistry, "audit-events", queueCapacity, batchSize, flushIntervalMs, durability,
+                walDirectory.toString(), 1);
+        writers.add(writer);
+        return writer;
+    }
+
+    private static void submitAll(AuditLogWriter writer, String... usernames) {
+        for (String username : usernames) {
+            writer.submit(event(username));
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("audit.events").tag("result", result).counter().count();
+    }
+
+    private void awaitCount(String result, double expected) throws InterruptedException {
+        for (int i = 0; i < 500 && count(result) < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(count(result)).isEqualTo(expected);
+    }
+
+    private void awaitAttempts(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && table.attempts < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(table.attempts).isGreaterThanOrEqualTo(expected);
+    }
+
+    private List<String> recoverWal() throws IOException {
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(walDirectory, 1024 * 1024);
+        try {
+            return wal.recover();
+        } finally {
+            wal.close();
+        }
+    }
+
+    private List<String> quarantined() throws IOException {
+        Path file = walDirectory.resolve(AuditWriteAheadLog.QUARANTINE_FILE);
+        return Files.exists(file) ? Files.readAllLines(file) : List.of();
+    }
+
+    private String username(String line) {
+        try {
+            return objectMapper.readValue(line, AuditEvent.class).username();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The audit_logs table as far as the writer can tell: multi-row inserts that skip
+     * existing ids, fail as a whole on a username over the column size, and fail when the
+     * database is unreachable.
+     */
+    private static final class FakeAuditTable {
+
+        private final Map<UUID, String> rows = new LinkedHashMap<>();
+        private volatile boolean unavailable;
+        private volatile Predicate<String> unavailableFor = username -> false;
+        private volatile int attempts;
+        private volatile int statements;
+
+        synchronized int insert(Object[] args) {
+            attempts++;
+            List<String> usernames = new ArrayList<>();
+            for (int i = 2; i < args.length; i += 10) {
+                usernames.add((String) args[i]);
+            }
+            if (unavailable || usernames.stream().anyMatch(unavailableFor)) {
+                throw new CannotGetJdbcConnectionException("connection refused");
+            }
+            if (usernames.stream().anyMatch(username -> username.length() > 50)) {
+                throw new DataIntegrityViolationException("value too long for type character varying(50)");
+            }
+            statements++;
+            int inserted = 0;
+            for (int i = 0; i < args.length; i += 10) {
+                if (rows.putIfAbsent((UUID) args[i], (String) args[i + 2]) == null) {
+                    inserted++;
+                }
+            }
+            return inserted;
+        }
+
+        synchronized List<String> usernames() {
+            return List.copyOf(rows.values());
+        }
+    }
+}
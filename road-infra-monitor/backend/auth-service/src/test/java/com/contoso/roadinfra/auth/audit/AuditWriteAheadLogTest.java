@@ -0,0 +1,152 @@
+package com.contoso.roadinfra.auth.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.contoso.roadinfra.auth.audit.AuditEventQueueTest.event;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay every event that was appended but not persisted")
+    void shouldRecoverPendingEvents() throws IOException {
+        AuditWriteAheadLog wal = open(1024);
+        List<AuditEvent> events = appendAll(wal, "a", "b", "c");
+        wal.persisted(events.subList(0, 1));
+        wal.close();
+
+        AuditWriteAheadLog recovered = new AuditWriteAheadLog(directory, 1024);
+
+        assertThat(recovered.recover()).containsExactly("a", "b", "c");
+        recovered.discardRecovered();
+        recovered.close();
+        assertThat(new AuditWriteAheadLog(directory, 1024).recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should truncate the active segment once all of its events are persisted")
+    void shouldTruncateWhenPersisted() throws IOException {
+        AuditWriteAheadLog wal = open(1024);
+        List<AuditEvent> events = appendAll(wal, "a", "b");
+
+        wal.persisted(events);
+        wal.close();
+
+        assertThat(new AuditWriteAheadLog(directory, 1024).recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep a failed batch's events when a later batch is persisted")
+    void shouldTrackPersistenceByEvent() throws IOException {
+        // Two events per segment
+        AuditWriteAheadLog wal = open(4);
+        List<AuditEvent> failed = appendAll(wal, "a", "b");
+        List<AuditEvent> later = appendAll(wal, "c", "d", "e");
+
+        wal.persisted(later);
+        wal.close();
+
+        assertThat(wal.pendingCount()).isEqualTo(2);
+        assertThat(new AuditWriteAheadLog(directory, 4).recover())
+                .containsExactlyElementsOf(failed.stream().map(AuditEvent::username).toList());
+    }
+
+    @Test
+    @DisplayName("Should delete a rolled segment once its events are persisted, in any order")
+    void shouldDeleteRolledSegments() throws IOException {
+        AuditWriteAheadLog wal = open(4);
+        List<AuditEvent> events = appendAll(wal, "a", "b", "c", "d", "e");
+        assertThat(segments()).hasSize(3);
+
+        wal.persisted(List.of(events.get(3), events.get(1)));
+        assertThat(segments()).hasSize(3);
+        wal.persisted(List.of(events.get(0)));
+        assertThat(segments()).hasSize(2);
+        wal.persisted(List.of(events.get(2), events.get(4)));
+        wal.close();
+
+        assertThat(wal.pendingCount()).isZero();
+        assertThat(new AuditWriteAheadLog(directory, 4).recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not append an event the queue rejected")
+    void shouldSkipRejectedEvents() throws IOException {
+        AuditWriteAheadLog wal = open(1024);
+        AuditEvent event = event("a");
+
+        assertThat(wal.append(event.id(), line("a"), () -> false)).isFalse();
+        wal.close();
+
+        assertThat(wal.pendingCount()).isZero();
+        assertThat(new AuditWriteAheadLog(directory, 1024).recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore events it is not tracking, such as replayed ones")
+    void shouldIgnoreUntrackedEvents() throws IOException {
+        AuditWriteAheadLog wal = open(1024);
+        appendAll(wal, "a");
+
+        wal.persisted(List.of(event("replayed")));
+        wal.close();
+
+        assertThat(new AuditWriteAheadLog(directory, 1024).recover()).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Should keep quarantined events apart from the replayed segments")
+    void shouldQuarantineOutsideSegments() throws IOException {
+        AuditWriteAheadLog wal = open(1024);
+        List<AuditEvent> events = appendAll(wal, "bad");
+
+        wal.quarantine(line("bad"));
+        wal.persisted(events);
+        wal.close();
+
+        assertThat(new AuditWriteAheadLog(directory, 1024).recover()).isEmpty();
+        assertThat(Files.readAllLines(directory.resolve(AuditWriteAheadLog.QUARANTINE_FILE))).containsExactly("bad");
+    }
+
+    private AuditWriteAheadLog open(long segmentBytes) throws IOException {
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(directory, segmentBytes);
+        wal.recover();
+        return wal;
+    }
+
+    /**
+     * Append one event per line; the lines are the usernames, to keep recovery readable.
+     */
+    private static List<AuditEvent> appendAll(AuditWriteAheadLog wal, String... usernames) {
+        List<AuditEvent> events = new ArrayList<>();
+        for (String username : usernames) {
+            AuditEvent event = event(username);
+            assertThat(wal.append(event.id(), line(username), () -> true)).isTrue();
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static byte[] line(String text) {
+        return (text + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".wal")).toList();
+        }
+    }
+}
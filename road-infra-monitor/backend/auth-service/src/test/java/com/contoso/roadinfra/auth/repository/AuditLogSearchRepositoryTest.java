@@ -0,0 +1,199 @@
+package com.contoso.roadinfra.auth.repository;
+
+import com.contoso.roadinfra.auth.entity.AuditLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLogSearchRepositoryTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T12:00:00Z");
+
+    // PostgreSQL compares uuid values as unsigned bytes
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+    private static final Comparator<AuditLog> KEYSET_ORDER = Comparator.comparing(AuditLog::getTimestamp)
+            .thenComparing(AuditLog::getId, UUID_ORDER)
+            .reversed();
+
+    private final List<AuditLog> table = new ArrayList<>();
+    private final List<String> statements = new ArrayList<>();
+    private final List<MapSqlParameterSource> parameters = new ArrayList<>();
+    private AuditLogSearchRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> select(invocation.getArgument(0), invocation.getArgument(1)));
+        repository = new AuditLogSearchRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should fetch one extra row and return no cursor when it is absent")
+    void shouldReturnLastPageWithoutCursor() {
+        insert(T0, 3);
+
+        AuditLogSlice slice = repository.search(AuditLogQuery.builder().limit(3).build());
+
+        assertThat(slice.logs()).hasSize(3);
+        assertThat(slice.nextCursor()).isNull();
+        assertThat(parameters.get(0).getValue("limit")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should cut the extra row and point the cursor at the last row returned")
+    void shouldReturnCursorFromLastReturnedRow() {
+        insert(T0, 4);
+
+        AuditLogSlice slice = repository.search(AuditLogQuery.builder().limit(3).build());
+
+        assertThat(slice.logs()).hasSize(3);
+        AuditLog last = slice.logs().get(2);
+        assertThat(AuditLogCursor.decode(slice.nextCursor())).isEqualTo(new AuditLogCursor(last.getTimestamp(), last.getId()));
+    }
+
+    @Test
+    @DisplayName("Should continue strictly after the cursor position")
+    void shouldContinueAfterCursor() {
+        insert(T0, 5);
+        AuditLogSlice first = repository.search(AuditLogQuery.builder().limit(2).build());
+
+        AuditLogSlice second = repository.search(AuditLogQuery.builder()
+                .limit(2)
+                .after(AuditLogCursor.decode(first.nextCursor()))
+                .build());
+
+        assertThat(statements.get(1)).contains("(timestamp, id) < (:afterTimestamp, :afterId)");
+        assertThat(parameters.get(1).getValue("afterTimestamp"))
+                .isEqualTo(first.logs().get(1).getTimestamp().atOffset(ZoneOffset.UTC));
+        // All five share a timestamp, so the id alone decides where the next page starts
+        assertThat(second.logs()).containsExactlyElementsOf(table.stream().sorted(KEYSET_ORDER).toList().subList(2, 4));
+    }
+
+    @Test
+    @DisplayName("Should page through rows sharing a timestamp without skipping or repeating any")
+    void shouldPageThroughTimestampTies() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 40; i++) {
+            // Few distinct timestamps, so most pages start and end inside a run of ties
+            insert(T0.plusSeconds(random.nextInt(4)), 1);
+        }
+
+        List<AuditLog> seen = new ArrayList<>();
+        AuditLogCursor after = null;
+        int pages = 0;
+        do {
+            AuditLogSlice slice = repository.search(AuditLogQuery.builder().limit(3).after(after).build());
+            seen.addAll(slice.logs());
+            after = slice.nextCursor() != null ? AuditLogCursor.decode(slice.nextCursor()) : null;
+            pages++;
+        } while (after != null);
+
+        assertThat(seen).containsExactlyElementsOf(table.stream().sorted(KEYSET_ORDER).toList());
+        assertThat(pages).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("Should return no cursor when the last page is exactly full")
+    void shouldStopOnExactMultiple() {
+        insert(T0, 6);
+
+        AuditLogSlice first = repository.search(AuditLogQuery.builder().limit(3).build());
+        AuditLogSlice second = repository.search(AuditLogQuery.builder()
+                .limit(3)
+                .after(AuditLogCursor.decode(first.nextCursor()))
+                .build());
+
+        assertThat(second.logs()).hasSize(3);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should include only the filters supplied")
+    void shouldIncludeOnlySuppliedFilters() {
+        UUID userId = UUID.randomUUID();
+
+        repository.search(AuditLogQuery.builder().limit(10).build());
+        repository.search(AuditLogQuery.builder()
+                .userId(userId)
+                .action("LOGIN")
+                .startDate(T0)
+                .limit(10)
+                .build());
+
+        assertThat(statements.get(0)).doesNotContain("WHERE").endsWith("ORDER BY timestamp DESC, id DESC LIMIT :limit");
+        assertThat(statements.get(1))
+                .contains("WHERE user_id = :user_id AND action = :action AND timestamp >= :startDate ORDER BY")
+                .doesNotContain("username =", "resource_type =", "endDate", "afterId");
+        assertThat(parameters.get(1).getValue("user_id")).isEqualTo(userId);
+        assertThat(parameters.get(1).getValue("startDate")).isEqualTo(OffsetDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a cursor and reject tokens that are not cursors")
+    void shouldEncodeAndDecodeCursor() {
+        AuditLogCursor cursor = new AuditLogCursor(Instant.parse("2026-03-01T12:00:00.123456Z"), UUID.randomUUID());
+
+        assertThat(AuditLogCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(cursor.encode()).doesNotContain("=", "+", "/");
+        assertThatThrownBy(() -> AuditLogCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid audit log cursor");
+        assertThatThrownBy(() -> AuditLogCursor.decode("MjAyNi0wMy0wMVQxMjowMDowMFo"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void insert(Instant timestamp, int count) {
+        for (int i = 0; i < count; i++) {
+            table.add(AuditLog.builder()
+                    .id(UUID.randomUUID())
+                    .username("user" + table.size())
+                    .action("LOGIN")
+                    .timestamp(timestamp)
+                    .build());
+        }
+    }
+
+    /**
+     * Evaluate the keyset part of a search the way the database would: the row
+     * comparison, the descending order and the limit.
+     */
+    private List<AuditLog> select(String sql, MapSqlParameterSource params) {
+        statements.add(sql);
+        parameters.add(params);
+        List<AuditLog> rows = new ArrayList<>(table);
+        if (params.hasValue("afterId")) {
+            AuditLog after = AuditLog.builder()
+                    .timestamp(((OffsetDateTime) params.getValue("afterTimestamp")).toInstant())
+                    .id((UUID) params.getValue("afterId"))
+                    .build();
+            rows.removeIf(row -> KEYSET_ORDER.compare(row, after) <= 0);
+        }
+        return rows.stream()
+                .sorted(KEYSET_ORDER)
+                .limit((Integer) params.getValue("limit"))
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.contoso.roadinfra.auth.security;
+
+import com.contoso.roadinfra.common.exception.GlobalExceptionHandler;
+import com.contoso.roadinfra.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(any(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        // One hash at a time and one more waiting
+        hasher = new PasswordHasher(passwordEncoder, new SimpleMeterRegistry(), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fail fast with a 503 once the pool and its queue are full")
+    void shouldRejectWhenSaturated() throws Exception {
+        CompletableFuture<Boolean> running = hasher.matches("secret", "hash");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = hasher.matches("secret", "hash");
+
+        CompletableFuture<Boolean> rejected = hasher.matches("secret", "hash");
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("too many concurrent logins");
+        ServiceUnavailableException cause = (ServiceUnavailableException) rejected.handle((r, e) -> e).get();
+        assertThat(new GlobalExceptionHandler().handleServiceUnavailable(cause).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should accept hashes again once the pool has capacity")
+    void shouldAcceptAfterBurst() throws Exception {
+        release.countDown();
+
+        assertThat(hasher.matches("secret", "hash").get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hasher.matches("secret", "hash").get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
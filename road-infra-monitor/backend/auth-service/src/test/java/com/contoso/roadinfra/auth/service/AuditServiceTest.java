@@ -0,0 +1,58 @@
+package com.contoso.roadinfra.auth.service;
+
+import com.contoso.roadinfra.auth.audit.AuditDictionary;
+import com.contoso.roadinfra.auth.audit.AuditEvent;
+import com.contoso.roadinfra.auth.audit.AuditLogWriter;
+import com.contoso.roadinfra.auth.entity.AuditLog;
+import com.contoso.roadinfra.auth.repository.AuditLogSearchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AuditServiceTest {
+
+    private final AuditLogWriter writer = mock(AuditLogWriter.class);
+    private final AuditService auditService = new AuditService(mock(AuditLogSearchRepository.class), writer,
+            mock(AuditDictionary.class), new ObjectMapper());
+
+    @Test
+    @DisplayName("Should cut values from the request to their column sizes")
+    void shouldTruncateToColumnSizes() {
+        auditService.logAuthEvent("u".repeat(80), AuditLog.Actions.LOGIN_FAILED, false,
+                "1".repeat(60), "agent/" + "x".repeat(300));
+
+        AuditEvent event = submitted();
+        assertThat(event.username()).hasSize(50).isEqualTo("u".repeat(50));
+        assertThat(event.ipAddress()).hasSize(45);
+        assertThat(event.userAgent()).hasSize(255).startsWith("agent/");
+    }
+
+    @Test
+    @DisplayName("Should keep values that fit and fill in a missing username")
+    void shouldKeepValuesThatFit() {
+        UUID userId = UUID.randomUUID();
+        auditService.logEvent(userId, null, "CUSTOM_ACTION", "SENSOR", "r".repeat(120), Map.of("key", "value"));
+
+        AuditEvent event = submitted();
+        assertThat(event.userId()).isEqualTo(userId);
+        assertThat(event.username()).isEqualTo("unknown");
+        assertThat(event.action()).isEqualTo("CUSTOM_ACTION");
+        assertThat(event.resourceType()).isEqualTo("SENSOR");
+        assertThat(event.resourceId()).hasSize(100);
+        assertThat(event.details()).isEqualTo("{\"key\":\"value\"}");
+    }
+
+    private AuditEvent submitted() {
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(writer).submit(event.capture());
+        return event.getValue();
+    }
+}
@@ -0,0 +1,157 @@
+package com.contoso.roadinfra.auth.service;
+
+import com.contoso.roadinfra.auth.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoginActivityRecorderTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T12:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginActivityRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        recorder = new LoginActivityRecorder(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should keep a failure recorded after a success in the same interval")
+    void shouldMergeFailureAfterSuccess() {
+        User user = user(3);
+        recorder.recordSuccess(user, T0, "10.0.0.1");
+
+        // The success clears the three stored attempts before this one counts
+        assertThat(recorder.recordFailure(user)).isEqualTo(1);
+
+        recorder.flush();
+        assertThat(flushedRow()).containsExactly(
+                at(T0), "10.0.0.1", true, 1, true, true, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should clear failures recorded before a success in the same interval")
+    void shouldMergeSuccessAfterFailure() {
+        User user = user(0);
+        assertThat(recorder.recordFailure(user)).isEqualTo(1);
+        recorder.recordSuccess(user, T0, "10.0.0.1");
+
+        recorder.flush();
+        // Reset although the user had no stored attempts: the merged failure may have been written already
+        assertThat(flushedRow()).containsExactly(
+                at(T0), "10.0.0.1", true, 0, true, true, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should not reset anything for a success by a user without failed attempts")
+    void shouldNotResetCleanUser() {
+        User user = user(0);
+        recorder.recordSuccess(user, T0, "10.0.0.1");
+        recorder.recordSuccess(user, T0.plusSeconds(1), "10.0.0.2");
+
+        recorder.flush();
+        assertThat(flushedRow()).containsExactly(
+                at(T0.plusSeconds(1)), "10.0.0.2", false, 0, false, false, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should count stored and pending failures while a flush is pending")
+    void shouldCountPendingFailures() {
+        User user = user(2);
+
+        assertThat(recorder.recordFailure(user)).isEqualTo(3);
+        assertThat(recorder.recordFailure(user)).isEqualTo(4);
+        assertThat(recorder.recordFailure(user)).isEqualTo(5);
+
+        recorder.flush();
+        assertThat(flushedRow()).containsExactly(null, null, false, 3, false, false, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should write nothing when no activity is pending")
+    void shouldSkipEmptyFlush() {
+        recorder.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep counting failures of a batch whose write failed")
+    void shouldCountFailuresAfterFailedFlush() {
+        User user = user(0);
+        recorder.recordFailure(user);
+        doAnswer(invocation -> {
+            throw new QueryTimeoutException("timeout");
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        recorder.flush();
+
+        assertThat(recorder.recordFailure(user)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should re-merge a failed batch before the activity recorded during the write")
+    void shouldRemergeFailedBatchBeforeNewerActivity() {
+        User user = user(0);
+        recorder.recordFailure(user);
+        doAnswer(invocation -> {
+            recorder.recordSuccess(user, T0, "10.0.0.1");
+            throw new QueryTimeoutException("timeout");
+        }).doReturn(new int[]{1}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        recorder.flush();
+        recorder.flush();
+
+        // The failure came first, so the later success clears it
+        List<List<Object[]>> batches = flushedBatches(2);
+        assertThat(batches.get(1)).singleElement().satisfies(row -> assertThat(row).containsExactly(
+                at(T0), "10.0.0.1", true, 0, true, true, user.getId()));
+    }
+
+    private Object[] flushedRow() {
+        List<List<Object[]>> batches = flushedBatches(1);
+        assertThat(batches.get(0)).hasSize(1);
+        return batches.get(0).get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> flushedBatches(int count) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(count)).batchUpdate(anyString(), rows.capture());
+        return rows.getAllValues();
+    }
+
+    private static User user(int failedLoginAttempts) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("alice")
+                .failedLoginAttempts(failedLoginAttempts)
+                .build();
+    }
+
+    private static OffsetDateTime at(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,95 @@
+package com.contoso.roadinfra.auth.token;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenSchemaTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RefreshTokenSchema schema;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        schema = new RefreshTokenSchema(jdbcTemplate, transactionManager, mock(EntityManagerFactory.class));
+    }
+
+    @Test
+    @DisplayName("Should hash plaintext tokens in place and drop the plaintext columns")
+    void shouldHashLegacyTokens() {
+        givenLegacyTable(true);
+        when(jdbcTemplate.update(startsWith("UPDATE refresh_tokens SET"))).thenReturn(12);
+
+        schema.migrate();
+
+        List<String> statements = executed();
+        assertThat(statements).containsSubsequence(
+                "ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64)",
+                "ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id UUID",
+                "DROP INDEX IF EXISTS idx_refresh_token",
+                "ALTER TABLE refresh_tokens DROP COLUMN token, DROP COLUMN IF EXISTS replaced_by",
+                "ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL",
+                "ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_token_hash ON refresh_tokens (token_hash)");
+        // Hashes are filled in before the plaintext is dropped, each row its own family
+        ArgumentCaptor<String> update = ArgumentCaptor.forClass(String.class);
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(update.capture());
+        order.verify(jdbcTemplate).execute("ALTER TABLE refresh_tokens DROP COLUMN token, DROP COLUMN IF EXISTS replaced_by");
+        assertThat(update.getValue())
+                .contains("token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex')")
+                .contains("family_id = COALESCE(family_id, id)")
+                .endsWith("WHERE token_hash IS NULL");
+    }
+
+    @Test
+    @DisplayName("Should only add constraints and indexes to a fresh table")
+    void shouldLeaveFreshTable() {
+        givenLegacyTable(false);
+
+        schema.migrate();
+
+        List<String> statements = executed();
+        assertThat(statements).containsExactly(
+                "ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL",
+                "ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_token_hash ON refresh_tokens (token_hash)",
+                "CREATE INDEX IF NOT EXISTS idx_refresh_family ON refresh_tokens (family_id)",
+                "CREATE INDEX IF NOT EXISTS idx_refresh_expires ON refresh_tokens (expires_at)");
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    private void givenLegacyTable(boolean legacy) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq("refresh_tokens")))
+                .thenReturn(legacy);
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(sql.capture());
+        return sql.getAllValues();
+    }
+}
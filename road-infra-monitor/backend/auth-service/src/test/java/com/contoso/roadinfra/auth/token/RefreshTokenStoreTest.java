@@ -0,0 +1,160 @@
+package com.contoso.roadinfra.auth.token;
+
+import com.contoso.roadinfra.auth.entity.RefreshToken;
+import com.contoso.roadinfra.auth.entity.User;
+import com.contoso.roadinfra.auth.repository.RefreshTokenRepository;
+import com.contoso.roadinfra.auth.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenStoreTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private JwtTokenProvider jwtTokenProvider;
+    private JdbcTemplate jdbcTemplate;
+    private RefreshTokenStore store;
+    private final User user = User.builder().id(UUID.randomUUID()).username("alice").build();
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        jwtTokenProvider = mock(JwtTokenProvider.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jwtTokenProvider.generateRefreshToken(user.getId())).thenReturn("next-token");
+        when(jwtTokenProvider.getRefreshTokenExpiration()).thenReturn(3_600_000L);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        store = new RefreshTokenStore(refreshTokenRepository, jwtTokenProvider, jdbcTemplate, BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should revoke an active token and issue its successor in the same family")
+    void shouldRotateActiveToken() {
+        RefreshToken current = token();
+        when(refreshTokenRepository.revokeIfActive(eq(current.getId()), any())).thenReturn(1);
+
+        Optional<RefreshToken> successor = store.rotate(current);
+
+        assertThat(successor).hasValueSatisfying(next -> {
+            assertThat(next.getFamilyId()).isEqualTo(current.getFamilyId());
+            assertThat(next.getUser()).isSameAs(user);
+            assertThat(next.getToken()).isEqualTo("next-token");
+            assertThat(next.getTokenHash()).isEqualTo(RefreshTokenStore.hash("next-token"));
+            assertThat(next.getUserAgent()).isEqualTo(current.getUserAgent());
+            assertThat(next.getIpAddress()).isEqualTo(current.getIpAddress());
+            assertThat(next.getExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(59));
+        });
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should revoke the family and issue nothing when a rotated token is reused")
+    void shouldRevokeFamilyOnReuse() {
+        RefreshToken current = token();
+        when(refreshTokenRepository.revokeIfActive(eq(current.getId()), any())).thenReturn(0);
+        when(refreshTokenRepository.revokeFamily(eq(current.getFamilyId()), any())).thenReturn(3);
+
+        Optional<RefreshToken> successor = store.rotate(current);
+
+        assertThat(successor).isEmpty();
+        verify(refreshTokenRepository).revokeFamily(eq(current.getFamilyId()), any());
+        verify(refreshTokenRepository, never()).save(any());
+        verify(jwtTokenProvider, never()).generateRefreshToken(any());
+    }
+
+    @Test
+    @DisplayName("Should report whether a revoked token was still active")
+    void shouldRevokeOnce() {
+        RefreshToken token = token();
+        when(refreshTokenRepository.revokeIfActive(eq(token.getId()), any())).thenReturn(1, 0);
+
+        assertThat(store.revoke(token)).isTrue();
+        assertThat(store.revoke(token)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should issue a login's token in a new family and store only its hash")
+    void shouldIssueInNewFamily() {
+        RefreshToken first = store.issue(user, "agent", "10.0.0.1");
+        RefreshToken second = store.issue(user, "agent", "10.0.0.1");
+
+        assertThat(first.getFamilyId()).isNotNull().isNotEqualTo(second.getFamilyId());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenStore.hash("next-token"));
+    }
+
+    @Test
+    @DisplayName("Should delete expired tokens in batches until a batch comes back short")
+    void shouldCompactUntilShortBatch() {
+        when(jdbcTemplate.update(anyString(), any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(BATCH_SIZE, BATCH_SIZE, 7, BATCH_SIZE);
+
+        store.compact();
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(LocalDateTime.class), eq(BATCH_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should stop compacting without throwing when a batch fails")
+    void shouldStopCompactingOnFailure() {
+        when(jdbcTemplate.update(anyString(), any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(BATCH_SIZE)
+                .thenThrow(new QueryTimeoutException("lock timeout"));
+
+        store.compact();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(LocalDateTime.class), eq(BATCH_SIZE));
+        // The next run starts over
+        when(jdbcTemplate.update(anyString(), any(LocalDateTime.class), eq(BATCH_SIZE))).thenReturn(0);
+        store.compact();
+        verify(jdbcTemplate, times(3)).update(anyString(), any(LocalDateTime.class), eq(BATCH_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should hash tokens as lowercase hex SHA-256 of their UTF-8 bytes")
+    void shouldHashAsSha256Hex() throws Exception {
+        // The digest the database computes with encode(sha256(convert_to(token, 'UTF8')), 'hex')
+        assertThat(RefreshTokenStore.hash("abc"))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        String token = "tökén-ß";
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        assertThat(RefreshTokenStore.hash(token))
+                .isEqualTo(HexFormat.of().formatHex(digest))
+                .matches("[0-9a-f]{64}");
+    }
+
+    private RefreshToken token() {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .tokenHash(RefreshTokenStore.hash("current-token"))
+                .familyId(UUID.randomUUID())
+                .user(user)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .userAgent("agent")
+                .ipAddress("10.0.0.1")
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.contoso.roadinfra.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Propagates near-cache invalidations between instances over Redis pub/sub.
+ *
+ * Every write or eviction on a {@link TwoLevelCache} publishes one message
+ * {@code <instanceId>|<cacheName>|<key>} (an empty key means "clear"). Instances drop
+ * the matching L1 entry and read through to Redis on their next access. Messages from
+ * the publishing instance itself are ignored. Pub/sub is fire-and-forget, so a message
+ * missed during a reconnect leaves an L1 entry stale for at most its L1 TTL.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String DEFAULT_CHANNEL = "cache-invalidation";
+
+    private static final char SEPARATOR = '|';
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final String channel;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(RedisConnectionFactory connectionFactory, String channel) {
+        this.channel = channel;
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    void register(TwoLevelCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(cacheName, "");
+    }
+
+    public void start() {
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    public void stop() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            log.warn("Ignoring malformed cache invalidation message on {}: {}", channel, body);
+            return;
+        }
+        if (body.regionMatches(0, instanceId, 0, first) && first == instanceId.length()) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(body.substring(first + 1, second));
+        if (cache == null) {
+            return;
+        }
+        String key = body.substring(second + 1);
+        if (key.isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (RuntimeException e) {
+            // The L2 write already succeeded; peers converge when their L1 entry expires
+            log.warn("Could not publish invalidation for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
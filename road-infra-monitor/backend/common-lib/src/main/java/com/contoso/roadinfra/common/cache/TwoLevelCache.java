@@ -0,0 +1,273 @@
+package com.contoso.roadinfra.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * A Caffeine near cache (L1) in front of a Redis cache (L2).
+ *
+ * Reads are served from L1 when present and otherwise read through to Redis, filling
+ * L1 on the way back. Writes and evictions go to Redis first, then to L1, and are
+ * broadcast through the {@link CacheInvalidationBus} so other instances drop their
+ * copy. Callers may modify what they get (entities, {@code @Data} DTOs) without
+ * affecting other callers: L1 keeps its own copy of each value and hands out a fresh
+ * one on every hit. Immutable values (strings, numbers, enums, UUIDs, java.time
+ * values) are shared as they are, types with a registered copier and lists of them
+ * are copied with it, and anything else is kept in its Redis serialized form and
+ * deserialized on each hit.
+ *
+ * A read that misses L1 only fills it if no invalidation reached this cache while the
+ * value was being read from Redis or loaded; otherwise a peer's eviction arriving
+ * between the Redis read and the L1 fill would leave the old value in L1 until its
+ * TTL. The check is per cache rather than per key, so an invalidation of one key only
+ * costs concurrent fills of other keys their L1 copy.
+ *
+ * L1 is keyed by {@code String.valueOf(key)} so that invalidations can be matched
+ * across instances; keys of one cache must therefore have distinct string forms,
+ * which holds for the UUID, String and {@code SimpleKey} keys used by the services.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigDecimal.class, BigInteger.class, UUID.class);
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final RedisCache remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisSerializationContext.SerializationPair<Object> serializer;
+    private final Map<Class<?>, UnaryOperator<Object>> copiers;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Timer loadTimer;
+
+    TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                  RedisCache remote, CacheInvalidationBus invalidationBus,
+                  Map<Class<?>, UnaryOperator<Object>> copiers, MeterRegistry meterRegistry) {
+        super(remote.getCacheConfiguration().getAllowCacheNullValues());
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.serializer = remote.getCacheConfiguration().getValueSerializationPair();
+        this.copiers = copiers;
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, local, name, "level", "l1");
+            this.remoteHits = Counter.builder("cache.l2.gets").tag("cache", name).tag("result", "hit")
+                    .description("Near-cache misses served by Redis").register(meterRegistry);
+            this.remoteMisses = Counter.builder("cache.l2.gets").tag("cache", name).tag("result", "miss")
+                    .description("Near-cache misses not found in Redis either").register(meterRegistry);
+            this.loadTimer = Timer.builder("cache.load").tag("cache", name)
+                    .description("Time spent computing values missing from both levels").register(meterRegistry);
+        } else {
+            this.remoteHits = null;
+            this.remoteMisses = null;
+            this.loadTimer = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object stored = local.getIfPresent(localKey);
+        if (stored != null) {
+            return fromLocal(stored);
+        }
+
+        long generation = invalidations.get();
+        Cache.ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            increment(remoteMisses);
+            return null;
+        }
+        increment(remoteHits);
+        stored = toStoreValue(wrapper.get());
+        putLocal(localKey, stored, generation);
+        return stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Cache.ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        long generation = invalidations.get();
+        // RedisCache serialises loaders per cache, so concurrent misses load once
+        T value = remote.get(key, loadTimer != null ? () -> loadTimer.recordCallable(valueLoader) : valueLoader);
+        putLocal(localKey(key), toStoreValue(value), generation);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long generation = invalidations.get();
+        remote.put(key, value);
+        String localKey = localKey(key);
+        putLocal(localKey, toStoreValue(value), generation);
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        if (existing == null) {
+            invalidationBus.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        invalidationBus.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidationBus.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearLocal();
+        invalidationBus.publishClear(name);
+        return invalidated;
+    }
+
+    void evictLocal(String localKey) {
+        invalidations.incrementAndGet();
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        invalidations.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    /**
+     * Store a value read or written while {@link #invalidations} was at {@code generation},
+     * unless an invalidation has happened since. Evictions bump the counter before
+     * removing the entry, so checking it under the entry's lock cannot miss one.
+     */
+    private void putLocal(String localKey, Object storeValue, long generation) {
+        Object stored = toLocal(storeValue);
+        local.asMap().compute(localKey, (k, current) ->
+                invalidations.get() == generation ? stored : current);
+    }
+
+    private Object toLocal(Object storeValue) {
+        if (storeValue == NullValue.INSTANCE) {
+            return NullValue.INSTANCE;
+        }
+        UnaryOperator<Object> copier = copierFor(storeValue);
+        // Copied on the way in as well, so a caller changing the value it put has no effect
+        return copier != null
+                ? new LocalValue(copier.apply(storeValue), copier)
+                : ByteUtils.getBytes(serializer.write(storeValue));
+    }
+
+    private Object fromLocal(Object stored) {
+        if (stored instanceof LocalValue value) {
+            return value.copier().apply(value.value());
+        }
+        return stored instanceof byte[] bytes ? serializer.read(ByteBuffer.wrap(bytes)) : stored;
+    }
+
+    /**
+     * How to copy a value for L1, or null if it has to go through the serializer.
+     */
+    private UnaryOperator<Object> copierFor(Object value) {
+        if (IMMUTABLE_TYPES.contains(value.getClass()) || value instanceof Enum<?>
+                || value.getClass().getPackageName().equals("java.time")) {
+            return UnaryOperator.identity();
+        }
+        UnaryOperator<Object> copier = copiers.get(value.getClass());
+        if (copier != null || !(value instanceof List<?> list)) {
+            return copier;
+        }
+        List<UnaryOperator<Object>> elementCopiers = new ArrayList<>(list.size());
+        for (Object element : list) {
+            UnaryOperator<Object> elementCopier = element == null ? UnaryOperator.identity() : copierFor(element);
+            if (elementCopier == null) {
+                return null;
+            }
+            elementCopiers.add(elementCopier);
+        }
+        return copy -> {
+            List<?> elements = (List<?>) copy;
+            List<Object> result = new ArrayList<>(elements.size());
+            for (int i = 0; i < elements.size(); i++) {
+                result.add(elementCopiers.get(i).apply(elements.get(i)));
+            }
+            return result;
+        };
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * An L1 copy of a value together with the copier that hands out copies of it.
+     */
+    private record LocalValue(Object value, UnaryOperator<Object> copier) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.contoso.roadinfra.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache manager producing {@link TwoLevelCache}s: a per-instance Caffeine near cache
+ * backed by a shared {@link RedisCacheManager}.
+ *
+ * Each cache has an L2 (Redis) configuration and an L1 size bound and TTL. The L1 TTL
+ * is never longer than the L2 TTL and bounds how long an instance can serve a value
+ * that another instance has changed if an invalidation message is lost. Clearing a
+ * cache uses SCAN rather than KEYS on Redis.
+ */
+public class TwoLevelCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, LocalSettings> localSettings;
+    private final LocalSettings defaultLocalSettings;
+    private final Map<Class<?>, UnaryOperator<Object>> localCopiers;
+    private final MeterRegistry meterRegistry;
+    private final boolean transactionAware;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private TwoLevelCacheManager(Builder builder) {
+        this.redisCacheManager = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(builder.connectionFactory,
+                        BatchStrategies.scan(1000)))
+                .cacheDefaults(builder.defaultRemote)
+                .withInitialCacheConfigurations(builder.remoteConfigurations)
+                .build();
+        this.redisCacheManager.initializeCaches();
+        this.invalidationBus = new CacheInvalidationBus(builder.connectionFactory, builder.channel);
+        this.localSettings = builder.localSettings;
+        this.defaultLocalSettings = new LocalSettings(builder.defaultLocalTtl, builder.defaultLocalMaximumSize);
+        this.localCopiers = Map.copyOf(builder.localCopiers);
+        this.meterRegistry = builder.meterRegistry;
+        this.transactionAware = builder.transactionAware;
+    }
+
+    public static Builder builder(RedisConnectionFactory connectionFactory) {
+        return new Builder(connectionFactory);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        invalidationBus.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        invalidationBus.stop();
+    }
+
+    private Cache createCache(String name) {
+        RedisCache remote = (RedisCache) redisCacheManager.getCache(name);
+        LocalSettings settings = localSettings.getOrDefault(name, defaultLocalSettings);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfterWrite(min(settings.ttl(), remote.getCacheConfiguration().getTtl()))
+                .recordStats()
+                .build();
+
+        TwoLevelCache cache = new TwoLevelCache(name, local, remote, invalidationBus, localCopiers, meterRegistry);
+        invalidationBus.register(cache);
+        return transactionAware ? new TransactionAwareCacheDecorator(cache) : cache;
+    }
+
+    private static Duration min(Duration local, Duration remote) {
+        // A zero Redis TTL means entries never expire
+        return remote.isZero() || local.compareTo(remote) <= 0 ? local : remote;
+    }
+
+    private record LocalSettings(Duration ttl, long maximumSize) {
+    }
+
+    public static class Builder {
+
+        private final RedisConnectionFactory connectionFactory;
+        private final Map<String, RedisCacheConfiguration> remoteConfigurations = new HashMap<>();
+        private final Map<String, LocalSettings> localSettings = new HashMap<>();
+        private final Map<Class<?>, UnaryOperator<Object>> localCopiers = new HashMap<>();
+        private RedisCacheConfiguration defaultRemote = RedisCacheConfiguration.defaultCacheConfig();
+        private Duration defaultLocalTtl = Duration.ofMinutes(1);
+        private long defaultLocalMaximumSize = 10_000;
+        private String channel = CacheInvalidationBus.DEFAULT_CHANNEL;
+        private MeterRegistry meterRegistry;
+        private boolean transactionAware;
+
+        private Builder(RedisConnectionFactory connectionFactory) {
+            this.connectionFactory = connectionFactory;
+        }
+
+        /**
+         * Redis configuration and L1 bounds for caches not configured individually.
+         */
+        public Builder cacheDefaults(RedisCacheConfiguration remote, Duration localTtl, long localMaximumSize) {
+            this.defaultRemote = remote;
+            this.defaultLocalTtl = localTtl;
+            this.defaultLocalMaximumSize = localMaximumSize;
+            return this;
+        }
+
+        /**
+         * Configure one cache with the default L1 bounds.
+         */
+        public Builder withCache(String name, RedisCacheConfiguration remote) {
+            remoteConfigurations.put(name, remote);
+            return this;
+        }
+
+        /**
+         * Configure one cache. The L1 TTL is capped at the Redis TTL.
+         */
+        public Builder withCache(String name, RedisCacheConfiguration remote, Duration localTtl,
+                                 long localMaximumSize) {
+            remoteConfigurations.put(name, remote);
+            localSettings.put(name, new LocalSettings(localTtl, localMaximumSize));
+            return this;
+        }
+
+        /**
+         * Copy values of exactly this type in L1 with {@code copier} instead of
+         * deserializing them on every hit. The copier must return an independent copy:
+         * nothing the caller can modify may be shared with the original.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder localCopier(Class<T> type, UnaryOperator<T> copier) {
+            localCopiers.put(type, value -> copier.apply((T) value));
+            return this;
+        }
+
+        /**
+         * Pub/sub channel for invalidations; services sharing a Redis use distinct channels.
+         */
+        public Builder invalidationChannel(String channel) {
+            this.channel = channel;
+            return this;
+        }
+
+        /**
+         * Register per-cache L1 and L2 hit/miss and load-time metrics; optional.
+         */
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Defer puts and evictions until the surrounding transaction commits.
+         */
+        public Builder transactionAware() {
+            this.transactionAware = true;
+            return this;
+        }
+
+        public TwoLevelCacheManager build() {
+            return new TwoLevelCacheManager(this);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.contoso.roadinfra.common.concurrent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Builds the executors and schedulers that services define themselves, on virtual
+ * threads when {@code spring.threads.virtual.enabled} is set and on platform thread
+ * pools otherwise.
+ *
+ * Spring Boot already moves Tomcat request handling, its default task executor and
+ * scheduler, and Kafka listener containers to virtual threads with that property; a
+ * service that declares its own executor or scheduler bean replaces Boot's, so it
+ * builds it here to follow the same switch.
+ */
+@Component
+public class TaskExecutors {
+
+    private final boolean virtualThreads;
+
+    public TaskExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Executor for {@code @Async} methods. On virtual threads each task gets its own
+     * thread; at most {@code maxPoolSize + queueCapacity} run at once, the same number
+     * of tasks the pool would accept, and further submitters wait instead of being
+     * rejected.
+     */
+    public AsyncTaskExecutor asyncExecutor(String threadNamePrefix, int corePoolSize, int maxPoolSize,
+                                           int queueCapacity, Duration awaitTermination) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxPoolSize + queueCapacity);
+            executor.setTaskTerminationTimeout(awaitTermination.toMillis());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds((int) awaitTermination.toSeconds());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Scheduler for {@code @Scheduled} methods. On virtual threads every run gets its
+     * own thread, so a slow job no longer delays the others; {@code poolSize} only
+     * applies to the platform pool.
+     */
+    public TaskScheduler scheduler(String threadNamePrefix, int poolSize, Duration awaitTermination) {
+        if (virtualThreads) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix(threadNamePrefix);
+            scheduler.setTaskTerminationTimeout(awaitTermination.toMillis());
+            return scheduler;
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds((int) awaitTermination.toSeconds());
+        return scheduler;
+    }
+}
@@ -0,0 +1,117 @@
+package com.contoso.roadinfra.common.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread.
+ *
+ * A virtual thread that blocks inside a {@code synchronized} block or method, for
+ * instance on a JDBC call, cannot unmount and holds its carrier for the whole wait;
+ * with enough of them every carrier is taken and the service stalls. This listens
+ * for the JDK's {@code jdk.VirtualThreadPinned} events longer than
+ * {@code threads.virtual.pinning-detection.threshold-ms}, counts them in the
+ * {@code jvm.threads.virtual.pinned} timer and logs the stack of each distinct
+ * pinning site once.
+ *
+ * Only active when virtual threads are enabled.
+ */
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.contoso.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${threads.virtual.pinning-detection.enabled:true}") boolean enabled,
+            @Value("${threads.virtual.pinning-detection.threshold-ms:20}") long thresholdMs) {
+        this.enabled = virtualThreads && enabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning detection enabled, threshold {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            report(event.getThread() != null ? event.getThread().getJavaName() : "?", event.getDuration(),
+                    stackTrace.getFrames().stream().map(VirtualThreadPinningMonitor::describe).toList());
+        }
+    }
+
+    /**
+     * Log a pinning the first time its site is seen.
+     *
+     * @param frames the pinned thread's stack, innermost frame first
+     * @return whether it was logged
+     */
+    boolean report(String thread, Duration duration, List<String> frames) {
+        String site = site(frames);
+        if (!reportedSites.add(site)) {
+            return false;
+        }
+        log.warn("Virtual thread {} pinned for {} ms at {}:\n\t{}", thread, duration.toMillis(), site,
+                String.join("\n\t", frames.subList(0, Math.min(frames.size(), LOGGED_FRAMES))));
+        return true;
+    }
+
+    /**
+     * The innermost application frame, or the innermost frame if the stack has none.
+     */
+    static String site(List<String> frames) {
+        return frames.stream()
+                .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElseGet(() -> frames.isEmpty() ? "unknown" : frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,75 @@
+package com.contoso.roadinfra.common.geo;
+
+/**
+ * A longitude/latitude bounding box in WGS84 degrees. Boxes crossing the antimeridian
+ * are not supported.
+ */
+public record GeoBounds(double minLon, double minLat, double maxLon, double maxLat) {
+
+    public GeoBounds {
+        if (!(minLon <= maxLon && minLat <= maxLat)) {
+            throw new IllegalArgumentException("Invalid bounding box: min must not exceed max");
+        }
+    }
+
+    public static GeoBounds ofPoint(double lon, double lat) {
+        return new GeoBounds(lon, lat, lon, lat);
+    }
+
+    public static GeoBounds of(double lon1, double lat1, double lon2, double lat2) {
+        return new GeoBounds(Math.min(lon1, lon2), Math.min(lat1, lat2), Math.max(lon1, lon2), Math.max(lat1, lat2));
+    }
+
+    /**
+     * The smallest box containing every point within {@code radiusMeters} of a point.
+     */
+    public static GeoBounds around(double lon, double lat, double radiusMeters) {
+        if (!(radiusMeters >= 0)) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        double angular = radiusMeters / GeoDistance.EARTH_RADIUS_METERS;
+        double dLat = Math.toDegrees(angular);
+        double minLat = lat - dLat;
+        double maxLat = lat + dLat;
+        if (minLat <= -90 || maxLat >= 90 || angular >= Math.PI / 2) {
+            // The circle contains a pole, so it spans every longitude
+            return new GeoBounds(-180, Math.max(minLat, -90), 180, Math.min(maxLat, 90));
+        }
+        double dLon = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(lat))));
+        return new GeoBounds(Math.max(lon - dLon, -180), minLat, Math.min(lon + dLon, 180), maxLat);
+    }
+
+    /**
+     * Parse a {@code minLon,minLat,maxLon,maxLat} query parameter, the GeoJSON bbox order.
+     */
+    public static GeoBounds parse(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            return new GeoBounds(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must contain four numbers");
+        }
+    }
+
+    public boolean intersects(GeoBounds other) {
+        return minLon <= other.maxLon && other.minLon <= maxLon
+                && minLat <= other.maxLat && other.minLat <= maxLat;
+    }
+
+    public GeoBounds union(GeoBounds other) {
+        return new GeoBounds(Math.min(minLon, other.minLon), Math.min(minLat, other.minLat),
+                Math.max(maxLon, other.maxLon), Math.max(maxLat, other.maxLat));
+    }
+
+    public double centerLon() {
+        return (minLon + maxLon) / 2;
+    }
+
+    public double centerLat() {
+        return (minLat + maxLat) / 2;
+    }
+}
@@ -0,0 +1,40 @@
+package com.contoso.roadinfra.common.geo;
+
+/**
+ * Great-circle distances on a spherical Earth.
+ */
+public final class GeoDistance {
+
+    /** Mean Earth radius (IUGG). */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Haversine distance between two points, in meters.
+     */
+    public static double meters(double lon1, double lat1, double lon2, double lat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Distance from a point to the nearest point of a box, in meters; zero inside it.
+     *
+     * The nearest point is taken by clamping the coordinates to the box, which is exact
+     * for points and, for boxes a few kilometres across, accurate to well under a metre.
+     */
+    public static double meters(double lon, double lat, GeoBounds bounds) {
+        double nearestLon = Math.max(bounds.minLon(), Math.min(lon, bounds.maxLon()));
+        double nearestLat = Math.max(bounds.minLat(), Math.min(lat, bounds.maxLat()));
+        if (nearestLon == lon && nearestLat == lat) {
+            return 0;
+        }
+        return meters(lon, lat, nearestLon, nearestLat);
+    }
+}
@@ -0,0 +1,87 @@
+package com.contoso.roadinfra.common.geo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link SpatialIndex} answered by PostGIS from a GiST expression index, for
+ * deployments with too many entities to keep in memory.
+ *
+ * The geometry is an SQL expression over the table's coordinate columns, so no schema
+ * change is needed beyond the index itself, which {@link #createIndex} adds. Box
+ * queries use the index directly, radius queries prefilter with it before the exact
+ * geodesic test, and nearest-neighbour queries order by the indexed {@code <->}
+ * operator. The table, column and expression are trusted configuration, not user input.
+ */
+public class PostgisSpatialIndex implements SpatialIndex<UUID> {
+
+    private static final String POINT = "ST_SetSRID(ST_MakePoint(?, ?), 4326)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String idColumn;
+    private final String geometry;
+
+    /**
+     * @param geometry SQL expression yielding an SRID 4326 geometry, built only from
+     *                 immutable functions so that it can be indexed
+     */
+    public PostgisSpatialIndex(JdbcTemplate jdbcTemplate, String table, String idColumn, String geometry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.idColumn = idColumn;
+        this.geometry = geometry;
+    }
+
+    /**
+     * Enable PostGIS and create the GiST index on the geometry expression if missing.
+     */
+    public void createIndex(String indexName) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS postgis");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table
+                + " USING GIST ((" + geometry + "))");
+    }
+
+    @Override
+    public List<UUID> within(GeoBounds bounds) {
+        return jdbcTemplate.queryForList(
+                "SELECT " + idColumn + " FROM " + table
+                        + " WHERE (" + geometry + ") && ST_MakeEnvelope(?, ?, ?, ?, 4326)",
+                UUID.class, bounds.minLon(), bounds.minLat(), bounds.maxLon(), bounds.maxLat());
+    }
+
+    @Override
+    public List<Neighbor<UUID>> withinRadius(double lon, double lat, double radiusMeters) {
+        GeoBounds box = GeoBounds.around(lon, lat, radiusMeters);
+        return jdbcTemplate.query(
+                "SELECT " + idColumn + ", ST_Distance((" + geometry + ")::geography, " + POINT + "::geography) AS d"
+                        + " FROM " + table
+                        + " WHERE (" + geometry + ") && ST_MakeEnvelope(?, ?, ?, ?, 4326)"
+                        + " AND ST_DWithin((" + geometry + ")::geography, " + POINT + "::geography, ?)"
+                        + " ORDER BY d",
+                (rs, row) -> new Neighbor<>(rs.getObject(1, UUID.class), rs.getDouble(2)),
+                lon, lat, box.minLon(), box.minLat(), box.maxLon(), box.maxLat(), lon, lat, radiusMeters);
+    }
+
+    /**
+     * Candidates are ordered by planar distance in degrees, which the index supports, and
+     * then by geodesic distance; over a corridor-sized area the two orders agree.
+     */
+    @Override
+    public List<Neighbor<UUID>> nearest(double lon, double lat, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return jdbcTemplate.query(
+                "SELECT id, d FROM ("
+                        + "SELECT " + idColumn + " AS id, ST_Distance((" + geometry + ")::geography, "
+                        + POINT + "::geography) AS d FROM " + table
+                        + " WHERE (" + geometry + ") IS NOT NULL"
+                        + " ORDER BY (" + geometry + ") <-> " + POINT + " LIMIT ?"
+                        + ") nearest ORDER BY d",
+                (rs, row) -> new Neighbor<>(rs.getObject(1, UUID.class), rs.getDouble(2)),
+                lon, lat, lon, lat, limit);
+    }
+}
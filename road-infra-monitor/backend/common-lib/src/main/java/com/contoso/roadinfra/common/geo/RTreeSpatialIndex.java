@@ -0,0 +1,133 @@
+package com.contoso.roadinfra.common.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory {@link SpatialIndex} backed by an STR-packed R-tree.
+ *
+ * The packed tree is immutable. Changes since it was built are held in a small delta:
+ * entries added or moved, and tree entries that are stale. Queries combine the tree,
+ * filtered by the stale set, with a scan of the delta. Once the delta exceeds the
+ * rebuild threshold the tree is repacked from all entries. Each change publishes a new
+ * immutable state, so queries never lock and always see a consistent snapshot.
+ */
+public class RTreeSpatialIndex<K> implements SpatialIndex<K> {
+
+    private final int rebuildThreshold;
+    private final Map<K, GeoBounds> entries = new HashMap<>();
+    private volatile State<K> state = new State<>(StrTree.build(Map.of()), Map.of(), Set.of());
+
+    public RTreeSpatialIndex(int rebuildThreshold) {
+        if (rebuildThreshold < 1) {
+            throw new IllegalArgumentException("Rebuild threshold must be positive");
+        }
+        this.rebuildThreshold = rebuildThreshold;
+    }
+
+    /**
+     * Add an entry or move an existing one.
+     */
+    public synchronized void put(K key, GeoBounds bounds) {
+        if (bounds.equals(entries.put(key, bounds))) {
+            return;
+        }
+        State<K> current = state;
+        Map<K, GeoBounds> pending = new HashMap<>(current.pending);
+        pending.put(key, bounds);
+        publish(current.tree, pending, current.stale, key);
+    }
+
+    public synchronized void remove(K key) {
+        if (entries.remove(key) == null) {
+            return;
+        }
+        State<K> current = state;
+        Map<K, GeoBounds> pending = current.pending;
+        if (pending.containsKey(key)) {
+            pending = new HashMap<>(pending);
+            pending.remove(key);
+        }
+        publish(current.tree, pending, current.stale, key);
+    }
+
+    /**
+     * Replace every entry and repack the tree, e.g. after loading from the database.
+     */
+    public synchronized void replaceAll(Map<K, GeoBounds> replacement) {
+        entries.clear();
+        entries.putAll(replacement);
+        state = new State<>(StrTree.build(entries), Map.of(), Set.of());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public List<K> within(GeoBounds bounds) {
+        State<K> current = state;
+        List<K> result = new ArrayList<>();
+        current.tree.search(bounds, key -> {
+            if (!current.stale.contains(key)) {
+                result.add(key);
+            }
+        });
+        current.pending.forEach((key, entryBounds) -> {
+            if (entryBounds.intersects(bounds)) {
+                result.add(key);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Neighbor<K>> withinRadius(double lon, double lat, double radiusMeters) {
+        return search(lon, lat, Integer.MAX_VALUE, radiusMeters);
+    }
+
+    @Override
+    public List<Neighbor<K>> nearest(double lon, double lat, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return search(lon, lat, limit, Double.POSITIVE_INFINITY);
+    }
+
+    private List<Neighbor<K>> search(double lon, double lat, int limit, double maxMeters) {
+        State<K> current = state;
+        List<Neighbor<K>> result = current.tree.nearest(lon, lat, limit, maxMeters,
+                key -> !current.stale.contains(key));
+        current.pending.forEach((key, bounds) -> {
+            double distance = GeoDistance.meters(lon, lat, bounds);
+            if (distance <= maxMeters) {
+                result.add(new Neighbor<>(key, distance));
+            }
+        });
+        result.sort(Comparator.comparingDouble(Neighbor::distanceMeters));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private void publish(StrTree<K> tree, Map<K, GeoBounds> pending, Set<K> stale, K changedKey) {
+        // Any change supersedes the key's tree entry; new keys are marked too, which is
+        // harmless and avoids a tree lookup
+        Set<K> newStale = stale;
+        if (!stale.contains(changedKey)) {
+            newStale = new HashSet<>(stale);
+            newStale.add(changedKey);
+        }
+        if (pending.size() + newStale.size() > rebuildThreshold) {
+            state = new State<>(StrTree.build(entries), Map.of(), Set.of());
+        } else {
+            state = new State<>(tree, pending, newStale);
+        }
+    }
+
+    private record State<K>(StrTree<K> tree, Map<K, GeoBounds> pending, Set<K> stale) {
+    }
+}
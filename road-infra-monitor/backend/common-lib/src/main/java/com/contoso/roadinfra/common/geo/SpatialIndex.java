@@ -0,0 +1,35 @@
+package com.contoso.roadinfra.common.geo;
+
+import java.util.List;
+
+/**
+ * Spatial lookups of entities by key.
+ *
+ * Entities are indexed by the bounding box of their geometry, so a linear asset is
+ * found by any box or radius touching the box around its start and end points.
+ *
+ * @param <K> entity key, usually its ID
+ */
+public interface SpatialIndex<K> {
+
+    /**
+     * Keys of entities intersecting {@code bounds}, in no particular order.
+     */
+    List<K> within(GeoBounds bounds);
+
+    /**
+     * Entities within {@code radiusMeters} of a point, nearest first.
+     */
+    List<Neighbor<K>> withinRadius(double lon, double lat, double radiusMeters);
+
+    /**
+     * The {@code limit} entities nearest to a point, nearest first.
+     */
+    List<Neighbor<K>> nearest(double lon, double lat, int limit);
+
+    /**
+     * An entity and its distance from the query point.
+     */
+    record Neighbor<K>(K key, double distanceMeters) {
+    }
+}
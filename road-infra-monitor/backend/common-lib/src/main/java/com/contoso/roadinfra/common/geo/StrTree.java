@@ -0,0 +1,139 @@
+package com.contoso.roadinfra.common.geo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Immutable R-tree bulk-loaded with Sort-Tile-Recursive packing.
+ *
+ * STR sorts the entries by longitude into vertical slices and each slice by latitude,
+ * then fills nodes to capacity, which gives nearly full nodes with little overlap.
+ * The tree is rebuilt rather than updated; see {@link RTreeSpatialIndex}.
+ */
+final class StrTree<K> {
+
+    static final int NODE_CAPACITY = 16;
+
+    private final Node root;
+    private final int size;
+
+    private StrTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static <K> StrTree<K> build(Map<K, GeoBounds> entries) {
+        if (entries.isEmpty()) {
+            return new StrTree<>(null, 0);
+        }
+        List<Node> level = new ArrayList<>(entries.size());
+        entries.forEach((key, bounds) -> level.add(new Node(bounds, key, null)));
+        List<Node> nodes = level;
+        do {
+            nodes = pack(nodes);
+        } while (nodes.size() > 1);
+        return new StrTree<>(nodes.get(0), entries.size());
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Visit the keys of all entries intersecting {@code query}.
+     */
+    @SuppressWarnings("unchecked")
+    void search(GeoBounds query, Consumer<K> action) {
+        if (root == null) {
+            return;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!node.bounds.intersects(query)) {
+                continue;
+            }
+            if (node.children == null) {
+                action.accept((K) node.key);
+            } else {
+                for (Node child : node.children) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Best-first search: entries accepted by {@code filter}, nearest first, until
+     * {@code limit} are found or none remain closer than {@code maxMeters}.
+     */
+    @SuppressWarnings("unchecked")
+    List<SpatialIndex.Neighbor<K>> nearest(double lon, double lat, int limit, double maxMeters,
+                                           Predicate<K> filter) {
+        List<SpatialIndex.Neighbor<K>> result = new ArrayList<>(Math.min(limit, size));
+        if (root == null || limit <= 0) {
+            return result;
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        queue.add(new Candidate(root, GeoDistance.meters(lon, lat, root.bounds)));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.distance > maxMeters) {
+                break;
+            }
+            Node node = candidate.node;
+            if (node.children == null) {
+                if (filter.test((K) node.key)) {
+                    result.add(new SpatialIndex.Neighbor<>((K) node.key, candidate.distance));
+                }
+            } else {
+                for (Node child : node.children) {
+                    queue.add(new Candidate(child, GeoDistance.meters(lon, lat, child.bounds)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Node> pack(List<Node> items) {
+        int nodeCount = (items.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        List<Node> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingDouble(node -> node.bounds.centerLon()));
+
+        List<Node> parents = new ArrayList<>(nodeCount);
+        for (int sliceStart = 0; sliceStart < sorted.size(); sliceStart += sliceSize) {
+            List<Node> slice = new ArrayList<>(sorted.subList(sliceStart, Math.min(sliceStart + sliceSize, sorted.size())));
+            slice.sort(Comparator.comparingDouble(node -> node.bounds.centerLat()));
+            for (int start = 0; start < slice.size(); start += NODE_CAPACITY) {
+                Node[] children = slice.subList(start, Math.min(start + NODE_CAPACITY, slice.size())).toArray(new Node[0]);
+                parents.add(new Node(union(children), null, children));
+            }
+        }
+        return parents;
+    }
+
+    private static GeoBounds union(Node[] nodes) {
+        GeoBounds result = nodes[0].bounds;
+        for (int i = 1; i < nodes.length; i++) {
+            result = result.union(nodes[i].bounds);
+        }
+        return result;
+    }
+
+    private record Node(GeoBounds bounds, Object key, Node[] children) {
+    }
+
+    private record Candidate(Node node, double distance) {
+    }
+}
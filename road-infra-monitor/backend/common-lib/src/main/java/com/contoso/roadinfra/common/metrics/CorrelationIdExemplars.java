@@ -0,0 +1,44 @@
+package com.contoso.roadinfra.common.metrics;
+
+import com.contoso.roadinfra.common.util.CorrelationIdFilter;
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+/**
+ * Supplies the current request's correlation ID as the exemplar of Prometheus
+ * histogram buckets and counters, so a slow bucket links to the logs of a request that
+ * landed in it.
+ *
+ * Spring Boot builds the registry's exemplar sampler from this bean. There is no
+ * tracer, so the correlation ID set by {@link CorrelationIdFilter} serves as both trace
+ * and span ID. Work outside a request, such as Kafka consumers and scheduled jobs,
+ * has no correlation ID and records no exemplar. Exemplars are only exposed in the
+ * OpenMetrics format.
+ */
+@Component
+public class CorrelationIdExemplars implements SpanContextSupplier {
+
+    // Exemplar labels may total 128 characters; longer client-supplied IDs are skipped
+    private static final int MAX_ID_LENGTH = 48;
+
+    @Override
+    public String getTraceId() {
+        return correlationId();
+    }
+
+    @Override
+    public String getSpanId() {
+        return correlationId();
+    }
+
+    @Override
+    public boolean isSampled() {
+        return correlationId() != null;
+    }
+
+    private static String correlationId() {
+        String correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY);
+        return correlationId != null && correlationId.length() <= MAX_ID_LENGTH ? correlationId : null;
+    }
+}
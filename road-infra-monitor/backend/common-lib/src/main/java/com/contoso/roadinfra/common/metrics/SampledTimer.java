@@ -0,0 +1,58 @@
+package com.contoso.roadinfra.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times a random sample of calls and counts all of them.
+ *
+ * An untimed call costs a counter increment and a random number; it reads no clock and
+ * allocates nothing. Call {@link #stop} only when the timed code completed normally.
+ *
+ * <pre>
+ * {@code
+ * long start = timer.start();
+ * ... evaluate the reading ...
+ * timer.stop(start);
+ * }
+ * </pre>
+ */
+public final class SampledTimer {
+
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final Timer timer;
+    private final LongAdder invocations;
+    private final int sampleMask;
+
+    SampledTimer(Timer timer, LongAdder invocations, int sampleEvery) {
+        this.timer = timer;
+        this.invocations = invocations;
+        // Rounded up to a power of two so that sampling is a mask test
+        this.sampleMask = sampleEvery <= 1 ? 0 : Integer.highestOneBit(sampleEvery - 1) * 2 - 1;
+    }
+
+    /**
+     * One call in this many is timed.
+     */
+    int sampleEvery() {
+        return sampleMask + 1;
+    }
+
+    public long start() {
+        invocations.increment();
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    public void stop(long start) {
+        if (start != NOT_SAMPLED) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
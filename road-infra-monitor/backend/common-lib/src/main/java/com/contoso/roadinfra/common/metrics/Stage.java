@@ -0,0 +1,34 @@
+package com.contoso.roadinfra.common.metrics;
+
+import java.util.Locale;
+
+/**
+ * Stages a sensor reading passes through, each with one standard timer name, so
+ * dashboards can follow a reading from ingest to notification across services.
+ */
+public enum Stage {
+
+    /** Readings accepted by the sensor API. */
+    INGEST,
+    /** Events written to Kafka. */
+    PUBLISH,
+    /** Events read from Kafka. */
+    CONSUME,
+    /** Anomaly and health scoring. */
+    SCORE,
+    /** Alert rule evaluation and raising. */
+    ALERT,
+    /** Notifications sent for alerts. */
+    NOTIFY;
+
+    private final String meterName = "pipeline." + name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Name of the stage's timer, e.g. {@code pipeline.ingest}. Timers carry an
+     * {@code operation} tag and, when recorded by {@link StageTimed}, an
+     * {@code outcome} tag.
+     */
+    public String meterName() {
+        return meterName;
+    }
+}
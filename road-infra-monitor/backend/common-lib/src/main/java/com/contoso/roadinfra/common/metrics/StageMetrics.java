@@ -0,0 +1,73 @@
+package com.contoso.roadinfra.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registers the pipeline stage timers under their standard names.
+ *
+ * Timers publish a percentile histogram unless {@code metrics.stages.percentile-histogram}
+ * is off, so p50/p99 can be aggregated across instances in Prometheus; with a
+ * {@link CorrelationIdExemplars} supplier their buckets carry the correlation ID of a
+ * recent request as an exemplar.
+ */
+@Component
+public class StageMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean percentileHistogram;
+    private final int sampleEvery;
+
+    public StageMetrics(MeterRegistry meterRegistry,
+                        @Value("${metrics.stages.percentile-histogram:true}") boolean percentileHistogram,
+                        @Value("${metrics.stages.low-overhead.sample-every:64}") int sampleEvery) {
+        this.meterRegistry = meterRegistry;
+        this.percentileHistogram = percentileHistogram;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * The timer of one operation and outcome of a stage. Registration is idempotent but
+     * not free; callers on a hot path keep the returned timer.
+     */
+    public Timer timer(Stage stage, String operation, String outcome) {
+        return Timer.builder(stage.meterName())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(percentileHistogram)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    /**
+     * A timer for code run per reading, where timing every call would cost more than
+     * the code itself. It times one call in {@code metrics.stages.low-overhead.sample-every}
+     * and only counts the others in {@code <stage>.invocations}; its histogram starts at
+     * one microsecond.
+     */
+    public SampledTimer sampledTimer(Stage stage, String operation) {
+        Timer timer = Timer.builder(stage.meterName())
+                .tag("operation", operation)
+                .tag("outcome", SUCCESS)
+                .publishPercentileHistogram(percentileHistogram)
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(meterRegistry);
+        LongAdder invocations = new LongAdder();
+        FunctionCounter.builder(stage.meterName() + ".invocations", invocations, LongAdder::sum)
+                .tag("operation", operation)
+                .description("All calls, including those not timed")
+                .register(meterRegistry);
+        return new SampledTimer(timer, invocations, sampleEvery);
+    }
+}
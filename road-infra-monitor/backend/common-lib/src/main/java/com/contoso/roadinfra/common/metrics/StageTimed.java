@@ -0,0 +1,35 @@
+package com.contoso.roadinfra.common.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times a method as one operation of a pipeline stage.
+ *
+ * Processed by {@link StageTimedAspect}, which records the call in the stage's timer
+ * with {@code outcome} {@code success} or {@code error}. For loops run per reading,
+ * where even that is too much, use {@link StageMetrics#sampledTimer} instead.
+ *
+ * Usage:
+ * <pre>
+ * {@code
+ * @StageTimed(stage = Stage.INGEST, operation = "batch")
+ * public List<SensorReadingResponse> batchIngestReadings(BatchReadingRequest request) { ... }
+ * }
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StageTimed {
+
+    Stage stage();
+
+    /**
+     * Value of the {@code operation} tag, naming what within the stage is timed.
+     */
+    String operation();
+}
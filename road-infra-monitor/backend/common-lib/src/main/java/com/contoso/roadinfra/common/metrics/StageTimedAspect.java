@@ -0,0 +1,53 @@
+package com.contoso.roadinfra.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect that records methods annotated with @StageTimed in their stage's timer.
+ * The timers of each method are looked up once and kept.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class StageTimedAspect {
+
+    private final StageMetrics stageMetrics;
+    private final Map<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.contoso.roadinfra.common.metrics.StageTimed)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timers methodTimers = timers.computeIfAbsent(method, this::timersFor);
+
+        long start = System.nanoTime();
+        Timer timer = methodTimers.error();
+        try {
+            Object result = joinPoint.proceed();
+            timer = methodTimers.success();
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timers timersFor(Method method) {
+        StageTimed annotation = method.getAnnotation(StageTimed.class);
+        return new Timers(
+                stageMetrics.timer(annotation.stage(), annotation.operation(), StageMetrics.SUCCESS),
+                stageMetrics.timer(annotation.stage(), annotation.operation(), StageMetrics.ERROR));
+    }
+
+    private record Timers(Timer success, Timer error) {
+    }
+}
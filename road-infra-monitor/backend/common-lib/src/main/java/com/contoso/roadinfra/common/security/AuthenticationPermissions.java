@@ -0,0 +1,123 @@
+package com.contoso.roadinfra.common.security;
+
+import com.contoso.roadinfra.common.constants.Role;
+import com.contoso.roadinfra.common.security.JwtClaimsAuthenticationFilter.JwtUserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves the permission bitmasks of an authentication once and remembers them, so
+ * repeated permission checks on the same request are bitwise ANDs.
+ *
+ * Principals issued by {@link JwtClaimsAuthenticationFilter} carry their permissions;
+ * for any other principal the masks are computed from its authorities and cached by the
+ * principal's identity. Resource servers share one decoded {@code Jwt} per token (see
+ * {@link CachingJwtDecoder}), so for them the masks are computed once per token.
+ */
+public final class AuthenticationPermissions {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String PERMISSION_PREFIX = "PERM_";
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    private static final Cache<Object, PermissionSet> GRANTED = newCache();
+    private static final Function<Authentication, PermissionSet> FROM_ROLES =
+            rolePermissions(authentication -> roles(authentication.getAuthorities()));
+
+    private AuthenticationPermissions() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Permissions granted explicitly through {@code PERM_} authorities.
+     */
+    public static PermissionSet granted(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return PermissionSet.EMPTY;
+        }
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal && principal.getPermissions() != null) {
+            return principal.getPermissions();
+        }
+        return GRANTED.get(cacheKey(authentication),
+                key -> fromPermissionAuthorities(authentication.getAuthorities()));
+    }
+
+    /**
+     * Permissions of the authentication's roles according to {@link RolePermissionMapping},
+     * with roles read from {@code ROLE_} authorities.
+     */
+    public static PermissionSet fromRoles(Authentication authentication) {
+        return FROM_ROLES.apply(authentication);
+    }
+
+    /**
+     * A resolver for the permissions of an authentication's roles, with roles read by
+     * {@code roleExtractor}. Each resolver caches what its own extractor returned, so
+     * create one per extractor and keep it.
+     */
+    public static Function<Authentication, PermissionSet> rolePermissions(
+            Function<Authentication, Collection<Role>> roleExtractor) {
+        Cache<Object, PermissionSet> cache = newCache();
+        return authentication -> {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return PermissionSet.EMPTY;
+            }
+            return cache.get(cacheKey(authentication),
+                    key -> RolePermissionMapping.getPermissionSet(roleExtractor.apply(authentication)));
+        };
+    }
+
+    /**
+     * Roles named by {@code ROLE_} authorities, ignoring unknown role names.
+     */
+    public static Set<Role> roles(Collection<? extends GrantedAuthority> authorities) {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                try {
+                    roles.add(Role.valueOf(name.substring(ROLE_PREFIX.length()).toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    // Not one of our roles
+                }
+            }
+        }
+        return roles;
+    }
+
+    private static PermissionSet fromPermissionAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        long bits = 0L;
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(PERMISSION_PREFIX)) {
+                bits |= PermissionSet.bit(name.substring(PERMISSION_PREFIX.length()));
+            }
+        }
+        return PermissionSet.of(bits);
+    }
+
+    /**
+     * Cache by principal when it is an object of its own, so every authentication built
+     * for a shared principal reuses the entry. A string principal is only a username,
+     * so the authentication itself is used instead.
+     */
+    private static Object cacheKey(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        return principal == null || principal instanceof String ? authentication : principal;
+    }
+
+    private static Cache<Object, PermissionSet> newCache() {
+        // Weak keys compare by identity and let entries go with their principal
+        return Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(MAXIMUM_SIZE)
+                .build();
+    }
+}
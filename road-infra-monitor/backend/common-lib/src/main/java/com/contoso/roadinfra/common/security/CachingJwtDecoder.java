@@ -0,0 +1,32 @@
+package com.contoso.roadinfra.common.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} for OAuth2 resource servers that remembers decoded tokens until they
+ * expire, so a token's signature and claims are validated once rather than per request.
+ *
+ * Only tokens the delegate accepted are cached; a token that fails decoding is tried
+ * again on its next use.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final VerifiedTokenCache<Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate) {
+        this(delegate, new VerifiedTokenCache<>());
+    }
+
+    public CachingJwtDecoder(JwtDecoder delegate, VerifiedTokenCache<Jwt> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return cache.get(token, delegate::decode, Jwt::getExpiresAt);
+    }
+}
@@ -0,0 +1,66 @@
+package com.contoso.roadinfra.common.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned authority lists for the role and permissions claims of a token.
+ *
+ * Users share a handful of role and permission combinations, so each combination is
+ * mapped to an immutable list once and the same list is handed to every token carrying
+ * it. Past {@link #MAX_INTERNED} combinations new ones are built without being kept.
+ */
+public final class GrantedAuthorities {
+
+    static final int MAX_INTERNED = 1024;
+
+    private static final Map<Key, List<GrantedAuthority>> INTERNED = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    /**
+     * Authorities for a role and comma-separated permissions: {@code ROLE_<role>} followed
+     * by {@code PERM_<permission>} for each permission.
+     */
+    public static List<GrantedAuthority> of(String role, String permissions) {
+        Key key = new Key(role, permissions);
+        List<GrantedAuthority> authorities = INTERNED.get(key);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = build(role, permissions);
+        if (INTERNED.size() < MAX_INTERNED) {
+            List<GrantedAuthority> existing = INTERNED.putIfAbsent(key, authorities);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> build(String role, String permissions) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (StringUtils.hasText(role)) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        if (StringUtils.hasText(permissions)) {
+            for (String permission : permissions.split(",")) {
+                String trimmed = permission.trim();
+                if (!trimmed.isEmpty()) {
+                    authorities.add(new SimpleGrantedAuthority("PERM_" + trimmed));
+                }
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private record Key(String role, String permissions) {
+    }
+}
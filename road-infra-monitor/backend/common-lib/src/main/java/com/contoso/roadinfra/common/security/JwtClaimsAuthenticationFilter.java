@@ -1,31 +1,20 @@
 package com.contoso.roadinfra.common.security;
 
-import com.contoso.roadinfra.common.constants.Permission;
-import com.contoso.roadinfra.common.constants.Role;
-import io.jsonwebtoken.Claims;
+import com.contoso.roadinfra.common.util.PathPatternSet;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -46,31 +35,35 @@ import java.util.UUID;
  * Authority format in SecurityContext:
  * - ROLE_ADMIN, ROLE_ENGINEER, etc. for roles
  * - PERM_SENSOR_READ, PERM_ALERT_WRITE, etc. for permissions
+ *
+ * Tokens are verified through a {@link JwtVerifier}, which caches each verified token
+ * until it expires, so repeated requests with the same token skip signature checks.
  */
 @Slf4j
 public class JwtClaimsAuthenticationFilter extends OncePerRequestFilter {
 
-    private final String jwtSecret;
-    private final List<String> excludedPaths;
+    private static final List<String> DEFAULT_EXCLUDED_PATHS =
+            List.of("/api/v1/auth/login", "/api/v1/auth/refresh", "/actuator/**", "/swagger-ui/**", "/api-docs/**");
+
+    private final JwtVerifier jwtVerifier;
+    private final PathPatternSet excludedPaths;
 
     public JwtClaimsAuthenticationFilter(String jwtSecret) {
-        this(jwtSecret, List.of("/api/v1/auth/login", "/api/v1/auth/refresh", "/actuator/**", "/swagger-ui/**", "/api-docs/**"));
+        this(jwtSecret, DEFAULT_EXCLUDED_PATHS);
     }
 
     public JwtClaimsAuthenticationFilter(String jwtSecret, List<String> excludedPaths) {
-        this.jwtSecret = jwtSecret;
-        this.excludedPaths = excludedPaths;
+        this(new JwtVerifier(jwtSecret), excludedPaths);
+    }
+
+    public JwtClaimsAuthenticationFilter(JwtVerifier jwtVerifier, List<String> excludedPaths) {
+        this.jwtVerifier = jwtVerifier;
+        this.excludedPaths = PathPatternSet.of(excludedPaths);
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getRequestURI();
-        return excludedPaths.stream().anyMatch(pattern -> {
-            if (pattern.endsWith("/**")) {
-                return path.startsWith(pattern.substring(0, pattern.length() - 3));
-            }
-            return path.equals(pattern);
-        });
+        return excludedPaths.matches(request.getRequestURI());
     }
 
     @Override
@@ -81,19 +74,18 @@ public class JwtClaimsAuthenticationFilter extends OncePerRequestFilter {
             String jwt = extractJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
-                Claims claims = validateAndExtractClaims(jwt);
-                if (claims != null) {
-                    JwtUserPrincipal principal = buildPrincipal(claims);
-                    List<GrantedAuthority> authorities = buildAuthorities(claims);
+                JwtVerifier.VerifiedToken verified = verify(jwt);
+                if (verified != null) {
+                    JwtUserPrincipal principal = verified.principal();
 
                     UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                            new UsernamePasswordAuthenticationToken(principal, null, verified.authorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     
-                    log.debug("Authenticated user {} with role {} and {} permissions",
-                            principal.getUsername(), principal.getRole(), authorities.size());
+                    log.debug("Authenticated user {} with role {} and {} authorities",
+                            principal.getUsername(), principal.getRole(), verified.authorities().size());
                 }
             }
         } catch (Exception ex) {
@@ -112,70 +104,31 @@ public class JwtClaimsAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private Claims validateAndExtractClaims(String token) {
+    private JwtVerifier.VerifiedToken verify(String token) {
         try {
-            // Use raw bytes to match API gateway's key derivation
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+            return jwtVerifier.verify(token);
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
         return null;
     }
 
-    private JwtUserPrincipal buildPrincipal(Claims claims) {
-        return JwtUserPrincipal.builder()
-                .userId(claims.get("userId") != null ? UUID.fromString(claims.get("userId", String.class)) : null)
-                .username(claims.getSubject())
-                .role(claims.get("role", String.class))
-                .persona(claims.get("persona", String.class))
-                .department(claims.get("department", String.class))
-                .build();
-    }
-
-    private List<GrantedAuthority> buildAuthorities(Claims claims) {
-        List<GrantedAuthority> authorities = new ArrayList<>();
-
-        // Add role authority
-        String role = claims.get("role", String.class);
-        if (StringUtils.hasText(role)) {
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
-        }
-
-        // Add permission authorities from JWT claims
-        String permissionsStr = claims.get("permissions", String.class);
-        if (StringUtils.hasText(permissionsStr)) {
-            Arrays.stream(permissionsStr.split(","))
-                    .map(String::trim)
-                    .filter(StringUtils::hasText)
-                    .forEach(perm -> authorities.add(new SimpleGrantedAuthority("PERM_" + perm)));
-        }
-
-        return authorities;
-    }
-
     /**
-     * Principal object containing JWT claim information.
+     * Principal object containing JWT claim information. Immutable, since one instance is
+     * shared by every request carrying the same token.
      */
-    @lombok.Data
+    @lombok.Value
     @lombok.Builder
-    @lombok.NoArgsConstructor
-    @lombok.AllArgsConstructor
     public static class JwtUserPrincipal {
         private UUID userId;
         private String username;
         private String role;
         private String persona;
         private String department;
+        private PermissionSet permissions;
     }
 }
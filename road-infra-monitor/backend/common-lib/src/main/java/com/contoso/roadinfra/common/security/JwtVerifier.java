@@ -0,0 +1,73 @@
+package com.contoso.roadinfra.common.security;
+
+import com.contoso.roadinfra.common.security.JwtClaimsAuthenticationFilter.JwtUserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verifies access tokens signed with the shared HMAC secret and maps their claims to a
+ * principal and authorities.
+ *
+ * The key and parser are built once and are thread-safe. Verified tokens are cached
+ * until they expire, so a client's repeated requests cost one hash lookup each, and the
+ * authority lists are interned per role and permission combination. The principal
+ * carries its permissions as a {@link PermissionSet} for bitwise permission checks.
+ */
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final VerifiedTokenCache<VerifiedToken> cache;
+
+    public JwtVerifier(String jwtSecret) {
+        this(jwtSecret, new VerifiedTokenCache<>());
+    }
+
+    public JwtVerifier(String jwtSecret, VerifiedTokenCache<VerifiedToken> cache) {
+        // Use raw bytes to match API gateway's key derivation
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.cache = cache;
+    }
+
+    /**
+     * @throws JwtException             if the token is malformed, expired or not signed
+     *                                  with the secret
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public VerifiedToken verify(String token) {
+        return cache.get(token, this::parse, VerifiedToken::expiresAt);
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String role = claims.get("role", String.class);
+        String permissions = claims.get("permissions", String.class);
+        JwtUserPrincipal principal = JwtUserPrincipal.builder()
+                .userId(claims.get("userId") != null ? UUID.fromString(claims.get("userId", String.class)) : null)
+                .username(claims.getSubject())
+                .role(role)
+                .persona(claims.get("persona", String.class))
+                .department(claims.get("department", String.class))
+                .permissions(PermissionSet.parse(permissions))
+                .build();
+        List<GrantedAuthority> authorities = GrantedAuthorities.of(role, permissions);
+        Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        return new VerifiedToken(principal, authorities, expiresAt);
+    }
+
+    /**
+     * The immutable result of verifying a token, shared by all requests carrying it.
+     */
+    public record VerifiedToken(JwtUserPrincipal principal, List<GrantedAuthority> authorities, Instant expiresAt) {
+    }
+}
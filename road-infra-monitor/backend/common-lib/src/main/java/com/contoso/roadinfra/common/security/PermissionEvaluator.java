@@ -7,7 +7,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,6 +15,9 @@ import java.util.stream.Collectors;
  * 
  * Usage: @PreAuthorize("@perm.has(#root, 'SENSOR_WRITE')")
  *        @PreAuthorize("@perm.hasAny(#root, 'SENSOR_WRITE', 'SENSOR_CONFIGURE')")
+ *
+ * Permission checks are bitwise tests against the user's {@link PermissionSet},
+ * resolved once per authentication by {@link AuthenticationPermissions}.
  */
 @Component("perm")
 @Slf4j
@@ -35,8 +37,8 @@ public class PermissionEvaluator {
             return false;
         }
 
-        Set<String> userPermissions = extractPermissions(auth.getAuthorities());
-        boolean hasPermission = userPermissions.contains(permission);
+        PermissionSet userPermissions = AuthenticationPermissions.granted(auth);
+        boolean hasPermission = userPermissions.hasAny(PermissionSet.bit(permission));
         
         log.debug("Permission check for '{}': {} (user has: {})", 
             permission, hasPermission, userPermissions);
@@ -52,13 +54,11 @@ public class PermissionEvaluator {
             return false;
         }
 
-        Set<String> userPermissions = extractPermissions(auth.getAuthorities());
+        long mask = 0L;
         for (String permission : permissions) {
-            if (userPermissions.contains(permission)) {
-                return true;
-            }
+            mask |= PermissionSet.bit(permission);
         }
-        return false;
+        return AuthenticationPermissions.granted(auth).hasAny(mask);
     }
 
     /**
@@ -70,13 +70,16 @@ public class PermissionEvaluator {
             return false;
         }
 
-        Set<String> userPermissions = extractPermissions(auth.getAuthorities());
+        long mask = 0L;
         for (String permission : permissions) {
-            if (!userPermissions.contains(permission)) {
+            long bit = PermissionSet.bit(permission);
+            if (bit == 0L) {
+                // Unknown permissions are never granted
                 return false;
             }
+            mask |= bit;
         }
-        return true;
+        return AuthenticationPermissions.granted(auth).hasAll(mask);
     }
 
     /**
@@ -114,18 +117,6 @@ public class PermissionEvaluator {
         return false;
     }
 
-    /**
-     * Extract permission strings from granted authorities.
-     * Permissions are stored as PERM_xxx authorities.
-     */
-    private Set<String> extractPermissions(Collection<? extends GrantedAuthority> authorities) {
-        return authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(a -> a.startsWith("PERM_"))
-                .map(a -> a.substring(5)) // Remove PERM_ prefix
-                .collect(Collectors.toSet());
-    }
-
     /**
      * Static utility method to check permission without Spring context.
      */
@@ -133,8 +124,6 @@ public class PermissionEvaluator {
         if (auth == null || !auth.isAuthenticated()) {
             return false;
         }
-        return auth.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(a -> a.equals("PERM_" + permission.name()));
+        return AuthenticationPermissions.granted(auth).has(permission);
     }
 }
@@ -0,0 +1,127 @@
+package com.contoso.roadinfra.common.security;
+
+import com.contoso.roadinfra.common.constants.Permission;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable set of permissions stored as a bitmask, one bit per {@link Permission} ordinal.
+ *
+ * Checks are a single bitwise AND, so a set is computed once per authentication (see
+ * {@link AuthenticationPermissions}) and then queried by every permission check of the
+ * request without allocating.
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(0L);
+
+    private static final Permission[] PERMISSIONS = Permission.values();
+    private static final Map<String, Long> BITS_BY_NAME = new HashMap<>();
+
+    static {
+        if (PERMISSIONS.length > Long.SIZE) {
+            throw new IllegalStateException("PermissionSet supports at most " + Long.SIZE + " permissions");
+        }
+        for (Permission permission : PERMISSIONS) {
+            BITS_BY_NAME.put(permission.name(), bit(permission));
+        }
+    }
+
+    private final long bits;
+
+    private PermissionSet(long bits) {
+        this.bits = bits;
+    }
+
+    public static PermissionSet of(long bits) {
+        return bits == 0L ? EMPTY : new PermissionSet(bits);
+    }
+
+    public static PermissionSet of(Collection<Permission> permissions) {
+        long bits = 0L;
+        for (Permission permission : permissions) {
+            bits |= bit(permission);
+        }
+        return of(bits);
+    }
+
+    /**
+     * Parse a comma-separated list of permission names, ignoring unknown names.
+     */
+    public static PermissionSet parse(String permissions) {
+        if (permissions == null || permissions.isBlank()) {
+            return EMPTY;
+        }
+        long bits = 0L;
+        for (String name : permissions.split(",")) {
+            bits |= bit(name.trim());
+        }
+        return of(bits);
+    }
+
+    public static long bit(Permission permission) {
+        return 1L << permission.ordinal();
+    }
+
+    /**
+     * Bit of the permission with the given enum name, or 0 if there is none.
+     */
+    public static long bit(String name) {
+        Long bit = BITS_BY_NAME.get(name);
+        return bit != null ? bit : 0L;
+    }
+
+    public long bits() {
+        return bits;
+    }
+
+    public boolean isEmpty() {
+        return bits == 0L;
+    }
+
+    public boolean has(Permission permission) {
+        return (bits & bit(permission)) != 0L;
+    }
+
+    public boolean hasAny(long mask) {
+        return (bits & mask) != 0L;
+    }
+
+    public boolean hasAll(long mask) {
+        return (bits & mask) == mask;
+    }
+
+    public PermissionSet union(PermissionSet other) {
+        return of(bits | other.bits);
+    }
+
+    public Set<Permission> toSet() {
+        EnumSet<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission permission : PERMISSIONS) {
+            if (has(permission)) {
+                permissions.add(permission);
+            }
+        }
+        return Collections.unmodifiableSet(permissions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PermissionSet other && bits == other.bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        return toSet().toString();
+    }
+}
@@ -3,6 +3,7 @@ package com.contoso.roadinfra.common.security;
 import com.contoso.roadinfra.common.constants.Permission;
 import com.contoso.roadinfra.common.constants.Role;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
@@ -44,6 +45,9 @@ public final class RolePermissionMapping {
 
     private static final Map<Role, Set<Permission>> ROLE_PERMISSIONS;
 
+    /** Permission bitmask of each role, indexed by role ordinal. */
+    private static final PermissionSet[] ROLE_PERMISSION_SETS;
+
     static {
         Map<Role, Set<Permission>> map = new EnumMap<>(Role.class);
 
@@ -111,7 +115,14 @@ public final class RolePermissionMapping {
             Permission.INSPECTION_READ
         ));
 
-        ROLE_PERMISSIONS = Collections.unmodifiableMap(map);
+        Map<Role, Set<Permission>> unmodifiable = new EnumMap<>(Role.class);
+        ROLE_PERMISSION_SETS = new PermissionSet[Role.values().length];
+        for (Role role : Role.values()) {
+            Set<Permission> permissions = map.getOrDefault(role, EnumSet.noneOf(Permission.class));
+            unmodifiable.put(role, Collections.unmodifiableSet(permissions));
+            ROLE_PERMISSION_SETS[role.ordinal()] = PermissionSet.of(permissions);
+        }
+        ROLE_PERMISSIONS = Collections.unmodifiableMap(unmodifiable);
     }
 
     private RolePermissionMapping() {
@@ -128,6 +139,30 @@ public final class RolePermissionMapping {
         return ROLE_PERMISSIONS.getOrDefault(role, Collections.emptySet());
     }
 
+    /**
+     * Get the precomputed permission bitmask for a given role.
+     *
+     * @param role the role to get permissions for
+     * @return the role's permissions, empty for a null role
+     */
+    public static PermissionSet getPermissionSet(Role role) {
+        return role != null ? ROLE_PERMISSION_SETS[role.ordinal()] : PermissionSet.EMPTY;
+    }
+
+    /**
+     * Get the combined permission bitmask of several roles.
+     *
+     * @param roles the roles to combine
+     * @return the union of the roles' permissions
+     */
+    public static PermissionSet getPermissionSet(Collection<Role> roles) {
+        long bits = 0L;
+        for (Role role : roles) {
+            bits |= getPermissionSet(role).bits();
+        }
+        return PermissionSet.of(bits);
+    }
+
     /**
      * Check if a role has a specific permission.
      *
@@ -136,7 +171,7 @@ public final class RolePermissionMapping {
      * @return true if the role has the permission
      */
     public static boolean hasPermission(Role role, Permission permission) {
-        return getPermissions(role).contains(permission);
+        return getPermissionSet(role).has(permission);
     }
 
     /**
@@ -147,13 +182,7 @@ public final class RolePermissionMapping {
      * @return true if the role has at least one of the permissions
      */
     public static boolean hasAnyPermission(Role role, Permission... permissions) {
-        Set<Permission> rolePermissions = getPermissions(role);
-        for (Permission permission : permissions) {
-            if (rolePermissions.contains(permission)) {
-                return true;
-            }
-        }
-        return false;
+        return getPermissionSet(role).hasAny(mask(permissions));
     }
 
     /**
@@ -164,13 +193,7 @@ public final class RolePermissionMapping {
      * @return true if the role has all of the permissions
      */
     public static boolean hasAllPermissions(Role role, Permission... permissions) {
-        Set<Permission> rolePermissions = getPermissions(role);
-        for (Permission permission : permissions) {
-            if (!rolePermissions.contains(permission)) {
-                return false;
-            }
-        }
-        return true;
+        return getPermissionSet(role).hasAll(mask(permissions));
     }
 
     /**
@@ -181,11 +204,19 @@ public final class RolePermissionMapping {
      */
     public static Set<Role> getRolesWithPermission(Permission permission) {
         EnumSet<Role> roles = EnumSet.noneOf(Role.class);
-        for (Map.Entry<Role, Set<Permission>> entry : ROLE_PERMISSIONS.entrySet()) {
-            if (entry.getValue().contains(permission)) {
-                roles.add(entry.getKey());
+        for (Role role : Role.values()) {
+            if (hasPermission(role, permission)) {
+                roles.add(role);
             }
         }
         return roles;
     }
+
+    private static long mask(Permission... permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= PermissionSet.bit(permission);
+        }
+        return mask;
+    }
 }
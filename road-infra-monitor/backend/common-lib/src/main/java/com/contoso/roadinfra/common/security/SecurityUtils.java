@@ -61,9 +61,7 @@ public final class SecurityUtils {
      * @return true if the user has the permission, false otherwise
      */
     public static boolean hasPermission(Permission permission) {
-        return getCurrentUserRole()
-            .map(role -> RolePermissionMapping.hasPermission(role, permission))
-            .orElse(false);
+        return currentRolePermissions().has(permission);
     }
 
     /**
@@ -73,9 +71,7 @@ public final class SecurityUtils {
      * @return true if the user has at least one of the permissions
      */
     public static boolean hasAnyPermission(Permission... permissions) {
-        return getCurrentUserRole()
-            .map(role -> RolePermissionMapping.hasAnyPermission(role, permissions))
-            .orElse(false);
+        return currentRolePermissions().hasAny(mask(permissions));
     }
 
     /**
@@ -85,9 +81,7 @@ public final class SecurityUtils {
      * @return true if the user has all of the permissions
      */
     public static boolean hasAllPermissions(Permission... permissions) {
-        return getCurrentUserRole()
-            .map(role -> RolePermissionMapping.hasAllPermissions(role, permissions))
-            .orElse(false);
+        return isAuthenticated() && currentRolePermissions().hasAll(mask(permissions));
     }
 
     /**
@@ -120,6 +114,21 @@ public final class SecurityUtils {
         return getCurrentAuthentication().isPresent();
     }
 
+    /**
+     * Permissions of the current user's roles, resolved once per authentication.
+     */
+    private static PermissionSet currentRolePermissions() {
+        return AuthenticationPermissions.fromRoles(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static long mask(Permission... permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= PermissionSet.bit(permission);
+        }
+        return mask;
+    }
+
     /**
      * Extract role from a collection of granted authorities.
      *
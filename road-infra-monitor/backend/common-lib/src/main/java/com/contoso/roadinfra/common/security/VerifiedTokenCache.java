@@ -0,0 +1,117 @@
+package com.contoso.roadinfra.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of verified bearer tokens, so that a token's signature is checked and its
+ * claims are mapped once rather than on every request.
+ *
+ * Entries are keyed by the SHA-256 hash of the token, so raw tokens are not retained, and
+ * expire when the token does, or after the maximum TTL for tokens without an expiry.
+ * Failed verifications are not cached.
+ *
+ * @param <T> the verification result
+ */
+public class VerifiedTokenCache<T> {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_MAX_TTL = Duration.ofMinutes(15);
+
+    private final Cache<TokenHash, Verified<T>> cache;
+
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAX_TTL);
+    }
+
+    public VerifiedTokenCache(long maximumSize, Duration maxTtl) {
+        this(maximumSize, maxTtl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    /**
+     * @param ticker measures entry lifetimes
+     * @param clock the wall clock token expiry times are compared with
+     */
+    VerifiedTokenCache(long maximumSize, Duration maxTtl, Ticker ticker, Clock clock) {
+        long maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<TokenHash, Verified<T>>() {
+                    @Override
+                    public long expireAfterCreate(TokenHash key, Verified<T> value, long currentTime) {
+                        if (value.expiresAt() == null) {
+                            return maxTtlNanos;
+                        }
+                        // Compared as durations: a distant expiry would overflow as nanoseconds
+                        Duration remaining = Duration.between(clock.instant(), value.expiresAt());
+                        if (remaining.isNegative()) {
+                            return 0;
+                        }
+                        return remaining.compareTo(maxTtl) < 0 ? remaining.toNanos() : maxTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenHash key, Verified<T> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenHash key, Verified<T> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Return the cached result for {@code token}, or verify it and cache the result until
+     * the token expires. Exceptions thrown by {@code verifier} propagate.
+     *
+     * @param expiresAt extracts the token's expiry from the result, {@code null} if none
+     */
+    public T get(String token, Function<String, T> verifier, Function<T, Instant> expiresAt) {
+        TokenHash key = TokenHash.of(token);
+        Verified<T> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.value();
+        }
+        T value = verifier.apply(token);
+        cache.put(key, new Verified<>(value, expiresAt.apply(value)));
+        return value;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record Verified<T>(T value, Instant expiresAt) {
+    }
+
+    private record TokenHash(long h0, long h1, long h2, long h3) {
+
+        static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenHash(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                // Every Java platform is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -5,12 +5,14 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -20,6 +22,20 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
     public static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
     public static final String CORRELATION_ID_MDC_KEY = "correlationId";
 
+    private final PathPatternSet excludedPaths;
+
+    public CorrelationIdFilter(@Value("${correlation-id.excluded-paths:/actuator/**}") List<String> excludedPaths) {
+        this.excludedPaths = PathPatternSet.of(excludedPaths);
+    }
+
+    /**
+     * Skip health probes and scrapes, which are frequent and never traced.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excludedPaths.matches(request.getRequestURI());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -0,0 +1,163 @@
+package com.contoso.roadinfra.common.util;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A set of Ant-style path patterns compiled once into a segment trie, for filters that
+ * test every request path against a fixed list of patterns.
+ *
+ * Literal segments, {@code *} (one segment) and a trailing {@code **} (any remaining
+ * segments, including none) are matched by walking the trie over the path in place,
+ * without allocating. Any other pattern, such as one with {@code {variables}}, partial
+ * wildcards, a {@code **} before its end or a trailing slash, is checked after the trie
+ * with {@link AntPathMatcher}, so every pattern matches as it does there. The one
+ * difference is that a path with an empty segment ({@code //}) matches no trie pattern,
+ * where AntPathMatcher would ignore the empty segment.
+ */
+public final class PathPatternSet {
+
+    private static final PathPatternSet EMPTY = new PathPatternSet(new Node(), List.of());
+    private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    private final Node root;
+    private final List<String> fallback;
+
+    private PathPatternSet(Node root, List<String> fallback) {
+        this.root = root;
+        this.fallback = fallback;
+    }
+
+    public static PathPatternSet of(Collection<String> patterns) {
+        if (patterns.isEmpty()) {
+            return EMPTY;
+        }
+        Node root = new Node();
+        List<String> fallback = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (!insert(root, pattern)) {
+                fallback.add(pattern);
+            }
+        }
+        return new PathPatternSet(root, List.copyOf(fallback));
+    }
+
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        if (matches(root, path, 1)) {
+            return true;
+        }
+        for (String pattern : fallback) {
+            if (ANT_PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param from index where the next segment starts, past the end when none is left
+     */
+    private static boolean matches(Node node, String path, int from) {
+        if (node.matchesRest) {
+            return true;
+        }
+        if (from > path.length()) {
+            return node.terminal;
+        }
+        int end = path.indexOf('/', from);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - from;
+        for (Node child : node.literals) {
+            if (child.segment.length() == length
+                    && path.regionMatches(from, child.segment, 0, length)
+                    && matches(child, path, end + 1)) {
+                return true;
+            }
+        }
+        if (node.wildcard == null) {
+            return false;
+        }
+        // As in AntPathMatcher, a final * also matches the empty segment after a trailing slash
+        return length > 0 ? matches(node.wildcard, path, end + 1) : end == path.length() && node.wildcard.terminal;
+    }
+
+    /**
+     * Add a pattern to the trie, or return false if it needs the fallback matcher.
+     */
+    private static boolean insert(Node root, String pattern) {
+        if (!pattern.startsWith("/")) {
+            return false;
+        }
+        String[] segments = pattern.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean last = i == segments.length - 1;
+            if (segment.isEmpty() || (segment.equals("**") ? !last : !segment.equals("*") && isPattern(segment))) {
+                return false;
+            }
+        }
+        Node node = root;
+        for (String segment : segments) {
+            if (segment.equals("**")) {
+                node.matchesRest = true;
+                return true;
+            }
+            node = segment.equals("*") ? node.wildcardChild() : node.literalChild(segment);
+        }
+        node.terminal = true;
+        return true;
+    }
+
+    private static boolean isPattern(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final String segment;
+        private final List<Node> literals = new ArrayList<>();
+        private Node wildcard;
+        private boolean terminal;
+        private boolean matchesRest;
+
+        Node() {
+            this(null);
+        }
+
+        Node(String segment) {
+            this.segment = segment;
+        }
+
+        Node literalChild(String segment) {
+            for (Node child : literals) {
+                if (child.segment.equals(segment)) {
+                    return child;
+                }
+            }
+            Node child = new Node(segment);
+            literals.add(child);
+            return child;
+        }
+
+        Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node("*");
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.contoso.roadinfra.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheTest {
+
+    private static final String CACHE = "assets";
+
+    public static class Asset {
+        public String code;
+        public List<String> tags = new ArrayList<>();
+
+        public Asset() {
+        }
+
+        Asset(String code, String... tags) {
+            this.code = code;
+            this.tags.addAll(List.of(tags));
+        }
+    }
+
+    private static final UnaryOperator<Object> COPY_ASSET = value -> {
+        Asset asset = (Asset) value;
+        return new Asset(asset.code, asset.tags.toArray(String[]::new));
+    };
+
+    private final AtomicInteger deserializations = new AtomicInteger();
+    private InMemoryCacheWriter redis;
+    private CacheInvalidationBus invalidationBus;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemoryCacheWriter();
+        invalidationBus = mock(CacheInvalidationBus.class);
+        cache = newCache();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from L1 after one Redis read")
+    void shouldServeFromL1() {
+        cache.put("a1", new Asset("A1"));
+        TwoLevelCache peer = newCache();
+
+        assertThat(peer.get("a1", Asset.class).code).isEqualTo("A1");
+        assertThat(peer.get("a1", Asset.class).code).isEqualTo("A1");
+
+        assertThat(redis.reads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should hand every caller its own copy of an L1 value")
+    void shouldNotShareMutableInstances() {
+        Asset original = new Asset("A1", "bridge");
+        cache.put("a1", original);
+        original.tags.add("changed after put");
+
+        Asset first = cache.get("a1", Asset.class);
+        first.tags.add("changed by caller");
+        Asset second = cache.get("a1", Asset.class);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.tags).containsExactly("bridge");
+        assertThat(redis.reads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should return a fresh copy of a loaded value on later hits")
+    void shouldCopyLoadedValues() {
+        Asset loaded = cache.get("a1", () -> new Asset("A1"));
+        loaded.code = "mutated";
+
+        assertThat(cache.get("a1", Asset.class).code).isEqualTo("A1");
+    }
+
+    @Test
+    @DisplayName("Should copy values with a registered copier instead of deserializing them")
+    void shouldCopyWithRegisteredCopier() {
+        TwoLevelCache copying = newCache(Map.of(Asset.class, COPY_ASSET));
+        Asset original = new Asset("A1", "bridge");
+        copying.put("a1", original);
+        original.tags.add("changed after put");
+
+        Asset first = copying.get("a1", Asset.class);
+        first.tags.add("changed by caller");
+        Asset second = copying.get("a1", Asset.class);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.tags).containsExactly("bridge");
+        assertThat(deserializations).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should copy lists element by element when every element has a copier")
+    @SuppressWarnings("unchecked")
+    void shouldCopyListsOfRegisteredTypes() {
+        TwoLevelCache copying = newCache(Map.of(Asset.class, COPY_ASSET));
+        copying.put("children", new ArrayList<>(List.of(new Asset("A1"), new Asset("A2"))));
+
+        List<Asset> first = copying.get("children", List.class);
+        first.get(0).code = "mutated";
+        first.remove(1);
+        List<Asset> second = copying.get("children", List.class);
+
+        assertThat(second).extracting(asset -> asset.code).containsExactly("A1", "A2");
+        assertThat(deserializations).hasValue(0);
+
+        // One element without a copier sends the whole list through the serializer
+        copying.put("mixed", new ArrayList<>(List.of(new Asset("A1"), new HashMap<>(Map.of("k", "v")))));
+        copying.get("mixed", List.class);
+        assertThat(deserializations).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should share immutable values from L1 as they are")
+    void shouldShareImmutableValues() {
+        UUID id = UUID.randomUUID();
+        String code = new String("A1");
+        cache.put("id", id);
+        cache.put("code", code);
+
+        assertThat(cache.get("id").get()).isSameAs(id);
+        assertThat(cache.get("code").get()).isSameAs(code);
+        assertThat(deserializations).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should cache null values in L1 when the Redis cache allows them")
+    void shouldCacheNulls() {
+        cache.put("missing", null);
+
+        assertThat(cache.get("missing")).isNotNull();
+        assertThat(cache.get("missing").get()).isNull();
+        assertThat(redis.reads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should not fill L1 with a value read before a peer's invalidation arrived")
+    void shouldNotFillL1AcrossInvalidation() {
+        cache.put("a1", new Asset("old"));
+        TwoLevelCache reader = newCache();
+        // A peer writes while the read is in flight; its invalidation lands before the L1 fill
+        redis.onRead = () -> {
+            redis.onRead = null;
+            cache.put("a1", new Asset("new"));
+            reader.evictLocal("a1");
+        };
+
+        assertThat(reader.get("a1", Asset.class).code).isEqualTo("old");
+        assertThat(reader.get("a1", Asset.class).code).isEqualTo("new");
+        assertThat(redis.reads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should drop L1 entries on evictions and clears from peers")
+    void shouldApplyPeerInvalidations() {
+        cache.put("a1", new Asset("A1"));
+        cache.put("a2", new Asset("A2"));
+
+        cache.evictLocal("a1");
+        assertThat(cache.get("a1", Asset.class).code).isEqualTo("A1");
+        assertThat(redis.reads).hasValue(1);
+
+        cache.clearLocal();
+        cache.get("a1", Asset.class);
+        cache.get("a2", Asset.class);
+        assertThat(redis.reads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should evict from both levels and broadcast the eviction")
+    void shouldEvictAndBroadcast() {
+        cache.put("a1", new Asset("A1"));
+
+        cache.evict("a1");
+
+        assertThat(cache.get("a1")).isNull();
+        assertThat(redis.reads).hasValue(1);
+        // Once for the put, once for the eviction
+        verify(invalidationBus, times(2)).publishEvict(CACHE, "a1");
+    }
+
+    private TwoLevelCache newCache() {
+        return newCache(Map.of());
+    }
+
+    private TwoLevelCache newCache(Map<Class<?>, UnaryOperator<Object>> copiers) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL);
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(countingDeserializations(new GenericJackson2JsonRedisSerializer(objectMapper))));
+        RedisCacheManager manager = RedisCacheManager.builder(redis).cacheDefaults(configuration).build();
+        return new TwoLevelCache(CACHE, Caffeine.newBuilder().maximumSize(100).build(),
+                (RedisCache) manager.getCache(CACHE), invalidationBus, copiers, null);
+    }
+
+    private RedisSerializer<Object> countingDeserializations(RedisSerializer<Object> serializer) {
+        return new RedisSerializer<>() {
+            @Override
+            public byte[] serialize(Object value) {
+                return serializer.serialize(value);
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                deserializations.incrementAndGet();
+                return serializer.deserialize(bytes);
+            }
+        };
+    }
+
+    /**
+     * A Redis stand-in shared by every cache instance of a test, as Redis is shared by peers.
+     */
+    static class InMemoryCacheWriter implements RedisCacheWriter {
+
+        final Map<ByteBuffer, byte[]> entries = new ConcurrentHashMap<>();
+        final AtomicInteger reads = new AtomicInteger();
+        volatile Runnable onRead;
+
+        @Override
+        public byte[] get(String name, byte[] key) {
+            reads.incrementAndGet();
+            byte[] value = entries.get(ByteBuffer.wrap(key));
+            Runnable hook = onRead;
+            if (hook != null) {
+                hook.run();
+            }
+            return value;
+        }
+
+        @Override
+        public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+            return CompletableFuture.completedFuture(get(name, key));
+        }
+
+        @Override
+        public void put(String name, byte[] key, byte[] value, Duration ttl) {
+            entries.put(ByteBuffer.wrap(key), value);
+        }
+
+        @Override
+        public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+            put(name, key, value, ttl);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+            return entries.putIfAbsent(ByteBuffer.wrap(key), value);
+        }
+
+        @Override
+        public void remove(String name, byte[] key) {
+            entries.remove(ByteBuffer.wrap(key));
+        }
+
+        @Override
+        public void clean(String name, byte[] pattern) {
+            entries.clear();
+        }
+
+        @Override
+        public void clearStatistics(String name) {
+        }
+
+        @Override
+        public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector collector) {
+            return this;
+        }
+
+        @Override
+        public CacheStatistics getCacheStatistics(String cacheName) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.contoso.roadinfra.common.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskExecutorsTest {
+
+    private static final Duration AWAIT = Duration.ofSeconds(5);
+
+    @Test
+    @DisplayName("Should build a bounded platform pool when virtual threads are disabled")
+    void shouldBuildPlatformPool() {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) new TaskExecutors(false)
+                .asyncExecutor("async-", 2, 4, 10, AWAIT);
+        try {
+            assertThat(executor.getCorePoolSize()).isEqualTo(2);
+            assertThat(executor.getMaxPoolSize()).isEqualTo(4);
+            assertThat(executor.getQueueCapacity()).isEqualTo(10);
+            assertThat(executor.getThreadNamePrefix()).isEqualTo("async-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should build a virtual thread executor limited to the tasks the pool would accept")
+    void shouldBuildVirtualExecutor() throws Exception {
+        TaskExecutors executors = new TaskExecutors(true);
+        AsyncTaskExecutor executor = executors.asyncExecutor("async-", 2, 4, 10, AWAIT);
+
+        assertThat(executors.isVirtualThreads()).isTrue();
+        assertThat(executor).isInstanceOfSatisfying(SimpleAsyncTaskExecutor.class, virtual -> {
+            assertThat(virtual.getConcurrencyLimit()).isEqualTo(14);
+            assertThat(virtual.isThrottleActive()).isTrue();
+        });
+        assertThat(executor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS)).isTrue();
+        ((SimpleAsyncTaskExecutor) executor).close();
+    }
+
+    @Test
+    @DisplayName("Should make a submitter wait for a free slot instead of rejecting it on virtual threads")
+    void shouldBlockWhenVirtualExecutorIsFull() throws Exception {
+        SimpleAsyncTaskExecutor executor = (SimpleAsyncTaskExecutor) new TaskExecutors(true)
+                .asyncExecutor("async-", 1, 1, 1, AWAIT);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            executor.execute(() -> {
+                running.countDown();
+                await(release);
+            });
+        }
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch ran = new CountDownLatch(1);
+        Thread submitter = Thread.ofPlatform().start(() -> executor.execute(ran::countDown));
+        submitter.join(200);
+        assertThat(submitter.isAlive()).isTrue();
+        assertThat(ran.getCount()).isEqualTo(1);
+
+        release.countDown();
+        submitter.join(5_000);
+        assertThat(submitter.isAlive()).isFalse();
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should reject a task once the platform pool and its queue are full")
+    void shouldRejectWhenPlatformPoolIsFull() {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) new TaskExecutors(false)
+                .asyncExecutor("async-", 1, 1, 1, AWAIT);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(TaskRejectedException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should build the scheduler matching the thread mode")
+    void shouldBuildMatchingScheduler() {
+        TaskScheduler platform = new TaskExecutors(false).scheduler("scheduled-", 3, AWAIT);
+        TaskScheduler virtual = new TaskExecutors(true).scheduler("scheduled-", 3, AWAIT);
+
+        assertThat(platform).isInstanceOfSatisfying(ThreadPoolTaskScheduler.class, scheduler -> {
+            assertThat(scheduler.getPoolSize()).isEqualTo(3);
+            assertThat(scheduler.getThreadNamePrefix()).isEqualTo("scheduled-");
+        });
+        assertThat(virtual).isInstanceOf(SimpleAsyncTaskScheduler.class);
+        ((SimpleAsyncTaskScheduler) virtual).close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.contoso.roadinfra.common.concurrent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time to serve a burst of concurrent blocking requests on Tomcat's default pool of 200
+ * platform threads against one virtual thread per request.
+ *
+ * Each request blocks for {@code blockMillis}, standing in for a JDBC or HTTP call. In
+ * the {@code synchronized} variant it blocks while holding a monitor, which pins a
+ * virtual thread to its carrier; the {@code lock} variant holds a
+ * {@link ReentrantLock} instead. Each request takes its own monitor or lock, so the
+ * variants differ only in pinning, not in contention. The sample-time mode reports
+ * percentiles of the burst time. The requests-per-second figure is {@code requests}
+ * divided by that time.
+ *
+ * Run with {@code mvn -pl common-lib test-compile exec:java
+ * -Dexec.mainClass=com.contoso.roadinfra.common.concurrent.ThreadModeBenchmark
+ * -Dexec.classpathScope=test}. On virtual threads the burst completes in little more
+ * than one blocking call, where the pool needs {@code requests / 200} of them. Pinned,
+ * it serves only one request per carrier thread at a time and falls behind even the
+ * pool. Service-level throughput and tail latency in both modes are compared with
+ * {@code LoginThroughputIT} in the integration tests.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModeBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"none", "lock", "synchronized"})
+    public String guard;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"5"})
+    public int blockMillis;
+
+    private ExecutorService executor;
+    // Shared fields, so the JIT cannot elide the locking as it could on a local object
+    private Object[] monitors;
+    private ReentrantLock[] locks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        monitors = new Object[requests];
+        locks = new ReentrantLock[requests];
+        for (int i = 0; i < requests; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            executor.execute(() -> {
+                try {
+                    handle(request);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handle(int request) {
+        switch (guard) {
+            case "lock" -> {
+                ReentrantLock lock = locks[request];
+                lock.lock();
+                try {
+                    block();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            case "synchronized" -> {
+                synchronized (monitors[request]) {
+                    block();
+                }
+            }
+            default -> block();
+        }
+    }
+
+    private void block() {
+        try {
+            Thread.sleep(blockMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ThreadModeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.contoso.roadinfra.common.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private static final Duration PINNED = Duration.ofMillis(50);
+
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(new SimpleMeterRegistry(), true, true, 20);
+
+    @Test
+    @DisplayName("Should report the innermost application frame as the pinning site")
+    void shouldPickApplicationFrame() {
+        List<String> frames = List.of(
+                "java.lang.Object.wait0:-1",
+                "org.postgresql.core.v3.QueryExecutorImpl.execute:355",
+                "com.contoso.roadinfra.auth.audit.AuditWriteAheadLog.append:97",
+                "com.contoso.roadinfra.auth.audit.AuditLogWriter.submit:148");
+
+        assertThat(VirtualThreadPinningMonitor.site(frames))
+                .isEqualTo("com.contoso.roadinfra.auth.audit.AuditWriteAheadLog.append:97");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the innermost frame when no application code is on the stack")
+    void shouldFallBackToInnermostFrame() {
+        assertThat(VirtualThreadPinningMonitor.site(List.of("java.lang.Object.wait0:-1", "java.lang.Thread.run:1583")))
+                .isEqualTo("java.lang.Object.wait0:-1");
+        assertThat(VirtualThreadPinningMonitor.site(List.of())).isEqualTo("unknown");
+    }
+
+    @Test
+    @DisplayName("Should log each pinning site once")
+    void shouldLogEachSiteOnce() {
+        List<String> first = List.of("java.lang.Object.wait0:-1", "com.contoso.roadinfra.Foo.bar:10");
+        List<String> sameSite = List.of("java.lang.Thread.sleep:500", "com.contoso.roadinfra.Foo.bar:10");
+        List<String> otherSite = List.of("com.contoso.roadinfra.Foo.bar:11");
+
+        assertThat(monitor.report("virtual-1", PINNED, first)).isTrue();
+        assertThat(monitor.report("virtual-2", PINNED, sameSite)).isFalse();
+        assertThat(monitor.report("virtual-3", PINNED, otherSite)).isTrue();
+        assertThat(monitor.report("virtual-4", PINNED, otherSite)).isFalse();
+    }
+}
@@ -0,0 +1,128 @@
+package com.contoso.roadinfra.common.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RTreeSpatialIndexTest {
+
+    private static final GeoBounds ANTWERP = GeoBounds.ofPoint(4.40, 51.22);
+    private static final GeoBounds GHENT = GeoBounds.ofPoint(3.72, 51.05);
+    private static final GeoBounds AROUND_ANTWERP = GeoBounds.around(4.40, 51.22, 1_000);
+
+    @Test
+    @DisplayName("Should find entries added, moved and removed since the tree was packed")
+    void shouldQueryPendingChanges() {
+        RTreeSpatialIndex<String> index = new RTreeSpatialIndex<>(100);
+        index.replaceAll(Map.of("a", ANTWERP, "b", ANTWERP));
+
+        index.put("c", ANTWERP);
+        index.put("a", GHENT);
+        index.remove("b");
+
+        assertThat(index.within(AROUND_ANTWERP)).containsExactly("c");
+        assertThat(index.within(GeoBounds.around(3.72, 51.05, 1_000))).containsExactly("a");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep a moved entry out of its old position's results after the move is undone")
+    void shouldHandleMoveAndMoveBack() {
+        RTreeSpatialIndex<String> index = new RTreeSpatialIndex<>(100);
+        index.replaceAll(Map.of("a", ANTWERP));
+
+        index.put("a", GHENT);
+        index.put("a", ANTWERP);
+
+        assertThat(index.within(AROUND_ANTWERP)).containsExactly("a");
+        assertThat(index.nearest(4.40, 51.22, 5)).extracting(SpatialIndex.Neighbor::key).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Should forget an entry added and removed before a repack")
+    void shouldRemovePendingEntry() {
+        RTreeSpatialIndex<String> index = new RTreeSpatialIndex<>(100);
+
+        index.put("a", ANTWERP);
+        index.remove("a");
+        index.remove("never added");
+
+        assertThat(index.within(AROUND_ANTWERP)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the same results as a linear scan through repacks")
+    void shouldMatchLinearScanThroughRepacks() {
+        SplittableRandom random = new SplittableRandom(3);
+        RTreeSpatialIndex<Integer> index = new RTreeSpatialIndex<>(8);
+        Map<Integer, GeoBounds> expected = new HashMap<>(StrTreeTest.randomEntries(random, 500));
+        index.replaceAll(expected);
+
+        for (int step = 0; step < 2_000; step++) {
+            int key = random.nextInt(600);
+            if (random.nextInt(4) == 0) {
+                index.remove(key);
+                expected.remove(key);
+            } else {
+                GeoBounds bounds = StrTreeTest.randomPoint(random);
+                index.put(key, bounds);
+                expected.put(key, bounds);
+            }
+
+            if (step % 50 == 0) {
+                GeoBounds query = StrTreeTest.randomBox(random, 0.5);
+                assertThat(index.within(query)).containsExactlyInAnyOrderElementsOf(
+                        expected.entrySet().stream()
+                                .filter(entry -> entry.getValue().intersects(query))
+                                .map(Map.Entry::getKey)
+                                .toList());
+
+                double lon = random.nextDouble(4, 6);
+                double lat = random.nextDouble(49, 51);
+                List<Double> nearest = expected.values().stream()
+                        .map(bounds -> GeoDistance.meters(lon, lat, bounds))
+                        .sorted()
+                        .limit(5)
+                        .toList();
+                List<SpatialIndex.Neighbor<Integer>> found = index.nearest(lon, lat, 5);
+                assertThat(found).hasSize(5);
+                for (int n = 0; n < 5; n++) {
+                    assertThat(found.get(n).distanceMeters()).isCloseTo(nearest.get(n), within(1e-6));
+                    assertThat(expected.get(found.get(n).key())).isNotNull();
+                }
+            }
+        }
+        assertThat(index.size()).isEqualTo(expected.size());
+    }
+
+    @Test
+    @DisplayName("Should return entries within a radius, nearest first")
+    void shouldFindWithinRadius() {
+        RTreeSpatialIndex<String> index = new RTreeSpatialIndex<>(100);
+        index.replaceAll(Map.of("antwerp", ANTWERP, "ghent", GHENT));
+        index.put("near antwerp", GeoBounds.ofPoint(4.41, 51.22));
+
+        List<SpatialIndex.Neighbor<String>> found = index.withinRadius(4.40, 51.22, 5_000);
+
+        assertThat(found).extracting(SpatialIndex.Neighbor::key).containsExactly("antwerp", "near antwerp");
+        assertThat(found.get(0).distanceMeters()).isZero();
+        assertThat(found.get(1).distanceMeters()).isCloseTo(697, within(5.0));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void shouldRejectInvalidArguments() {
+        assertThatThrownBy(() -> new RTreeSpatialIndex<String>(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RTreeSpatialIndex<String>(1).nearest(0, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
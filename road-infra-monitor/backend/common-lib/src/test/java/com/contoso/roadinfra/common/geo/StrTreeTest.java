@@ -0,0 +1,127 @@
+package com.contoso.roadinfra.common.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StrTreeTest {
+
+    @Test
+    @DisplayName("Should find nothing in an empty tree")
+    void shouldHandleEmptyTree() {
+        StrTree<Integer> tree = StrTree.build(Map.of());
+        List<Integer> found = new ArrayList<>();
+
+        tree.search(new GeoBounds(-180, -90, 180, 90), found::add);
+
+        assertThat(found).isEmpty();
+        assertThat(tree.size()).isZero();
+        assertThat(tree.nearest(0, 0, 5, Double.POSITIVE_INFINITY, key -> true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return the same boxes as a linear scan, across several tree levels")
+    void shouldMatchLinearScanForBoxes() {
+        SplittableRandom random = new SplittableRandom(7);
+        // More than NODE_CAPACITY squared, so the tree has three levels
+        Map<Integer, GeoBounds> entries = randomEntries(random, 5_000);
+        StrTree<Integer> tree = StrTree.build(entries);
+
+        assertThat(tree.size()).isEqualTo(entries.size());
+        for (int i = 0; i < 200; i++) {
+            GeoBounds query = randomBox(random, 0.5);
+            List<Integer> found = new ArrayList<>();
+            tree.search(query, found::add);
+
+            List<Integer> expected = entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().intersects(query))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the nearest entries in order, as a linear scan does")
+    void shouldMatchLinearScanForNearest() {
+        SplittableRandom random = new SplittableRandom(11);
+        Map<Integer, GeoBounds> entries = randomEntries(random, 2_000);
+        StrTree<Integer> tree = StrTree.build(entries);
+
+        for (int i = 0; i < 100; i++) {
+            double lon = random.nextDouble(4, 6);
+            double lat = random.nextDouble(49, 51);
+            List<SpatialIndex.Neighbor<Integer>> found = tree.nearest(lon, lat, 10, Double.POSITIVE_INFINITY,
+                    key -> key % 3 != 0);
+
+            List<Double> expected = entries.entrySet().stream()
+                    .filter(entry -> entry.getKey() % 3 != 0)
+                    .map(entry -> GeoDistance.meters(lon, lat, entry.getValue()))
+                    .sorted()
+                    .limit(10)
+                    .toList();
+            assertThat(found).hasSize(10);
+            assertThat(found).allMatch(neighbor -> neighbor.key() % 3 != 0);
+            for (int n = 0; n < found.size(); n++) {
+                assertThat(found.get(n).distanceMeters()).isCloseTo(expected.get(n), within(1e-6));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop at the distance limit")
+    void shouldRespectMaxDistance() {
+        Map<Integer, GeoBounds> entries = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            // Points 0.001 degrees of latitude (about 111 m) apart going north
+            entries.put(i, GeoBounds.ofPoint(5.0, 50.0 + i * 0.001));
+        }
+        StrTree<Integer> tree = StrTree.build(entries);
+
+        List<SpatialIndex.Neighbor<Integer>> found = tree.nearest(5.0, 50.0, 100, 500, key -> true);
+
+        assertThat(found).extracting(SpatialIndex.Neighbor::key).containsExactly(0, 1, 2, 3, 4);
+        assertThat(found).isSortedAccordingTo(Comparator.comparingDouble(SpatialIndex.Neighbor::distanceMeters));
+    }
+
+    @Test
+    @DisplayName("Should find boxes touching the query only at an edge")
+    void shouldIncludeTouchingBoxes() {
+        StrTree<String> tree = StrTree.build(Map.of(
+                "west", new GeoBounds(0, 0, 1, 1),
+                "east", new GeoBounds(2, 0, 3, 1)));
+        List<String> found = new ArrayList<>();
+
+        tree.search(new GeoBounds(1, 0.5, 2, 0.5), found::add);
+
+        assertThat(found).containsExactlyInAnyOrder("west", "east");
+    }
+
+    static Map<Integer, GeoBounds> randomEntries(SplittableRandom random, int count) {
+        Map<Integer, GeoBounds> entries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            // Mostly points (sensors), some small boxes (linear assets)
+            entries.put(i, i % 4 == 0 ? randomBox(random, 0.02) : randomPoint(random));
+        }
+        return entries;
+    }
+
+    static GeoBounds randomPoint(SplittableRandom random) {
+        return GeoBounds.ofPoint(random.nextDouble(4, 6), random.nextDouble(49, 51));
+    }
+
+    static GeoBounds randomBox(SplittableRandom random, double maxSize) {
+        double lon = random.nextDouble(4, 6);
+        double lat = random.nextDouble(49, 51);
+        return new GeoBounds(lon, lat, lon + random.nextDouble(maxSize), lat + random.nextDouble(maxSize));
+    }
+}
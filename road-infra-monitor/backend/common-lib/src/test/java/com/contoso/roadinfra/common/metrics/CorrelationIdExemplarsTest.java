@@ -0,0 +1,48 @@
+package com.contoso.roadinfra.common.metrics;
+
+import com.contoso.roadinfra.common.util.CorrelationIdFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdExemplarsTest {
+
+    private final CorrelationIdExemplars exemplars = new CorrelationIdExemplars();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Should use the request's correlation ID as trace and span ID")
+    void shouldUseCorrelationId() {
+        MDC.put(CorrelationIdFilter.CORRELATION_ID_MDC_KEY, "3f2b9c1e-7d4a-4e8b-9a0c-5d6e7f809a1b");
+
+        assertThat(exemplars.isSampled()).isTrue();
+        assertThat(exemplars.getTraceId()).isEqualTo("3f2b9c1e-7d4a-4e8b-9a0c-5d6e7f809a1b");
+        assertThat(exemplars.getSpanId()).isEqualTo("3f2b9c1e-7d4a-4e8b-9a0c-5d6e7f809a1b");
+    }
+
+    @Test
+    @DisplayName("Should record no exemplar outside a request")
+    void shouldSkipWithoutCorrelationId() {
+        assertThat(exemplars.isSampled()).isFalse();
+        assertThat(exemplars.getTraceId()).isNull();
+        assertThat(exemplars.getSpanId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should record no exemplar for a correlation ID longer than 48 characters")
+    void shouldSkipLongCorrelationId() {
+        MDC.put(CorrelationIdFilter.CORRELATION_ID_MDC_KEY, "x".repeat(48));
+        assertThat(exemplars.isSampled()).isTrue();
+
+        MDC.put(CorrelationIdFilter.CORRELATION_ID_MDC_KEY, "x".repeat(49));
+        assertThat(exemplars.isSampled()).isFalse();
+        assertThat(exemplars.getTraceId()).isNull();
+    }
+}
@@ -0,0 +1,75 @@
+package com.contoso.roadinfra.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledTimerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should round the sampling interval up to a power of two")
+    void shouldRoundSampleEvery() {
+        assertThat(sampledTimer(0).sampleEvery()).isEqualTo(1);
+        assertThat(sampledTimer(1).sampleEvery()).isEqualTo(1);
+        assertThat(sampledTimer(2).sampleEvery()).isEqualTo(2);
+        assertThat(sampledTimer(3).sampleEvery()).isEqualTo(4);
+        assertThat(sampledTimer(64).sampleEvery()).isEqualTo(64);
+        assertThat(sampledTimer(65).sampleEvery()).isEqualTo(128);
+    }
+
+    @Test
+    @DisplayName("Should time every call when sampling every call")
+    void shouldTimeEveryCall() {
+        SampledTimer sampled = new StageMetrics(meterRegistry, false, 1).sampledTimer(Stage.SCORE, "reading");
+
+        for (int i = 0; i < 100; i++) {
+            sampled.stop(sampled.start());
+        }
+
+        assertThat(timer().count()).isEqualTo(100);
+        assertThat(invocations()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should count every call but time only a sample of them")
+    void shouldTimeSample() {
+        SampledTimer sampled = new StageMetrics(meterRegistry, false, 64).sampledTimer(Stage.SCORE, "reading");
+
+        for (int i = 0; i < 10_000; i++) {
+            sampled.stop(sampled.start());
+        }
+
+        assertThat(invocations()).isEqualTo(10_000);
+        // 156 expected; the bounds are over ten standard deviations away
+        assertThat(timer().count()).isBetween(25L, 300L);
+    }
+
+    @Test
+    @DisplayName("Should record nothing when stopping a call that was not sampled")
+    void shouldNotRecordUnsampledCall() {
+        SampledTimer sampled = new StageMetrics(meterRegistry, false, 64).sampledTimer(Stage.SCORE, "reading");
+
+        sampled.stop(SampledTimer.NOT_SAMPLED);
+
+        assertThat(timer().count()).isZero();
+    }
+
+    private SampledTimer sampledTimer(int sampleEvery) {
+        return new SampledTimer(Timer.builder("test").register(meterRegistry), new LongAdder(), sampleEvery);
+    }
+
+    private Timer timer() {
+        return meterRegistry.get("pipeline.score").tag("operation", "reading").tag("outcome", "success").timer();
+    }
+
+    private double invocations() {
+        return meterRegistry.get("pipeline.score.invocations").tag("operation", "reading").functionCounter().count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.contoso.roadinfra.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StageTimedAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Pipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Pipeline());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new StageTimedAspect(new StageMetrics(meterRegistry, false, 64)));
+        pipeline = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Should record a call that returns in the success timer")
+    void shouldRecordSuccess() {
+        assertThat(pipeline.ingest(List.of(1.0, 2.0))).isEqualTo(2);
+        assertThat(pipeline.ingest(List.of())).isZero();
+
+        assertThat(timer("success").count()).isEqualTo(2);
+        assertThat(timer("error").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should record a call that throws in the error timer and rethrow")
+    void shouldRecordErrorAndRethrow() {
+        assertThatThrownBy(() -> pipeline.ingest(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("no readings");
+
+        assertThat(timer("error").count()).isEqualTo(1);
+        assertThat(timer("success").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should leave methods without the annotation untimed")
+    void shouldIgnoreUnannotatedMethods() {
+        pipeline.untimed();
+
+        assertThat(meterRegistry.find(Stage.INGEST.meterName()).timers()).isEmpty();
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(Stage.INGEST.meterName())
+                .tag("operation", "batch")
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    static class Pipeline {
+
+        @StageTimed(stage = Stage.INGEST, operation = "batch")
+        public int ingest(List<Double> readings) {
+            if (readings == null) {
+                throw new IllegalArgumentException("no readings");
+            }
+            return readings.size();
+        }
+
+        public void untimed() {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.contoso.roadinfra.common.security;
+
+import com.contoso.roadinfra.common.constants.Permission;
+import com.contoso.roadinfra.common.constants.Role;
+import com.contoso.roadinfra.common.security.JwtClaimsAuthenticationFilter.JwtUserPrincipal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticationPermissionsTest {
+
+    @Test
+    @DisplayName("Should read granted permissions from PERM_ authorities")
+    void shouldReadPermissionAuthorities() {
+        Authentication authentication = authentication("PERM_SENSOR_READ", "PERM_UNKNOWN", "ROLE_ADMIN");
+
+        PermissionSet granted = AuthenticationPermissions.granted(authentication);
+
+        assertThat(granted.toSet()).containsExactly(Permission.SENSOR_READ);
+    }
+
+    @Test
+    @DisplayName("Should use the permissions carried by a JWT principal")
+    void shouldUseJwtPrincipalPermissions() {
+        JwtUserPrincipal principal = JwtUserPrincipal.builder()
+                .username("operator")
+                .permissions(PermissionSet.parse("ALERT_READ"))
+                .build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null,
+                AuthorityUtils.createAuthorityList("PERM_SENSOR_READ"));
+
+        assertThat(AuthenticationPermissions.granted(authentication).toSet()).containsExactly(Permission.ALERT_READ);
+    }
+
+    @Test
+    @DisplayName("Should grant nothing to missing or unauthenticated authentications")
+    void shouldGrantNothingWhenUnauthenticated() {
+        Authentication unauthenticated = new UsernamePasswordAuthenticationToken("viewer", null);
+
+        assertThat(AuthenticationPermissions.granted(null)).isSameAs(PermissionSet.EMPTY);
+        assertThat(AuthenticationPermissions.granted(unauthenticated)).isSameAs(PermissionSet.EMPTY);
+        assertThat(AuthenticationPermissions.fromRoles(unauthenticated)).isSameAs(PermissionSet.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Should map ROLE_ authorities to their role permissions, ignoring unknown roles")
+    void shouldMapRoles() {
+        Authentication authentication = authentication("ROLE_viewer", "ROLE_AUDITOR", "PERM_SYSTEM_ADMIN");
+
+        assertThat(AuthenticationPermissions.fromRoles(authentication))
+                .isEqualTo(RolePermissionMapping.getPermissionSet(Set.of(Role.VIEWER)));
+    }
+
+    @Test
+    @DisplayName("Should compute role permissions once for authentications sharing a principal")
+    void shouldCacheByPrincipal() {
+        AtomicInteger extractions = new AtomicInteger();
+        Function<Authentication, PermissionSet> resolver = AuthenticationPermissions.rolePermissions(auth -> {
+            extractions.incrementAndGet();
+            return List.of(Role.OPERATOR);
+        });
+        User user = new User("operator", "", List.of());
+
+        resolver.apply(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        resolver.apply(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        assertThat(extractions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the results of different role extractors apart")
+    void shouldCachePerExtractor() {
+        Authentication authentication = authentication("ROLE_VIEWER");
+        Function<Authentication, Collection<Role>> asAdmin = auth -> List.of(Role.ADMIN);
+
+        PermissionSet fromAuthorities = AuthenticationPermissions.fromRoles(authentication);
+        PermissionSet fromExtractor = AuthenticationPermissions.rolePermissions(asAdmin).apply(authentication);
+
+        assertThat(fromAuthorities).isEqualTo(RolePermissionMapping.getPermissionSet(Set.of(Role.VIEWER)));
+        assertThat(fromExtractor).isEqualTo(RolePermissionMapping.getPermissionSet(Set.of(Role.ADMIN)));
+        assertThat(AuthenticationPermissions.fromRoles(authentication)).isEqualTo(fromAuthorities);
+    }
+
+    private static Authentication authentication(String... authorities) {
+        List<GrantedAuthority> granted = AuthorityUtils.createAuthorityList(authorities);
+        return new UsernamePasswordAuthenticationToken(new User("user", "", granted), null, granted);
+    }
+}
@@ -0,0 +1,114 @@
+package com.contoso.roadinfra.common.security;
+
+import com.contoso.roadinfra.common.constants.Permission;
+import com.contoso.roadinfra.common.constants.Role;
+import com.contoso.roadinfra.common.security.JwtClaimsAuthenticationFilter.JwtUserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of one {@code hasAny} permission check: the previous approach, which collected the
+ * authorities into a string set on every call, against the bitmask checks.
+ *
+ * Run with {@code mvn -pl common-lib test-compile exec:java
+ * -Dexec.mainClass=com.contoso.roadinfra.common.security.PermissionCheckBenchmark
+ * -Dexec.classpathScope=test}. The GC profiler shows the bitmask paths do not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PermissionCheckBenchmark {
+
+    private static final String[] REQUIRED = {"SENSOR_WRITE", "SENSOR_CONFIGURE"};
+
+    private Authentication jwtPrincipalAuthentication;
+    private Authentication userDetailsAuthentication;
+
+    @Setup
+    public void setUp() {
+        Set<Permission> permissions = RolePermissionMapping.getPermissions(Role.OPERATOR);
+        String permissionClaim = permissions.stream().map(Enum::name).collect(Collectors.joining(","));
+        List<GrantedAuthority> authorities = GrantedAuthorities.of(Role.OPERATOR.name(), permissionClaim);
+
+        JwtUserPrincipal principal = JwtUserPrincipal.builder()
+                .userId(UUID.randomUUID())
+                .username("operator")
+                .role(Role.OPERATOR.name())
+                .permissions(PermissionSet.parse(permissionClaim))
+                .build();
+        jwtPrincipalAuthentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+
+        User userDetails = new User("operator", "", authorities);
+        userDetailsAuthentication = new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+    }
+
+    @Benchmark
+    public boolean stringSet() {
+        Set<String> userPermissions = jwtPrincipalAuthentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(a -> a.startsWith("PERM_"))
+                .map(a -> a.substring(5))
+                .collect(Collectors.toSet());
+        for (String permission : REQUIRED) {
+            if (userPermissions.contains(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean bitmaskOnPrincipal() {
+        return AuthenticationPermissions.granted(jwtPrincipalAuthentication).hasAny(mask());
+    }
+
+    @Benchmark
+    public boolean bitmaskCachedByPrincipal() {
+        return AuthenticationPermissions.granted(userDetailsAuthentication).hasAny(mask());
+    }
+
+    @Benchmark
+    public boolean roleBitmask() {
+        return AuthenticationPermissions.fromRoles(userDetailsAuthentication).hasAny(mask());
+    }
+
+    private static long mask() {
+        long mask = 0L;
+        for (String permission : REQUIRED) {
+            mask |= PermissionSet.bit(permission);
+        }
+        return mask;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionCheckBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
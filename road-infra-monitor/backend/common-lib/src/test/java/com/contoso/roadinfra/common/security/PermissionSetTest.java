@@ -0,0 +1,98 @@
+package com.contoso.roadinfra.common.security;
+
+import com.contoso.roadinfra.common.constants.Permission;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionSetTest {
+
+    @Test
+    @DisplayName("Should give every permission its own bit")
+    void shouldAssignDistinctBits() {
+        long all = 0L;
+        for (Permission permission : Permission.values()) {
+            long bit = PermissionSet.bit(permission);
+            assertThat(Long.bitCount(bit)).isEqualTo(1);
+            assertThat(all & bit).isZero();
+            assertThat(PermissionSet.bit(permission.name())).isEqualTo(bit);
+            all |= bit;
+        }
+        assertThat(PermissionSet.bit("NOT_A_PERMISSION")).isZero();
+        assertThat(PermissionSet.bit("sensor_read")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should parse permission claims, trimming names and skipping unknown ones")
+    void shouldParseClaims() {
+        PermissionSet set = PermissionSet.parse(" SENSOR_READ, ALERT_ACKNOWLEDGE ,UNKNOWN,,");
+
+        assertThat(set.toSet()).containsExactlyInAnyOrder(Permission.SENSOR_READ, Permission.ALERT_ACKNOWLEDGE);
+        assertThat(PermissionSet.parse(null)).isSameAs(PermissionSet.EMPTY);
+        assertThat(PermissionSet.parse("  ")).isSameAs(PermissionSet.EMPTY);
+        assertThat(PermissionSet.parse("UNKNOWN")).isSameAs(PermissionSet.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Should answer has, hasAny and hasAll as the equivalent set operations")
+    void shouldMatchSetSemantics() {
+        Permission[] permissions = Permission.values();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000; i++) {
+            Set<Permission> granted = randomSubset(permissions, random);
+            Set<Permission> required = randomSubset(permissions, random);
+            PermissionSet set = PermissionSet.of(granted);
+            long mask = PermissionSet.of(required).bits();
+
+            assertThat(set.toSet()).isEqualTo(granted);
+            assertThat(set.hasAny(mask)).isEqualTo(required.stream().anyMatch(granted::contains));
+            assertThat(set.hasAll(mask)).isEqualTo(granted.containsAll(required));
+            for (Permission permission : permissions) {
+                assertThat(set.has(permission)).isEqualTo(granted.contains(permission));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat an empty mask as nothing to match for any and everything for all")
+    void shouldHandleEmptyMask() {
+        PermissionSet set = PermissionSet.of(List.of(Permission.SENSOR_READ));
+
+        assertThat(set.hasAny(0L)).isFalse();
+        assertThat(set.hasAll(0L)).isTrue();
+        assertThat(PermissionSet.EMPTY.hasAll(0L)).isTrue();
+        assertThat(PermissionSet.EMPTY.isEmpty()).isTrue();
+        assertThat(PermissionSet.of(0L)).isSameAs(PermissionSet.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Should combine sets and compare them by their bits")
+    void shouldUnionAndCompare() {
+        PermissionSet read = PermissionSet.of(List.of(Permission.ASSET_READ));
+        PermissionSet write = PermissionSet.parse("ASSET_WRITE");
+
+        PermissionSet both = read.union(write);
+
+        assertThat(both).isEqualTo(PermissionSet.parse("ASSET_WRITE,ASSET_READ"));
+        assertThat(both.hashCode()).isEqualTo(PermissionSet.parse("ASSET_READ,ASSET_WRITE").hashCode());
+        assertThat(both).isNotEqualTo(read);
+        assertThat(read.union(PermissionSet.EMPTY)).isEqualTo(read);
+        assertThat(both.toSet()).isUnmodifiable();
+    }
+
+    private static Set<Permission> randomSubset(Permission[] permissions, SplittableRandom random) {
+        Set<Permission> subset = EnumSet.noneOf(Permission.class);
+        for (Permission permission : permissions) {
+            if (random.nextInt(4) == 0) {
+                subset.add(permission);
+            }
+        }
+        return subset;
+    }
+}
@@ -0,0 +1,159 @@
+package com.contoso.roadinfra.common.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant START = Instant.parse("2025-06-01T12:00:00Z");
+    private static final Duration MAX_TTL = Duration.ofMinutes(15);
+
+    private final FakeTime time = new FakeTime();
+    private final VerifiedTokenCache<Token> cache = new VerifiedTokenCache<>(100, MAX_TTL, time, time.clock());
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    record Token(String subject, Instant expiresAt) {
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve it from the cache until it expires")
+    void shouldExpireAtTokenExpiry() {
+        Function<String, Token> verifier = verifier(START.plus(Duration.ofMinutes(5)));
+
+        Token first = get("token-a", verifier);
+        time.advance(Duration.ofMinutes(5).minusSeconds(1));
+        Token second = get("token-a", verifier);
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+
+        time.advance(Duration.ofSeconds(1));
+        get("token-a", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should cap the lifetime of long-lived tokens and tokens without an expiry")
+    void shouldCapLifetimeAtMaxTtl() {
+        get("long-lived", verifier(START.plus(Duration.ofDays(1))));
+        get("no-expiry", verifier(null));
+        // Far enough out to overflow a nanosecond count
+        get("distant", verifier(Instant.parse("2900-01-01T00:00:00Z")));
+        time.advance(MAX_TTL.minusSeconds(1));
+        get("long-lived", verifier(null));
+        get("no-expiry", verifier(null));
+        get("distant", verifier(null));
+        assertThat(verifications).hasValue(3);
+
+        time.advance(Duration.ofSeconds(1));
+        get("long-lived", verifier(null));
+        get("no-expiry", verifier(null));
+        get("distant", verifier(null));
+
+        assertThat(verifications).hasValue(6);
+    }
+
+    @Test
+    @DisplayName("Should not keep a token that had already expired when it was verified")
+    void shouldNotCacheExpiredToken() {
+        Function<String, Token> verifier = verifier(START.minusSeconds(30));
+
+        get("stale", verifier);
+        get("stale", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache failed verifications")
+    void shouldNotCacheFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        Function<String, Token> flaky = token -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalArgumentException("bad signature");
+            }
+            return new Token(token, START.plus(Duration.ofMinutes(5)));
+        };
+
+        assertThatThrownBy(() -> get("token-b", flaky)).hasMessage("bad signature");
+        Token token = get("token-b", flaky);
+        get("token-b", flaky);
+
+        assertThat(token.subject()).isEqualTo("token-b");
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should keep distinct tokens apart")
+    void shouldKeyByToken() {
+        Function<String, Token> verifier = verifier(START.plus(Duration.ofMinutes(5)));
+
+        Token a = get("token-a", verifier);
+        Token b = get("token-b", verifier);
+
+        assertThat(a.subject()).isEqualTo("token-a");
+        assertThat(b.subject()).isEqualTo("token-b");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private Token get(String token, Function<String, Token> verifier) {
+        return cache.get(token, verifier, Token::expiresAt);
+    }
+
+    private Function<String, Token> verifier(Instant expiresAt) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new Token(token, expiresAt);
+        };
+    }
+
+    /**
+     * A ticker and a wall clock that advance together.
+     */
+    private static class FakeTime implements Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+
+        Clock clock() {
+            return new Clock() {
+                @Override
+                public ZoneId getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return START.plusNanos(nanos.get());
+                }
+            };
+        }
+    }
+}
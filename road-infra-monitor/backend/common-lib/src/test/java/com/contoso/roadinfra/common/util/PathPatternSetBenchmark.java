@@ -0,0 +1,136 @@
+package com.contoso.roadinfra.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a request path against the public/excluded path table, for the
+ * previous per-request approaches and the precompiled ones.
+ *
+ * Request paths mix the gateway's real routes, mostly authenticated API calls with a few
+ * public ones, the way traffic does. Run with {@code mvn -pl common-lib test-compile
+ * exec:java -Dexec.mainClass=com.contoso.roadinfra.common.util.PathPatternSetBenchmark
+ * -Dexec.classpathScope=test}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathPatternSetBenchmark {
+
+    private static final List<String> PATTERNS = List.of(
+            "/api/v1/auth/login",
+            "/api/v1/auth/refresh",
+            "/actuator/**",
+            "/api-docs/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/fallback/**"
+    );
+
+    private static final String[] PATHS = {
+            "/api/v1/sensors/6f1c2a9e-4b7d-4c1e-9a2f-3d5e8b7c1a20/readings",
+            "/api/v1/sensors/readings/batch",
+            "/api/v1/assets/within",
+            "/api/v1/assets/corridor/range",
+            "/api/v1/health/corridor-summary",
+            "/api/v1/monitoring/health/6f1c2a9e-4b7d-4c1e-9a2f-3d5e8b7c1a20/trend",
+            "/api/v1/alerts/statistics",
+            "/api/v1/alerts/6f1c2a9e-4b7d-4c1e-9a2f-3d5e8b7c1a20/acknowledge",
+            "/api/v1/analytics/dashboard/summary",
+            "/api/v1/analytics/export-jobs",
+            "/api/v1/auth/login",
+            "/api/v1/auth/me",
+            "/actuator/health/liveness",
+            "/actuator/prometheus",
+            "/swagger-ui/index.html",
+            "/api-docs/swagger-config"
+    };
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private final List<PathPattern> pathPatterns =
+            PATTERNS.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    private final PathContainer[] parsedPaths = parse(PATHS);
+    private final PathPatternSet pathPatternSet = PathPatternSet.of(PATTERNS);
+    private int cursor;
+
+    /** Previous gateway check: AntPathMatcher against every pattern. */
+    @Benchmark
+    public boolean antPathMatcher() {
+        String path = PATHS[next()];
+        return PATTERNS.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
+    }
+
+    /** Previous servlet filter check: a stream of string comparisons. */
+    @Benchmark
+    public boolean prefixStream() {
+        String path = PATHS[next()];
+        return PATTERNS.stream().anyMatch(pattern -> {
+            if (pattern.endsWith("/**")) {
+                return path.startsWith(pattern.substring(0, pattern.length() - 3));
+            }
+            return path.equals(pattern);
+        });
+    }
+
+    /** Gateway check: precompiled patterns against the request's already parsed path. */
+    @Benchmark
+    public boolean pathPatterns() {
+        PathContainer path = parsedPaths[next()];
+        for (PathPattern pattern : pathPatterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Servlet filter check: the segment trie over the raw request URI. */
+    @Benchmark
+    public boolean pathPatternSet() {
+        return pathPatternSet.matches(PATHS[next()]);
+    }
+
+    private int next() {
+        int i = cursor++;
+        if (cursor == PATHS.length) {
+            cursor = 0;
+        }
+        return i;
+    }
+
+    private static PathContainer[] parse(String[] paths) {
+        PathContainer[] parsed = new PathContainer[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            parsed[i] = PathContainer.parsePath(paths[i]);
+        }
+        return parsed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PathPatternSetBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
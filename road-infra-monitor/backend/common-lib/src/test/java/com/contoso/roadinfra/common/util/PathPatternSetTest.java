@@ -0,0 +1,183 @@
+package com.contoso.roadinfra.common.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathPatternSetTest {
+
+    private static final List<String> PATTERNS = List.of(
+            "/api/v1/auth/login",
+            "/api/v1/auth/refresh",
+            "/actuator/**",
+            "/api-docs/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/fallback/**",
+            "/api/v1/*/public",
+            "/api/v1/sensors/*/readings",
+            "/api/v1/sensors/readings/batch",
+            "/**/status",
+            "/api/v1/assets/{id}/children",
+            "/api/v1/alerts/*",
+            "/api/v1/reports/",
+            "/files/*.csv"
+    );
+
+    private static final List<String> PATHS = List.of(
+            "/",
+            "/api/v1/auth/login",
+            "/api/v1/auth/login/",
+            "/api/v1/auth/loginx",
+            "/api/v1/auth/log",
+            "/api/v1/auth",
+            "/API/v1/auth/login",
+            "/api/v1/auth%2Flogin",
+            "/api/v1/auth/refresh",
+            "/actuator",
+            "/actuator/",
+            "/actuator/health",
+            "/actuator/health/liveness",
+            "/actuatorx/health",
+            "/api-docs",
+            "/api-docs/swagger-config",
+            "/api/docs",
+            "/swagger-ui.html",
+            "/swagger-ui.html/x",
+            "/swagger-ui/index.html",
+            "/swagger-ui/index%2Ehtml",
+            "/swagger-uix",
+            "/fallback",
+            "/fallback/sensor-service",
+            "/api/v1/sensors/public",
+            "/api/v1/sensors/public/",
+            "/api/v1/public",
+            "/api/v1/sensors/readings/batch",
+            "/api/v1/sensors/6f1c2a9e-4b7d/readings",
+            "/api/v1/sensors/readings/readings",
+            "/api/v1/sensors/a%2Fb/readings",
+            "/api/v1/sensors/readings",
+            "/status",
+            "/api/v1/status",
+            "/api/v1/status/x",
+            "/api/v1/assets/42/children",
+            "/api/v1/assets/42/children/",
+            "/api/v1/alerts/",
+            "/api/v1/alerts/42",
+            "/api/v1/alerts/42/",
+            "/api/v1/reports",
+            "/api/v1/reports/",
+            "/files/report.csv",
+            "/files/report.csvx"
+    );
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    @DisplayName("Should match each pattern on its own as AntPathMatcher does")
+    void shouldMatchSinglePatternsLikeAntPathMatcher() {
+        for (String pattern : PATTERNS) {
+            PathPatternSet set = PathPatternSet.of(List.of(pattern));
+            for (String path : PATHS) {
+                assertThat(set.matches(path))
+                        .as("%s against %s", path, pattern)
+                        .isEqualTo(antPathMatcher.match(pattern, path));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match the whole table as AntPathMatcher over every pattern does")
+    void shouldMatchTableLikeAntPathMatcher() {
+        PathPatternSet set = PathPatternSet.of(PATTERNS);
+
+        for (String path : PATHS) {
+            assertThat(set.matches(path)).as(path).isEqualTo(anyAntMatch(PATTERNS, path));
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree with AntPathMatcher on random patterns and paths over a small alphabet")
+    void shouldMatchRandomPatternsLikeAntPathMatcher() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] segments = {"a", "b", "ab", "*", "**"};
+        for (int round = 0; round < 500; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                patterns.add(randomPath(random, segments, true));
+            }
+            PathPatternSet set = PathPatternSet.of(patterns);
+            for (int i = 0; i < 20; i++) {
+                String path = randomPath(random, new String[]{"a", "b", "ab", "c"}, false);
+                assertThat(set.matches(path))
+                        .as("%s against %s", path, patterns)
+                        .isEqualTo(anyAntMatch(patterns, path));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should let a wildcard match where a longer literal branch fails")
+    void shouldBacktrackFromLiteralToWildcard() {
+        PathPatternSet set = PathPatternSet.of(List.of("/a/b/c", "/a/*/d", "/a/b"));
+
+        assertThat(set.matches("/a/b/d")).isTrue();
+        assertThat(set.matches("/a/x/d")).isTrue();
+        assertThat(set.matches("/a/b")).isTrue();
+        assertThat(set.matches("/a/b/c/d")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match nothing for an empty set, a relative path or no path")
+    void shouldRejectDegenerateInput() {
+        PathPatternSet set = PathPatternSet.of(PATTERNS);
+
+        assertThat(PathPatternSet.of(List.of()).matches("/actuator/health")).isFalse();
+        assertThat(set.matches(null)).isFalse();
+        assertThat(set.matches("")).isFalse();
+        assertThat(set.matches("actuator/health")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match every path with a root double wildcard")
+    void shouldMatchEverythingUnderRootWildcard() {
+        PathPatternSet set = PathPatternSet.of(List.of("/**"));
+
+        for (String path : PATHS) {
+            assertThat(set.matches(path)).as(path).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not ignore empty segments in the path the way AntPathMatcher does")
+    void shouldNotCollapseEmptySegments() {
+        PathPatternSet set = PathPatternSet.of(List.of("/actuator/**", "/api/v1/auth/login"));
+
+        assertThat(antPathMatcher.match("/api/v1/auth/login", "/api/v1//auth/login")).isTrue();
+        assertThat(set.matches("/api/v1//auth/login")).isFalse();
+        assertThat(set.matches("//actuator/health")).isFalse();
+        assertThat(set.matches("/actuator//health")).isTrue();
+    }
+
+    private boolean anyAntMatch(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
+    }
+
+    private static String randomPath(SplittableRandom random, String[] segments, boolean pattern) {
+        StringBuilder path = new StringBuilder();
+        int length = random.nextInt(pattern ? 1 : 0, 5);
+        for (int i = 0; i < length; i++) {
+            path.append('/').append(segments[random.nextInt(segments.length)]);
+        }
+        if (path.isEmpty() || random.nextInt(8) == 0) {
+            path.append('/');
+        }
+        return path.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.monitoring.config;
 
+import com.contoso.roadinfra.common.security.CachingJwtDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -60,9 +61,9 @@ public class SecurityConfig {
         // Use raw bytes to match API gateway's key derivation
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA384");
-        return NimbusJwtDecoder.withSecretKey(key)
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key)
                 .macAlgorithm(org.springframework.security.oauth2.jose.jws.MacAlgorithm.HS384)
-                .build();
+                .build());
     }
 
     @Bean
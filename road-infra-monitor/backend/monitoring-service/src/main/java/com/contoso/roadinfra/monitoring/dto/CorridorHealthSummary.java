@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Summary of health across the entire corridor")
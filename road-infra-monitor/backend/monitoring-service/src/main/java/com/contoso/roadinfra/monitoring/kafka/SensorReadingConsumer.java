@@ -3,6 +3,8 @@ package com.contoso.roadinfra.monitoring.kafka;
 import com.contoso.roadinfra.common.constants.AssetType;
 import com.contoso.roadinfra.common.constants.HealthStatus;
 import com.contoso.roadinfra.common.constants.SensorType;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
 import com.contoso.roadinfra.monitoring.entity.AssetHealthRecord;
 import com.contoso.roadinfra.monitoring.entity.HealthThreshold;
 import com.contoso.roadinfra.monitoring.repository.AssetHealthRecordRepository;
@@ -43,6 +45,7 @@ public class SensorReadingConsumer {
 
     @KafkaListener(topics = "sensor-readings", groupId = "monitoring-service-group",
             containerFactory = "kafkaListenerContainerFactory")
+    @StageTimed(stage = Stage.CONSUME, operation = "sensor-reading")
     public void consumeSensorReading(String message) {
         try {
             JsonNode node = objectMapper.readTree(message);
@@ -131,6 +134,7 @@ public class SensorReadingConsumer {
      * Recompute health scores every 30 seconds based on cached readings.
      */
     @Scheduled(fixedRate = 30000)
+    @StageTimed(stage = Stage.SCORE, operation = "health-recompute")
     public void recomputeHealthScores() {
         log.debug("Recomputing health scores for {} assets", assetReadingsCache.size());
 
@@ -0,0 +1,134 @@
+package com.contoso.roadinfra.sensor.anomaly;
+
+import com.contoso.roadinfra.common.metrics.SampledTimer;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the streaming statistical detector inline at ingest.
+ *
+ * Each sensor is given a dense ordinal the first time it reports; the detector keeps
+ * its state in arrays indexed by that ordinal. Evaluation for a sensor is serialised
+ * on one of a fixed set of lock stripes, so the normal-reading path takes a map
+ * lookup and a short uncontended lock and allocates nothing. Scoring is timed with a
+ * sampled timer, which keeps it that way.
+ */
+@Service
+@Slf4j
+public class AnomalyDetectionService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final boolean enabled;
+    private final long publishCooldownMillis;
+    private final OnlineAnomalyDetector detector;
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final long[] lastPublishedMillis;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final SampledTimer scoreTimer;
+    private volatile boolean capacityWarned;
+
+    public AnomalyDetectionService(@Value("${sensor.anomaly-detection.enabled:true}") boolean enabled,
+                                   @Value("${sensor.anomaly-detection.max-sensors:16384}") int maxSensors,
+                                   @Value("${sensor.anomaly-detection.alpha:0.01}") double alpha,
+                                   @Value("${sensor.anomaly-detection.z-threshold:4.0}") double zThreshold,
+                                   @Value("${sensor.anomaly-detection.robust-z-threshold:5.0}") double robustZThreshold,
+                                   @Value("${sensor.anomaly-detection.cusum-slack:0.5}") double cusumSlack,
+                                   @Value("${sensor.anomaly-detection.cusum-limit:8.0}") double cusumLimit,
+                                   @Value("${sensor.anomaly-detection.warmup-samples:50}") int warmupSamples,
+                                   @Value("${sensor.anomaly-detection.publish-cooldown-seconds:300}") long cooldownSeconds,
+                                   StageMetrics stageMetrics) {
+        this.enabled = enabled;
+        this.scoreTimer = stageMetrics.sampledTimer(Stage.SCORE, "anomaly");
+        this.publishCooldownMillis = cooldownSeconds * 1000;
+        this.detector = new OnlineAnomalyDetector(maxSensors, alpha, zThreshold, robustZThreshold,
+                cusumSlack, cusumLimit, warmupSamples);
+        this.lastPublishedMillis = new long[maxSensors];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Score a reading against the sensor's learned behaviour and update that behaviour.
+     *
+     * @return the anomaly details, or {@code null} when the reading looks normal
+     */
+    public StatisticalAnomaly evaluate(UUID sensorId, double value, long epochMillis) {
+        if (!enabled) {
+            return null;
+        }
+        int ordinal = ordinalOf(sensorId);
+        if (ordinal < 0) {
+            return null;
+        }
+
+        long start = scoreTimer.start();
+        synchronized (locks[ordinal & (LOCK_STRIPES - 1)]) {
+            int signals = detector.evaluate(ordinal, value);
+            if (signals == 0) {
+                scoreTimer.stop(start);
+                return null;
+            }
+            boolean publish = epochMillis - lastPublishedMillis[ordinal] >= publishCooldownMillis;
+            if (publish) {
+                lastPublishedMillis[ordinal] = epochMillis;
+            }
+            StatisticalAnomaly anomaly = new StatisticalAnomaly(signals,
+                    detector.lastZScore(ordinal),
+                    detector.lastRobustZScore(ordinal),
+                    detector.cusumHigh(ordinal),
+                    detector.cusumLow(ordinal),
+                    detector.mean(ordinal),
+                    detector.stdDeviation(ordinal),
+                    publish);
+            scoreTimer.stop(start);
+            return anomaly;
+        }
+    }
+
+    /**
+     * Discard the learned baseline for a sensor, e.g. after it has been recalibrated.
+     */
+    public void reset(UUID sensorId) {
+        Integer ordinal = ordinals.get(sensorId);
+        if (ordinal != null && ordinal >= 0) {
+            synchronized (locks[ordinal & (LOCK_STRIPES - 1)]) {
+                detector.reset(ordinal);
+                lastPublishedMillis[ordinal] = 0;
+            }
+        }
+    }
+
+    private int ordinalOf(UUID sensorId) {
+        Integer ordinal = ordinals.get(sensorId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (nextOrdinal.get() >= detector.capacity()) {
+            if (!capacityWarned) {
+                capacityWarned = true;
+                log.warn("Anomaly detector is tracking {} sensors, its configured maximum; "
+                        + "new sensors will not be scored", detector.capacity());
+            }
+            return -1;
+        }
+        return ordinals.computeIfAbsent(sensorId, id -> {
+            int next = nextOrdinal.getAndIncrement();
+            return next < detector.capacity() ? next : -1;
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.contoso.roadinfra.sensor.anomaly;
+
+/**
+ * Per-sensor streaming anomaly detector with constant state per sensor.
+ *
+ * Three detectors run over every reading, all scored against the state from before
+ * the reading is folded in:
+ * <ul>
+ *   <li>EWMA z-score: distance from an exponentially weighted mean in units of the
+ *       exponentially weighted standard deviation.</li>
+ *   <li>Robust z-score: distance from a streaming median estimate in units of the
+ *       mean absolute deviation around it. Updates are winsorised so isolated spikes
+ *       do not drag the location or inflate the scale.</li>
+ *   <li>Two-sided CUSUM over the EWMA z-score, which picks up small sustained shifts
+ *       that never cross the z threshold on their own.</li>
+ * </ul>
+ *
+ * State lives in parallel primitive arrays indexed by a sensor ordinal, so
+ * {@link #evaluate} does not allocate. The detector is not thread-safe: callers must
+ * serialise calls for the same ordinal.
+ */
+public final class OnlineAnomalyDetector {
+
+    public static final int SIGNAL_EWMA_Z = 1;
+    public static final int SIGNAL_ROBUST_Z = 1 << 1;
+    public static final int SIGNAL_CUSUM_HIGH = 1 << 2;
+    public static final int SIGNAL_CUSUM_LOW = 1 << 3;
+
+    /** Mean absolute deviation to standard deviation for normally distributed data (sqrt(pi / 2)). */
+    private static final double MEAN_ABS_DEVIATION_SCALE = 1.2533141373155003;
+    private static final double RELATIVE_SIGMA_FLOOR = 1e-6;
+
+    private final double alpha;
+    private final double zThreshold;
+    private final double robustZThreshold;
+    private final double cusumSlack;
+    private final double cusumLimit;
+    private final int warmupSamples;
+
+    private final long[] count;
+    private final double[] mean;
+    private final double[] variance;
+    private final double[] median;
+    private final double[] absDeviation;
+    private final double[] cusumHigh;
+    private final double[] cusumLow;
+    private final double[] lastZ;
+    private final double[] lastRobustZ;
+
+    /**
+     * @param capacity          number of sensor ordinals to hold state for
+     * @param alpha             EWMA smoothing factor in (0, 1]
+     * @param zThreshold        |EWMA z| at or above which a reading is anomalous
+     * @param robustZThreshold  |robust z| at or above which a reading is anomalous
+     * @param cusumSlack        allowance k subtracted from each z before accumulating
+     * @param cusumLimit        decision interval h at which a CUSUM side fires (and resets)
+     * @param warmupSamples     readings observed per sensor before any signal is raised
+     */
+    public OnlineAnomalyDetector(int capacity, double alpha, double zThreshold, double robustZThreshold,
+                                 double cusumSlack, double cusumLimit, int warmupSamples) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.robustZThreshold = robustZThreshold;
+        this.cusumSlack = cusumSlack;
+        this.cusumLimit = cusumLimit;
+        this.warmupSamples = Math.max(warmupSamples, 2);
+
+        this.count = new long[capacity];
+        this.mean = new double[capacity];
+        this.variance = new double[capacity];
+        this.median = new double[capacity];
+        this.absDeviation = new double[capacity];
+        this.cusumHigh = new double[capacity];
+        this.cusumLow = new double[capacity];
+        this.lastZ = new double[capacity];
+        this.lastRobustZ = new double[capacity];
+    }
+
+    /**
+     * Score {@code value} for the sensor at {@code ordinal} and fold it into that sensor's state.
+     *
+     * @return bitmask of {@code SIGNAL_*} flags, 0 when the reading looks normal
+     */
+    public int evaluate(int ordinal, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return 0;
+        }
+
+        long n = count[ordinal]++;
+        if (n == 0) {
+            mean[ordinal] = value;
+            median[ordinal] = value;
+            variance[ordinal] = 0;
+            absDeviation[ordinal] = 0;
+            cusumHigh[ordinal] = 0;
+            cusumLow[ordinal] = 0;
+            lastZ[ordinal] = 0;
+            lastRobustZ[ordinal] = 0;
+            return 0;
+        }
+
+        double m = mean[ordinal];
+        double sigma = Math.max(Math.sqrt(variance[ordinal]), floor(m));
+        double z = (value - m) / sigma;
+
+        double med = median[ordinal];
+        double scale = Math.max(absDeviation[ordinal] * MEAN_ABS_DEVIATION_SCALE, floor(med));
+        double robustZ = (value - med) / scale;
+
+        // EWMA mean and variance (incremental form)
+        double diff = value - m;
+        double increment = alpha * diff;
+        mean[ordinal] = m + increment;
+        variance[ordinal] = (1 - alpha) * (variance[ordinal] + diff * increment);
+
+        // Streaming median and absolute deviation, on a winsorised observation once warmed up
+        double clipped = value;
+        if (n >= warmupSamples) {
+            double limit = robustZThreshold * scale;
+            clipped = Math.max(med - limit, Math.min(med + limit, value));
+        }
+        double step = alpha * Math.max(scale, sigma);
+        if (clipped > med) {
+            median[ordinal] = med + Math.min(step, clipped - med);
+        } else if (clipped < med) {
+            median[ordinal] = med - Math.min(step, med - clipped);
+        }
+        absDeviation[ordinal] += alpha * (Math.abs(clipped - med) - absDeviation[ordinal]);
+
+        lastZ[ordinal] = z;
+        lastRobustZ[ordinal] = robustZ;
+
+        if (n < warmupSamples) {
+            return 0;
+        }
+
+        int signals = 0;
+        if (Math.abs(z) >= zThreshold) {
+            signals |= SIGNAL_EWMA_Z;
+        }
+        if (Math.abs(robustZ) >= robustZThreshold) {
+            signals |= SIGNAL_ROBUST_Z;
+        }
+
+        double high = Math.max(0, cusumHigh[ordinal] + z - cusumSlack);
+        double low = Math.max(0, cusumLow[ordinal] - z - cusumSlack);
+        if (high >= cusumLimit) {
+            signals |= SIGNAL_CUSUM_HIGH;
+            high = 0;
+        }
+        if (low >= cusumLimit) {
+            signals |= SIGNAL_CUSUM_LOW;
+            low = 0;
+        }
+        cusumHigh[ordinal] = high;
+        cusumLow[ordinal] = low;
+
+        return signals;
+    }
+
+    /**
+     * Forget everything learned for {@code ordinal}, e.g. after recalibration.
+     */
+    public void reset(int ordinal) {
+        count[ordinal] = 0;
+    }
+
+    public int capacity() {
+        return count.length;
+    }
+
+    public long sampleCount(int ordinal) {
+        return count[ordinal];
+    }
+
+    public double mean(int ordinal) {
+        return mean[ordinal];
+    }
+
+    public double stdDeviation(int ordinal) {
+        return Math.sqrt(variance[ordinal]);
+    }
+
+    public double median(int ordinal) {
+        return median[ordinal];
+    }
+
+    /** EWMA z-score of the last evaluated reading. */
+    public double lastZScore(int ordinal) {
+        return lastZ[ordinal];
+    }
+
+    /** Robust z-score of the last evaluated reading. */
+    public double lastRobustZScore(int ordinal) {
+        return lastRobustZ[ordinal];
+    }
+
+    public double cusumHigh(int ordinal) {
+        return cusumHigh[ordinal];
+    }
+
+    public double cusumLow(int ordinal) {
+        return cusumLow[ordinal];
+    }
+
+    /**
+     * Smallest scale used for scoring, so a flat-lined signal still yields finite scores.
+     */
+    private static double floor(double level) {
+        return RELATIVE_SIGMA_FLOOR * Math.max(1.0, Math.abs(level));
+    }
+}
@@ -0,0 +1,45 @@
+package com.contoso.roadinfra.sensor.anomaly;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an anomalous reading as seen by {@link OnlineAnomalyDetector}.
+ *
+ * @param signals bitmask of {@code OnlineAnomalyDetector.SIGNAL_*} flags
+ * @param publish whether the sensor is outside its publish cool-down
+ */
+public record StatisticalAnomaly(int signals,
+                                 double zScore,
+                                 double robustZScore,
+                                 double cusumHigh,
+                                 double cusumLow,
+                                 double expectedValue,
+                                 double stdDeviation,
+                                 boolean publish) {
+
+    /**
+     * Anomaly score on the 0-100 scale used by threshold breaches: 10 points per
+     * standard deviation of the larger of the two z-scores.
+     */
+    public double score() {
+        return Math.min(100.0, 10.0 * Math.max(Math.abs(zScore), Math.abs(robustZScore)));
+    }
+
+    public List<String> signalNames() {
+        List<String> names = new ArrayList<>(4);
+        if ((signals & OnlineAnomalyDetector.SIGNAL_EWMA_Z) != 0) {
+            names.add("EWMA_Z_SCORE");
+        }
+        if ((signals & OnlineAnomalyDetector.SIGNAL_ROBUST_Z) != 0) {
+            names.add("ROBUST_Z_SCORE");
+        }
+        if ((signals & OnlineAnomalyDetector.SIGNAL_CUSUM_HIGH) != 0) {
+            names.add("CUSUM_UPWARD_SHIFT");
+        }
+        if ((signals & OnlineAnomalyDetector.SIGNAL_CUSUM_LOW) != 0) {
+            names.add("CUSUM_DOWNWARD_SHIFT");
+        }
+        return names;
+    }
+}
@@ -1,5 +1,7 @@
 package com.contoso.roadinfra.sensor.config;
 
+import com.contoso.roadinfra.common.concurrent.TaskExecutors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
@@ -7,32 +9,28 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.concurrent.Executor;
 
 /**
  * Configuration for async operations and scheduled tasks.
+ * The executor runs on virtual threads when {@code spring.threads.virtual.enabled} is set.
  */
 @Configuration
 @EnableAsync
 @EnableScheduling
+@RequiredArgsConstructor
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+    private final TaskExecutors taskExecutors;
+
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("sensor-async-");
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(30);
-        executor.initialize();
-        return executor;
+        return taskExecutors.asyncExecutor("sensor-async-", 5, 10, 100, Duration.ofSeconds(30));
     }
 
     @Override
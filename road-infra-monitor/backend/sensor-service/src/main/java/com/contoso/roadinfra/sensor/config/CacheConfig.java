@@ -1,36 +1,43 @@
 package com.contoso.roadinfra.sensor.config;
 
+import com.contoso.roadinfra.common.cache.TwoLevelCacheManager;
+import com.contoso.roadinfra.sensor.dto.SensorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                             @Value("${spring.application.name}") String applicationName,
+                                             @Value("${cache.local.ttl:60s}") Duration localTtl,
+                                             @Value("${cache.local.maximum-size:10000}") long localMaximumSize) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
-        cacheConfigs.put("sensors", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-        cacheConfigs.put("sensor-readings", defaultConfig.entryTtl(Duration.ofSeconds(30)));
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigs)
+        return TwoLevelCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig, localTtl, localMaximumSize)
+                .withCache("sensors", defaultConfig.entryTtl(Duration.ofMinutes(5)))
+                .withCache("sensor-readings", defaultConfig.entryTtl(Duration.ofSeconds(30)))
+                // Every field is immutable, so a shallow copy saves deserializing on L1 hits
+                .localCopier(SensorResponse.class, sensor -> sensor.toBuilder().build())
+                .invalidationChannel("cache-invalidation:" + applicationName)
+                .meterRegistry(meterRegistry.getIfAvailable())
                 .build();
     }
 }
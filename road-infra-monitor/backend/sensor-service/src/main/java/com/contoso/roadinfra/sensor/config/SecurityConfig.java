@@ -1,5 +1,6 @@
 package com.contoso.roadinfra.sensor.config;
 
+import com.contoso.roadinfra.common.security.CachingJwtDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -62,9 +63,9 @@ public class SecurityConfig {
         // is treated as HS512 by jjwt's Keys.hmacShaKeyFor()
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA512");
-        return NimbusJwtDecoder.withSecretKey(key)
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key)
                 .macAlgorithm(MacAlgorithm.HS512)
-                .build();
+                .build());
     }
 
     @Bean
@@ -0,0 +1,40 @@
+package com.contoso.roadinfra.sensor.config;
+
+import com.contoso.roadinfra.common.geo.PostgisSpatialIndex;
+import com.contoso.roadinfra.common.geo.RTreeSpatialIndex;
+import com.contoso.roadinfra.common.geo.SpatialIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * Spatial index behind the sensor bbox, radius and nearest queries.
+ *
+ * By default an in-memory R-tree maintained by {@code SensorLocationIndex}. Large
+ * deployments can set {@code sensor.spatial-index.type} to {@code postgis} to query a
+ * GiST index over the coordinate columns instead.
+ */
+@Configuration
+public class SpatialIndexConfig {
+
+    static final String SENSOR_GEOMETRY = "ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)";
+
+    @Bean
+    @ConditionalOnProperty(name = "sensor.spatial-index.type", havingValue = "memory", matchIfMissing = true)
+    public SpatialIndex<UUID> sensorSpatialIndex(
+            @Value("${sensor.spatial-index.rebuild-threshold:256}") int rebuildThreshold) {
+        return new RTreeSpatialIndex<>(rebuildThreshold);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sensor.spatial-index.type", havingValue = "postgis")
+    public SpatialIndex<UUID> postgisSensorSpatialIndex(JdbcTemplate jdbcTemplate) {
+        PostgisSpatialIndex index = new PostgisSpatialIndex(jdbcTemplate, "sensors", "id", SENSOR_GEOMETRY);
+        index.createIndex("idx_sensors_geometry");
+        return index;
+    }
+}
@@ -1,6 +1,7 @@
 package com.contoso.roadinfra.sensor.controller;
 
 import com.contoso.roadinfra.common.dto.ApiResponse;
+import com.contoso.roadinfra.common.geo.GeoBounds;
 import com.contoso.roadinfra.sensor.dto.*;
 import com.contoso.roadinfra.sensor.security.SensorPermissionEvaluator;
 import com.contoso.roadinfra.sensor.service.SensorService;
@@ -21,6 +22,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -33,6 +36,10 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class SensorController {
 
+    private static final int MAX_RADIUS_METERS = 50_000;
+    private static final int MAX_NEAREST = 100;
+    private static final int MAX_COUNT_ASSETS = 1000;
+
     private final SensorService sensorService;
     private final SensorPermissionEvaluator permissionEvaluator;
 
@@ -76,6 +83,54 @@ public class SensorController {
         return ResponseEntity.ok(ApiResponse.success(sensors));
     }
 
+    @PostMapping("/counts-by-asset")
+    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_READ')")
+    @Operation(summary = "Get sensor counts by asset", description = "Count the sensors of up to 1000 assets in one call")
+    public ResponseEntity<ApiResponse<Map<UUID, Long>>> getSensorCountsByAsset(@RequestBody Set<UUID> assetIds) {
+        if (assetIds.size() > MAX_COUNT_ASSETS) {
+            throw new IllegalArgumentException("At most " + MAX_COUNT_ASSETS + " asset IDs per request");
+        }
+        Map<UUID, Long> counts = sensorService.getSensorCountsByAssetIds(assetIds);
+        return ResponseEntity.ok(ApiResponse.success(counts));
+    }
+
+    @GetMapping("/within")
+    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_READ')")
+    @Operation(summary = "Get sensors in bounding box", description = "Retrieve sensors located within a bounding box")
+    public ResponseEntity<ApiResponse<List<SensorResponse>>> getSensorsWithin(
+            @Parameter(description = "Bounding box as minLon,minLat,maxLon,maxLat") @RequestParam String bbox) {
+        List<SensorResponse> sensors = sensorService.getSensorsWithin(GeoBounds.parse(bbox));
+        return ResponseEntity.ok(ApiResponse.success(sensors));
+    }
+
+    @GetMapping("/nearby")
+    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_READ')")
+    @Operation(summary = "Get sensors near a point", description = "Retrieve sensors within a radius of a point, nearest first")
+    public ResponseEntity<ApiResponse<List<SensorResponse>>> getSensorsNearby(
+            @RequestParam double lon,
+            @RequestParam double lat,
+            @Parameter(description = "Radius in meters") @RequestParam double radius) {
+        if (radius < 0 || radius > MAX_RADIUS_METERS) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + MAX_RADIUS_METERS + " meters");
+        }
+        List<SensorResponse> sensors = sensorService.getSensorsNearby(lon, lat, radius);
+        return ResponseEntity.ok(ApiResponse.success(sensors));
+    }
+
+    @GetMapping("/nearest")
+    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_READ')")
+    @Operation(summary = "Get nearest sensors", description = "Retrieve the k sensors nearest to a point, nearest first")
+    public ResponseEntity<ApiResponse<List<SensorResponse>>> getNearestSensors(
+            @RequestParam double lon,
+            @RequestParam double lat,
+            @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST);
+        }
+        List<SensorResponse> sensors = sensorService.getNearestSensors(lon, lat, k);
+        return ResponseEntity.ok(ApiResponse.success(sensors));
+    }
+
     @GetMapping("/stats/by-type")
     @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_READ')")
     @Operation(summary = "Get sensor counts by type", description = "Get count of sensors grouped by type")
@@ -92,6 +147,13 @@ public class SensorController {
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
+    @GetMapping("/stats/assigned-count")
+    @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_READ')")
+    @Operation(summary = "Get assigned sensor count", description = "Count the sensors attached to any asset")
+    public ResponseEntity<ApiResponse<Long>> getAssignedSensorCount() {
+        return ResponseEntity.ok(ApiResponse.success(sensorService.getAssignedSensorCount()));
+    }
+
     @PostMapping
     @PreAuthorize("@permissionEvaluator.hasPermission(authentication, 'SENSOR_WRITE')")
     @Operation(summary = "Register sensor", description = "Register a new sensor (ADMIN, ENGINEER only)")
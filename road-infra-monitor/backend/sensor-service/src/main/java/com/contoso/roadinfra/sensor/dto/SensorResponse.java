@@ -18,7 +18,7 @@ import java.util.UUID;
  * Response DTO for sensor data.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Sensor response data")
@@ -0,0 +1,45 @@
+package com.contoso.roadinfra.sensor.event;
+
+import com.contoso.roadinfra.sensor.geo.SensorLocationIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Applies sensor changes made by other instances to this instance's spatial index.
+ *
+ * Every instance joins its own consumer group so that each receives every event. The
+ * group is named after the instance, so a restart resumes it instead of leaving an
+ * orphaned group behind; a new group starts from the latest offset since the index is
+ * loaded from the database. Events are keyed by sensor ID; the payload is not needed
+ * because the sensor is reloaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SensorChangeListener {
+
+    private final SensorLocationIndex locationIndex;
+
+    @KafkaListener(
+            topics = SensorEventPublisher.TOPIC_SENSOR_EVENTS,
+            groupId = "sensor-service-locations-${sensor.change-events.instance-id}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onSensorChanged(ConsumerRecord<String, String> record) {
+        UUID sensorId;
+        try {
+            sensorId = UUID.fromString(record.key());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Ignoring {} event without a sensor ID key", record.topic());
+            return;
+        }
+        locationIndex.refresh(sensorId);
+    }
+}
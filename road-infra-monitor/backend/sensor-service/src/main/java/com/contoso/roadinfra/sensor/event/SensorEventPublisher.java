@@ -1,6 +1,9 @@
 package com.contoso.roadinfra.sensor.event;
 
 import com.contoso.roadinfra.common.constants.SensorStatus;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
+import com.contoso.roadinfra.sensor.anomaly.StatisticalAnomaly;
 import com.contoso.roadinfra.sensor.dto.SensorAlertResponse;
 import com.contoso.roadinfra.sensor.dto.SensorReadingResponse;
 import com.contoso.roadinfra.sensor.dto.SensorResponse;
@@ -20,6 +23,7 @@ import org.springframework.stereotype.Component;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Publishes sensor events to Kafka topics and WebSocket channels.
@@ -32,7 +36,8 @@ public class SensorEventPublisher {
     private static final String TOPIC_SENSOR_ALERTS = "sensor-alerts";
     private static final String TOPIC_SENSOR_STATUS_CHANGES = "sensor-status-changes";
     private static final String TOPIC_SENSOR_TELEMETRY = "sensor-telemetry";
-    private static final String TOPIC_SENSOR_EVENTS = "sensor-events";
+    static final String TOPIC_SENSOR_EVENTS = "sensor-events";
+    private static final String TOPIC_SENSOR_ANOMALIES = "sensor-anomalies";
 
     private static final String WS_TOPIC_READINGS_ALL = "/topic/sensor-readings/all";
     private static final String WS_TOPIC_READINGS_SENSOR = "/topic/sensor-readings/";
@@ -48,6 +53,7 @@ public class SensorEventPublisher {
      * Publish a sensor reading to Kafka and WebSocket.
      */
     @Async
+    @StageTimed(stage = Stage.PUBLISH, operation = "sensor-reading")
     public void publishSensorReading(SensorReading reading, Sensor sensor) {
         log.debug("Publishing reading for sensor {}", sensor.getSensorCode());
 
@@ -58,10 +64,14 @@ public class SensorEventPublisher {
         enrichedReading.put("reading", response);
         enrichedReading.put("sensorCode", sensor.getSensorCode());
         enrichedReading.put("sensorType", sensor.getSensorType());
+        enrichedReading.put("assetId", sensor.getAssetId());
+        enrichedReading.put("assetType", sensor.getAssetType());
 
-        // Publish to Kafka
+        // Publish to Kafka, keyed by asset so that one consumer sees all of an asset's
+        // sensors (the alert service correlates readings per asset)
         try {
-            kafkaTemplate.send(TOPIC_SENSOR_TELEMETRY, sensor.getId().toString(), enrichedReading);
+            UUID key = sensor.getAssetId() != null ? sensor.getAssetId() : sensor.getId();
+            kafkaTemplate.send(TOPIC_SENSOR_TELEMETRY, key.toString(), enrichedReading);
             log.debug("Published reading to Kafka topic: {}", TOPIC_SENSOR_TELEMETRY);
         } catch (Exception e) {
             log.error("Failed to publish reading to Kafka: {}", e.getMessage());
@@ -82,6 +92,7 @@ public class SensorEventPublisher {
      * Publish a sensor alert to Kafka and WebSocket.
      */
     @Async
+    @StageTimed(stage = Stage.PUBLISH, operation = "sensor-alert")
     public void publishSensorAlert(SensorAlert alert, Sensor sensor) {
         log.info("Publishing alert {} for sensor {}", alert.getAlertType(), sensor.getSensorCode());
 
@@ -104,6 +115,40 @@ public class SensorEventPublisher {
         }
     }
 
+    /**
+     * Publish a statistically anomalous reading to Kafka.
+     */
+    @Async
+    @StageTimed(stage = Stage.PUBLISH, operation = "sensor-anomaly")
+    public void publishSensorAnomaly(SensorReading reading, Sensor sensor, StatisticalAnomaly anomaly) {
+        log.info("Publishing statistical anomaly {} for sensor {}", anomaly.signalNames(), sensor.getSensorCode());
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", "STATISTICAL_ANOMALY");
+        event.put("sensorId", sensor.getId());
+        event.put("sensorCode", sensor.getSensorCode());
+        event.put("sensorType", sensor.getSensorType());
+        event.put("assetId", sensor.getAssetId());
+        event.put("readingId", reading.getId());
+        event.put("value", reading.getValue());
+        event.put("unit", sensor.getUnit());
+        event.put("readingTimestamp", reading.getTimestamp());
+        event.put("signals", anomaly.signalNames());
+        event.put("anomalyScore", anomaly.score());
+        event.put("zScore", anomaly.zScore());
+        event.put("robustZScore", anomaly.robustZScore());
+        event.put("expectedValue", anomaly.expectedValue());
+        event.put("stdDeviation", anomaly.stdDeviation());
+        event.put("timestamp", Instant.now());
+
+        try {
+            kafkaTemplate.send(TOPIC_SENSOR_ANOMALIES, sensor.getId().toString(), event);
+            log.debug("Published anomaly to Kafka topic: {}", TOPIC_SENSOR_ANOMALIES);
+        } catch (Exception e) {
+            log.error("Failed to publish anomaly to Kafka: {}", e.getMessage());
+        }
+    }
+
     /**
      * Publish a sensor status change event.
      */
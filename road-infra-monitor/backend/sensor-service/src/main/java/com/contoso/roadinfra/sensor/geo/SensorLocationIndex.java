@@ -0,0 +1,200 @@
+package com.contoso.roadinfra.sensor.geo;
+
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.contoso.roadinfra.common.geo.RTreeSpatialIndex;
+import com.contoso.roadinfra.common.geo.SpatialIndex;
+import com.contoso.roadinfra.sensor.entity.Sensor;
+import com.contoso.roadinfra.sensor.repository.SensorLocation;
+import com.contoso.roadinfra.sensor.repository.SensorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spatial lookups of sensors by position.
+ *
+ * When the configured index is the in-memory R-tree, this component keeps it current:
+ * local writes are applied once they commit, other instances' writes arrive as sensor
+ * events, and a periodic reload from the database, which also builds the index at
+ * startup, repairs anything missed. Changes applied while a reload reads the database
+ * may be newer than what it read, so they are replayed over its snapshot. A
+ * database-backed index needs no maintenance.
+ */
+@Component
+@Slf4j
+public class SensorLocationIndex {
+
+    private final SensorRepository sensorRepository;
+    private final SpatialIndex<UUID> index;
+    private final RTreeSpatialIndex<UUID> memoryIndex;
+    // A lock rather than synchronized: reload queries the database, which would pin a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final ReentrantLock changeLock = new ReentrantLock();
+    // Positions changed while a reload is in progress, null meaning removed; guarded by changeLock
+    private Map<UUID, GeoBounds> changesDuringReload;
+    private volatile boolean loaded;
+
+    public SensorLocationIndex(SensorRepository sensorRepository, SpatialIndex<UUID> sensorSpatialIndex) {
+        this.sensorRepository = sensorRepository;
+        this.index = sensorSpatialIndex;
+        this.memoryIndex = sensorSpatialIndex instanceof RTreeSpatialIndex<UUID> rtree ? rtree : null;
+        this.loaded = memoryIndex == null;
+    }
+
+    public List<UUID> within(GeoBounds bounds) {
+        ensureLoaded();
+        return index.within(bounds);
+    }
+
+    public List<SpatialIndex.Neighbor<UUID>> withinRadius(double lon, double lat, double radiusMeters) {
+        ensureLoaded();
+        return index.withinRadius(lon, lat, radiusMeters);
+    }
+
+    public List<SpatialIndex.Neighbor<UUID>> nearest(double lon, double lat, int limit) {
+        ensureLoaded();
+        return index.nearest(lon, lat, limit);
+    }
+
+    /**
+     * Index a sensor's position once the current transaction commits.
+     */
+    public void sensorSaved(Sensor sensor) {
+        if (memoryIndex == null) {
+            return;
+        }
+        UUID id = sensor.getId();
+        Double lon = sensor.getLongitude();
+        Double lat = sensor.getLatitude();
+        afterCommit(() -> put(id, lon, lat));
+    }
+
+    /**
+     * Reload one sensor's position after a change notification.
+     */
+    public void refresh(UUID sensorId) {
+        if (memoryIndex == null) {
+            return;
+        }
+        sensorRepository.findById(sensorId).ifPresentOrElse(
+                sensor -> put(sensor.getId(), sensor.getLongitude(), sensor.getLatitude()),
+                () -> apply(sensorId, null));
+    }
+
+    /**
+     * Reload every position and repack the R-tree.
+     */
+    @Scheduled(fixedDelayString = "${sensor.spatial-index.reload-interval-ms:300000}")
+    public void reload() {
+        if (memoryIndex == null) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            setChangesDuringReload(new HashMap<>());
+            Map<UUID, GeoBounds> entries;
+            try {
+                entries = loadPositions();
+            } catch (RuntimeException e) {
+                setChangesDuringReload(null);
+                throw e;
+            }
+            changeLock.lock();
+            try {
+                changesDuringReload.forEach((id, bounds) -> {
+                    if (bounds != null) {
+                        entries.put(id, bounds);
+                    } else {
+                        entries.remove(id);
+                    }
+                });
+                changesDuringReload = null;
+                memoryIndex.replaceAll(entries);
+            } finally {
+                changeLock.unlock();
+            }
+            if (!loaded) {
+                log.info("Sensor spatial index loaded with {} sensors", entries.size());
+            }
+            loaded = true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Map<UUID, GeoBounds> loadPositions() {
+        List<SensorLocation> locations = sensorRepository.findAllLocations();
+        Map<UUID, GeoBounds> entries = new HashMap<>(locations.size() * 2);
+        for (SensorLocation location : locations) {
+            if (location.longitude() != null && location.latitude() != null) {
+                entries.put(location.id(), GeoBounds.ofPoint(location.longitude(), location.latitude()));
+            }
+        }
+        return entries;
+    }
+
+    private void put(UUID id, Double lon, Double lat) {
+        apply(id, lon != null && lat != null ? GeoBounds.ofPoint(lon, lat) : null);
+    }
+
+    private void apply(UUID id, GeoBounds bounds) {
+        changeLock.lock();
+        try {
+            if (changesDuringReload != null) {
+                changesDuringReload.put(id, bounds);
+            }
+            if (bounds != null) {
+                memoryIndex.put(id, bounds);
+            } else {
+                memoryIndex.remove(id);
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    private void setChangesDuringReload(Map<UUID, GeoBounds> changes) {
+        changeLock.lock();
+        try {
+            changesDuringReload = changes;
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            // Callers that waited for the first load must not each run another
+            if (!loaded) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
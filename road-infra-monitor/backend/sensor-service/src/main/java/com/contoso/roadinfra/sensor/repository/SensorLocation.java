@@ -0,0 +1,9 @@
+package com.contoso.roadinfra.sensor.repository;
+
+import java.util.UUID;
+
+/**
+ * A sensor's position, loaded without the rest of the entity.
+ */
+public record SensorLocation(UUID id, Double longitude, Double latitude) {
+}
@@ -4,11 +4,13 @@ import com.contoso.roadinfra.sensor.entity.SensorReading;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -63,6 +65,23 @@ public interface SensorReadingRepository extends JpaRepository<SensorReading, UU
                                 @Param("start") Instant start,
                                 @Param("end") Instant end);
 
+    // Cold storage tiering
+    @Query("SELECT DISTINCT sr.sensorId FROM SensorReading sr WHERE sr.timestamp < :before")
+    List<UUID> findSensorIdsWithReadingsBefore(@Param("before") Instant before);
+
+    @Query("SELECT MIN(sr.timestamp) FROM SensorReading sr WHERE sr.sensorId = :sensorId")
+    Instant findEarliestTimestamp(@Param("sensorId") UUID sensorId);
+
+    @Query("SELECT sr FROM SensorReading sr WHERE sr.sensorId = :sensorId " +
+            "AND sr.timestamp >= :start AND sr.timestamp < :end ORDER BY sr.timestamp ASC")
+    List<SensorReading> findForCompaction(@Param("sensorId") UUID sensorId,
+                                          @Param("start") Instant start,
+                                          @Param("end") Instant end);
+
+    @Modifying
+    @Query("DELETE FROM SensorReading sr WHERE sr.id IN :ids")
+    int deleteCompactedReadings(@Param("ids") Collection<UUID> ids);
+
     // Delete old readings for data retention
     @Query("DELETE FROM SensorReading sr WHERE sr.timestamp < :before")
     void deleteReadingsOlderThan(@Param("before") Instant before);
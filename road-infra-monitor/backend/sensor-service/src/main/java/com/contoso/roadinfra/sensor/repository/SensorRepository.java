@@ -13,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,12 +50,15 @@ public interface SensorRepository extends JpaRepository<Sensor, UUID> {
     @Query("SELECT COUNT(s) FROM Sensor s WHERE s.status = :status")
     long countByStatus(@Param("status") SensorStatus status);
 
-    @Query("SELECT s FROM Sensor s WHERE s.latitude BETWEEN :minLat AND :maxLat " +
-            "AND s.longitude BETWEEN :minLon AND :maxLon")
-    List<Sensor> findInBoundingBox(@Param("minLat") Double minLat,
-                                    @Param("maxLat") Double maxLat,
-                                    @Param("minLon") Double minLon,
-                                    @Param("maxLon") Double maxLon);
+    // Positions of all sensors, for loading the in-memory spatial index
+    @Query("SELECT new com.contoso.roadinfra.sensor.repository.SensorLocation(s.id, s.longitude, s.latitude) " +
+            "FROM Sensor s")
+    List<SensorLocation> findAllLocations();
+
+    @Query("SELECT s.assetId, COUNT(s) FROM Sensor s WHERE s.assetId IN :assetIds GROUP BY s.assetId")
+    List<Object[]> countGroupedByAssetIdIn(@Param("assetIds") Collection<UUID> assetIds);
+
+    long countByAssetIdIsNotNull();
 
     // Aggregation queries for statistics
     @Query("SELECT s.sensorType, COUNT(s) FROM Sensor s GROUP BY s.sensorType")
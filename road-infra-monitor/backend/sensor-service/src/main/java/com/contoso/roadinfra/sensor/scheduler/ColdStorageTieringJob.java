@@ -0,0 +1,74 @@
+package com.contoso.roadinfra.sensor.scheduler;
+
+import com.contoso.roadinfra.sensor.repository.SensorReadingRepository;
+import com.contoso.roadinfra.sensor.service.SensorReadingService;
+import com.contoso.roadinfra.sensor.storage.cold.ColdStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Nightly job that moves sensor readings older than the hot retention window
+ * out of Postgres and into the columnar cold tier, one sensor-day at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ColdStorageTieringJob {
+
+    private final ColdStorageService coldStorage;
+    private final SensorReadingService readingService;
+    private final SensorReadingRepository readingRepository;
+
+    @Value("${sensor.cold-storage.hot-retention-days:21}")
+    private int hotRetentionDays;
+
+    /**
+     * Compact every complete day older than the retention window (daily at 3:30 AM).
+     */
+    @Scheduled(cron = "${sensor.cold-storage.compaction-cron:0 30 3 * * *}")
+    public void compactColdReadings() {
+        if (!coldStorage.isEnabled()) {
+            return;
+        }
+
+        LocalDate cutoffDay = LocalDate.now(ZoneOffset.UTC).minusDays(hotRetentionDays);
+        Instant cutoff = cutoffDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+        log.info("Running cold storage compaction for readings before {}", cutoff);
+
+        List<UUID> sensorIds = readingRepository.findSensorIdsWithReadingsBefore(cutoff);
+        long moved = 0;
+        for (UUID sensorId : sensorIds) {
+            try {
+                moved += compactSensor(sensorId, cutoff);
+            } catch (Exception e) {
+                log.error("Failed to compact cold readings for sensor {}: {}", sensorId, e.getMessage());
+            }
+        }
+
+        log.info("Cold storage compaction completed: {} readings from {} sensors moved", moved, sensorIds.size());
+    }
+
+    private long compactSensor(UUID sensorId, Instant cutoff) {
+        long moved = 0;
+        Instant earliest = readingRepository.findEarliestTimestamp(sensorId);
+        while (earliest != null && earliest.isBefore(cutoff)) {
+            LocalDate day = LocalDate.ofInstant(earliest, ZoneOffset.UTC);
+            int count = readingService.moveToColdStorage(sensorId, day);
+            if (count == 0) {
+                break;
+            }
+            moved += count;
+            earliest = readingRepository.findEarliestTimestamp(sensorId);
+        }
+        return moved;
+    }
+}
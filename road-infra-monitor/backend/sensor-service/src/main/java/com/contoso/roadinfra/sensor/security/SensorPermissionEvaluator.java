@@ -1,8 +1,8 @@
 package com.contoso.roadinfra.sensor.security;
 
-import com.contoso.roadinfra.common.constants.Permission;
 import com.contoso.roadinfra.common.constants.Role;
-import com.contoso.roadinfra.common.security.RolePermissionMapping;
+import com.contoso.roadinfra.common.security.AuthenticationPermissions;
+import com.contoso.roadinfra.common.security.PermissionSet;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -11,16 +11,23 @@ import org.springframework.stereotype.Component;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Custom permission evaluator for sensor-service that reads user roles from JWT claims
  * and checks permissions using the RolePermissionMapping.
+ *
+ * The permissions of the user's roles are resolved to a bitmask once per authentication,
+ * so each check is a bitwise AND.
  */
 @Component("permissionEvaluator")
 @Slf4j
 public class SensorPermissionEvaluator {
 
+    private final Function<Authentication, PermissionSet> rolePermissionResolver =
+            AuthenticationPermissions.rolePermissions(this::extractRolesFromAuthentication);
+
     /**
      * Check if the authenticated user has the specified permission.
      *
@@ -34,53 +41,64 @@ public class SensorPermissionEvaluator {
             return false;
         }
 
-        try {
-            Permission requiredPermission = Permission.valueOf(permission);
-            Set<Role> userRoles = extractRolesFromAuthentication(authentication);
-
-            if (userRoles.isEmpty()) {
-                log.debug("No roles found for user, denying permission: {}", permission);
-                return false;
-            }
-
-            boolean hasPermission = userRoles.stream()
-                    .anyMatch(role -> RolePermissionMapping.hasPermission(role, requiredPermission));
-
-            log.debug("User {} permission check for {}: {} (roles: {})",
-                    getUsernameFromAuthentication(authentication),
-                    permission,
-                    hasPermission,
-                    userRoles);
-
-            return hasPermission;
-        } catch (IllegalArgumentException e) {
+        long bit = PermissionSet.bit(permission);
+        if (bit == 0L) {
             log.error("Invalid permission name: {}", permission);
             return false;
         }
+
+        PermissionSet userPermissions = rolePermissions(authentication);
+        boolean hasPermission = userPermissions.hasAny(bit);
+
+        log.debug("User {} permission check for {}: {} (permissions: {})",
+                getUsernameFromAuthentication(authentication),
+                permission,
+                hasPermission,
+                userPermissions);
+
+        return hasPermission;
     }
 
     /**
      * Check if the user has any of the specified permissions.
      */
     public boolean hasAnyPermission(Authentication authentication, String... permissions) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        long mask = 0L;
         for (String permission : permissions) {
-            if (hasPermission(authentication, permission)) {
-                return true;
+            long bit = PermissionSet.bit(permission);
+            if (bit == 0L) {
+                log.error("Invalid permission name: {}", permission);
             }
+            mask |= bit;
         }
-        return false;
+        return rolePermissions(authentication).hasAny(mask);
     }
 
     /**
      * Check if the user has all of the specified permissions.
      */
     public boolean hasAllPermissions(Authentication authentication, String... permissions) {
+        if (permissions.length == 0) {
+            return true;
+        }
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        long mask = 0L;
         for (String permission : permissions) {
-            if (!hasPermission(authentication, permission)) {
+            long bit = PermissionSet.bit(permission);
+            if (bit == 0L) {
+                log.error("Invalid permission name: {}", permission);
                 return false;
             }
+            mask |= bit;
         }
-        return true;
+        return rolePermissions(authentication).hasAll(mask);
     }
 
     /**
@@ -101,6 +119,13 @@ public class SensorPermissionEvaluator {
         }
     }
 
+    /**
+     * Permissions of the user's roles, computed once per authentication.
+     */
+    private PermissionSet rolePermissions(Authentication authentication) {
+        return rolePermissionResolver.apply(authentication);
+    }
+
     /**
      * Extract roles from the authentication object (JWT).
      * Supports both "role" (single role string) and "roles" (comma-separated roles) claims.
@@ -4,6 +4,10 @@ import com.contoso.roadinfra.common.constants.AlertSeverity;
 import com.contoso.roadinfra.common.constants.DataQuality;
 import com.contoso.roadinfra.common.constants.SensorAlertType;
 import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
+import com.contoso.roadinfra.common.metrics.Stage;
+import com.contoso.roadinfra.common.metrics.StageTimed;
+import com.contoso.roadinfra.sensor.anomaly.AnomalyDetectionService;
+import com.contoso.roadinfra.sensor.anomaly.StatisticalAnomaly;
 import com.contoso.roadinfra.sensor.dto.*;
 import com.contoso.roadinfra.sensor.entity.Sensor;
 import com.contoso.roadinfra.sensor.entity.SensorAlert;
@@ -12,17 +16,26 @@ import com.contoso.roadinfra.sensor.event.SensorEventPublisher;
 import com.contoso.roadinfra.sensor.mapper.SensorReadingMapper;
 import com.contoso.roadinfra.sensor.repository.SensorAlertRepository;
 import com.contoso.roadinfra.sensor.repository.SensorReadingRepository;
+import com.contoso.roadinfra.sensor.storage.ReadingAggregate;
+import com.contoso.roadinfra.sensor.storage.cold.ColdStorageService;
+import com.contoso.roadinfra.sensor.storage.segment.SegmentStoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -34,15 +47,22 @@ import java.util.UUID;
 @Transactional
 public class SensorReadingService {
 
+    // Ids per DELETE when moving a day to the cold tier, to keep the IN list bounded
+    private static final int COMPACTION_DELETE_BATCH = 1000;
+
     private final SensorReadingRepository readingRepository;
     private final SensorAlertRepository alertRepository;
     private final SensorReadingMapper readingMapper;
     private final SensorService sensorService;
     private final SensorEventPublisher eventPublisher;
+    private final ColdStorageService coldStorage;
+    private final SegmentStoreService segmentStore;
+    private final AnomalyDetectionService anomalyDetection;
 
     /**
      * Ingest a new sensor reading.
      */
+    @StageTimed(stage = Stage.INGEST, operation = "single")
     public SensorReadingResponse ingestReading(UUID sensorId, SensorReadingRequest request) {
         log.debug("Ingesting reading for sensor {}: {}", sensorId, request.getValue());
 
@@ -61,8 +81,23 @@ public class SensorReadingService {
             createThresholdBreachAlert(sensor, reading);
         }
 
+        // Score against the sensor's learned behaviour; this also catches drifts and
+        // spikes that stay within the static thresholds
+        StatisticalAnomaly statistical = reading.getValue() != null
+                ? anomalyDetection.evaluate(sensorId, reading.getValue(), reading.getTimestamp().toEpochMilli())
+                : null;
+        if (statistical != null && !isAnomaly) {
+            reading.setAnomaly(true);
+            reading.setAnomalyScore(statistical.score());
+        }
+
         // Save the reading
         SensorReading saved = readingRepository.save(reading);
+        appendToSegmentStoreAfterCommit(saved);
+
+        if (statistical != null && statistical.publish()) {
+            afterCommit(() -> eventPublisher.publishSensorAnomaly(saved, sensor, statistical));
+        }
 
         // Update sensor's current value and last data received
         sensorService.updateSensorDataReceived(sensorId, reading.getValue(), reading.getTimestamp());
@@ -76,6 +111,7 @@ public class SensorReadingService {
     /**
      * Batch ingest multiple sensor readings.
      */
+    @StageTimed(stage = Stage.INGEST, operation = "batch")
     public List<SensorReadingResponse> batchIngestReadings(BatchReadingRequest request) {
         log.info("Batch ingesting {} readings", request.getReadings().size());
 
@@ -123,7 +159,8 @@ public class SensorReadingService {
     }
 
     /**
-     * Get readings for a sensor within a time range.
+     * Get readings for a sensor within a time range, spanning the hot (Postgres) and
+     * cold (file) tiers.
      */
     @Transactional(readOnly = true)
     public List<SensorReadingResponse> getReadingsInRange(UUID sensorId, Instant start, Instant end) {
@@ -132,8 +169,24 @@ public class SensorReadingService {
         // Verify sensor exists
         sensorService.getSensorEntityById(sensorId);
 
-        return readingMapper.toResponseList(
-                readingRepository.findBySensorIdAndTimestampBetweenOrderByTimestampDesc(sensorId, start, end));
+        // Recent ranges are served from the memory-mapped segment store when it holds them
+        if (segmentStore.covers(sensorId, start)) {
+            return readingMapper.toResponseList(segmentStore.findInRange(sensorId, start, end));
+        }
+
+        List<SensorReading> readings =
+                readingRepository.findBySensorIdAndTimestampBetweenOrderByTimestampDesc(sensorId, start, end);
+
+        List<SensorReading> coldReadings = coldStorage.findInRange(sensorId, start, end);
+        if (!coldReadings.isEmpty()) {
+            List<SensorReading> combined = new ArrayList<>(readings.size() + coldReadings.size());
+            combined.addAll(readings);
+            combined.addAll(coldReadings);
+            combined.sort(Comparator.comparing(SensorReading::getTimestamp).reversed());
+            readings = combined;
+        }
+
+        return readingMapper.toResponseList(readings);
     }
 
     /**
@@ -146,7 +199,14 @@ public class SensorReadingService {
         // Verify sensor exists
         sensorService.getSensorEntityById(sensorId);
 
+        Optional<SensorReading> recent = segmentStore.findLatest(sensorId)
+                .filter(latest -> segmentStore.covers(sensorId, latest.getTimestamp()));
+        if (recent.isPresent()) {
+            return readingMapper.toResponse(recent.get());
+        }
+
         return readingRepository.findLatestBySensorId(sensorId)
+                .or(() -> coldStorage.findLatest(sensorId))
                 .map(readingMapper::toResponse)
                 .orElse(null);
     }
@@ -168,6 +228,10 @@ public class SensorReadingService {
             end = Instant.now();
         }
 
+        if (segmentStore.covers(sensorId, start)) {
+            return toStatsResponse(sensorId, start, end, segmentStore.aggregate(sensorId, start, end), sensor);
+        }
+
         Long readingCount = readingRepository.countReadingsInPeriod(sensorId, start, end);
         Double minValue = readingRepository.findMinValue(sensorId, start, end);
         Double maxValue = readingRepository.findMaxValue(sensorId, start, end);
@@ -175,6 +239,20 @@ public class SensorReadingService {
         Double stdDev = readingRepository.calculateStdDeviation(sensorId, start, end);
         Long anomalyCount = readingRepository.countAnomaliesInPeriod(sensorId, start, end);
 
+        // Fold in readings that have been tiered out to cold storage
+        ReadingAggregate cold = coldStorage.aggregate(sensorId, start, end);
+        if (cold.getCount() > 0) {
+            ReadingAggregate combined = ReadingAggregate.fromSummary(
+                    readingCount != null ? readingCount : 0L, minValue, maxValue, avgValue, stdDev,
+                    anomalyCount != null ? anomalyCount : 0L).merge(cold);
+            readingCount = combined.getCount();
+            minValue = combined.getMin();
+            maxValue = combined.getMax();
+            avgValue = combined.getAverage();
+            stdDev = combined.getStdDeviation();
+            anomalyCount = combined.getAnomalyCount();
+        }
+
         return SensorReadingStatsResponse.builder()
                 .sensorId(sensorId)
                 .periodStart(start)
@@ -189,6 +267,76 @@ public class SensorReadingService {
                 .build();
     }
 
+    private SensorReadingStatsResponse toStatsResponse(UUID sensorId, Instant start, Instant end,
+                                                       ReadingAggregate aggregate, Sensor sensor) {
+        return SensorReadingStatsResponse.builder()
+                .sensorId(sensorId)
+                .periodStart(start)
+                .periodEnd(end)
+                .readingCount(aggregate.getCount())
+                .minValue(aggregate.getMin())
+                .maxValue(aggregate.getMax())
+                .avgValue(aggregate.getAverage())
+                .stdDeviation(aggregate.getStdDeviation())
+                .anomalyCount(aggregate.getAnomalyCount())
+                .unit(sensor.getUnit())
+                .build();
+    }
+
+    /**
+     * Feed the reading to the segment store once it is durable in Postgres.
+     */
+    private void appendToSegmentStoreAfterCommit(SensorReading saved) {
+        if (segmentStore.isEnabled()) {
+            afterCommit(() -> segmentStore.append(saved));
+        }
+    }
+
+    /**
+     * Run {@code action} once the current transaction has committed, or right away
+     * outside a transaction, so nothing is published for a reading that is rolled back.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Move one UTC day of a sensor's readings from Postgres into the cold tier.
+     * The rows are only deleted once the day file has been written, and only the rows
+     * that went into it: a late reading inserted meanwhile stays in Postgres and is
+     * moved by a later run.
+     *
+     * @return number of readings removed from the hot tier
+     */
+    public int moveToColdStorage(UUID sensorId, LocalDate day) {
+        Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant dayEnd = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        List<SensorReading> readings = readingRepository.findForCompaction(sensorId, dayStart, dayEnd);
+        if (readings.isEmpty()) {
+            return 0;
+        }
+
+        coldStorage.compact(sensorId, day, readings);
+        List<UUID> ids = readings.stream().map(SensorReading::getId).toList();
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += COMPACTION_DELETE_BATCH) {
+            deleted += readingRepository.deleteCompactedReadings(
+                    ids.subList(from, Math.min(from + COMPACTION_DELETE_BATCH, ids.size())));
+        }
+        log.debug("Moved {} readings for sensor {} on {} to cold storage", deleted, sensorId, day);
+        return deleted;
+    }
+
     /**
      * Check if a reading value breaches configured thresholds.
      */
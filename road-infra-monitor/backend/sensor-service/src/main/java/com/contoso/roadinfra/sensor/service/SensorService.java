@@ -3,9 +3,13 @@ package com.contoso.roadinfra.sensor.service;
 import com.contoso.roadinfra.common.constants.SensorStatus;
 import com.contoso.roadinfra.common.constants.SensorType;
 import com.contoso.roadinfra.common.exception.ResourceNotFoundException;
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.contoso.roadinfra.common.geo.SpatialIndex;
+import com.contoso.roadinfra.sensor.anomaly.AnomalyDetectionService;
 import com.contoso.roadinfra.sensor.dto.*;
 import com.contoso.roadinfra.sensor.entity.Sensor;
 import com.contoso.roadinfra.sensor.event.SensorEventPublisher;
+import com.contoso.roadinfra.sensor.geo.SensorLocationIndex;
 import com.contoso.roadinfra.sensor.mapper.SensorMapper;
 import com.contoso.roadinfra.sensor.repository.SensorRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +22,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +42,8 @@ public class SensorService {
     private final SensorRepository sensorRepository;
     private final SensorMapper sensorMapper;
     private final SensorEventPublisher eventPublisher;
+    private final AnomalyDetectionService anomalyDetection;
+    private final SensorLocationIndex locationIndex;
 
     /**
      * Get a sensor by its ID.
@@ -77,6 +87,59 @@ public class SensorService {
         return sensorMapper.toResponseList(sensorRepository.findByAssetId(assetId));
     }
 
+    /**
+     * Count the sensors of each asset in one query. Assets without sensors map to zero.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getSensorCountsByAssetIds(Collection<UUID> assetIds) {
+        log.debug("Counting sensors for {} assets", assetIds.size());
+        Map<UUID, Long> counts = new HashMap<>(assetIds.size() * 2);
+        for (UUID assetId : assetIds) {
+            counts.put(assetId, 0L);
+        }
+        if (!assetIds.isEmpty()) {
+            for (Object[] row : sensorRepository.countGroupedByAssetIdIn(assetIds)) {
+                counts.put((UUID) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Count the sensors attached to any asset.
+     */
+    @Transactional(readOnly = true)
+    public long getAssignedSensorCount() {
+        return sensorRepository.countByAssetIdIsNotNull();
+    }
+
+    /**
+     * Get sensors located within a bounding box.
+     */
+    @Transactional(readOnly = true)
+    public List<SensorResponse> getSensorsWithin(GeoBounds bbox) {
+        log.debug("Fetching sensors within {}", bbox);
+        return loadInOrder(locationIndex.within(bbox));
+    }
+
+    /**
+     * Get sensors within a radius of a point, nearest first.
+     */
+    @Transactional(readOnly = true)
+    public List<SensorResponse> getSensorsNearby(double lon, double lat, double radiusMeters) {
+        log.debug("Fetching sensors within {} m of {},{}", radiusMeters, lon, lat);
+        return loadInOrder(keys(locationIndex.withinRadius(lon, lat, radiusMeters)));
+    }
+
+    /**
+     * Get the sensors nearest to a point, nearest first.
+     */
+    @Transactional(readOnly = true)
+    public List<SensorResponse> getNearestSensors(double lon, double lat, int limit) {
+        log.debug("Fetching {} sensors nearest to {},{}", limit, lon, lat);
+        return loadInOrder(keys(locationIndex.nearest(lon, lat, limit)));
+    }
+
     /**
      * Get sensors grouped by type with counts.
      */
@@ -124,6 +187,7 @@ public class SensorService {
 
         Sensor saved = sensorRepository.save(sensor);
         log.info("Sensor created with ID: {}", saved.getId());
+        locationIndex.sensorSaved(saved);
 
         // Publish event
         eventPublisher.publishSensorCreated(saved);
@@ -145,6 +209,7 @@ public class SensorService {
 
         Sensor updated = sensorRepository.save(sensor);
         log.info("Sensor {} updated successfully", id);
+        locationIndex.sensorSaved(updated);
 
         // Publish event
         eventPublisher.publishSensorUpdated(updated);
@@ -168,6 +233,12 @@ public class SensorService {
         Sensor updated = sensorRepository.save(sensor);
         log.info("Sensor {} status changed from {} to {}", id, oldStatus, request.getStatus());
 
+        // A sensor coming back from maintenance or a fault has to re-learn its baseline
+        if (request.getStatus() == SensorStatus.ACTIVE
+                && (oldStatus == SensorStatus.MAINTENANCE || oldStatus == SensorStatus.FAULTY)) {
+            anomalyDetection.reset(id);
+        }
+
         // Publish status change event
         eventPublisher.publishSensorStatusChanged(updated, oldStatus, request.getReason());
 
@@ -240,4 +311,19 @@ public class SensorService {
     public int bulkUpdateStatus(List<UUID> sensorIds, SensorStatus newStatus, String username) {
         return sensorRepository.updateStatusForSensors(sensorIds, newStatus, Instant.now(), username);
     }
+
+    private static List<UUID> keys(List<SpatialIndex.Neighbor<UUID>> neighbors) {
+        return neighbors.stream().map(SpatialIndex.Neighbor::key).collect(Collectors.toList());
+    }
+
+    // Load sensors in one query and return them in the order of the given IDs
+    private List<SensorResponse> loadInOrder(List<UUID> ids) {
+        Map<UUID, Sensor> sensors = sensorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Sensor::getId, sensor -> sensor));
+        return ids.stream()
+                .map(sensors::get)
+                .filter(Objects::nonNull)
+                .map(sensorMapper::toResponse)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,118 @@
+package com.contoso.roadinfra.sensor.storage;
+
+/**
+ * Mergeable running aggregate over reading values (count, min, max, sum, sum of squares).
+ *
+ * Lets statistics computed by different storage tiers be combined without
+ * re-reading the underlying readings.
+ */
+public final class ReadingAggregate {
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+    private double sumOfSquares;
+    private long anomalyCount;
+
+    public static ReadingAggregate empty() {
+        return new ReadingAggregate();
+    }
+
+    public static ReadingAggregate of(long count, double min, double max,
+                                      double sum, double sumOfSquares, long anomalyCount) {
+        ReadingAggregate aggregate = new ReadingAggregate();
+        aggregate.count = count;
+        aggregate.min = count > 0 ? min : Double.POSITIVE_INFINITY;
+        aggregate.max = count > 0 ? max : Double.NEGATIVE_INFINITY;
+        aggregate.sum = sum;
+        aggregate.sumOfSquares = sumOfSquares;
+        aggregate.anomalyCount = anomalyCount;
+        return aggregate;
+    }
+
+    /**
+     * Rebuild an aggregate from the AVG/STDDEV_SAMP style figures returned by SQL.
+     */
+    public static ReadingAggregate fromSummary(long count, Double min, Double max,
+                                               Double avg, Double sampleStdDev, long anomalyCount) {
+        ReadingAggregate aggregate = new ReadingAggregate();
+        if (count == 0 || avg == null) {
+            aggregate.anomalyCount = anomalyCount;
+            return aggregate;
+        }
+        double sd = sampleStdDev != null ? sampleStdDev : 0.0;
+        aggregate.count = count;
+        aggregate.min = min != null ? min : avg;
+        aggregate.max = max != null ? max : avg;
+        aggregate.sum = avg * count;
+        aggregate.sumOfSquares = (count - 1) * sd * sd + count * avg * avg;
+        aggregate.anomalyCount = anomalyCount;
+        return aggregate;
+    }
+
+    public void add(double value, boolean anomaly) {
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        sum += value;
+        sumOfSquares += value * value;
+        if (anomaly) {
+            anomalyCount++;
+        }
+    }
+
+    public ReadingAggregate merge(ReadingAggregate other) {
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        anomalyCount += other.anomalyCount;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getAnomalyCount() {
+        return anomalyCount;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    public Double getMin() {
+        return count > 0 ? min : null;
+    }
+
+    public Double getMax() {
+        return count > 0 ? max : null;
+    }
+
+    public Double getAverage() {
+        return count > 0 ? sum / count : null;
+    }
+
+    /**
+     * Sample standard deviation, matching PostgreSQL's STDDEV.
+     */
+    public Double getStdDeviation() {
+        if (count < 2) {
+            return null;
+        }
+        double mean = sum / count;
+        double variance = (sumOfSquares - count * mean * mean) / (count - 1);
+        return Math.sqrt(Math.max(0.0, variance));
+    }
+}
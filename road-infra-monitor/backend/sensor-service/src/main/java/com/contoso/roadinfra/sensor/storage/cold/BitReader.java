@@ -0,0 +1,28 @@
+package com.contoso.roadinfra.sensor.storage.cold;
+
+/**
+ * Big-endian bit reader over a byte array produced by {@link BitWriter}.
+ */
+final class BitReader {
+
+    private final byte[] buffer;
+    private int bitPosition;
+
+    BitReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    boolean readBit() {
+        boolean bit = (buffer[bitPosition >>> 3] & (0x80 >>> (bitPosition & 7))) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.contoso.roadinfra.sensor.storage.cold;
+
+import java.util.Arrays;
+
+/**
+ * Growable big-endian bit buffer used by the cold storage column encoders.
+ */
+final class BitWriter {
+
+    private byte[] buffer;
+    private int bitPosition;
+
+    BitWriter(int initialBytes) {
+        this.buffer = new byte[Math.max(16, initialBytes)];
+    }
+
+    /**
+     * Write a single bit.
+     */
+    void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            buffer[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+        }
+        bitPosition++;
+    }
+
+    /**
+     * Write the lowest {@code count} bits of {@code value}, most significant bit first.
+     */
+    void writeBits(long value, int count) {
+        ensureCapacity(count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                buffer[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+            }
+            bitPosition++;
+        }
+    }
+
+    /**
+     * Copy of the written bytes, padded with zero bits to a byte boundary.
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (bitPosition + 7) >>> 3);
+    }
+
+    private void ensureCapacity(int bits) {
+        int requiredBytes = (bitPosition + bits + 7) >>> 3;
+        if (requiredBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(requiredBytes, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.contoso.roadinfra.sensor.storage.cold;
+
+import com.contoso.roadinfra.common.constants.DataQuality;
+import com.contoso.roadinfra.sensor.entity.SensorReading;
+import com.contoso.roadinfra.sensor.storage.ReadingAggregate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Columnar, compressed file holding one sensor's readings for one UTC day.
+ *
+ * Layout:
+ * <pre>
+ * header   magic, version, sensor id, epoch day, reading count, block count,
+ *          time range and whole-day aggregate
+ * index    one entry per block: time range, count, file offset/length, block aggregate
+ * blocks   up to {@value #BLOCK_SIZE} readings each, stored as independent columns:
+ *          timestamps (delta-of-delta), value / secondary / tertiary / anomaly score
+ *          (XOR), quality and anomaly flags (run-length)
+ * </pre>
+ *
+ * The index lets range reads decode only overlapping blocks and lets stats for
+ * fully covered blocks be answered without decoding anything. Raw payloads and
+ * reading IDs are not carried into the cold tier.
+ */
+public final class ColdReadingFile {
+
+    public static final String FILE_EXTENSION = ".rcol";
+
+    static final int BLOCK_SIZE = 1024;
+
+    private static final int MAGIC = 0x52434F4C; // "RCOL"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 16 + 8 + 4 + 4 + 16 + 48;
+    private static final int INDEX_ENTRY_BYTES = 8 + 8 + 4 + 8 + 4 + 48;
+    private static final int COLUMN_COUNT = 6;
+
+    private static final DataQuality[] QUALITIES = DataQuality.values();
+
+    private final Path path;
+    private final UUID sensorId;
+    private final LocalDate day;
+    private final int readingCount;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final ReadingAggregate aggregate;
+    private final List<BlockIndexEntry> blocks;
+
+    private ColdReadingFile(Path path, UUID sensorId, LocalDate day, int readingCount,
+                            long minTimestamp, long maxTimestamp, ReadingAggregate aggregate,
+                            List<BlockIndexEntry> blocks) {
+        this.path = path;
+        this.sensorId = sensorId;
+        this.day = day;
+        this.readingCount = readingCount;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.aggregate = aggregate;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Write readings (sorted by timestamp ascending) to {@code target}, replacing any
+     * existing file atomically.
+     */
+    public static void write(Path target, UUID sensorId, LocalDate day, List<SensorReading> readings)
+            throws IOException {
+        int count = readings.size();
+        List<BlockIndexEntry> index = new ArrayList<>();
+        List<byte[]> encodedBlocks = new ArrayList<>();
+        ReadingAggregate total = ReadingAggregate.empty();
+
+        long offset = HEADER_BYTES + (long) INDEX_ENTRY_BYTES * ((count + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        for (int start = 0; start < count; start += BLOCK_SIZE) {
+            int end = Math.min(count, start + BLOCK_SIZE);
+            ReadingAggregate blockAggregate = ReadingAggregate.empty();
+            byte[] block = encodeBlock(readings.subList(start, end), blockAggregate);
+            index.add(new BlockIndexEntry(
+                    toMicros(readings.get(start).getTimestamp()),
+                    toMicros(readings.get(end - 1).getTimestamp()),
+                    end - start, offset, block.length, blockAggregate));
+            encodedBlocks.add(block);
+            total.merge(blockAggregate);
+            offset += block.length;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(temp, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(sensorId.getMostSignificantBits());
+                out.writeLong(sensorId.getLeastSignificantBits());
+                out.writeLong(day.toEpochDay());
+                out.writeInt(count);
+                out.writeInt(index.size());
+                out.writeLong(count > 0 ? index.get(0).firstTimestamp() : 0L);
+                out.writeLong(count > 0 ? index.get(index.size() - 1).lastTimestamp() : 0L);
+                writeAggregate(out, total);
+                for (BlockIndexEntry entry : index) {
+                    out.writeLong(entry.firstTimestamp());
+                    out.writeLong(entry.lastTimestamp());
+                    out.writeInt(entry.count());
+                    out.writeLong(entry.offset());
+                    out.writeInt(entry.length());
+                    writeAggregate(out, entry.aggregate());
+                }
+                for (byte[] block : encodedBlocks) {
+                    out.write(block);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Open a cold file, reading only its header and block index.
+     */
+    public static ColdReadingFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a cold reading file: " + path);
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cold reading file version " + version + ": " + path);
+            }
+            UUID sensorId = new UUID(header.getLong(), header.getLong());
+            LocalDate day = LocalDate.ofEpochDay(header.getLong());
+            int readingCount = header.getInt();
+            int blockCount = header.getInt();
+            long minTimestamp = header.getLong();
+            long maxTimestamp = header.getLong();
+            ReadingAggregate aggregate = readAggregate(header);
+
+            ByteBuffer indexBuffer = readFully(channel, HEADER_BYTES, blockCount * INDEX_ENTRY_BYTES);
+            List<BlockIndexEntry> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new BlockIndexEntry(indexBuffer.getLong(), indexBuffer.getLong(),
+                        indexBuffer.getInt(), indexBuffer.getLong(), indexBuffer.getInt(),
+                        readAggregate(indexBuffer)));
+            }
+            return new ColdReadingFile(path, sensorId, day, readingCount, minTimestamp, maxTimestamp,
+                    aggregate, blocks);
+        }
+    }
+
+    /**
+     * Read all readings with {@code start <= timestamp <= end}, ascending by timestamp.
+     */
+    public List<SensorReading> read(Instant start, Instant end) throws IOException {
+        long from = toMicros(start);
+        long to = toMicros(end);
+        List<SensorReading> result = new ArrayList<>();
+        if (readingCount == 0 || to < minTimestamp || from > maxTimestamp) {
+            return result;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (BlockIndexEntry entry : blocks) {
+                if (entry.lastTimestamp() < from || entry.firstTimestamp() > to) {
+                    continue;
+                }
+                DecodedBlock block = decodeBlock(readFully(channel, entry.offset(), entry.length()), entry.count());
+                for (int i = 0; i < entry.count(); i++) {
+                    long ts = block.timestamps[i];
+                    if (ts >= from && ts <= to) {
+                        result.add(block.toReading(i, sensorId));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Aggregate readings with {@code start <= timestamp <= end}. Blocks fully inside
+     * the range are answered from the index without decoding.
+     */
+    public ReadingAggregate aggregate(Instant start, Instant end) throws IOException {
+        long from = toMicros(start);
+        long to = toMicros(end);
+        ReadingAggregate result = ReadingAggregate.empty();
+        if (readingCount == 0 || to < minTimestamp || from > maxTimestamp) {
+            return result;
+        }
+        if (from <= minTimestamp && to >= maxTimestamp) {
+            return result.merge(aggregate);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (BlockIndexEntry entry : blocks) {
+                if (entry.lastTimestamp() < from || entry.firstTimestamp() > to) {
+                    continue;
+                }
+                if (from <= entry.firstTimestamp() && to >= entry.lastTimestamp()) {
+                    result.merge(entry.aggregate());
+                    continue;
+                }
+                DecodedBlock block = decodeBlock(readFully(channel, entry.offset(), entry.length()), entry.count());
+                for (int i = 0; i < entry.count(); i++) {
+                    long ts = block.timestamps[i];
+                    if (ts >= from && ts <= to) {
+                        result.add(block.values[i], block.isAnomaly(i));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getReadingCount() {
+        return readingCount;
+    }
+
+    public Instant getMinTimestamp() {
+        return fromMicros(minTimestamp);
+    }
+
+    public Instant getMaxTimestamp() {
+        return fromMicros(maxTimestamp);
+    }
+
+    /**
+     * Epoch microseconds, saturating for instants (such as {@link Instant#MIN}) outside the long range.
+     */
+    static long toMicros(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds >= Long.MAX_VALUE / 1_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / 1_000_000L) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private static byte[] encodeBlock(List<SensorReading> readings, ReadingAggregate blockAggregate) throws IOException {
+        int n = readings.size();
+        long[] timestamps = new long[n];
+        double[] values = new double[n];
+        double[] secondary = new double[n];
+        double[] tertiary = new double[n];
+        double[] scores = new double[n];
+        byte[] flags = new byte[n];
+        for (int i = 0; i < n; i++) {
+            SensorReading reading = readings.get(i);
+            timestamps[i] = toMicros(reading.getTimestamp());
+            values[i] = reading.getValue();
+            secondary[i] = orNaN(reading.getSecondaryValue());
+            tertiary[i] = orNaN(reading.getTertiaryValue());
+            scores[i] = orNaN(reading.getAnomalyScore());
+            flags[i] = encodeFlags(reading.getQuality(), reading.getAnomaly());
+            blockAggregate.add(values[i], Boolean.TRUE.equals(reading.getAnomaly()));
+        }
+
+        byte[][] columns = {
+                ColumnCodec.encodeTimestamps(timestamps, n),
+                ColumnCodec.encodeDoubles(values, n),
+                ColumnCodec.encodeDoubles(secondary, n),
+                ColumnCodec.encodeDoubles(tertiary, n),
+                ColumnCodec.encodeDoubles(scores, n),
+                encodeRuns(flags)
+        };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (byte[] column : columns) {
+            out.writeInt(column.length);
+        }
+        for (byte[] column : columns) {
+            out.write(column);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static DecodedBlock decodeBlock(ByteBuffer buffer, int count) {
+        byte[][] columns = new byte[COLUMN_COUNT][];
+        int[] lengths = new int[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            lengths[i] = buffer.getInt();
+        }
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = new byte[lengths[i]];
+            buffer.get(columns[i]);
+        }
+        return new DecodedBlock(
+                ColumnCodec.decodeTimestamps(columns[0], count),
+                ColumnCodec.decodeDoubles(columns[1], count),
+                ColumnCodec.decodeDoubles(columns[2], count),
+                ColumnCodec.decodeDoubles(columns[3], count),
+                ColumnCodec.decodeDoubles(columns[4], count),
+                decodeRuns(columns[5], count));
+    }
+
+    /**
+     * Flags byte: bits 0-2 quality ordinal + 1 (0 = null), bits 3-4 anomaly (0 = null, 1 = false, 2 = true).
+     */
+    private static byte encodeFlags(DataQuality quality, Boolean anomaly) {
+        int q = quality != null ? quality.ordinal() + 1 : 0;
+        int a = anomaly == null ? 0 : (anomaly ? 2 : 1);
+        return (byte) (q | (a << 3));
+    }
+
+    private static byte[] encodeRuns(byte[] flags) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int i = 0;
+        while (i < flags.length) {
+            byte value = flags[i];
+            int run = 1;
+            while (i + run < flags.length && flags[i + run] == value && run < 0xFFFF) {
+                run++;
+            }
+            out.write(value);
+            out.write(run >>> 8);
+            out.write(run & 0xFF);
+            i += run;
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decodeRuns(byte[] encoded, int count) {
+        byte[] flags = new byte[count];
+        int position = 0;
+        for (int i = 0; i + 2 < encoded.length && position < count; i += 3) {
+            int run = ((encoded[i + 1] & 0xFF) << 8) | (encoded[i + 2] & 0xFF);
+            Arrays.fill(flags, position, Math.min(count, position + run), encoded[i]);
+            position += run;
+        }
+        return flags;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double nullIfNaN(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static void writeAggregate(DataOutputStream out, ReadingAggregate aggregate) throws IOException {
+        out.writeLong(aggregate.getCount());
+        out.writeLong(aggregate.getAnomalyCount());
+        out.writeDouble(aggregate.getCount() > 0 ? aggregate.getMin() : 0.0);
+        out.writeDouble(aggregate.getCount() > 0 ? aggregate.getMax() : 0.0);
+        out.writeDouble(aggregate.getSum());
+        out.writeDouble(aggregate.getSumOfSquares());
+    }
+
+    private static ReadingAggregate readAggregate(ByteBuffer buffer) {
+        long count = buffer.getLong();
+        long anomalies = buffer.getLong();
+        double min = buffer.getDouble();
+        double max = buffer.getDouble();
+        double sum = buffer.getDouble();
+        double sumOfSquares = buffer.getDouble();
+        return ReadingAggregate.of(count, min, max, sum, sumOfSquares, anomalies);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of cold reading file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private record BlockIndexEntry(long firstTimestamp, long lastTimestamp, int count,
+                                   long offset, int length, ReadingAggregate aggregate) {
+    }
+
+    private record DecodedBlock(long[] timestamps, double[] values, double[] secondary,
+                                double[] tertiary, double[] scores, byte[] flags) {
+
+        boolean isAnomaly(int i) {
+            return ((flags[i] >>> 3) & 0x3) == 2;
+        }
+
+        SensorReading toReading(int i, UUID sensorId) {
+            int q = flags[i] & 0x7;
+            int a = (flags[i] >>> 3) & 0x3;
+            return SensorReading.builder()
+                    .sensorId(sensorId)
+                    .timestamp(fromMicros(timestamps[i]))
+                    .value(values[i])
+                    .secondaryValue(nullIfNaN(secondary[i]))
+                    .tertiaryValue(nullIfNaN(tertiary[i]))
+                    .quality(q > 0 ? QUALITIES[q - 1] : null)
+                    .anomaly(a == 0 ? null : a == 2)
+                    .anomalyScore(nullIfNaN(scores[i]))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.contoso.roadinfra.sensor.storage.cold;
+
+import com.contoso.roadinfra.sensor.entity.SensorReading;
+import com.contoso.roadinfra.sensor.storage.ReadingAggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for historical sensor readings.
+ *
+ * Readings are stored as one {@link ColdReadingFile} per sensor per UTC day under
+ * {@code <root>/<sensorId>/<yyyy-MM-dd>.rcol}. The directory listing acts as the
+ * day index, and each file carries its own block index and aggregates.
+ */
+@Service
+@Slf4j
+public class ColdStorageService {
+
+    private static final Comparator<SensorReading> BY_TIMESTAMP = Comparator.comparing(SensorReading::getTimestamp);
+
+    private final boolean enabled;
+    private final Path root;
+
+    public ColdStorageService(@Value("${sensor.cold-storage.enabled:false}") boolean enabled,
+                              @Value("${sensor.cold-storage.path:./data/cold-readings}") String root) {
+        this.enabled = enabled;
+        this.root = Paths.get(root).toAbsolutePath();
+        if (enabled) {
+            log.info("Cold storage tier enabled at {}", this.root);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Write a sensor-day to the cold tier, merging with readings already compacted
+     * for that day (late arrivals). Exact duplicates are dropped so a compaction that
+     * is retried after a failed hot-tier delete does not double count.
+     *
+     * @return number of readings held in the file after the merge
+     */
+    public int compact(UUID sensorId, LocalDate day, List<SensorReading> readings) {
+        Path target = dayFile(sensorId, day);
+        try {
+            List<SensorReading> merged = new ArrayList<>(readings);
+            if (Files.exists(target)) {
+                merged.addAll(ColdReadingFile.open(target).read(Instant.MIN, Instant.MAX));
+            }
+            merged.sort(BY_TIMESTAMP);
+            List<SensorReading> deduplicated = deduplicate(merged);
+            ColdReadingFile.write(target, sensorId, day, deduplicated);
+            log.debug("Compacted {} readings for sensor {} on {} into {}",
+                    deduplicated.size(), sensorId, day, target);
+            return deduplicated.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact readings for sensor " + sensorId + " on " + day, e);
+        }
+    }
+
+    /**
+     * Cold readings for a sensor with {@code start <= timestamp <= end}, ascending.
+     */
+    public List<SensorReading> findInRange(UUID sensorId, Instant start, Instant end) {
+        List<SensorReading> result = new ArrayList<>();
+        if (!enabled) {
+            return result;
+        }
+        try {
+            for (Path file : dayFiles(sensorId, start, end).values()) {
+                result.addAll(ColdReadingFile.open(file).read(start, end));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read cold readings for sensor " + sensorId, e);
+        }
+        return result;
+    }
+
+    /**
+     * Aggregate of cold readings for a sensor with {@code start <= timestamp <= end}.
+     */
+    public ReadingAggregate aggregate(UUID sensorId, Instant start, Instant end) {
+        ReadingAggregate result = ReadingAggregate.empty();
+        if (!enabled) {
+            return result;
+        }
+        try {
+            for (Path file : dayFiles(sensorId, start, end).values()) {
+                result.merge(ColdReadingFile.open(file).aggregate(start, end));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to aggregate cold readings for sensor " + sensorId, e);
+        }
+        return result;
+    }
+
+    /**
+     * Most recent cold reading for a sensor, used when the hot tier holds nothing.
+     */
+    public Optional<SensorReading> findLatest(UUID sensorId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            List<Path> files = new ArrayList<>(dayFiles(sensorId, Instant.MIN, Instant.MAX).values());
+            for (int i = files.size() - 1; i >= 0; i--) {
+                ColdReadingFile file = ColdReadingFile.open(files.get(i));
+                if (file.getReadingCount() > 0) {
+                    List<SensorReading> readings = file.read(file.getMaxTimestamp(), file.getMaxTimestamp());
+                    return Optional.of(readings.get(readings.size() - 1));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read latest cold reading for sensor " + sensorId, e);
+        }
+        return Optional.empty();
+    }
+
+    Path dayFile(UUID sensorId, LocalDate day) {
+        return root.resolve(sensorId.toString()).resolve(day + ColdReadingFile.FILE_EXTENSION);
+    }
+
+    /**
+     * Day files for a sensor overlapping the range, in ascending day order.
+     */
+    private Map<LocalDate, Path> dayFiles(UUID sensorId, Instant start, Instant end) throws IOException {
+        Map<LocalDate, Path> files = new LinkedHashMap<>();
+        Path sensorDir = root.resolve(sensorId.toString());
+        if (!Files.isDirectory(sensorDir)) {
+            return files;
+        }
+        LocalDate firstDay = start.equals(Instant.MIN) ? LocalDate.MIN : LocalDate.ofInstant(start, ZoneOffset.UTC);
+        LocalDate lastDay = end.equals(Instant.MAX) ? LocalDate.MAX : LocalDate.ofInstant(end, ZoneOffset.UTC);
+        try (Stream<Path> listing = Files.list(sensorDir)) {
+            listing.map(this::parseDay)
+                    .flatMap(Optional::stream)
+                    .filter(day -> !day.isBefore(firstDay) && !day.isAfter(lastDay))
+                    .sorted()
+                    .forEach(day -> files.put(day, dayFile(sensorId, day)));
+        }
+        return files;
+    }
+
+    private Optional<LocalDate> parseDay(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(ColdReadingFile.FILE_EXTENSION)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDate.parse(name.substring(0, name.length() - ColdReadingFile.FILE_EXTENSION.length())));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<SensorReading> deduplicate(List<SensorReading> sorted) {
+        List<SensorReading> result = new ArrayList<>(sorted.size());
+        SensorReading previous = null;
+        for (SensorReading reading : sorted) {
+            if (previous != null
+                    && previous.getTimestamp().equals(reading.getTimestamp())
+                    && previous.getValue().equals(reading.getValue())
+                    && Objects.equals(previous.getSecondaryValue(), reading.getSecondaryValue())
+                    && Objects.equals(previous.getTertiaryValue(), reading.getTertiaryValue())) {
+                continue;
+            }
+            result.add(reading);
+            previous = reading;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+package com.contoso.roadinfra.sensor.storage.cold;
+
+/**
+ * Column encoders for cold reading files.
+ *
+ * Timestamps are stored as delta-of-delta with variable length buckets and
+ * doubles use Gorilla-style XOR against the previous value, so regularly sampled
+ * and slowly changing sensor series collapse to a few bits per reading.
+ */
+final class ColumnCodec {
+
+    private ColumnCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Encode the first {@code count} timestamps (epoch micros, ascending).
+     */
+    static byte[] encodeTimestamps(long[] timestamps, int count) {
+        BitWriter out = new BitWriter(count * 2);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+        out.writeBits(timestamps[0], 64);
+        long previous = timestamps[0];
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = timestamps[i] - previous;
+            long deltaOfDelta = delta - previousDelta;
+            if (deltaOfDelta == 0) {
+                out.writeBit(false);
+            } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+                out.writeBits(0b10, 2);
+                out.writeBits(deltaOfDelta, 7);
+            } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+                out.writeBits(0b110, 3);
+                out.writeBits(deltaOfDelta, 9);
+            } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+                out.writeBits(0b1110, 4);
+                out.writeBits(deltaOfDelta, 12);
+            } else {
+                out.writeBits(0b1111, 4);
+                out.writeBits(deltaOfDelta, 64);
+            }
+            previous = timestamps[i];
+            previousDelta = delta;
+        }
+        return out.toByteArray();
+    }
+
+    static long[] decodeTimestamps(byte[] encoded, int count) {
+        long[] timestamps = new long[count];
+        if (count == 0) {
+            return timestamps;
+        }
+        BitReader in = new BitReader(encoded);
+        timestamps[0] = in.readBits(64);
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long deltaOfDelta;
+            if (!in.readBit()) {
+                deltaOfDelta = 0;
+            } else if (!in.readBit()) {
+                deltaOfDelta = signExtend(in.readBits(7), 7);
+            } else if (!in.readBit()) {
+                deltaOfDelta = signExtend(in.readBits(9), 9);
+            } else if (!in.readBit()) {
+                deltaOfDelta = signExtend(in.readBits(12), 12);
+            } else {
+                deltaOfDelta = in.readBits(64);
+            }
+            previousDelta += deltaOfDelta;
+            timestamps[i] = timestamps[i - 1] + previousDelta;
+        }
+        return timestamps;
+    }
+
+    /**
+     * Encode the first {@code count} doubles with XOR compression. Missing values
+     * are expected to be passed as {@link Double#NaN}.
+     */
+    static byte[] encodeDoubles(double[] values, int count) {
+        BitWriter out = new BitWriter(count * 2);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previous, 64);
+        int previousLeading = Integer.MAX_VALUE;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long current = Double.doubleToRawLongBits(values[i]);
+            long xor = current ^ previous;
+            if (xor == 0) {
+                out.writeBit(false);
+            } else {
+                out.writeBit(true);
+                int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (previousLeading != Integer.MAX_VALUE
+                        && leading >= previousLeading && trailing >= previousTrailing) {
+                    out.writeBit(false);
+                    out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                } else {
+                    int significant = 64 - leading - trailing;
+                    out.writeBit(true);
+                    out.writeBits(leading, 5);
+                    out.writeBits(significant - 1, 6);
+                    out.writeBits(xor >>> trailing, significant);
+                    previousLeading = leading;
+                    previousTrailing = trailing;
+                }
+            }
+            previous = current;
+        }
+        return out.toByteArray();
+    }
+
+    static double[] decodeDoubles(byte[] encoded, int count) {
+        double[] values = new double[count];
+        if (count == 0) {
+            return values;
+        }
+        BitReader in = new BitReader(encoded);
+        long previous = in.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int significant = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                long xor = in.readBits(64 - leading - trailing) << trailing;
+                previous ^= xor;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+        return values;
+    }
+
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+}
@@ -0,0 +1,263 @@
+package com.contoso.roadinfra.sensor.storage.segment;
+
+import com.contoso.roadinfra.sensor.storage.ReadingAggregate;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only, memory-mapped segment of fixed-width reading records for one sensor.
+ *
+ * Layout:
+ * <pre>
+ * header  (64 bytes)  magic, version, record size, capacity, committed count, base time, ordered flag
+ * records (40 bytes)  long epochMillis, double value, double secondary, double tertiary,
+ *                     byte quality, byte flags, float anomaly score, 2 bytes reserved
+ * </pre>
+ *
+ * A single writer appends; readers access records below the volatile committed count
+ * straight from the mapped buffer. Every {@value #INDEX_STRIDE}th timestamp is kept in a
+ * sparse in-memory index so range scans on time-ordered segments start with a binary search.
+ */
+final class SegmentFile {
+
+    static final int RECORD_SIZE = 40;
+    static final int INDEX_STRIDE = 64;
+
+    private static final int MAGIC = 0x52534547; // "RSEG"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_COUNT = 12;
+    private static final int HEADER_BASE_MILLIS = 16;
+    private static final int HEADER_ORDERED = 24;
+
+    private static final int OFFSET_VALUE = 8;
+    private static final int OFFSET_SECONDARY = 16;
+    private static final int OFFSET_TERTIARY = 24;
+    private static final int OFFSET_QUALITY = 32;
+    private static final int OFFSET_FLAGS = 33;
+    private static final int OFFSET_SCORE = 34;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long baseMillis;
+    private final long[] sparseIndex;
+
+    private volatile int count;
+    private boolean ordered;
+    private long minMillis = Long.MAX_VALUE;
+    private long maxMillis = Long.MIN_VALUE;
+    private int latestIndex = -1;
+
+    private SegmentFile(Path path, MappedByteBuffer buffer, int capacity, long baseMillis) {
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.baseMillis = baseMillis;
+        this.sparseIndex = new long[(capacity + INDEX_STRIDE - 1) / INDEX_STRIDE];
+    }
+
+    static SegmentFile create(Path path, long baseMillis, int capacity) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, VERSION);
+            buffer.putShort(6, (short) RECORD_SIZE);
+            buffer.putInt(HEADER_CAPACITY, capacity);
+            buffer.putInt(HEADER_COUNT, 0);
+            buffer.putLong(HEADER_BASE_MILLIS, baseMillis);
+            buffer.put(HEADER_ORDERED, (byte) 1);
+            SegmentFile segment = new SegmentFile(path, buffer, capacity, baseMillis);
+            segment.ordered = true;
+            return segment;
+        }
+    }
+
+    static SegmentFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(6) != RECORD_SIZE) {
+                throw new IOException("Not a reading segment file: " + path);
+            }
+            int capacity = buffer.getInt(HEADER_CAPACITY);
+            SegmentFile segment = new SegmentFile(path, buffer, capacity, buffer.getLong(HEADER_BASE_MILLIS));
+            segment.ordered = buffer.get(HEADER_ORDERED) == 1;
+            int committed = Math.min(buffer.getInt(HEADER_COUNT), capacity);
+            for (int i = 0; i < committed; i++) {
+                segment.track(i, segment.timestamp(i));
+            }
+            segment.count = committed;
+            return segment;
+        }
+    }
+
+    /**
+     * Append a record. Must only be called by the single writer for this segment.
+     */
+    void append(long epochMillis, double value, double secondary, double tertiary,
+                byte quality, byte flags, float anomalyScore) {
+        int index = count;
+        if (index >= capacity) {
+            throw new IllegalStateException("Segment is full: " + path);
+        }
+        int position = HEADER_SIZE + index * RECORD_SIZE;
+        buffer.putLong(position, epochMillis);
+        buffer.putDouble(position + OFFSET_VALUE, value);
+        buffer.putDouble(position + OFFSET_SECONDARY, secondary);
+        buffer.putDouble(position + OFFSET_TERTIARY, tertiary);
+        buffer.put(position + OFFSET_QUALITY, quality);
+        buffer.put(position + OFFSET_FLAGS, flags);
+        buffer.putFloat(position + OFFSET_SCORE, anomalyScore);
+
+        if (ordered && index > 0 && epochMillis < maxMillis) {
+            ordered = false;
+            buffer.put(HEADER_ORDERED, (byte) 0);
+        }
+        track(index, epochMillis);
+
+        buffer.putInt(HEADER_COUNT, index + 1);
+        count = index + 1;
+    }
+
+    private void track(int index, long epochMillis) {
+        if (index % INDEX_STRIDE == 0) {
+            sparseIndex[index / INDEX_STRIDE] = epochMillis;
+        }
+        if (epochMillis < minMillis) {
+            minMillis = epochMillis;
+        }
+        if (epochMillis >= maxMillis) {
+            maxMillis = epochMillis;
+            latestIndex = index;
+        }
+    }
+
+    /**
+     * Visit every record with {@code from <= epochMillis <= to}, in append order.
+     */
+    void scan(long from, long to, RecordVisitor visitor) {
+        int committed = count;
+        if (committed == 0 || to < minMillis || from > maxMillis) {
+            return;
+        }
+        int start = ordered ? lowerBound(from, committed) : 0;
+        for (int i = start; i < committed; i++) {
+            long ts = timestamp(i);
+            if (ts > to) {
+                if (ordered) {
+                    return;
+                }
+                continue;
+            }
+            if (ts >= from) {
+                visitor.visit(this, i);
+            }
+        }
+    }
+
+    /**
+     * Fold every record with {@code from <= epochMillis <= to} into the aggregate.
+     */
+    void aggregate(long from, long to, ReadingAggregate aggregate) {
+        scan(from, to, (segment, i) -> aggregate.add(segment.value(i), segment.isAnomaly(i)));
+    }
+
+    private int lowerBound(long from, int committed) {
+        int slots = (committed + INDEX_STRIDE - 1) / INDEX_STRIDE;
+        int low = 0;
+        int high = slots - 1;
+        int slot = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (sparseIndex[mid] < from) {
+                slot = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int i = slot * INDEX_STRIDE;
+        while (i < committed && timestamp(i) < from) {
+            i++;
+        }
+        return i;
+    }
+
+    long timestamp(int i) {
+        return buffer.getLong(HEADER_SIZE + i * RECORD_SIZE);
+    }
+
+    double value(int i) {
+        return buffer.getDouble(HEADER_SIZE + i * RECORD_SIZE + OFFSET_VALUE);
+    }
+
+    double secondary(int i) {
+        return buffer.getDouble(HEADER_SIZE + i * RECORD_SIZE + OFFSET_SECONDARY);
+    }
+
+    double tertiary(int i) {
+        return buffer.getDouble(HEADER_SIZE + i * RECORD_SIZE + OFFSET_TERTIARY);
+    }
+
+    byte quality(int i) {
+        return buffer.get(HEADER_SIZE + i * RECORD_SIZE + OFFSET_QUALITY);
+    }
+
+    byte flags(int i) {
+        return buffer.get(HEADER_SIZE + i * RECORD_SIZE + OFFSET_FLAGS);
+    }
+
+    float anomalyScore(int i) {
+        return buffer.getFloat(HEADER_SIZE + i * RECORD_SIZE + OFFSET_SCORE);
+    }
+
+    boolean isAnomaly(int i) {
+        return flags(i) == SegmentStoreService.FLAG_ANOMALY;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    long baseMillis() {
+        return baseMillis;
+    }
+
+    long maxMillis() {
+        return maxMillis;
+    }
+
+    int latestIndex() {
+        return latestIndex;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Callback for records matched by {@link #scan}.
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(SegmentFile segment, int index);
+    }
+}
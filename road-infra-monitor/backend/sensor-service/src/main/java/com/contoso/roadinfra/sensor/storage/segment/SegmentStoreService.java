@@ -0,0 +1,300 @@
+package com.contoso.roadinfra.sensor.storage.segment;
+
+import com.contoso.roadinfra.common.constants.DataQuality;
+import com.contoso.roadinfra.sensor.entity.SensorReading;
+import com.contoso.roadinfra.sensor.storage.ReadingAggregate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Embedded time-series store for the most recent sensor readings.
+ *
+ * Each sensor has its own chain of append-only, memory-mapped segment files under
+ * {@code <root>/<sensorId>/}. Readings are appended after they have been committed to
+ * Postgres, which stays the durable system of record; segments older than the
+ * retention window are simply deleted.
+ *
+ * Range scans, latest-value lookups and stats read straight from the mapped buffers,
+ * but only for ranges the store is known to hold completely (see {@link #covers}).
+ * Each sensor's log tracks the time from which it holds every reading; that watermark
+ * starts over after a restart or a failed append. Every instance only sees the
+ * readings it ingested itself, so the store should only be enabled for a single
+ * sensor-service instance: while service discovery reports other instances, nothing
+ * is served from segments.
+ */
+@Service
+@Slf4j
+public class SegmentStoreService {
+
+    static final byte FLAG_NONE = 0;
+    static final byte FLAG_NORMAL = 1;
+    static final byte FLAG_ANOMALY = 2;
+
+    private static final DataQuality[] QUALITIES = DataQuality.values();
+
+    private final boolean enabled;
+    private final Path root;
+    private final Duration retention;
+    private final int segmentCapacity;
+    private final long segmentSpanMillis;
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final String serviceId;
+    private final Map<UUID, SensorSegmentLog> logs = new ConcurrentHashMap<>();
+    // Coverage floor for logs opened from now on: the start of this run, raised by
+    // failed appends to sensors without a log and by peers seen in discovery
+    private final AtomicLong newLogFloorMillis = new AtomicLong(System.currentTimeMillis());
+    private volatile boolean peersPresent;
+
+    public SegmentStoreService(@Value("${sensor.segment-store.enabled:false}") boolean enabled,
+                               @Value("${sensor.segment-store.path:./data/segments}") String root,
+                               @Value("${sensor.segment-store.retention-hours:72}") long retentionHours,
+                               @Value("${sensor.segment-store.segment-capacity:16384}") int segmentCapacity,
+                               @Value("${sensor.segment-store.segment-span-hours:6}") long segmentSpanHours,
+                               @Value("${spring.application.name:sensor-service}") String serviceId,
+                               ObjectProvider<DiscoveryClient> discoveryClient) {
+        this.enabled = enabled;
+        this.root = Paths.get(root).toAbsolutePath();
+        this.retention = Duration.ofHours(retentionHours);
+        this.segmentCapacity = segmentCapacity;
+        this.segmentSpanMillis = Duration.ofHours(segmentSpanHours).toMillis();
+        this.serviceId = serviceId;
+        this.discoveryClient = discoveryClient;
+        if (enabled) {
+            log.info("Segment store enabled at {} (retention {}h)", this.root, retentionHours);
+        }
+    }
+
+    /**
+     * Reopen the segment logs left on disk by a previous run. Their readings are kept
+     * but not served until appends resume, since some may have been missed meanwhile.
+     */
+    @PostConstruct
+    public void loadExistingSegments() throws IOException {
+        if (!enabled || !Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> sensorDirs = Files.list(root)) {
+            for (Path dir : sensorDirs.filter(Files::isDirectory).toList()) {
+                try {
+                    UUID sensorId = UUID.fromString(dir.getFileName().toString());
+                    logs.put(sensorId, openLog(dir));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring unexpected directory in segment store: {}", dir);
+                }
+            }
+        }
+        log.info("Loaded segment logs for {} sensors", logs.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Append a committed reading to the sensor's active segment.
+     */
+    public void append(SensorReading reading) {
+        if (!enabled) {
+            return;
+        }
+        long epochMillis = reading.getTimestamp().toEpochMilli();
+        try {
+            logFor(reading.getSensorId()).append(
+                    epochMillis,
+                    reading.getValue(),
+                    orNaN(reading.getSecondaryValue()),
+                    orNaN(reading.getTertiaryValue()),
+                    (byte) (reading.getQuality() != null ? reading.getQuality().ordinal() + 1 : 0),
+                    reading.getAnomaly() == null ? FLAG_NONE : (reading.getAnomaly() ? FLAG_ANOMALY : FLAG_NORMAL),
+                    reading.getAnomalyScore() != null ? reading.getAnomalyScore().floatValue() : Float.NaN);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to append reading for sensor {} to segment store: {}",
+                    reading.getSensorId(), e.getMessage());
+            // The reading is only in Postgres now, so nothing up to it may be served from here
+            SensorSegmentLog sensorLog = logs.get(reading.getSensorId());
+            if (sensorLog != null) {
+                sensorLog.resetCoverage(epochMillis + 1);
+            } else {
+                newLogFloorMillis.accumulateAndGet(epochMillis + 1, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Whether every reading for the sensor with timestamp at or after {@code start} is
+     * known to be held here.
+     */
+    public boolean covers(UUID sensorId, Instant start) {
+        if (!enabled || peersPresent) {
+            return false;
+        }
+        SensorSegmentLog sensorLog = logs.get(sensorId);
+        return sensorLog != null
+                && start.toEpochMilli() >= sensorLog.coverageStartMillis()
+                && !start.isBefore(Instant.now().minus(retention));
+    }
+
+    /**
+     * Readings with {@code start <= timestamp <= end}, newest first.
+     */
+    public List<SensorReading> findInRange(UUID sensorId, Instant start, Instant end) {
+        List<SensorReading> result = new ArrayList<>();
+        SensorSegmentLog sensorLog = logs.get(sensorId);
+        if (sensorLog == null) {
+            return result;
+        }
+        for (SegmentFile segment : sensorLog.segments()) {
+            segment.scan(start.toEpochMilli(), end.toEpochMilli(),
+                    (s, i) -> result.add(toReading(sensorId, s, i)));
+        }
+        result.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+        return result;
+    }
+
+    public Optional<SensorReading> findLatest(UUID sensorId) {
+        SensorSegmentLog sensorLog = logs.get(sensorId);
+        if (sensorLog == null) {
+            return Optional.empty();
+        }
+        SegmentFile newest = null;
+        int newestIndex = -1;
+        long newestMillis = Long.MIN_VALUE;
+        for (SegmentFile segment : sensorLog.segments()) {
+            if (segment.count() > 0 && segment.maxMillis() >= newestMillis) {
+                newest = segment;
+                newestIndex = segment.latestIndex();
+                newestMillis = segment.maxMillis();
+            }
+        }
+        return newest == null ? Optional.empty() : Optional.of(toReading(sensorId, newest, newestIndex));
+    }
+
+    public ReadingAggregate aggregate(UUID sensorId, Instant start, Instant end) {
+        ReadingAggregate aggregate = ReadingAggregate.empty();
+        SensorSegmentLog sensorLog = logs.get(sensorId);
+        if (sensorLog != null) {
+            for (SegmentFile segment : sensorLog.segments()) {
+                segment.aggregate(start.toEpochMilli(), end.toEpochMilli(), aggregate);
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * Delete segments that have aged out of the retention window (every 10 minutes).
+     */
+    @Scheduled(fixedRateString = "${sensor.segment-store.retention-check-interval-ms:600000}")
+    public void enforceRetention() {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = Instant.now().minus(retention).toEpochMilli();
+        int dropped = 0;
+        for (SensorSegmentLog sensorLog : logs.values()) {
+            dropped += sensorLog.dropOlderThan(cutoff);
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} expired reading segments", dropped);
+        }
+    }
+
+    /**
+     * Stop serving from segments while other instances of the service are registered,
+     * since readings they ingest never reach this store. Coverage restarts once this
+     * instance is alone again, from the time it was last seen sharing ingest.
+     */
+    @Scheduled(fixedRateString = "${sensor.segment-store.peer-check-interval-ms:10000}")
+    public void checkPeers() {
+        DiscoveryClient discovery = discoveryClient.getIfAvailable();
+        if (!enabled || discovery == null) {
+            return;
+        }
+        try {
+            updatePeers(discovery.getInstances(serviceId).size() - 1);
+        } catch (RuntimeException e) {
+            log.warn("Could not check for other {} instances: {}", serviceId, e.getMessage());
+        }
+    }
+
+    void updatePeers(int peers) {
+        if (peers > 0) {
+            if (!peersPresent) {
+                log.warn("{} other {} instances registered, serving reads from Postgres only", peers, serviceId);
+            }
+            peersPresent = true;
+            long now = System.currentTimeMillis();
+            newLogFloorMillis.accumulateAndGet(now, Math::max);
+            logs.values().forEach(sensorLog -> sensorLog.resetCoverage(now));
+        } else if (peersPresent) {
+            log.info("No other {} instances registered, segment coverage restarts", serviceId);
+            peersPresent = false;
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        logs.values().forEach(SensorSegmentLog::force);
+    }
+
+    private SensorSegmentLog logFor(UUID sensorId) {
+        return logs.computeIfAbsent(sensorId, id -> {
+            try {
+                return openLog(root.resolve(id.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open segment log for sensor " + id, e);
+            }
+        });
+    }
+
+    private SensorSegmentLog openLog(Path dir) throws IOException {
+        SensorSegmentLog sensorLog = SensorSegmentLog.open(dir, segmentCapacity, segmentSpanMillis);
+        sensorLog.resetCoverage(newLogFloorMillis.get());
+        return sensorLog;
+    }
+
+    private static SensorReading toReading(UUID sensorId, SegmentFile segment, int i) {
+        byte quality = segment.quality(i);
+        byte flags = segment.flags(i);
+        float score = segment.anomalyScore(i);
+        return SensorReading.builder()
+                .sensorId(sensorId)
+                .timestamp(Instant.ofEpochMilli(segment.timestamp(i)))
+                .value(segment.value(i))
+                .secondaryValue(nullIfNaN(segment.secondary(i)))
+                .tertiaryValue(nullIfNaN(segment.tertiary(i)))
+                .quality(quality > 0 ? QUALITIES[quality - 1] : null)
+                .anomaly(flags == FLAG_NONE ? null : flags == FLAG_ANOMALY)
+                .anomalyScore(Float.isNaN(score) ? null : (double) score)
+                .build();
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double nullIfNaN(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.contoso.roadinfra.sensor.storage.segment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Ordered chain of segments for one sensor (the sensor's shard).
+ *
+ * Appends are serialised on the log; reads walk the copy-on-write segment list
+ * without locking.
+ *
+ * The log also keeps a coverage watermark: the time from which it is known to hold
+ * every reading of the sensor. Segments reopened from disk start with no coverage,
+ * since readings may have arrived while the service was down; so does a log after a
+ * failed append. Coverage resumes with the next successful append, but never before
+ * the {@linkplain #resetCoverage floor} of the last reset.
+ */
+@Slf4j
+final class SensorSegmentLog {
+
+    static final String SEGMENT_EXTENSION = ".seg";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final long segmentSpanMillis;
+    private final List<SegmentFile> segments = new CopyOnWriteArrayList<>();
+    private volatile long coveredFromMillis = Long.MAX_VALUE;
+    private long coverageFloorMillis = Long.MIN_VALUE;
+
+    private SensorSegmentLog(Path directory, int segmentCapacity, long segmentSpanMillis) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        this.segmentSpanMillis = segmentSpanMillis;
+    }
+
+    /**
+     * Open (or start) the log stored in {@code directory}.
+     */
+    static SensorSegmentLog open(Path directory, int segmentCapacity, long segmentSpanMillis) throws IOException {
+        SensorSegmentLog log = new SensorSegmentLog(directory, segmentCapacity, segmentSpanMillis);
+        if (Files.isDirectory(directory)) {
+            List<SegmentFile> existing = new ArrayList<>();
+            try (Stream<Path> listing = Files.list(directory)) {
+                for (Path file : listing.filter(p -> p.getFileName().toString().endsWith(SEGMENT_EXTENSION)).toList()) {
+                    existing.add(SegmentFile.open(file));
+                }
+            }
+            existing.sort(Comparator.comparingLong(SegmentFile::baseMillis));
+            log.segments.addAll(existing);
+        }
+        return log;
+    }
+
+    synchronized void append(long epochMillis, double value, double secondary, double tertiary,
+                             byte quality, byte flags, float anomalyScore) throws IOException {
+        SegmentFile active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || active.isFull() || epochMillis - active.baseMillis() > segmentSpanMillis) {
+            active = roll(epochMillis, active);
+        }
+        active.append(epochMillis, value, secondary, tertiary, quality, flags, anomalyScore);
+        if (coveredFromMillis == Long.MAX_VALUE) {
+            coveredFromMillis = Math.max(epochMillis, coverageFloorMillis);
+        }
+    }
+
+    /**
+     * Forget the coverage watermark. It is re-established by the next append, and
+     * never covers readings before {@code floorMillis}: the start of a downtime or the
+     * timestamp after a reading that failed to append.
+     */
+    synchronized void resetCoverage(long floorMillis) {
+        coveredFromMillis = Long.MAX_VALUE;
+        coverageFloorMillis = Math.max(coverageFloorMillis, floorMillis);
+    }
+
+    private SegmentFile roll(long epochMillis, SegmentFile previous) throws IOException {
+        // The base never precedes anything in the previous segment, so every reading at or
+        // after a segment's base lives in that segment or a later one
+        long base = previous != null ? Math.max(epochMillis, previous.maxMillis() + 1) : epochMillis;
+        SegmentFile next = SegmentFile.create(directory.resolve(base + SEGMENT_EXTENSION), base, segmentCapacity);
+        if (previous != null) {
+            previous.force();
+        }
+        segments.add(next);
+        return next;
+    }
+
+    /**
+     * Earliest time from which this log is known to hold every reading of the sensor,
+     * or {@link Long#MAX_VALUE} if it is not known to hold any range completely.
+     */
+    long coverageStartMillis() {
+        long coveredFrom = coveredFromMillis;
+        if (coveredFrom == Long.MAX_VALUE || segments.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        // Retention may have dropped segments from the start of the covered range
+        return Math.max(coveredFrom, segments.get(0).baseMillis());
+    }
+
+    List<SegmentFile> segments() {
+        return segments;
+    }
+
+    /**
+     * Drop sealed segments whose newest record is older than {@code cutoffMillis}.
+     *
+     * @return number of segments removed
+     */
+    synchronized int dropOlderThan(long cutoffMillis) {
+        int dropped = 0;
+        while (segments.size() > 1 && segments.get(0).maxMillis() < cutoffMillis) {
+            SegmentFile expired = segments.remove(0);
+            try {
+                Files.deleteIfExists(expired.path());
+            } catch (IOException e) {
+                log.warn("Failed to delete expired segment {}: {}", expired.path(), e.getMessage());
+            }
+            dropped++;
+        }
+        return dropped;
+    }
+
+    synchronized void force() {
+        for (SegmentFile segment : segments) {
+            segment.force();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.contoso.roadinfra.sensor.anomaly;
+
+import com.contoso.roadinfra.common.metrics.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-reading cost of the streaming anomaly detector.
+ *
+ * Run with {@code mvn -pl sensor-service test-compile exec:java
+ * -Dexec.mainClass=com.contoso.roadinfra.sensor.anomaly.OnlineAnomalyDetectorBenchmark
+ * -Dexec.classpathScope=test}. The GC profiler is enabled so the allocation rate
+ * confirms the normal-reading path does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OnlineAnomalyDetectorBenchmark {
+
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"1000", "10000"})
+    private int sensors;
+
+    private OnlineAnomalyDetector detector;
+    private AnomalyDetectionService service;
+    private UUID[] sensorIds;
+    private int[] ordinals;
+    private double[] values;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        detector = new OnlineAnomalyDetector(sensors, 0.01, 4.0, 5.0, 0.5, 8.0, 50);
+        service = new AnomalyDetectionService(true, sensors, 0.01, 4.0, 5.0, 0.5, 8.0, 50, 300,
+                new StageMetrics(new SimpleMeterRegistry(), true, 64));
+
+        SplittableRandom random = new SplittableRandom(42);
+        sensorIds = new UUID[sensors];
+        for (int i = 0; i < sensors; i++) {
+            sensorIds[i] = UUID.randomUUID();
+        }
+        ordinals = new int[SAMPLES];
+        values = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            ordinals[i] = random.nextInt(sensors);
+            // Mostly Gaussian noise around a per-sensor level, with occasional spikes
+            double level = 100.0 + ordinals[i] % 50;
+            double noise = random.nextDouble() - 0.5 + random.nextDouble() - 0.5;
+            values[i] = level + noise * 2.0 + (random.nextInt(1000) == 0 ? 40.0 : 0.0);
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            detector.evaluate(ordinals[i], values[i]);
+            service.evaluate(sensorIds[ordinals[i]], values[i], i);
+        }
+    }
+
+    @Benchmark
+    public int detector() {
+        int i = cursor++ & (SAMPLES - 1);
+        return detector.evaluate(ordinals[i], values[i]);
+    }
+
+    @Benchmark
+    public StatisticalAnomaly serviceWithOrdinalLookup() {
+        int i = cursor++ & (SAMPLES - 1);
+        return service.evaluate(sensorIds[ordinals[i]], values[i], cursor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OnlineAnomalyDetectorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.contoso.roadinfra.sensor.anomaly;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class OnlineAnomalyDetectorTest {
+
+    private static final int WARMUP = 50;
+    private static final double LEVEL = 100.0;
+    private static final double NOISE = 1.0;
+
+    private OnlineAnomalyDetector detector;
+    private SplittableRandom random;
+
+    @BeforeEach
+    void setUp() {
+        // Production defaults from application.yml
+        detector = new OnlineAnomalyDetector(4, 0.01, 4.0, 5.0, 0.5, 8.0, WARMUP);
+        random = new SplittableRandom(42);
+    }
+
+    @Test
+    @DisplayName("Should raise nothing during warm-up, even for a spike")
+    void shouldStayQuietDuringWarmup() {
+        for (int i = 0; i < WARMUP - 1; i++) {
+            assertThat(detector.evaluate(0, noisy())).isZero();
+        }
+        assertThat(detector.evaluate(0, LEVEL + 50 * NOISE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should raise nothing for stationary noise")
+    void shouldAcceptStationaryNoise() {
+        warmUp(0);
+        int signalled = 0;
+        for (int i = 0; i < 5_000; i++) {
+            if (detector.evaluate(0, noisy()) != 0) {
+                signalled++;
+            }
+        }
+
+        assertThat(signalled).isZero();
+        assertThat(detector.mean(0)).isCloseTo(LEVEL, within(0.5));
+        assertThat(detector.stdDeviation(0)).isCloseTo(NOISE, within(0.3));
+        assertThat(detector.median(0)).isCloseTo(LEVEL, within(0.5));
+    }
+
+    @Test
+    @DisplayName("Should flag a spike on both z-scores without dragging the median")
+    void shouldFlagSpike() {
+        warmUp(0);
+        double median = detector.median(0);
+
+        int signals = detector.evaluate(0, LEVEL + 12 * NOISE);
+
+        assertThat(signals & OnlineAnomalyDetector.SIGNAL_EWMA_Z).isNotZero();
+        assertThat(signals & OnlineAnomalyDetector.SIGNAL_ROBUST_Z).isNotZero();
+        assertThat(detector.lastZScore(0)).isGreaterThan(4.0);
+        assertThat(detector.lastRobustZScore(0)).isGreaterThan(5.0);
+        // Winsorised: the median moves by at most one step
+        assertThat(detector.median(0) - median).isLessThanOrEqualTo(0.05);
+    }
+
+    @Test
+    @DisplayName("Should flag a downward spike as well")
+    void shouldFlagDownwardSpike() {
+        warmUp(0);
+
+        int signals = detector.evaluate(0, LEVEL - 12 * NOISE);
+
+        assertThat(signals & OnlineAnomalyDetector.SIGNAL_EWMA_Z).isNotZero();
+        assertThat(detector.lastZScore(0)).isLessThan(-4.0);
+    }
+
+    @Test
+    @DisplayName("Should catch a small sustained shift with CUSUM before any z-score fires")
+    void shouldDetectSustainedShiftWithCusum() {
+        warmUp(0);
+
+        int firstSignals = 0;
+        int readings = 0;
+        while (firstSignals == 0 && readings < 200) {
+            firstSignals = detector.evaluate(0, LEVEL + 1.5 * NOISE + 0.1 * random.nextDouble());
+            readings++;
+        }
+
+        assertThat(firstSignals).isEqualTo(OnlineAnomalyDetector.SIGNAL_CUSUM_HIGH);
+        assertThat(readings).isLessThan(20);
+        // The side that fired starts over
+        assertThat(detector.cusumHigh(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should catch a sustained downward shift on the low CUSUM side")
+    void shouldDetectDownwardShiftWithCusum() {
+        warmUp(0);
+
+        int signals = 0;
+        for (int i = 0; i < 20 && signals == 0; i++) {
+            signals = detector.evaluate(0, LEVEL - 1.5 * NOISE);
+        }
+
+        assertThat(signals).isEqualTo(OnlineAnomalyDetector.SIGNAL_CUSUM_LOW);
+    }
+
+    @Test
+    @DisplayName("Should score a flat-lined signal finitely and flag a step off it")
+    void shouldHandleFlatLine() {
+        for (int i = 0; i < 2 * WARMUP; i++) {
+            assertThat(detector.evaluate(0, LEVEL)).isZero();
+        }
+
+        int signals = detector.evaluate(0, LEVEL + 1);
+
+        assertThat(Double.isFinite(detector.lastZScore(0))).isTrue();
+        assertThat(Double.isFinite(detector.lastRobustZScore(0))).isTrue();
+        assertThat(signals & OnlineAnomalyDetector.SIGNAL_EWMA_Z).isNotZero();
+    }
+
+    @Test
+    @DisplayName("Should ignore NaN and infinite values")
+    void shouldIgnoreNonFiniteValues() {
+        warmUp(0);
+        long samples = detector.sampleCount(0);
+        double mean = detector.mean(0);
+
+        assertThat(detector.evaluate(0, Double.NaN)).isZero();
+        assertThat(detector.evaluate(0, Double.POSITIVE_INFINITY)).isZero();
+        assertThat(detector.sampleCount(0)).isEqualTo(samples);
+        assertThat(detector.mean(0)).isEqualTo(mean);
+    }
+
+    @Test
+    @DisplayName("Should keep sensors independent and warm up again after a reset")
+    void shouldIsolateAndResetSensors() {
+        warmUp(0);
+        warmUp(1);
+        detector.evaluate(1, LEVEL * 10);
+
+        assertThat(detector.evaluate(0, LEVEL + 12 * NOISE)).isNotZero();
+        assertThat(detector.sampleCount(2)).isZero();
+
+        detector.reset(0);
+        assertThat(detector.sampleCount(0)).isZero();
+        assertThat(detector.evaluate(0, 5 * LEVEL)).isZero();
+        assertThat(detector.mean(0)).isEqualTo(5 * LEVEL);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> new OnlineAnomalyDetector(0, 0.01, 4, 5, 0.5, 8, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OnlineAnomalyDetector(1, 0, 4, 5, 0.5, 8, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OnlineAnomalyDetector(1, 1.5, 4, 5, 0.5, 8, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void warmUp(int ordinal) {
+        // Long enough for the EWMA state to settle on the noise
+        for (int i = 0; i < 1_000; i++) {
+            detector.evaluate(ordinal, noisy());
+        }
+    }
+
+    private double noisy() {
+        // Uniform noise with standard deviation NOISE
+        return LEVEL + (random.nextDouble() - 0.5) * NOISE * Math.sqrt(12);
+    }
+}
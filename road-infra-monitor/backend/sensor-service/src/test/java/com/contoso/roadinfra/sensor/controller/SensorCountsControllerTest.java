@@ -0,0 +1,106 @@
+package com.contoso.roadinfra.sensor.controller;
+
+import com.contoso.roadinfra.common.exception.GlobalExceptionHandler;
+import com.contoso.roadinfra.sensor.security.SensorPermissionEvaluator;
+import com.contoso.roadinfra.sensor.service.SensorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bulk count endpoints asset-service calls, without the security layer.
+ */
+class SensorCountsControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SensorService sensorService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        sensorService = mock(SensorService.class);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new SensorController(sensorService, mock(SensorPermissionEvaluator.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return the counts of up to 1000 assets")
+    void shouldCountUpToLimit() throws Exception {
+        List<UUID> assetIds = assets(1000);
+        when(sensorService.getSensorCountsByAssetIds(anyCollection())).thenReturn(Map.of(assetIds.get(0), 3L));
+
+        mockMvc.perform(post("/api/v1/sensors/counts-by-asset")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(assetIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data['" + assetIds.get(0) + "']", is(3)));
+
+        verify(sensorService).getSensorCountsByAssetIds(Set.copyOf(assetIds));
+    }
+
+    @Test
+    @DisplayName("Should reject more than 1000 asset IDs without querying")
+    void shouldRejectOverLimit() throws Exception {
+        mockMvc.perform(post("/api/v1/sensors/counts-by-asset")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(assets(1001))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("At most 1000 asset IDs per request")));
+
+        verify(sensorService, never()).getSensorCountsByAssetIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should count duplicate asset IDs once toward the limit")
+    void shouldIgnoreDuplicatesForLimit() throws Exception {
+        List<UUID> assetIds = assets(1000);
+        List<UUID> withDuplicates = new ArrayList<>(assetIds);
+        withDuplicates.addAll(assetIds.subList(0, 10));
+
+        mockMvc.perform(post("/api/v1/sensors/counts-by-asset")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(withDuplicates)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should return the number of sensors attached to any asset")
+    void shouldReturnAssignedCount() throws Exception {
+        when(sensorService.getAssignedSensorCount()).thenReturn(42L);
+
+        mockMvc.perform(get("/api/v1/sensors/stats/assigned-count").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", is(42)));
+    }
+
+    private static List<UUID> assets(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+}
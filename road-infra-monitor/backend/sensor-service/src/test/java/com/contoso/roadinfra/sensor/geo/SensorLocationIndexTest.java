@@ -0,0 +1,135 @@
+package com.contoso.roadinfra.sensor.geo;
+
+import com.contoso.roadinfra.common.geo.GeoBounds;
+import com.contoso.roadinfra.common.geo.RTreeSpatialIndex;
+import com.contoso.roadinfra.sensor.entity.Sensor;
+import com.contoso.roadinfra.sensor.repository.SensorLocation;
+import com.contoso.roadinfra.sensor.repository.SensorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorLocationIndexTest {
+
+    private static final GeoBounds OLD_AREA = new GeoBounds(9.9, 49.9, 10.1, 50.1);
+    private static final GeoBounds NEW_AREA = new GeoBounds(10.9, 50.9, 11.1, 51.1);
+
+    private final UUID moved = UUID.randomUUID();
+    private final UUID deleted = UUID.randomUUID();
+    private final UUID created = UUID.randomUUID();
+
+    private SensorRepository sensorRepository;
+    private SensorLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        sensorRepository = mock(SensorRepository.class);
+        index = new SensorLocationIndex(sensorRepository, new RTreeSpatialIndex<>(4));
+    }
+
+    @Test
+    @DisplayName("Should keep changes applied while a reload reads the database")
+    void shouldReplayChangesOverReloadSnapshot() {
+        List<SensorLocation> snapshot = List.of(
+                new SensorLocation(moved, 10.0, 50.0),
+                new SensorLocation(deleted, 10.0, 50.0));
+        when(sensorRepository.findAllLocations()).thenAnswer(invocation -> {
+            // Committed after the snapshot was read, applied before the reload finished
+            index.sensorSaved(sensor(moved, 11.0, 51.0));
+            index.sensorSaved(sensor(created, 11.0, 51.0));
+            index.refresh(deleted);
+            return snapshot;
+        });
+        when(sensorRepository.findById(deleted)).thenReturn(Optional.empty());
+
+        index.reload();
+
+        assertThat(index.within(OLD_AREA)).isEmpty();
+        assertThat(index.within(NEW_AREA)).containsExactlyInAnyOrder(moved, created);
+    }
+
+    @Test
+    @DisplayName("Should apply changes directly once no reload is in progress")
+    void shouldApplyChangesAfterReload() {
+        when(sensorRepository.findAllLocations()).thenReturn(List.of(new SensorLocation(moved, 10.0, 50.0)));
+        index.reload();
+
+        index.sensorSaved(sensor(moved, 11.0, 51.0));
+        index.sensorSaved(sensor(created, null, null));
+
+        assertThat(index.within(OLD_AREA)).isEmpty();
+        assertThat(index.within(NEW_AREA)).containsExactly(moved);
+    }
+
+    @Test
+    @DisplayName("Should let a later reload replace positions once the changes are in the database")
+    void shouldNotReplayChangesIntoLaterReloads() {
+        when(sensorRepository.findAllLocations())
+                .thenAnswer(invocation -> {
+                    index.sensorSaved(sensor(moved, 11.0, 51.0));
+                    return List.of(new SensorLocation(moved, 10.0, 50.0));
+                })
+                .thenReturn(List.of(new SensorLocation(moved, 10.0, 50.0)));
+
+        index.reload();
+        assertThat(index.within(NEW_AREA)).containsExactly(moved);
+
+        index.reload();
+        assertThat(index.within(OLD_AREA)).containsExactly(moved);
+    }
+
+    @Test
+    @DisplayName("Should load once for concurrent first queries")
+    void shouldLoadOnceForConcurrentFirstQueries() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sensorRepository.findAllLocations()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new SensorLocation(moved, 10.0, 50.0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UUID>>> queries = new ArrayList<>();
+            queries.add(executor.submit(() -> index.within(OLD_AREA)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                queries.add(executor.submit(() -> index.within(OLD_AREA)));
+            }
+            // Give the other queries time to queue up behind the first load
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<UUID>> query : queries) {
+                assertThat(query.get(5, TimeUnit.SECONDS)).containsExactly(moved);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(sensorRepository, times(1)).findAllLocations();
+    }
+
+    private static Sensor sensor(UUID id, Double lon, Double lat) {
+        Sensor sensor = new Sensor();
+        sensor.setId(id);
+        sensor.setLongitude(lon);
+        sensor.setLatitude(lat);
+        return sensor;
+    }
+}
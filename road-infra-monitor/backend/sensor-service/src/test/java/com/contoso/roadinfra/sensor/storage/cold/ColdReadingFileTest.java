@@ -0,0 +1,118 @@
+package com.contoso.roadinfra.sensor.storage.cold;
+
+import com.contoso.roadinfra.common.constants.DataQuality;
+import com.contoso.roadinfra.sensor.entity.SensorReading;
+import com.contoso.roadinfra.sensor.storage.ReadingAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ColdReadingFileTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @TempDir
+    Path tempDir;
+
+    private UUID sensorId;
+    private List<SensorReading> readings;
+
+    @BeforeEach
+    void setUp() {
+        sensorId = UUID.randomUUID();
+        readings = new ArrayList<>();
+        Instant timestamp = DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+        double value = 120.0;
+        // Spans several blocks with jittered sampling and a few gaps
+        for (int i = 0; i < 3 * ColdReadingFile.BLOCK_SIZE + 17; i++) {
+            timestamp = timestamp.plusMillis(i % 500 == 0 ? 60_000 : 1_000 + (i % 3));
+            value += (i % 2 == 0 ? 0.25 : -0.125);
+            readings.add(SensorReading.builder()
+                    .sensorId(sensorId)
+                    .timestamp(timestamp)
+                    .value(value)
+                    .secondaryValue(i % 4 == 0 ? null : value / 2)
+                    .quality(i % 100 == 0 ? DataQuality.SUSPECT : DataQuality.GOOD)
+                    .anomaly(i % 250 == 0)
+                    .anomalyScore(i % 250 == 0 ? 42.5 : null)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip all columns through the compressed file")
+    void shouldRoundTripReadings() throws Exception {
+        Path file = tempDir.resolve("day.rcol");
+        ColdReadingFile.write(file, sensorId, DAY, readings);
+
+        ColdReadingFile cold = ColdReadingFile.open(file);
+        List<SensorReading> restored = cold.read(Instant.MIN, Instant.MAX);
+
+        assertThat(cold.getSensorId()).isEqualTo(sensorId);
+        assertThat(cold.getDay()).isEqualTo(DAY);
+        assertThat(restored).hasSize(readings.size());
+        for (int i = 0; i < readings.size(); i++) {
+            SensorReading expected = readings.get(i);
+            SensorReading actual = restored.get(i);
+            assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+            assertThat(actual.getValue()).isEqualTo(expected.getValue());
+            assertThat(actual.getSecondaryValue()).isEqualTo(expected.getSecondaryValue());
+            assertThat(actual.getTertiaryValue()).isNull();
+            assertThat(actual.getQuality()).isEqualTo(expected.getQuality());
+            assertThat(actual.getAnomaly()).isEqualTo(expected.getAnomaly());
+            assertThat(actual.getAnomalyScore()).isEqualTo(expected.getAnomalyScore());
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer range reads and stats from overlapping blocks only")
+    void shouldReadAndAggregatePartialRange() throws Exception {
+        Path file = tempDir.resolve("day.rcol");
+        ColdReadingFile.write(file, sensorId, DAY, readings);
+        ColdReadingFile cold = ColdReadingFile.open(file);
+
+        Instant start = readings.get(700).getTimestamp();
+        Instant end = readings.get(2500).getTimestamp();
+        List<SensorReading> expected = readings.subList(700, 2501);
+
+        ReadingAggregate reference = ReadingAggregate.empty();
+        expected.forEach(r -> reference.add(r.getValue(), r.getAnomaly()));
+        ReadingAggregate aggregate = cold.aggregate(start, end);
+
+        assertThat(cold.read(start, end)).hasSize(expected.size());
+        assertThat(aggregate.getCount()).isEqualTo(reference.getCount());
+        assertThat(aggregate.getAnomalyCount()).isEqualTo(reference.getAnomalyCount());
+        assertThat(aggregate.getMin()).isEqualTo(reference.getMin());
+        assertThat(aggregate.getMax()).isEqualTo(reference.getMax());
+        assertThat(aggregate.getAverage()).isCloseTo(reference.getAverage(), within(1e-9));
+        assertThat(aggregate.getStdDeviation()).isCloseTo(reference.getStdDeviation(), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should merge late arrivals into an existing day file without duplicates")
+    void shouldMergeLateArrivals() {
+        ColdStorageService service = new ColdStorageService(true, tempDir.toString());
+        service.compact(sensorId, DAY, readings.subList(0, 2000));
+        service.compact(sensorId, DAY, readings.subList(1500, readings.size()));
+
+        Instant dayStart = DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<SensorReading> restored = service.findInRange(sensorId, dayStart, dayStart.plusSeconds(86_399));
+
+        assertThat(restored).hasSize(readings.size());
+        assertThat(service.findLatest(sensorId))
+                .hasValueSatisfying(latest -> assertThat(latest.getTimestamp())
+                        .isEqualTo(readings.get(readings.size() - 1).getTimestamp()));
+    }
+}
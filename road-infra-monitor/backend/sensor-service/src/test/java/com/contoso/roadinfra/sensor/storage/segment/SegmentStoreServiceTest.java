@@ -0,0 +1,147 @@
+package com.contoso.roadinfra.sensor.storage.segment;
+
+import com.contoso.roadinfra.common.constants.DataQuality;
+import com.contoso.roadinfra.sensor.entity.SensorReading;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SegmentStoreServiceTest {
+
+    private static final int SEGMENT_CAPACITY = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private UUID sensorId;
+    private Instant t0;
+
+    @BeforeEach
+    void setUp() {
+        sensorId = UUID.randomUUID();
+        t0 = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should cover from the first reading appended in this run")
+    void shouldCoverFromFirstAppend() {
+        SegmentStoreService store = newStore();
+
+        append(store, 0, 1, 2);
+
+        assertThat(store.covers(sensorId, at(0))).isTrue();
+        assertThat(store.covers(sensorId, at(0).minusMillis(1))).isFalse();
+        assertThat(store.findInRange(sensorId, at(0), at(2))).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should not cover readings older than the start of the run")
+    void shouldNotCoverBeforeStart() {
+        SegmentStoreService store = newStore();
+        Instant backfilled = Instant.now().minus(1, ChronoUnit.HOURS);
+
+        store.append(reading(backfilled));
+        append(store, 0);
+
+        assertThat(store.covers(sensorId, backfilled)).isFalse();
+        assertThat(store.covers(sensorId, at(0))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep segments across a restart but only cover readings appended after it")
+    void shouldRestartCoverageAfterRestart() throws Exception {
+        SegmentStoreService before = newStore();
+        append(before, 0, 1, 2);
+        before.flush();
+
+        SegmentStoreService after = newStore();
+        after.loadExistingSegments();
+
+        assertThat(after.covers(sensorId, at(0))).isFalse();
+        assertThat(after.findInRange(sensorId, at(0), at(2))).hasSize(3);
+
+        append(after, 3);
+
+        assertThat(after.covers(sensorId, at(3))).isTrue();
+        assertThat(after.covers(sensorId, at(0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should stop covering a sensor up to a reading that failed to append")
+    void shouldResetCoverageOnAppendFailure() throws Exception {
+        SegmentStoreService store = newStore();
+        append(store, 0, 1, 2, 3);
+        assertThat(store.covers(sensorId, at(0))).isTrue();
+
+        // The full segment has to roll, which fails while its directory is a plain file
+        Path sensorDir = tempDir.resolve(sensorId.toString());
+        FileSystemUtils.deleteRecursively(sensorDir);
+        Files.createFile(sensorDir);
+        append(store, 4);
+
+        assertThat(store.covers(sensorId, at(0))).isFalse();
+        assertThat(store.covers(sensorId, at(4))).isFalse();
+
+        Files.delete(sensorDir);
+        append(store, 5);
+
+        assertThat(store.covers(sensorId, at(5))).isTrue();
+        assertThat(store.covers(sensorId, at(4))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not serve from segments while other instances ingest")
+    void shouldNotCoverWhilePeersPresent() {
+        SegmentStoreService store = newStore();
+        append(store, 0);
+
+        store.updatePeers(1);
+        append(store, 1);
+        assertThat(store.covers(sensorId, at(1))).isFalse();
+
+        store.updatePeers(0);
+        assertThat(store.covers(sensorId, at(0))).isFalse();
+
+        append(store, 2);
+        assertThat(store.covers(sensorId, at(2))).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private SegmentStoreService newStore() {
+        return new SegmentStoreService(true, tempDir.toString(), 72, SEGMENT_CAPACITY, 6,
+                "sensor-service", mock(ObjectProvider.class));
+    }
+
+    private void append(SegmentStoreService store, int... seconds) {
+        for (int second : seconds) {
+            store.append(reading(at(second)));
+        }
+    }
+
+    private Instant at(int second) {
+        return t0.plusSeconds(second);
+    }
+
+    private SensorReading reading(Instant timestamp) {
+        return SensorReading.builder()
+                .sensorId(sensorId)
+                .timestamp(timestamp)
+                .value(1.0)
+                .quality(DataQuality.GOOD)
+                .anomaly(false)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.contoso.monitoring.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login throughput under a shift-change burst: many clients logging in at once with
+ * valid credentials, cycling through the test users.
+ *
+ * Reports logins per second and latency percentiles. Responses of 429 (gateway rate
+ * limit) and 503 (hashing pool saturated) are counted as shed load, not failures; any
+ * other error fails the test. Tune with {@code -Dlogin.load.clients=200},
+ * {@code -Dlogin.load.duration-seconds=30} and, to enforce a floor,
+ * {@code -Dlogin.load.min-throughput=50}.
+ */
+class LoginThroughputIT extends BaseIntegrationTest {
+
+    private static final int CLIENTS = Integer.getInteger("login.load.clients", 100);
+    private static final int DURATION_SECONDS = Integer.getInteger("login.load.duration-seconds", 20);
+    private static final long SHED_BACKOFF_MS = 100;
+    private static final double MIN_THROUGHPUT = Double.parseDouble(System.getProperty("login.load.min-throughput", "0"));
+
+    @Test
+    void loginThroughputUnderConcurrentLogins() throws Exception {
+        List<TestUser> users = new ArrayList<>(TEST_USERS.values());
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(DURATION_SECONDS).toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<long[]>> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                TestUser user = users.get(i % users.size());
+                clients.add(executor.submit(() -> runClient(client, user, deadline, succeeded, shed, failed)));
+            }
+            for (Future<long[]> result : clients) {
+                latencies.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double throughput = succeeded.get() / (double) DURATION_SECONDS;
+        log.info("Login load: {} clients for {}s, {} ok ({} /s), {} shed, {} failed",
+                CLIENTS, DURATION_SECONDS, succeeded.get(), String.format("%.1f", throughput), shed.get(), failed.get());
+        if (all.length > 0) {
+            log.info("Login latency ms: p50={} p90={} p99={} max={}",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1]);
+        }
+
+        assertThat(failed.get()).as("logins failing with errors other than 429/503").isZero();
+        assertThat(succeeded.get()).isPositive();
+        assertThat(throughput).as("successful logins per second").isGreaterThanOrEqualTo(MIN_THROUGHPUT);
+    }
+
+    /**
+     * Log in repeatedly until the deadline.
+     *
+     * @return latencies of the successful logins, in milliseconds
+     */
+    private long[] runClient(HttpClient client, TestUser user, long deadline,
+                             AtomicLong succeeded, AtomicLong shed, AtomicLong failed) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiGatewayUrl + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + user.username() + "\",\"password\":\"" + user.password() + "\"}"))
+                .build();
+
+        List<Long> latencies = new ArrayList<>();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status == 200) {
+                    succeeded.incrementAndGet();
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                } else if (status == 429 || status == 503) {
+                    shed.incrementAndGet();
+                    Thread.sleep(SHED_BACKOFF_MS);
+                } else {
+                    failed.incrementAndGet();
+                    log.warn("Login as {} returned {}", user.username(), status);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.warn("Login as {} failed: {}", user.username(), e.getMessage());
+            }
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}